@@ -0,0 +1,147 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.benchmark.collection;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * @author Tao Chen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListBenchmark {
+    
+    @Param({
+        "JDK_ARRAY_LIST", 
+        "X_ARRAY_LIST", 
+        "MA_ARRAY_LIST", 
+        "JDK_LINKED_LIST", 
+        "X_LINKED_LIST", 
+        "MA_LINKED_LIST"
+    })
+    private ListKind kind;
+    
+    @Param({ "100", "10000" })
+    private int size;
+    
+    private Integer[] elements;
+    
+    private int[] indexes;
+    
+    private int cursor;
+    
+    private List<Integer> list;
+    
+    private List<Integer> subList;
+    
+    @Setup
+    public void setup() {
+        this.elements = Keys.shuffled(this.size, 17L);
+        java.util.Random random = new java.util.Random(31L);
+        this.indexes = new int[1024];
+        for (int i = this.indexes.length - 1; i >= 0; i--) {
+            this.indexes[i] = random.nextInt(this.size);
+        }
+        this.list = this.kind.create();
+        for (Integer element : this.elements) {
+            this.list.add(element);
+        }
+        this.subList = this.list.subList(this.size / 4, this.size * 3 / 4);
+    }
+    
+    @Benchmark
+    public Integer get() {
+        return this.list.get(this.nextIndex());
+    }
+    
+    @Benchmark
+    public Integer set() {
+        int index = this.nextIndex();
+        return this.list.set(index, this.elements[index]);
+    }
+    
+    @Benchmark
+    public Integer addRemoveTail() {
+        List<Integer> list = this.list;
+        list.add(this.elements[0]);
+        return list.remove(list.size() - 1);
+    }
+    
+    @Benchmark
+    public Integer addRemoveHead() {
+        List<Integer> list = this.list;
+        list.add(0, this.elements[0]);
+        return list.remove(0);
+    }
+    
+    @Benchmark
+    public boolean containsAndRemoveObject() {
+        List<Integer> list = this.list;
+        Integer element = this.elements[this.nextIndex()];
+        if (list.remove(element)) {
+            list.add(element);
+            return true;
+        }
+        return false;
+    }
+    
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        for (Integer element : this.list) {
+            blackhole.consume(element);
+        }
+    }
+    
+    @Benchmark
+    public void iterateSubList(Blackhole blackhole) {
+        for (Iterator<Integer> itr = this.subList.iterator(); itr.hasNext();) {
+            blackhole.consume(itr.next());
+        }
+    }
+    
+    @Benchmark
+    public Integer addRemoveSubList() {
+        List<Integer> subList = this.subList;
+        subList.add(this.elements[0]);
+        return subList.remove(subList.size() - 1);
+    }
+    
+    private int nextIndex() {
+        int[] indexes = this.indexes;
+        return indexes[this.cursor++ & (indexes.length - 1)];
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.benchmark.collection;
+
+import java.util.List;
+
+import org.babyfish.collection.ArrayList;
+import org.babyfish.collection.LinkedList;
+import org.babyfish.collection.MAArrayList;
+import org.babyfish.collection.MALinkedList;
+
+/**
+ * The list implementations compared by the benchmarks.
+ * 
+ * <p>
+ * The prefix "JDK_" means the collection of java.util,
+ * the prefix "X_" means the collection of X Collection Framework,
+ * the prefix "MA_" means the collection of MA Collection Framework.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public enum ListKind {
+    
+    JDK_ARRAY_LIST {
+        @Override
+        <E> List<E> create() {
+            return new java.util.ArrayList<>();
+        }
+    },
+    X_ARRAY_LIST {
+        @Override
+        <E> List<E> create() {
+            return new ArrayList<>();
+        }
+    },
+    MA_ARRAY_LIST {
+        @Override
+        <E> List<E> create() {
+            return new MAArrayList<>();
+        }
+    },
+    JDK_LINKED_LIST {
+        @Override
+        <E> List<E> create() {
+            return new java.util.LinkedList<>();
+        }
+    },
+    X_LINKED_LIST {
+        @Override
+        <E> List<E> create() {
+            return new LinkedList<>();
+        }
+    },
+    MA_LINKED_LIST {
+        @Override
+        <E> List<E> create() {
+            return new MALinkedList<>();
+        }
+    };
+    
+    abstract <E> List<E> create();
+}
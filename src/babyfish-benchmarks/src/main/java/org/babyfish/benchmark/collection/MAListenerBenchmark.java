@@ -0,0 +1,167 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.benchmark.collection;
+
+import java.util.concurrent.TimeUnit;
+
+import org.babyfish.collection.MAArrayList;
+import org.babyfish.collection.MAHashMap;
+import org.babyfish.collection.MALinkedList;
+import org.babyfish.collection.MAList;
+import org.babyfish.collection.MAMap;
+import org.babyfish.collection.event.ElementEvent;
+import org.babyfish.collection.event.ElementListener;
+import org.babyfish.collection.event.MapElementEvent;
+import org.babyfish.collection.event.MapElementListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of the event notification of the MA collections
+ * when 0, 1 or N listeners are attached.
+ * 
+ * @author Tao Chen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MAListenerBenchmark {
+    
+    @Param({ "0", "1", "4" })
+    private int listenerCount;
+    
+    @Param({ "1000" })
+    private int size;
+    
+    private Integer[] keys;
+    
+    private int cursor;
+    
+    private MAList<Integer> arrayList;
+    
+    private MAList<Integer> linkedList;
+    
+    private MAMap<Integer, Integer> hashMap;
+    
+    @Setup
+    public void setup() {
+        this.keys = Keys.shuffled(this.size, 17L);
+        this.arrayList = new MAArrayList<>();
+        this.linkedList = new MALinkedList<>();
+        this.hashMap = new MAHashMap<>();
+        for (Integer key : this.keys) {
+            this.arrayList.add(key);
+            this.linkedList.add(key);
+            this.hashMap.put(key, key);
+        }
+        for (int i = 0; i < this.listenerCount; i++) {
+            this.arrayList.addElementListener(new CountingElementListener<>());
+            this.linkedList.addElementListener(new CountingElementListener<>());
+            this.hashMap.addMapElementListener(new CountingMapElementListener<>());
+        }
+    }
+    
+    @Benchmark
+    public Integer arrayListAddRemove() {
+        MAList<Integer> list = this.arrayList;
+        list.add(this.keys[0]);
+        return list.remove(list.size() - 1);
+    }
+    
+    @Benchmark
+    public Integer arrayListSet() {
+        int index = this.nextIndex();
+        return this.arrayList.set(index, this.keys[index]);
+    }
+    
+    @Benchmark
+    public Integer linkedListAddRemove() {
+        MAList<Integer> list = this.linkedList;
+        list.add(0, this.keys[0]);
+        return list.remove(0);
+    }
+    
+    @Benchmark
+    public Integer hashMapPutReplace() {
+        Integer key = this.keys[this.nextIndex()];
+        return this.hashMap.put(key, key);
+    }
+    
+    @Benchmark
+    public Integer hashMapPutRemove() {
+        MAMap<Integer, Integer> map = this.hashMap;
+        Integer key = this.keys[this.nextIndex()];
+        Integer value = map.remove(key);
+        map.put(key, value);
+        return value;
+    }
+    
+    private int nextIndex() {
+        int index = this.cursor++;
+        if (this.cursor == this.size) {
+            this.cursor = 0;
+        }
+        return index;
+    }
+    
+    private static class CountingElementListener<E> implements ElementListener<E> {
+        
+        int modifyingCount;
+        
+        int modifiedCount;
+
+        @Override
+        public void modifying(ElementEvent<E> e) throws Throwable {
+            this.modifyingCount++;
+        }
+
+        @Override
+        public void modified(ElementEvent<E> e) throws Throwable {
+            this.modifiedCount++;
+        }
+    }
+    
+    private static class CountingMapElementListener<K, V> implements MapElementListener<K, V> {
+        
+        int modifyingCount;
+        
+        int modifiedCount;
+
+        @Override
+        public void modifying(MapElementEvent<K, V> e) throws Throwable {
+            this.modifyingCount++;
+        }
+
+        @Override
+        public void modified(MapElementEvent<K, V> e) throws Throwable {
+            this.modifiedCount++;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.benchmark.collection;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * @author Tao Chen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapBenchmark {
+    
+    @Param({
+        "JDK_HASH_MAP", 
+        "X_HASH_MAP", 
+        "MA_HASH_MAP", 
+        "X_OPEN_HASH_MAP", 
+        "MA_OPEN_HASH_MAP", 
+        "JDK_LINKED_HASH_MAP", 
+        "X_LINKED_HASH_MAP", 
+        "MA_LINKED_HASH_MAP",
+        "JDK_TREE_MAP",
+        "X_TREE_MAP",
+        "MA_TREE_MAP"
+    })
+    private MapKind kind;
+    
+    @Param({ "100", "10000" })
+    private int size;
+    
+    private Integer[] keys;
+    
+    private Integer[] missingKeys;
+    
+    private int cursor;
+    
+    private Map<Integer, Integer> map;
+    
+    @Setup
+    public void setup() {
+        this.keys = Keys.shuffled(this.size, 17L);
+        this.missingKeys = new Integer[this.size];
+        for (int i = this.size - 1; i >= 0; i--) {
+            this.missingKeys[i] = this.keys[i] + this.size;
+        }
+        this.map = this.kind.create();
+        for (Integer key : this.keys) {
+            this.map.put(key, key);
+        }
+    }
+    
+    @Benchmark
+    public Integer getHit() {
+        return this.map.get(this.keys[this.nextIndex()]);
+    }
+    
+    @Benchmark
+    public Integer getMiss() {
+        return this.map.get(this.missingKeys[this.nextIndex()]);
+    }
+    
+    @Benchmark
+    public Integer putReplace() {
+        Integer key = this.keys[this.nextIndex()];
+        return this.map.put(key, key);
+    }
+    
+    @Benchmark
+    public Integer putRemove() {
+        Map<Integer, Integer> map = this.map;
+        Integer key = this.missingKeys[this.nextIndex()];
+        map.put(key, key);
+        return map.remove(key);
+    }
+    
+    @Benchmark
+    public void iterateEntries(Blackhole blackhole) {
+        for (Entry<Integer, Integer> e : this.map.entrySet()) {
+            blackhole.consume(e.getKey());
+            blackhole.consume(e.getValue());
+        }
+    }
+    
+    @Benchmark
+    public void iterateKeys(Blackhole blackhole) {
+        for (Integer key : this.map.keySet()) {
+            blackhole.consume(key);
+        }
+    }
+    
+    @Benchmark
+    public void iterateValues(Blackhole blackhole) {
+        for (Integer value : this.map.values()) {
+            blackhole.consume(value);
+        }
+    }
+    
+    private int nextIndex() {
+        int index = this.cursor++;
+        if (this.cursor == this.size) {
+            this.cursor = 0;
+        }
+        return index;
+    }
+}
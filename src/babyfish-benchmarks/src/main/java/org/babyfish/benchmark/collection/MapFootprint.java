@@ -0,0 +1,83 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.benchmark.collection;
+
+import java.util.Map;
+
+/**
+ * Measures the retained heap of each hash map implementation, the JMH 
+ * benchmarks can only measure the time and the allocation rate.
+ * 
+ * <p>
+ * Run it with 
+ * "java -cp target/benchmarks.jar org.babyfish.benchmark.collection.MapFootprint [size]".
+ * The keys are shared by all the maps and are created before the 
+ * measurement, so only the memory of the map structure is counted.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public class MapFootprint {
+    
+    private static final MapKind[] KINDS = {
+        MapKind.JDK_HASH_MAP,
+        MapKind.X_HASH_MAP,
+        MapKind.X_OPEN_HASH_MAP,
+        MapKind.MA_HASH_MAP,
+        MapKind.MA_OPEN_HASH_MAP
+    };
+    
+    protected MapFootprint() {
+        throw new UnsupportedOperationException();
+    }
+
+    public static void main(String[] args) {
+        int size = args.length == 0 ? 1000000 : Integer.parseInt(args[0]);
+        Integer[] keys = Keys.shuffled(size, 17L);
+        for (MapKind kind : KINDS) {
+            long before = usedMemory();
+            Map<Integer, Integer> map = kind.create();
+            for (Integer key : keys) {
+                map.put(key, key);
+            }
+            long after = usedMemory();
+            if (map.size() != size) {
+                throw new AssertionError();
+            }
+            System.out.printf(
+                    "%-20s %8.1f bytes/entry%n", 
+                    kind, 
+                    (after - before) / (double)size);
+        }
+    }
+    
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        // Stop when the garbage collection makes no more progress
+        for (int i = 0; i < 20; i++) {
+            System.gc();
+            long newUsed = runtime.totalMemory() - runtime.freeMemory();
+            if (newUsed >= used) {
+                return newUsed;
+            }
+            used = newUsed;
+        }
+        return used;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.benchmark.collection;
+
+import java.util.Map;
+
+import org.babyfish.collection.HashMap;
+import org.babyfish.collection.HashTableType;
+import org.babyfish.collection.LinkedHashMap;
+import org.babyfish.collection.MAHashMap;
+import org.babyfish.collection.MALinkedHashMap;
+import org.babyfish.collection.MATreeMap;
+import org.babyfish.collection.TreeMap;
+
+/**
+ * The map implementations compared by the benchmarks.
+ * 
+ * <p>
+ * The prefix "JDK_" means the collection of java.util,
+ * the prefix "X_" means the collection of X Collection Framework,
+ * the prefix "MA_" means the collection of MA Collection Framework.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public enum MapKind {
+    
+    JDK_HASH_MAP {
+        @Override
+        <K, V> Map<K, V> create() {
+            return new java.util.HashMap<>();
+        }
+    },
+    X_HASH_MAP {
+        @Override
+        <K, V> Map<K, V> create() {
+            return new HashMap<>();
+        }
+    },
+    MA_HASH_MAP {
+        @Override
+        <K, V> Map<K, V> create() {
+            return new MAHashMap<>();
+        }
+    },
+    X_OPEN_HASH_MAP {
+        @Override
+        <K, V> Map<K, V> create() {
+            return new HashMap<>(HashTableType.OPEN_ADDRESSING);
+        }
+    },
+    MA_OPEN_HASH_MAP {
+        @Override
+        <K, V> Map<K, V> create() {
+            return new MAHashMap<>(HashTableType.OPEN_ADDRESSING);
+        }
+    },
+    JDK_LINKED_HASH_MAP {
+        @Override
+        <K, V> Map<K, V> create() {
+            return new java.util.LinkedHashMap<>();
+        }
+    },
+    X_LINKED_HASH_MAP {
+        @Override
+        <K, V> Map<K, V> create() {
+            return new LinkedHashMap<>();
+        }
+    },
+    MA_LINKED_HASH_MAP {
+        @Override
+        <K, V> Map<K, V> create() {
+            return new MALinkedHashMap<>();
+        }
+    },
+    JDK_TREE_MAP {
+        @Override
+        <K, V> Map<K, V> create() {
+            return new java.util.TreeMap<>();
+        }
+    },
+    X_TREE_MAP {
+        @Override
+        <K, V> Map<K, V> create() {
+            return new TreeMap<>();
+        }
+    },
+    MA_TREE_MAP {
+        @Override
+        <K, V> Map<K, V> create() {
+            return new MATreeMap<>();
+        }
+    };
+    
+    abstract <K, V> Map<K, V> create();
+}
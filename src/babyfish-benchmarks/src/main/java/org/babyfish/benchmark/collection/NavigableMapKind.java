@@ -0,0 +1,58 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.benchmark.collection;
+
+import java.util.NavigableMap;
+
+import org.babyfish.collection.MATreeMap;
+import org.babyfish.collection.TreeMap;
+
+/**
+ * The navigable map implementations compared by the benchmarks.
+ * 
+ * <p>
+ * The prefix "JDK_" means the collection of java.util,
+ * the prefix "X_" means the collection of X Collection Framework,
+ * the prefix "MA_" means the collection of MA Collection Framework.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public enum NavigableMapKind {
+    
+    JDK_TREE_MAP {
+        @Override
+        <K, V> NavigableMap<K, V> create() {
+            return new java.util.TreeMap<>();
+        }
+    },
+    X_TREE_MAP {
+        @Override
+        <K, V> NavigableMap<K, V> create() {
+            return new TreeMap<>();
+        }
+    },
+    MA_TREE_MAP {
+        @Override
+        <K, V> NavigableMap<K, V> create() {
+            return new MATreeMap<>();
+        }
+    };
+    
+    abstract <K, V> NavigableMap<K, V> create();
+}
@@ -0,0 +1,126 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.benchmark.collection;
+
+import java.util.NavigableMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the views of navigable maps, such as subMap, headMap and tailMap.
+ * 
+ * @author Tao Chen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NavigableMapViewBenchmark {
+    
+    @Param({ "JDK_TREE_MAP", "X_TREE_MAP", "MA_TREE_MAP" })
+    private NavigableMapKind kind;
+    
+    @Param({ "100", "10000" })
+    private int size;
+    
+    private Integer[] keys;
+    
+    private int cursor;
+    
+    private NavigableMap<Integer, Integer> map;
+    
+    private NavigableMap<Integer, Integer> subMap;
+    
+    @Setup
+    public void setup() {
+        this.keys = Keys.shuffled(this.size, 17L);
+        this.map = this.kind.create();
+        for (Integer key : this.keys) {
+            this.map.put(key, key);
+        }
+        this.subMap = this.map.subMap(this.size / 4, true, this.size * 3 / 4, false);
+    }
+    
+    @Benchmark
+    public NavigableMap<Integer, Integer> createSubMap() {
+        Integer key = this.keys[this.nextIndex()];
+        return this.map.subMap(key, true, key + this.size / 10, false);
+    }
+    
+    @Benchmark
+    public Integer subMapGet() {
+        return this.subMap.get(this.keys[this.nextIndex()]);
+    }
+    
+    @Benchmark
+    public Integer subMapPutRemove() {
+        NavigableMap<Integer, Integer> subMap = this.subMap;
+        Integer key = subMap.firstKey();
+        Integer value = subMap.remove(key);
+        subMap.put(key, value);
+        return value;
+    }
+    
+    @Benchmark
+    public int subMapSize() {
+        return this.subMap.size();
+    }
+    
+    @Benchmark
+    public void iterateSubMap(Blackhole blackhole) {
+        for (Integer key : this.subMap.keySet()) {
+            blackhole.consume(key);
+        }
+    }
+    
+    @Benchmark
+    public void iterateHeadMap(Blackhole blackhole) {
+        for (Integer value : this.map.headMap(this.size / 2).values()) {
+            blackhole.consume(value);
+        }
+    }
+    
+    @Benchmark
+    public void iterateDescendingTailMap(Blackhole blackhole) {
+        for (Integer key : this.map.tailMap(this.size / 2, true).descendingKeySet()) {
+            blackhole.consume(key);
+        }
+    }
+    
+    private int nextIndex() {
+        int index = this.cursor++;
+        if (this.cursor == this.size) {
+            this.cursor = 0;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,1122 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.babyfish.collection.spi.base.BasicAlgorithms;
+import org.babyfish.collection.viewinfo.CollectionViewInfos;
+import org.babyfish.collection.viewinfo.MapViewInfos;
+import org.babyfish.data.ViewInfo;
+import org.babyfish.lang.Arguments;
+import org.babyfish.validator.Validator;
+
+/**
+ * A thread-safe {@link XMap} which splits its entries into several segments.
+ *
+ * <p>
+ * Each segment is a {@link HashMap} guarded by its own read-write lock, so 
+ * readers never block each other and writers only block the threads that 
+ * access the same segment, unlike the single lock of 
+ * {@link MACollections#locking(XMap, java.util.concurrent.locks.ReadWriteLock)}.
+ * The key {@link EqualityComparator}, value {@link EqualityComparator} and 
+ * {@link ReplacementRule} are honored by every segment.
+ * </p>
+ *
+ * <p>
+ * The views and their iterators are weakly consistent, like 
+ * {@link java.util.concurrent.ConcurrentHashMap}: each segment is copied 
+ * under its read lock when the iterator reaches it, the iterators never throw
+ * {@link java.util.ConcurrentModificationException}. 
+ * {@link #size()}, {@link #equals(Object)} and {@link #hashCode()} are not
+ * atomic snapshots of the whole map either.
+ * </p>
+ *
+ * <p>
+ * The {@link FrozenEqualityComparator} is not supported because the segment 
+ * of a key is chosen by its hash code, it can not be moved to another segment 
+ * when the key is changed. {@link BidiType} is always {@link BidiType#NONE}.
+ * </p>
+ *
+ * @author Tao Chen
+ */
+public class ConcurrentHashMap<K, V> implements XMap<K, V>, Serializable {
+    
+    private static final long serialVersionUID = 2409718264069525806L;
+    
+    private static final int DEFAULT_INIT_CAPACITY = 16;
+    
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+    
+    private static final int MAX_SEGMENT_COUNT = 1 << 16;
+
+    private final Segment<K, V>[] segments;
+    
+    private final int segmentShift;
+    
+    private transient EntrySetView<K, V> entrySet;
+    
+    private transient KeySetView<K, V> keySet;
+    
+    private transient ValuesView<K, V> values;
+    
+    public ConcurrentHashMap() {
+        this(ReplacementRule.NEW_REFERENCE_WIN, null, null, DEFAULT_INIT_CAPACITY, DEFAULT_CONCURRENCY_LEVEL);
+    }
+    
+    public ConcurrentHashMap(ReplacementRule keyReplacementRule) {
+        this(keyReplacementRule, null, null, DEFAULT_INIT_CAPACITY, DEFAULT_CONCURRENCY_LEVEL);
+    }
+    
+    public ConcurrentHashMap(EqualityComparator<? super K> keyEqualityComparator) {
+        this(ReplacementRule.NEW_REFERENCE_WIN, keyEqualityComparator, null, DEFAULT_INIT_CAPACITY, DEFAULT_CONCURRENCY_LEVEL);
+    }
+    
+    public ConcurrentHashMap(
+            EqualityComparator<? super K> keyEqualityComparator,
+            EqualityComparator<? super V> valueEqualityComparator) {
+        this(
+                ReplacementRule.NEW_REFERENCE_WIN, 
+                keyEqualityComparator, 
+                valueEqualityComparator, 
+                DEFAULT_INIT_CAPACITY, 
+                DEFAULT_CONCURRENCY_LEVEL);
+    }
+    
+    public ConcurrentHashMap(
+            ReplacementRule keyReplacementRule,
+            EqualityComparator<? super K> keyEqualityComparator) {
+        this(keyReplacementRule, keyEqualityComparator, null, DEFAULT_INIT_CAPACITY, DEFAULT_CONCURRENCY_LEVEL);
+    }
+    
+    public ConcurrentHashMap(int initCapacity, int concurrencyLevel) {
+        this(ReplacementRule.NEW_REFERENCE_WIN, null, null, initCapacity, concurrencyLevel);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ConcurrentHashMap(
+            ReplacementRule keyReplacementRule,
+            EqualityComparator<? super K> keyEqualityComparator,
+            EqualityComparator<? super V> valueEqualityComparator,
+            int initCapacity,
+            int concurrencyLevel) {
+        Arguments.mustNotBeInstanceOfValue(
+                "keyEqualityComparator", 
+                keyEqualityComparator, 
+                FrozenEqualityComparator.class);
+        Arguments.mustBeGreaterThanOrEqualToValue("initCapacity", initCapacity, 0);
+        Arguments.mustBeGreaterThanValue("concurrencyLevel", concurrencyLevel, 0);
+        int segmentCount = 1;
+        int segmentBits = 0;
+        while (segmentCount < concurrencyLevel && segmentCount < MAX_SEGMENT_COUNT) {
+            segmentCount <<= 1;
+            segmentBits++;
+        }
+        int segmentCapacity = Math.max((initCapacity + segmentCount - 1) / segmentCount, 2);
+        Segment<K, V>[] segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<K, V>(
+                    new HashMap<K, V>(
+                            keyReplacementRule != null ? keyReplacementRule : ReplacementRule.NEW_REFERENCE_WIN,
+                            keyEqualityComparator,
+                            valueEqualityComparator,
+                            segmentCapacity,
+                            .75F
+                    )
+            );
+        }
+        this.segments = segments;
+        this.segmentShift = 32 - segmentBits;
+    }
+    
+    public ConcurrentHashMap(Map<? extends K, ? extends V> m) {
+        this(ReplacementRule.NEW_REFERENCE_WIN, null, null, m.size(), DEFAULT_CONCURRENCY_LEVEL);
+        this.putAll(m);
+    }
+
+    @Override
+    public boolean isReadWriteLockSupported() {
+        // The locks of the segments are managed by this map itself
+        return false;
+    }
+
+    @Override
+    public BidiType bidiType() {
+        return BidiType.NONE;
+    }
+
+    @Override
+    public ReplacementRule keyReplacementRule() {
+        return this.segments[0].map.keyReplacementRule();
+    }
+
+    @Override
+    public UnifiedComparator<? super K> keyUnifiedComparator() {
+        return this.segments[0].map.keyUnifiedComparator();
+    }
+
+    @Override
+    public UnifiedComparator<? super V> valueUnifiedComparator() {
+        return this.segments[0].map.valueUnifiedComparator();
+    }
+
+    @Override
+    public UnifiedComparator<? super Entry<K, V>> entryUnifiedComparator() {
+        return this.segments[0].map.entryUnifiedComparator();
+    }
+
+    @Override
+    public void addKeyValidator(Validator<K> validator) {
+        for (Segment<K, V> segment : this.segments) {
+            Lock lock = segment.writeLock();
+            lock.lock();
+            try {
+                segment.map.addKeyValidator(validator);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void removeKeyValidator(Validator<K> validator) {
+        for (Segment<K, V> segment : this.segments) {
+            Lock lock = segment.writeLock();
+            lock.lock();
+            try {
+                segment.map.removeKeyValidator(validator);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void validateKey(K key) {
+        Segment<K, V> segment = this.segments[0];
+        Lock lock = segment.readLock();
+        lock.lock();
+        try {
+            segment.map.validateKey(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void addValueValidator(Validator<V> validator) {
+        for (Segment<K, V> segment : this.segments) {
+            Lock lock = segment.writeLock();
+            lock.lock();
+            try {
+                segment.map.addValueValidator(validator);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void removeValueValidator(Validator<V> validator) {
+        for (Segment<K, V> segment : this.segments) {
+            Lock lock = segment.writeLock();
+            lock.lock();
+            try {
+                segment.map.removeValueValidator(validator);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void validateValue(V value) {
+        Segment<K, V> segment = this.segments[0];
+        Lock lock = segment.readLock();
+        lock.lock();
+        try {
+            segment.map.validateValue(value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public XEntry<K, V> entryOfKey(K key) {
+        Segment<K, V> segment = this.segmentFor(key);
+        Lock lock = segment.readLock();
+        lock.lock();
+        try {
+            XEntry<K, V> entry = segment.map.entryOfKey(key);
+            if (entry == null) {
+                return null;
+            }
+            return new EntryImpl<>(this, entry.getKey(), entry.getValue(), MapViewInfos.entryOfKey(key));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public XEntry<K, V> entryOfValue(V value) {
+        for (Segment<K, V> segment : this.segments) {
+            Lock lock = segment.readLock();
+            lock.lock();
+            try {
+                XEntry<K, V> entry = segment.map.entryOfValue(value);
+                if (entry != null) {
+                    return new EntryImpl<>(this, entry.getKey(), entry.getValue(), MapViewInfos.entryOfValue(value));
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int size() {
+        long size = 0;
+        for (Segment<K, V> segment : this.segments) {
+            Lock lock = segment.readLock();
+            lock.lock();
+            try {
+                size += segment.map.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+        return size > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int)size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (Segment<K, V> segment : this.segments) {
+            Lock lock = segment.readLock();
+            lock.lock();
+            try {
+                if (!segment.map.isEmpty()) {
+                    return false;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        Segment<K, V> segment = this.segmentFor(key);
+        Lock lock = segment.readLock();
+        lock.lock();
+        try {
+            return segment.map.containsKey(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for (Segment<K, V> segment : this.segments) {
+            Lock lock = segment.readLock();
+            lock.lock();
+            try {
+                if (segment.map.containsValue(value)) {
+                    return true;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public V get(Object key) {
+        Segment<K, V> segment = this.segmentFor(key);
+        Lock lock = segment.readLock();
+        lock.lock();
+        try {
+            return segment.map.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        Segment<K, V> segment = this.segmentFor(key);
+        Lock lock = segment.readLock();
+        lock.lock();
+        try {
+            return segment.map.getOrDefault(key, defaultValue);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public V put(K key, V value) {
+        Segment<K, V> segment = this.segmentFor(key);
+        Lock lock = segment.writeLock();
+        lock.lock();
+        try {
+            return segment.map.put(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        for (Entry<? extends K, ? extends V> e : m.entrySet()) {
+            this.put(e.getKey(), e.getValue());
+        }
+    }
+
+    @Override
+    public V remove(Object key) {
+        Segment<K, V> segment = this.segmentFor(key);
+        Lock lock = segment.writeLock();
+        lock.lock();
+        try {
+            return segment.map.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (Segment<K, V> segment : this.segments) {
+            Lock lock = segment.writeLock();
+            lock.lock();
+            try {
+                segment.map.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        Segment<K, V> segment = this.segmentFor(key);
+        Lock lock = segment.writeLock();
+        lock.lock();
+        try {
+            return segment.map.putIfAbsent(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        Segment<K, V> segment = this.segmentFor(key);
+        Lock lock = segment.writeLock();
+        lock.lock();
+        try {
+            return segment.map.remove(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        Segment<K, V> segment = this.segmentFor(key);
+        Lock lock = segment.writeLock();
+        lock.lock();
+        try {
+            return segment.map.replace(key, oldValue, newValue);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        Segment<K, V> segment = this.segmentFor(key);
+        Lock lock = segment.writeLock();
+        lock.lock();
+        try {
+            return segment.map.replace(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The mapping function is invoked while the segment of the key is locked,
+     * it must be short and must not modify this map.
+     */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        Segment<K, V> segment = this.segmentFor(key);
+        Lock lock = segment.writeLock();
+        lock.lock();
+        try {
+            return segment.map.computeIfAbsent(key, mappingFunction);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The remapping function is invoked while the segment of the key is locked,
+     * it must be short and must not modify this map.
+     */
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Segment<K, V> segment = this.segmentFor(key);
+        Lock lock = segment.writeLock();
+        lock.lock();
+        try {
+            return segment.map.computeIfPresent(key, remappingFunction);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The remapping function is invoked while the segment of the key is locked,
+     * it must be short and must not modify this map.
+     */
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Segment<K, V> segment = this.segmentFor(key);
+        Lock lock = segment.writeLock();
+        lock.lock();
+        try {
+            return segment.map.compute(key, remappingFunction);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The remapping function is invoked while the segment of the key is locked,
+     * it must be short and must not modify this map.
+     */
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Segment<K, V> segment = this.segmentFor(key);
+        Lock lock = segment.writeLock();
+        lock.lock();
+        try {
+            return segment.map.merge(key, value, remappingFunction);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public XEntrySetView<K, V> entrySet() {
+        EntrySetView<K, V> entrySet = this.entrySet;
+        if (entrySet == null) {
+            this.entrySet = entrySet = new EntrySetView<>(this);
+        }
+        return entrySet;
+    }
+
+    @Override
+    public XKeySetView<K> keySet() {
+        KeySetView<K, V> keySet = this.keySet;
+        if (keySet == null) {
+            this.keySet = keySet = new KeySetView<>(this);
+        }
+        return keySet;
+    }
+
+    @Override
+    public XValuesView<V> values() {
+        ValuesView<K, V> values = this.values;
+        if (values == null) {
+            this.values = values = new ValuesView<>(this);
+        }
+        return values;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for (Segment<K, V> segment : this.segments) {
+            Lock lock = segment.readLock();
+            lock.lock();
+            try {
+                h += segment.map.hashCode();
+            } finally {
+                lock.unlock();
+            }
+        }
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return BasicAlgorithms.mapEquals(this, obj);
+    }
+
+    @Override
+    public String toString() {
+        return BasicAlgorithms.mapToString(this);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Segment<K, V> segmentFor(Object key) {
+        Segment<K, V>[] segments = this.segments;
+        if (segments.length == 1) {
+            return segments[0];
+        }
+        int h = key == null ? 0 : this.keyUnifiedComparator().hashCode((K)key);
+        // Spread the hash code so the high bits which choose the segment depend on all the bits
+        h += (h << 15) ^ 0xffffcd7d;
+        h ^= (h >>> 10);
+        h += (h << 3);
+        h ^= (h >>> 6);
+        h += (h << 2) + (h << 14);
+        h ^= (h >>> 16);
+        return segments[h >>> this.segmentShift];
+    }
+    
+    private static class Segment<K, V> extends ReentrantReadWriteLock {
+
+        private static final long serialVersionUID = -4880154419722002863L;
+        
+        final HashMap<K, V> map;
+        
+        Segment(HashMap<K, V> map) {
+            this.map = map;
+        }
+    }
+    
+    private static abstract class AbstractIteratorImpl<K, V, E> implements XCollection.XIterator<E> {
+        
+        ConcurrentHashMap<K, V> parentMap;
+        
+        private int segmentIndex;
+        
+        // Keys and values of the copied segment, [key0, value0, key1, value1, ...]
+        private Object[] pairs;
+        
+        private int pairIndex;
+        
+        K currentKey;
+        
+        V currentValue;
+        
+        private boolean hasCurrent;
+        
+        AbstractIteratorImpl(ConcurrentHashMap<K, V> parentMap) {
+            this.parentMap = parentMap;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (this.pairs == null || this.pairIndex >= this.pairs.length) {
+                Segment<K, V>[] segments = this.parentMap.segments;
+                if (this.segmentIndex >= segments.length) {
+                    return false;
+                }
+                this.pairs = copy(segments[this.segmentIndex++]);
+                this.pairIndex = 0;
+            }
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        final void moveNext() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            this.currentKey = (K)this.pairs[this.pairIndex++];
+            this.currentValue = (V)this.pairs[this.pairIndex++];
+            this.hasCurrent = true;
+        }
+
+        @Override
+        public void remove() {
+            if (!this.hasCurrent) {
+                throw new IllegalStateException();
+            }
+            this.parentMap.remove(this.currentKey);
+            this.hasCurrent = false;
+        }
+
+        @Override
+        public boolean isReadWriteLockSupported() {
+            return false;
+        }
+
+        @Override
+        public ViewInfo viewInfo() {
+            return CollectionViewInfos.iterator();
+        }
+        
+        private static <K, V> Object[] copy(Segment<K, V> segment) {
+            Lock lock = segment.readLock();
+            lock.lock();
+            try {
+                Object[] pairs = new Object[segment.map.size() << 1];
+                int index = 0;
+                for (Entry<K, V> e : segment.map.entrySet()) {
+                    pairs[index++] = e.getKey();
+                    pairs[index++] = e.getValue();
+                }
+                return pairs;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+    
+    private static abstract class AbstractView<K, V, E> implements XCollection<E> {
+        
+        final ConcurrentHashMap<K, V> parentMap;
+        
+        AbstractView(ConcurrentHashMap<K, V> parentMap) {
+            this.parentMap = parentMap;
+        }
+
+        @Override
+        public int size() {
+            return this.parentMap.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.parentMap.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            this.parentMap.clear();
+        }
+
+        @Override
+        public boolean containsAll(Collection<?> c) {
+            for (Object o : c) {
+                if (!this.contains(o)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> c) {
+            boolean modified = false;
+            for (Iterator<E> itr = this.iterator(); itr.hasNext();) {
+                if (c.contains(itr.next())) {
+                    itr.remove();
+                    modified = true;
+                }
+            }
+            return modified;
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> c) {
+            boolean modified = false;
+            for (Iterator<E> itr = this.iterator(); itr.hasNext();) {
+                if (!c.contains(itr.next())) {
+                    itr.remove();
+                    modified = true;
+                }
+            }
+            return modified;
+        }
+
+        @Deprecated
+        @Override
+        public final boolean add(E e) throws UnsupportedOperationException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Deprecated
+        @Override
+        public final boolean addAll(Collection<? extends E> c) throws UnsupportedOperationException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Deprecated
+        @Override
+        public final void addValidator(Validator<E> validator) throws UnsupportedOperationException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Deprecated
+        @Override
+        public final void removeValidator(Validator<E> validator) throws UnsupportedOperationException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object[] toArray() {
+            return BasicAlgorithms.collectionToArray(this);
+        }
+
+        @Override
+        public <T> T[] toArray(T[] a) {
+            return BasicAlgorithms.collectionToArray(this, a);
+        }
+
+        @Override
+        public boolean isReadWriteLockSupported() {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return BasicAlgorithms.collectionToString(this);
+        }
+    }
+    
+    private static class EntrySetView<K, V> 
+    extends AbstractView<K, V, Entry<K, V>> 
+    implements XEntrySetView<K, V> {
+        
+        EntrySetView(ConcurrentHashMap<K, V> parentMap) {
+            super(parentMap);
+        }
+
+        @Override
+        public ReplacementRule replacementRule() {
+            return this.parentMap.keyReplacementRule();
+        }
+
+        @Override
+        public UnifiedComparator<? super Entry<K, V>> unifiedComparator() {
+            return this.parentMap.entryUnifiedComparator();
+        }
+
+        @Deprecated
+        @Override
+        public void validate(Entry<K, V> e) {
+            throw new UnsupportedOperationException();
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry<?, ?>)) {
+                return false;
+            }
+            Entry<K, V> e = (Entry<K, V>)o;
+            Segment<K, V> segment = this.parentMap.segmentFor(e.getKey());
+            Lock lock = segment.readLock();
+            lock.lock();
+            try {
+                return segment.map.entrySet().contains(e);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Entry<?, ?>)) {
+                return false;
+            }
+            Entry<K, V> e = (Entry<K, V>)o;
+            Segment<K, V> segment = this.parentMap.segmentFor(e.getKey());
+            Lock lock = segment.writeLock();
+            lock.lock();
+            try {
+                return segment.map.entrySet().remove(e);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public XEntrySetIterator<K, V> iterator() {
+            return new IteratorImpl<>(this.parentMap);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.parentMap.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return BasicAlgorithms.setEquals(this, obj);
+        }
+
+        @Override
+        public MapViewInfos.EntrySet viewInfo() {
+            return MapViewInfos.entrySet();
+        }
+        
+        private static class IteratorImpl<K, V> 
+        extends AbstractIteratorImpl<K, V, Entry<K, V>> 
+        implements XEntrySetIterator<K, V> {
+
+            IteratorImpl(ConcurrentHashMap<K, V> parentMap) {
+                super(parentMap);
+            }
+
+            @Override
+            public XEntry<K, V> next() {
+                this.moveNext();
+                return new EntryImpl<>(this.parentMap, this.currentKey, this.currentValue, MapViewInfos.entry());
+            }
+
+            @Override
+            public UnifiedComparator<? super Entry<K, V>> unifiedComparator() {
+                return this.parentMap.entryUnifiedComparator();
+            }
+        }
+    }
+    
+    private static class KeySetView<K, V> extends AbstractView<K, V, K> implements XKeySetView<K> {
+        
+        KeySetView(ConcurrentHashMap<K, V> parentMap) {
+            super(parentMap);
+        }
+
+        @Override
+        public ReplacementRule replacementRule() {
+            return this.parentMap.keyReplacementRule();
+        }
+
+        @Override
+        public UnifiedComparator<? super K> unifiedComparator() {
+            return this.parentMap.keyUnifiedComparator();
+        }
+
+        @Override
+        public void validate(K e) {
+            this.parentMap.validateKey(e);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return this.parentMap.containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            Segment<K, V> segment = this.parentMap.segmentFor(o);
+            Lock lock = segment.writeLock();
+            lock.lock();
+            try {
+                return segment.map.keySet().remove(o);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public XCollection.XIterator<K> iterator() {
+            return new AbstractIteratorImpl<K, V, K>(this.parentMap) {
+                
+                @Override
+                public K next() {
+                    this.moveNext();
+                    return this.currentKey;
+                }
+
+                @Override
+                public UnifiedComparator<? super K> unifiedComparator() {
+                    return this.parentMap.keyUnifiedComparator();
+                }
+            };
+        }
+
+        @Override
+        public int hashCode() {
+            return BasicAlgorithms.setHashCode(this);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return BasicAlgorithms.setEquals(this, obj);
+        }
+
+        @Override
+        public MapViewInfos.KeySet viewInfo() {
+            return MapViewInfos.keySet();
+        }
+    }
+    
+    private static class ValuesView<K, V> extends AbstractView<K, V, V> implements XValuesView<V> {
+        
+        ValuesView(ConcurrentHashMap<K, V> parentMap) {
+            super(parentMap);
+        }
+
+        @Override
+        public UnifiedComparator<? super V> unifiedComparator() {
+            return this.parentMap.valueUnifiedComparator();
+        }
+
+        @Override
+        public void validate(V e) {
+            this.parentMap.validateValue(e);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return this.parentMap.containsValue(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            for (Segment<K, V> segment : this.parentMap.segments) {
+                Lock lock = segment.writeLock();
+                lock.lock();
+                try {
+                    if (segment.map.values().remove(o)) {
+                        return true;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public XCollection.XIterator<V> iterator() {
+            return new AbstractIteratorImpl<K, V, V>(this.parentMap) {
+                
+                @Override
+                public V next() {
+                    this.moveNext();
+                    return this.currentValue;
+                }
+
+                @Override
+                public UnifiedComparator<? super V> unifiedComparator() {
+                    return this.parentMap.valueUnifiedComparator();
+                }
+            };
+        }
+
+        @Override
+        public MapViewInfos.Values viewInfo() {
+            return MapViewInfos.values();
+        }
+    }
+    
+    /*
+     * A detached copy of a mapping, setValue() writes through to the map 
+     * like java.util.concurrent.ConcurrentHashMap.
+     */
+    private static class EntryImpl<K, V> implements XEntry<K, V> {
+        
+        private ConcurrentHashMap<K, V> parentMap;
+        
+        private K key;
+        
+        private V value;
+        
+        private ViewInfo viewInfo;
+        
+        EntryImpl(ConcurrentHashMap<K, V> parentMap, K key, V value, ViewInfo viewInfo) {
+            this.parentMap = parentMap;
+            this.key = key;
+            this.value = value;
+            this.viewInfo = viewInfo;
+        }
+
+        @Override
+        public K getKey() {
+            return this.key;
+        }
+
+        @Override
+        public V getValue() {
+            return this.value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            V oldValue = this.value;
+            this.parentMap.put(this.key, value);
+            this.value = value;
+            return oldValue;
+        }
+
+        @Override
+        public boolean isAlive() {
+            return this.parentMap.containsKey(this.key);
+        }
+
+        @Override
+        public boolean isReadWriteLockSupported() {
+            return false;
+        }
+
+        @Override
+        public ViewInfo viewInfo() {
+            return this.viewInfo;
+        }
+
+        @Override
+        public UnifiedComparator<? super K> keyUnifiedComparator() {
+            return this.parentMap.keyUnifiedComparator();
+        }
+
+        @Override
+        public UnifiedComparator<? super V> valueUnifiedComparator() {
+            return this.parentMap.valueUnifiedComparator();
+        }
+
+        @Override
+        public UnifiedComparator<? super Entry<K, V>> unifiedComparator() {
+            return this.parentMap.entryUnifiedComparator();
+        }
+
+        @Override
+        public int hashCode() {
+            return this.unifiedComparator().hashCode(this);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Entry<?, ?>)) {
+                return false;
+            }
+            return this.unifiedComparator().equals(this, (Entry<K, V>)obj);
+        }
+
+        @Override
+        public String toString() {
+            return this.key + "=" + this.value;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection;
+
+import java.io.Serializable;
+import java.util.Collection;
+
+import org.babyfish.validator.Validator;
+
+/**
+ * A thread-safe {@link XSet} backed by a {@link ConcurrentHashMap}, 
+ * all the elements are the keys of that map.
+ *
+ * @see ConcurrentHashMap
+ * @author Tao Chen
+ */
+public class ConcurrentHashSet<E> implements XSet<E>, Serializable {
+    
+    private static final long serialVersionUID = -1867436547652398624L;
+
+    private static final Object PRESENT = new Object();
+    
+    private final ConcurrentHashMap<E, Object> map;
+    
+    public ConcurrentHashSet() {
+        this.map = new ConcurrentHashMap<>();
+    }
+    
+    public ConcurrentHashSet(ReplacementRule replacementRule) {
+        this.map = new ConcurrentHashMap<>(replacementRule);
+    }
+    
+    public ConcurrentHashSet(EqualityComparator<? super E> equalityComparator) {
+        this.map = new ConcurrentHashMap<>(equalityComparator);
+    }
+    
+    public ConcurrentHashSet(
+            ReplacementRule replacementRule, 
+            EqualityComparator<? super E> equalityComparator) {
+        this.map = new ConcurrentHashMap<>(replacementRule, equalityComparator);
+    }
+    
+    public ConcurrentHashSet(int initCapacity, int concurrencyLevel) {
+        this.map = new ConcurrentHashMap<>(initCapacity, concurrencyLevel);
+    }
+    
+    public ConcurrentHashSet(
+            ReplacementRule replacementRule, 
+            EqualityComparator<? super E> equalityComparator,
+            int initCapacity,
+            int concurrencyLevel) {
+        this.map = new ConcurrentHashMap<>(
+                replacementRule, 
+                equalityComparator, 
+                null, 
+                initCapacity, 
+                concurrencyLevel);
+    }
+    
+    public ConcurrentHashSet(Collection<? extends E> c) {
+        this.map = new ConcurrentHashMap<>(c.size(), 16);
+        this.addAll(c);
+    }
+
+    @Override
+    public boolean isReadWriteLockSupported() {
+        return false;
+    }
+
+    @Override
+    public ReplacementRule replacementRule() {
+        return this.map.keyReplacementRule();
+    }
+
+    @Override
+    public UnifiedComparator<? super E> unifiedComparator() {
+        return this.map.keyUnifiedComparator();
+    }
+
+    @Override
+    public void addValidator(Validator<E> validator) {
+        this.map.addKeyValidator(validator);
+    }
+
+    @Override
+    public void removeValidator(Validator<E> validator) {
+        this.map.removeKeyValidator(validator);
+    }
+
+    @Override
+    public void validate(E e) {
+        this.map.validateKey(e);
+    }
+
+    @Override
+    public int size() {
+        return this.map.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.map.isEmpty();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return this.map.containsKey(o);
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        return this.map.keySet().containsAll(c);
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (this.map.keyReplacementRule() == ReplacementRule.NEW_REFERENCE_WIN) {
+            return this.map.put(e, PRESENT) == null;
+        }
+        return this.map.putIfAbsent(e, PRESENT) == null;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        boolean modified = false;
+        for (E e : c) {
+            modified |= this.add(e);
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return this.map.remove(o) != null;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        boolean modified = false;
+        for (Object o : c) {
+            modified |= this.remove(o);
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        return this.map.keySet().retainAll(c);
+    }
+
+    @Override
+    public void clear() {
+        this.map.clear();
+    }
+
+    @Override
+    public XIterator<E> iterator() {
+        return this.map.keySet().iterator();
+    }
+
+    @Override
+    public Object[] toArray() {
+        return this.map.keySet().toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        return this.map.keySet().toArray(a);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.map.keySet().hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        return this.map.keySet().equals(obj);
+    }
+
+    @Override
+    public String toString() {
+        return this.map.keySet().toString();
+    }
+}
@@ -19,15 +19,19 @@ package org.babyfish.collection;
 
 import java.lang.ref.WeakReference;
 
+import org.babyfish.collection.spi.CollectionInstrumentations;
 import org.babyfish.collection.spi.base.BaseEntries;
 import org.babyfish.collection.spi.base.FrozenContextSuspending;
 import org.babyfish.lang.I18N;
+import org.babyfish.lang.UncheckedException;
 
 /**
  * @author Tao Chen
  */
 public abstract class FrozenContext<T> {
     
+    private static final ThreadLocal<Batch> BATCH_LOCAL = new ThreadLocal<>();
+    
     private FrozenContext() {
         
     }
@@ -47,57 +51,136 @@ public abstract class FrozenContext<T> {
     
     public static <T> void suspendFreezing(FrozenContext<T> ctx, T obj) {
         if (ctx != null) {
-            ctx.suspendFreezing(obj);
+            Batch batch = BATCH_LOCAL.get();
+            if (batch != null && !batch.closing && batch.contexts.add(ctx)) {
+                /*
+                 * Suspend it once more for the batch so that the resumeFreezing
+                 * of the caller can not resume it until the batch is closed.
+                 */
+                suspendFreezing0(ctx, obj);
+            }
+            suspendFreezing0(ctx, obj);
+        }
+    }
+    
+    private static <T> void suspendFreezing0(FrozenContext<T> ctx, T obj) {
+        ctx.suspendFreezing(obj);
+        if (CollectionInstrumentations.ENABLED) {
+            CollectionInstrumentations.freezingSuspended(obj);
         }
     }
     
     public static <T> void resumeFreezing(FrozenContext<T> ctx) {
         if (ctx != null) {
             ctx.resumeFreezing();
+            if (CollectionInstrumentations.ENABLED) {
+                CollectionInstrumentations.freezingResumed();
+            }
         }
     }
     
+    /**
+     * Starts a batch of the current thread, it should be closed by the 
+     * try-with-resources statement.
+     * 
+     * <p>
+     * Until the batch is closed, the frozen contexts suspended by 
+     * {@link #suspendFreezing(FrozenContext, Object)} are not resumed, 
+     * so an object whose several frozen properties are changed is removed 
+     * from the collections and re-added into them only once, in the order 
+     * of the first suspending.
+     * That also means the changed objects do not exist in those collections
+     * before the batch is closed.
+     * </p>
+     * 
+     * <p>
+     * The "modified" notifications of the listeners wrapped by 
+     * {@link org.babyfish.collection.event.DeferredEventDispatcher} are 
+     * queued by the batch, including the notifications of the removing 
+     * raised inside the batch and the notifications of the re-adding raised 
+     * by the closing. They are delivered in order after all the frozen 
+     * contexts have been resumed. The other listeners are notified immediately
+     * because the framework uses them to keep the wrapper collections and 
+     * the bidirectional associations consistent, and the "modifying" 
+     * notifications are always delivered immediately because they can 
+     * veto the modification.
+     * </p>
+     * 
+     * <p>
+     * The nested batch joins the outer batch, only the closing of the 
+     * outermost batch resumes the frozen contexts and delivers the 
+     * queued notifications.
+     * </p>
+     */
+    public static Batch batch() {
+        Batch batch = BATCH_LOCAL.get();
+        if (batch == null) {
+            batch = new Batch();
+            BATCH_LOCAL.set(batch);
+        }
+        batch.depth++;
+        return batch;
+    }
+    
+    /**
+     * Queues the "modified" notification into the batch of the current thread,
+     * it will be delivered when the outermost batch is closed.
+     * 
+     * @return false if the current thread has no open batch, the caller
+     * should deliver the notification immediately.
+     */
+    public static boolean deferModified(DeferredNotification notification) {
+        Batch batch = BATCH_LOCAL.get();
+        if (batch == null) {
+            return false;
+        }
+        batch.notifications.add(notification);
+        return true;
+    }
+    
+    /*
+     * The frozen context is used as an immutable value by its owner, for example
+     * "this.frozenContext = FrozenContext.combine(this.frozenContext, ctx)", 
+     * but the combined context is changed in place by combine and remove to 
+     * make them O(1). That is safe because the combined context is only referenced 
+     * by its owner, except the suspending of it: when its suspendFreezing is called, 
+     * the collections remove the object and unfreeze it before resumeFreezing is 
+     * called, so the suspended combined context must be copied before it is changed.
+     */
     @SuppressWarnings("unchecked")
     public static <T> FrozenContext<T> combine(FrozenContext<T> ctx1, FrozenContext<T> ctx2) {
         if (ctx1 == null || !ctx1.isAlive()) {
-            return ctx2 != null && ctx2.isAlive() ? ctx2 : null;
+            return ctx2 != null && ctx2.isAlive() ? unshared(ctx2) : null;
         }
         if (ctx2 == null || !ctx2.isAlive()) {
-            return ctx1 != null && ctx1.isAlive() ? ctx1 : null;
-        }
-        int len1 = len(ctx1);
-        int len2 = len(ctx2);
-        SingleImpl<T>[] arr = new SingleImpl[len1 + len2];
-        int len = copyTo(ctx1, arr, 0);
-        SingleImpl<T>[] addArr = toArray(ctx2);
-        for (int i = 0; i < len2; i++) {
-            SingleImpl<T> addCtx = addArr[i];
-            if (addCtx != null) {
-                boolean duplicated = false;
-                for (int ii = len - 1; ii >= 0; ii--) {
-                    if (arr[ii].same(addCtx)) {
-                        duplicated = true;
-                        break;
-                    }
-                }
-                if (!duplicated) {
-                    arr[len++] = addCtx;
+            return ctx1;
+        }
+        CombinedImpl<T> combined;
+        if (ctx1 instanceof CombinedImpl<?>) {
+            combined = (CombinedImpl<T>)ctx1;
+            if (combined.suspendDepth != 0) {
+                if (combined.containsAll(ctx2)) {
+                    return combined;
                 }
+                combined = new CombinedImpl<T>(combined);
             }
+        } else {
+            if (ctx2 instanceof SingleImpl<?> && ((SingleImpl<T>)ctx1).same((SingleImpl<T>)ctx2)) {
+                return ctx1;
+            }
+            combined = new CombinedImpl<T>(len(ctx2) + 1);
+            combined.add((SingleImpl<T>)ctx1);
         }
-        if (len << 1 <= len1 + len2) {
-            Trim<T> trim = new Trim<T>(arr, len);
-            trim.trim(len);
-            arr = trim.arr;
-            len = trim.len;
-        }
-        if (len == 0) {
-            return null;
-        }
-        if (len == 1) {
-            return arr[0];
+        if (ctx2 instanceof CombinedImpl<?>) {
+            for (SingleImpl<T> addCtx : ((CombinedImpl<T>)ctx2).table) {
+                if (addCtx != null) {
+                    combined.add(addCtx);
+                }
+            }
+        } else {
+            combined.add((SingleImpl<T>)ctx2);
         }
-        return new CombinedImpl<T>(arr, len);
+        return combined.normalize();
     }
     
     @SuppressWarnings("unchecked")
@@ -106,73 +189,52 @@ public abstract class FrozenContext<T> {
             return null;
         }
         if (ctx2 == null || !ctx2.isAlive()) {
-            return ctx1 != null && ctx1.isAlive() ? ctx1 : null;
-        }
-        int len1 = len(ctx1);
-        int len2 = len(ctx2);
-        SingleImpl<T>[] arr = new SingleImpl[len1];
-        int oldLen = copyTo(ctx1, arr, 0);
-        int len = oldLen;
-        SingleImpl<T>[] removeArr = toArray(ctx2);
-        for (int i = oldLen - 1; i >= 0; i--) {
-            for (int ii = len2 - 1; ii >= 0; ii--) {
-                SingleImpl<T> removeCtx = removeArr[ii];
-                if (removeCtx != null) {
-                    if (arr[i].same(removeCtx)) {
-                        arr[i] = null;
-                        len--;
-                    }
-                }
-            }
+            return ctx1;
         }
-        if (len << 1 <= oldLen) {
-            Trim<T> trim = new Trim<T>(arr, len);
-            trim.trim(len);
-            arr = trim.arr;
-            len = trim.len;
+        if (ctx1 instanceof SingleImpl<?>) {
+            SingleImpl<T> single = (SingleImpl<T>)ctx1;
+            if (ctx2 instanceof CombinedImpl<?>) {
+                return ((CombinedImpl<T>)ctx2).contains(single) ? null : single;
+            }
+            return single.same((SingleImpl<T>)ctx2) ? null : single;
         }
-        if (len == 0) {
-            return null;
+        CombinedImpl<T> combined = (CombinedImpl<T>)ctx1;
+        if (combined.suspendDepth != 0) {
+            if (!combined.containsAny(ctx2)) {
+                return combined;
+            }
+            combined = new CombinedImpl<T>(combined);
         }
-        if (len == 1) {
-            return arr[0];
+        if (ctx2 instanceof CombinedImpl<?>) {
+            for (SingleImpl<T> removeCtx : ((CombinedImpl<T>)ctx2).table) {
+                if (removeCtx != null) {
+                    combined.remove(removeCtx);
+                }
+            }
+        } else {
+            combined.remove((SingleImpl<T>)ctx2);
         }
-        return new CombinedImpl<T>(arr, len);
+        return combined.normalize();
     }
     
     private static int len(FrozenContext<?> ctx) {
-        return ctx instanceof CombinedImpl<?> ? ((CombinedImpl<?>)ctx).len : 1;
+        return ctx instanceof CombinedImpl<?> ? ((CombinedImpl<?>)ctx).size : 1;
     }
     
-    private static <T> int copyTo(FrozenContext<T> ctx, SingleImpl<T>[] arr, int offset) {
-        int index = offset;
+    private static <T> FrozenContext<T> unshared(FrozenContext<T> ctx) {
         if (ctx instanceof CombinedImpl<?>) {
-            CombinedImpl<T> combinedImpl = (CombinedImpl<T>)ctx;
-            SingleImpl<T>[] src = combinedImpl.arr;
-            int srcLen = combinedImpl.len;
-            for (int i = 0; i < srcLen; i++) {
-                SingleImpl<T> srcItem = src[i];
-                if (srcItem != null && srcItem.isAlive()) {
-                    arr[index++] = srcItem;
-                }
-            }
-        } else if (ctx.isAlive()) {
-            arr[index++] = (SingleImpl<T>)ctx;
+            return new CombinedImpl<T>((CombinedImpl<T>)ctx).normalize();
         }
-        return index - offset;
-    }
-    
-    @SuppressWarnings("unchecked")
-    private static <T> SingleImpl<T>[] toArray(FrozenContext<T> ctx) {
-        return ctx instanceof CombinedImpl<?> ? 
-                ((CombinedImpl<T>)ctx).arr : 
-                new SingleImpl[] { (SingleImpl<T>)ctx };
+        return ctx;
     }
     
     private static class SingleImpl<K> extends FrozenContext<K> {
         
         private WeakReference<BaseEntries<K, Object>> baseEntriesReference;
         
+        // The identity hash code of the base entries, it is used by CombinedImpl
+        final int hash;
+        
         private FrozenContextSuspending<K, Object> suspending;
         
         private int suspendCount;
@@ -180,6 +242,8 @@ public abstract class FrozenContext<T> {
         @SuppressWarnings({ "unchecked", "rawtypes" })
         private SingleImpl(BaseEntries<K, ?> baseEntries) {
             this.baseEntriesReference = new WeakReference<BaseEntries<K, Object>>((BaseEntries)baseEntries); 
+            int h = System.identityHashCode(baseEntries);
+            this.hash = h ^ (h >>> 16);
         }
         
         @Override
@@ -214,6 +278,10 @@ public abstract class FrozenContext<T> {
             return this.baseEntriesReference.get() != null;
         }
         
+        BaseEntries<K, Object> baseEntries() {
+            return this.baseEntriesReference.get();
+        }
+        
         boolean same(SingleImpl<K> other) {
             BaseEntries<K, ?> baseEntries = this.baseEntriesReference.get();
             if (baseEntries != null) {
@@ -223,110 +291,296 @@ public abstract class FrozenContext<T> {
         }
     }
     
+    /*
+     * Identity hash set of SingleImpl whose key is the base entries, it uses
+     * open addressing with linear probing. The dead contexts are purged lazily
+     * when they are met by add, remove or the resizing.
+     */
     private static class CombinedImpl<T> extends FrozenContext<T> {
         
-        private SingleImpl<T>[] arr;
+        private static final int MIN_CAPACITY = 4;
+        
+        private static final int MAX_CAPACITY = 1 << 30;
+        
+        SingleImpl<T>[] table;
+        
+        // Include the dead contexts that have not been purged
+        int size;
+        
+        int suspendDepth;
+        
+        @SuppressWarnings("unchecked")
+        CombinedImpl(int expectedSize) {
+            this.table = new SingleImpl[capacityFor(expectedSize)];
+        }
+        
+        CombinedImpl(CombinedImpl<T> source) {
+            this(source.size);
+            for (SingleImpl<T> ctx : source.table) {
+                if (ctx != null) {
+                    this.add(ctx);
+                }
+            }
+        }
         
-        private int len;
+        boolean add(SingleImpl<T> ctx) {
+            BaseEntries<T, Object> baseEntries = ctx.baseEntries();
+            if (baseEntries == null) {
+                return false;
+            }
+            if ((this.size + 1) << 1 > this.table.length) {
+                this.rehash(this.size + 1);
+            }
+            SingleImpl<T>[] table = this.table;
+            int mask = table.length - 1;
+            int index = ctx.hash & mask;
+            SingleImpl<T> e;
+            while ((e = table[index]) != null) {
+                BaseEntries<T, Object> otherBaseEntries = e.baseEntries();
+                if (otherBaseEntries == null) {
+                    // Other context has been moved into this slot, check it again
+                    this.deleteAt(index);
+                    continue;
+                }
+                if (otherBaseEntries == baseEntries) {
+                    return false;
+                }
+                index = (index + 1) & mask;
+            }
+            table[index] = ctx;
+            this.size++;
+            return true;
+        }
+        
+        boolean remove(SingleImpl<T> ctx) {
+            int index = this.indexOf(ctx, true);
+            if (index == -1) {
+                return false;
+            }
+            this.deleteAt(index);
+            return true;
+        }
         
-        CombinedImpl(SingleImpl<T>[] arr, int len) {
-            this.arr = arr;
-            this.len = len;
+        boolean contains(SingleImpl<T> ctx) {
+            return this.indexOf(ctx, false) != -1;
+        }
+        
+        boolean containsAll(FrozenContext<T> ctx) {
+            if (ctx instanceof CombinedImpl<?>) {
+                for (SingleImpl<T> single : ((CombinedImpl<T>)ctx).table) {
+                    if (single != null && single.isAlive() && !this.contains(single)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            return this.contains((SingleImpl<T>)ctx);
+        }
+        
+        boolean containsAny(FrozenContext<T> ctx) {
+            if (ctx instanceof CombinedImpl<?>) {
+                for (SingleImpl<T> single : ((CombinedImpl<T>)ctx).table) {
+                    if (single != null && this.contains(single)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            return this.contains((SingleImpl<T>)ctx);
+        }
+        
+        FrozenContext<T> normalize() {
+            if (this.size == 0) {
+                return null;
+            }
+            if (this.size == 1) {
+                for (SingleImpl<T> ctx : this.table) {
+                    if (ctx != null) {
+                        return ctx.isAlive() ? ctx : null;
+                    }
+                }
+            }
+            return this;
         }
 
         @Override
         void suspendFreezing(T obj) {
-            SingleImpl<T>[] arr = this.arr;
-            int len = this.len;
-            int missCount = 0;
-            for (int i = 0; i < len; i++) {
-                SingleImpl<T> ctx = arr[i];
-                if (ctx == null) {
-                    missCount++;
-                } else if (!ctx.isAlive()) {
-                    arr[i] = null;
-                    missCount++;
-                } else {
+            this.suspendDepth++;
+            for (SingleImpl<T> ctx : this.table) {
+                if (ctx != null) {
                     ctx.suspendFreezing(obj);
                 }
             }
-            if (missCount << 1 >= len) {
-                Trim<T> trim = new Trim<T>(arr, len);
-                trim.trim(len - missCount);
-                this.arr = trim.arr;
-                this.len = trim.len;
-            }
         }
 
         @Override
         void resumeFreezing() {
-            SingleImpl<T>[] arr = this.arr;
-            int len = this.len;
-            int missCount = 0;
-            for (int i = 0; i < len; i++) {
-                SingleImpl<T> ctx = arr[i];
-                if (ctx == null) {
-                    missCount++;
-                } else if (!ctx.isAlive()) {
-                    arr[i] = null;
-                    missCount++;
-                } else {
-                    ctx.resumeFreezing();
-                }
+            if (this.suspendDepth == 0) {
+                throw new IllegalStateException(canNotResume());
             }
-            if (missCount << 1 >= len) {
-                Trim<T> trim = new Trim<T>(arr, len);
-                trim.trim(len - missCount);
-                this.arr = trim.arr;
-                this.len = trim.len;
+            try {
+                for (SingleImpl<T> ctx : this.table) {
+                    if (ctx != null) {
+                        ctx.resumeFreezing();
+                    }
+                }
+            } finally {
+                this.suspendDepth--;
             }
         }
 
         @Override
         boolean isAlive() {
-            return this.len != 0;
+            return this.size != 0;
         }
-    }
-    
-    private static class Trim<T> {
         
-        private static final SingleImpl<?>[] EMPTY_SINGLE_IMPLS = new SingleImpl[0];
+        private int indexOf(SingleImpl<T> ctx, boolean purge) {
+            BaseEntries<T, Object> baseEntries = ctx.baseEntries();
+            if (baseEntries == null) {
+                return -1;
+            }
+            SingleImpl<T>[] table = this.table;
+            int mask = table.length - 1;
+            int index = ctx.hash & mask;
+            SingleImpl<T> e;
+            while ((e = table[index]) != null) {
+                BaseEntries<T, Object> otherBaseEntries = e.baseEntries();
+                if (otherBaseEntries == baseEntries) {
+                    return index;
+                }
+                if (otherBaseEntries == null && purge) {
+                    this.deleteAt(index);
+                    continue;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
         
-        SingleImpl<T>[] arr;
+        private void deleteAt(int index) {
+            SingleImpl<T>[] table = this.table;
+            int mask = table.length - 1;
+            table[index] = null;
+            this.size--;
+            int hole = index;
+            int i = index;
+            SingleImpl<T> e;
+            while ((e = table[i = (i + 1) & mask]) != null) {
+                int home = e.hash & mask;
+                if (hole <= i ? hole < home && home <= i : hole < home || home <= i) {
+                    continue;
+                }
+                table[hole] = e;
+                table[i] = null;
+                hole = i;
+            }
+        }
         
-        int len;
+        @SuppressWarnings("unchecked")
+        private void rehash(int expectedSize) {
+            SingleImpl<T>[] oldTable = this.table;
+            int aliveCount = 0;
+            for (SingleImpl<T> ctx : oldTable) {
+                if (ctx != null && ctx.isAlive()) {
+                    aliveCount++;
+                }
+            }
+            this.table = new SingleImpl[capacityFor(Math.max(expectedSize - this.size + aliveCount, aliveCount))];
+            this.size = 0;
+            for (SingleImpl<T> ctx : oldTable) {
+                if (ctx != null) {
+                    this.add(ctx);
+                }
+            }
+        }
         
-        Trim(SingleImpl<T>[] arr, int len) {
-            this.arr = arr;
-            this.len = len;
+        private static int capacityFor(int expectedSize) {
+            int capacity = MIN_CAPACITY;
+            while (capacity < expectedSize << 1 && capacity < MAX_CAPACITY) {
+                capacity <<= 1;
+            }
+            return capacity;
         }
+    }
+
+    public static final class Batch implements AutoCloseable {
         
-        @SuppressWarnings("unchecked")
-        void trim(int trimLen) {
-            if (trimLen == 0) {
-                this.arr = (SingleImpl<T>[])EMPTY_SINGLE_IMPLS;
-                this.len = 0;
-            } else {
-                SingleImpl<T>[] arr = this.arr;
-                int len = this.len;
-                SingleImpl<T>[] newArr = new SingleImpl[trimLen];
-                int index = 0;
-                for (int i = 0; i < len; i++) {
-                    SingleImpl<T> ctx = arr[i];
-                    if (ctx != null && ctx.isAlive()) {
-                        newArr[index++] = ctx;
+        private int depth;
+        
+        private boolean closing;
+        
+        private XOrderedSet<FrozenContext<?>> contexts = 
+                new LinkedHashSet<>(ReferenceEqualityComparator.getInstance());
+        
+        private XList<DeferredNotification> notifications = new ArrayList<>();
+        
+        private Batch() {
+            
+        }
+
+        @Override
+        public void close() {
+            if (this.depth == 0) {
+                throw new IllegalStateException(batchHasBeenClosed());
+            }
+            if (--this.depth != 0 || this.closing) {
+                return;
+            }
+            Throwable finalThrowable = null;
+            /*
+             * The batch is still the batch of this thread while the contexts are 
+             * resumed, so the notifications of the re-adding are queued after the
+             * notifications of the removing. The contexts suspended by the listeners
+             * during the closing are not joined into this batch any more.
+             */
+            this.closing = true;
+            try {
+                for (FrozenContext<?> ctx : this.contexts) {
+                    try {
+                        resumeFreezing(ctx);
+                    } catch (RuntimeException | Error ex) {
+                        if (finalThrowable == null) {
+                            finalThrowable = ex;
+                        }
+                    }
+                }
+            } finally {
+                BATCH_LOCAL.remove();
+            }
+            for (DeferredNotification notification : this.notifications) {
+                try {
+                    notification.deliver();
+                } catch (Throwable ex) {
+                    if (finalThrowable == null) {
+                        finalThrowable = ex;
                     }
                 }
-                this.arr = newArr;
-                this.len = index;
+            }
+            this.contexts.clear();
+            this.notifications.clear();
+            if (finalThrowable != null) {
+                throw UncheckedException.rethrow(finalThrowable);
             }
         }
     }
+    
+    /**
+     * The "modified" notification queued by the batch, 
+     * see {@link FrozenContext#deferModified(DeferredNotification)}.
+     */
+    @FunctionalInterface
+    public interface DeferredNotification {
+        
+        void deliver() throws Throwable;
+    }
 
     @I18N
     private static native String baseEntriesMustBeRoot();
         
     @I18N
     private static native String canNotResume();
+        
+    @I18N
+    private static native String batchHasBeenClosed();
 }
 
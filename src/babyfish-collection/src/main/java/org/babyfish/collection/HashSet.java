@@ -24,7 +24,9 @@ import java.io.Serializable;
 import java.util.Collection;
 
 import org.babyfish.collection.spi.AbstractXSet;
+import org.babyfish.collection.spi.base.BaseEntries;
 import org.babyfish.collection.spi.base.HashEntries;
+import org.babyfish.collection.spi.base.OpenHashEntries;
 
 /**
  * @author Tao Chen
@@ -375,6 +377,59 @@ public class HashSet<E> extends AbstractXSet<E> implements Serializable {
         this.addAll(c);
     }
 
+    public HashSet(HashTableType hashTableType) {
+        super(
+                createBaseEntries(
+                        hashTableType,
+                        ReplacementRule.NEW_REFERENCE_WIN,
+                        null,
+                        16,
+                        .75F
+                )
+        );
+    }
+
+    public HashSet(
+            HashTableType hashTableType,
+            ReplacementRule replacementRule,
+            EqualityComparator<? super E> equalityComparator,
+            int initCapacity,
+            Float loadFactor) {
+        super(
+                createBaseEntries(
+                        hashTableType,
+                        replacementRule,
+                        equalityComparator,
+                        initCapacity,
+                        loadFactor
+                )
+        );
+    }
+
+    private static <E> BaseEntries<E, Object> createBaseEntries(
+            HashTableType hashTableType,
+            ReplacementRule replacementRule,
+            EqualityComparator<? super E> equalityComparator,
+            int initCapacity,
+            Float loadFactor) {
+        if (hashTableType == HashTableType.OPEN_ADDRESSING) {
+            return new OpenHashEntries.TransientValue<E, Object>(
+                    replacementRule,
+                    equalityComparator,
+                    null,
+                    initCapacity,
+                    loadFactor
+            );
+        }
+        return new HashEntries.TransientValue<E, Object>(
+                replacementRule,
+                equalityComparator,
+                null,
+                initCapacity,
+                loadFactor
+        );
+    }
+
     private void writeObject(ObjectOutputStream out) throws IOException {
         this.writeState(out);
     }
@@ -0,0 +1,40 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection;
+
+/**
+ * The storage layout of the hash based X/MA collections.
+ *
+ * @author Tao Chen
+ */
+public enum HashTableType {
+
+    /**
+     * Each bucket is a linked list of entry nodes, 
+     * see {@link org.babyfish.collection.spi.base.HashEntries}.
+     */
+    CHAINING,
+    
+    /**
+     * The hash codes, keys and values are stored in flat arrays with linear 
+     * probing and no node object is created for each entry, 
+     * see {@link org.babyfish.collection.spi.base.OpenHashEntries}.
+     * It uses less memory and fewer cache misses for large read-mostly tables.
+     */
+    OPEN_ADDRESSING
+}
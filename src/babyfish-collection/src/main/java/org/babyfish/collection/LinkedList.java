@@ -25,7 +25,10 @@ import java.util.Collection;
 import java.util.Comparator;
 
 import org.babyfish.collection.spi.AbstractXList;
+import org.babyfish.collection.spi.base.BaseElements;
+import org.babyfish.collection.spi.base.ChunkedElements;
 import org.babyfish.collection.spi.base.LinkedElements;
+import org.babyfish.lang.Arguments;
 
 /**
  * @author Tao Chen
@@ -421,8 +424,28 @@ public class LinkedList<E> extends AbstractXList<E> implements Serializable {
         this.addAll(c);
     }
 
+    private LinkedList(ChunkedElements<E> chunkedElements) {
+        super(chunkedElements);
+    }
+
     public ReaderOptimizationType readerOptimizationType() {
-        return this.<LinkedElements<E>>getBaseElements().readerOptimizationType();
+        BaseElements<E> baseElements = this.getBaseElements();
+        if (baseElements instanceof ChunkedElements<?>) {
+            return ((ChunkedElements<E>)baseElements).readerOptimizationType();
+        }
+        return ((LinkedElements<E>)baseElements).readerOptimizationType();
+    }
+    
+    /**
+     * Returns the capacity of the chunks if this list is an unrolled linked list
+     * that is created by {@link Builder#setChunked(boolean)}, otherwise returns 0.
+     */
+    public int chunkCapacity() {
+        BaseElements<E> baseElements = this.getBaseElements();
+        if (baseElements instanceof ChunkedElements<?>) {
+            return ((ChunkedElements<E>)baseElements).chunkCapacity();
+        }
+        return 0;
     }
 
     private void writeObject(ObjectOutputStream out) throws IOException {
@@ -444,6 +467,10 @@ public class LinkedList<E> extends AbstractXList<E> implements Serializable {
         private Comparator<? super E> comparator = null;
 
         private UnifiedComparator<? super E> unifiedComparator = null;
+        
+        private boolean chunked;
+        
+        private int chunkCapacity = ChunkedElements.DEFAULT_CHUNK_CAPACITY;
 
         public Builder<E> setBidiType(BidiType bidiType) {
             this.bidiType = bidiType != null ? bidiType : BidiType.NONE;
@@ -455,6 +482,22 @@ public class LinkedList<E> extends AbstractXList<E> implements Serializable {
             return this;
         }
 
+        /**
+         * Uses the unrolled linked list whose nodes are chunks of elements,
+         * it allocates much less objects and its index based accessing only 
+         * skips chunks, that is better for large queue like lists.
+         */
+        public Builder<E> setChunked(boolean chunked) {
+            this.chunked = chunked;
+            return this;
+        }
+        
+        public Builder<E> setChunkCapacity(int chunkCapacity) {
+            this.chunkCapacity = Arguments.mustBeGreaterThanOrEqualToValue(
+                    "chunkCapacity", chunkCapacity, ChunkedElements.MIN_CHUNK_CAPACITY);
+            return this;
+        }
+
         public Builder<E> setEqualityComparator(EqualityComparator<? super E> equalityComparator) {
             if (equalityComparator != null) {
                 if (this.comparator != null) {
@@ -531,6 +574,20 @@ public class LinkedList<E> extends AbstractXList<E> implements Serializable {
         }
 
         public LinkedList<E> build() {
+            if (this.chunked) {
+                return new LinkedList<>(
+                        new ChunkedElements<>(
+                                this.bidiType,
+                                this.readerOptimizationType,
+                                this.equalityComparator != null ?
+                                        this.equalityComparator :
+                                        this.comparator != null ?
+                                                this.comparator :
+                                                this.unifiedComparator,
+                                this.chunkCapacity
+                        )
+                );
+            }
             if (this.equalityComparator != null) {
                 return new LinkedList<>(
                         this.bidiType,
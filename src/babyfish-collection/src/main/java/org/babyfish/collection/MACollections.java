@@ -26,6 +26,8 @@ import java.lang.reflect.Array;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.Date;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
@@ -38,9 +40,13 @@ import java.util.RandomAccess;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.SortedSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -2357,6 +2363,12 @@ public class MACollections {
             if (this.readWriteLock == readWriteLock) {
                 return true;
             }
+            if (this.readWriteLock instanceof StampedReadWriteLock && 
+                    readWriteLock instanceof StampedReadWriteLock &&
+                    ((StampedReadWriteLock)this.readWriteLock).stampedLock == 
+                    ((StampedReadWriteLock)readWriteLock).stampedLock) {
+                return true;
+            }
             return super.isLocked(readWriteLock);
         }
 
@@ -2387,6 +2399,29 @@ public class MACollections {
                 lock.unlock();
             }
         }
+
+        /*
+         * Executes the point read that can be executed again,
+         * the StampedReadWriteLock tries it without lock at first.
+         */
+        final <T, R> R read(T target, Function<? super T, ? extends R> reader) {
+            ReadWriteLock readWriteLock = this.readWriteLock;
+            Lock lock;
+            if (MACollections.isReadWriteLockSupported(target)) {
+                if (readWriteLock instanceof StampedReadWriteLock) {
+                    return ((StampedReadWriteLock)readWriteLock).read(target, reader);
+                }
+                lock = readWriteLock.readLock();
+            } else {
+                lock = readWriteLock.writeLock();
+            }
+            lock.lock();
+            try {
+                return reader.apply(target);
+            } finally {
+                lock.unlock();
+            }
+        }
     }
     
     private static abstract class LockingProxy extends GatewayProxy {
@@ -2428,6 +2463,431 @@ public class MACollections {
         
     }
     
+    /*
+     * The read-write lock of the proxies created by "stampedLocked(...)".
+     * 
+     * StampedLock is not reentrant, but the proxies must be: the listeners and 
+     * the frozen context callbacks are invoked during a write and often read 
+     * the same proxy. So the holds are counted per thread and per StampedLock, 
+     * a thread that holds the write lock can lock it again or lock the read lock, 
+     * a thread that holds the read lock can lock the read lock again; upgrading 
+     * the read lock to the write lock is rejected instead of deadlocking.
+     * 
+     * The point reads of the proxies (get, contains, size, the key and the value
+     * of the entry views) are executed without lock by the optimistic stamp, that 
+     * touches neither the StampedLock nor the holds. The inner collection may be 
+     * inconsistent during a concurrent write so that the optimistic read may 
+     * return a wrong result or throw an exception, both of them are discarded when 
+     * the stamp can not be validated and the read is executed again by the read lock. 
+     * The bulk reads and the iterations, which must be executed inside 
+     * "MACollections.locking(...)", always use the read lock because they can not 
+     * be executed again.
+     */
+    private static class StampedReadWriteLock implements ReadWriteLock, Serializable {
+        
+        private static final long serialVersionUID = 3410564836117389210L;
+        
+        private static final ThreadLocal<Map<StampedLock, Holds>> HOLDS_LOCAL =
+                new ThreadLocal<Map<StampedLock, Holds>>() {
+                    @Override
+                    protected Map<StampedLock, Holds> initialValue() {
+                        return new IdentityHashMap<>();
+                    }
+                };
+
+        final StampedLock stampedLock;
+        
+        private transient Lock readLock;
+        
+        private transient Lock writeLock;
+        
+        StampedReadWriteLock(StampedLock stampedLock) {
+            this.stampedLock = stampedLock != null ? stampedLock : new StampedLock();
+            this.readLock = new ReadLockImpl(this.stampedLock);
+            this.writeLock = new WriteLockImpl(this.stampedLock);
+        }
+
+        @Override
+        public Lock readLock() {
+            return this.readLock;
+        }
+
+        @Override
+        public Lock writeLock() {
+            return this.writeLock;
+        }
+        
+        <T, R> R read(T target, Function<? super T, ? extends R> reader) {
+            StampedLock stampedLock = this.stampedLock;
+            long stamp = stampedLock.tryOptimisticRead();
+            if (stamp != 0L) {
+                R result = null;
+                RuntimeException exception = null;
+                try {
+                    result = reader.apply(target);
+                } catch (RuntimeException ex) {
+                    exception = ex;
+                }
+                if (stampedLock.validate(stamp)) {
+                    if (exception != null) {
+                        throw exception;
+                    }
+                    return result;
+                }
+            }
+            Lock lock = this.readLock;
+            lock.lock();
+            try {
+                return reader.apply(target);
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        private Object readResolve() throws ObjectStreamException {
+            return new StampedReadWriteLock(this.stampedLock);
+        }
+        
+        private static class Holds {
+            
+            int readCount;
+            
+            int writeCount;
+            
+            long writeStamp;
+            
+            boolean readLocked;
+        }
+        
+        private static abstract class AbstractLockImpl implements Lock {
+            
+            final StampedLock stampedLock;
+            
+            AbstractLockImpl(StampedLock stampedLock) {
+                this.stampedLock = stampedLock;
+            }
+            
+            final Holds holds(boolean create) {
+                Map<StampedLock, Holds> map = HOLDS_LOCAL.get();
+                Holds holds = map.get(this.stampedLock);
+                if (holds == null && create) {
+                    holds = new Holds();
+                    map.put(this.stampedLock, holds);
+                }
+                return holds;
+            }
+            
+            final void release(Holds holds) {
+                if (holds.readCount == 0 && holds.writeCount == 0) {
+                    HOLDS_LOCAL.get().remove(this.stampedLock);
+                }
+            }
+            
+            abstract boolean isHeld(Holds holds);
+            
+            /*
+             * Releases all the holds of the current thread for Condition.await(), 
+             * no matter how many times the lock has been locked.
+             */
+            final Holds releaseAll() {
+                Holds holds = this.holds(false);
+                if (holds == null || !this.isHeld(holds)) {
+                    throw new IllegalMonitorStateException();
+                }
+                HOLDS_LOCAL.get().remove(this.stampedLock);
+                if (holds.writeCount != 0) {
+                    this.stampedLock.unlockWrite(holds.writeStamp);
+                } else if (holds.readLocked) {
+                    this.stampedLock.tryUnlockRead();
+                }
+                return holds;
+            }
+            
+            final void acquireAll(Holds holds) {
+                if (holds.writeCount != 0) {
+                    holds.writeStamp = this.stampedLock.writeLock();
+                } else if (holds.readLocked) {
+                    this.stampedLock.readLock();
+                }
+                HOLDS_LOCAL.get().put(this.stampedLock, holds);
+            }
+
+            @Override
+            public void lockInterruptibly() throws InterruptedException {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                this.lock();
+            }
+
+            @Override
+            public Condition newCondition() {
+                return new ConditionImpl(this);
+            }
+        }
+        
+        private static class ReadLockImpl extends AbstractLockImpl {
+            
+            ReadLockImpl(StampedLock stampedLock) {
+                super(stampedLock);
+            }
+
+            @Override
+            public void lock() {
+                Holds holds = this.holds(true);
+                if (holds.writeCount == 0 && !holds.readLocked) {
+                    this.stampedLock.readLock();
+                    holds.readLocked = true;
+                }
+                holds.readCount++;
+            }
+
+            @Override
+            public boolean tryLock() {
+                Holds holds = this.holds(true);
+                if (holds.writeCount == 0 && !holds.readLocked) {
+                    if (this.stampedLock.tryReadLock() == 0L) {
+                        this.release(holds);
+                        return false;
+                    }
+                    holds.readLocked = true;
+                }
+                holds.readCount++;
+                return true;
+            }
+
+            @Override
+            public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+                Holds holds = this.holds(true);
+                if (holds.writeCount == 0 && !holds.readLocked) {
+                    boolean locked = false;
+                    try {
+                        locked = this.stampedLock.tryReadLock(time, unit) != 0L;
+                    } finally {
+                        if (!locked) {
+                            this.release(holds);
+                        }
+                    }
+                    if (!locked) {
+                        return false;
+                    }
+                    holds.readLocked = true;
+                }
+                holds.readCount++;
+                return true;
+            }
+
+            @Override
+            public void unlock() {
+                Holds holds = this.holds(false);
+                if (holds == null || holds.readCount == 0) {
+                    throw new IllegalMonitorStateException();
+                }
+                if (--holds.readCount == 0) {
+                    if (holds.readLocked) {
+                        this.stampedLock.tryUnlockRead();
+                        holds.readLocked = false;
+                    }
+                    this.release(holds);
+                }
+            }
+
+            @Override
+            boolean isHeld(Holds holds) {
+                return holds.readCount != 0;
+            }
+        }
+        
+        private static class WriteLockImpl extends AbstractLockImpl {
+            
+            WriteLockImpl(StampedLock stampedLock) {
+                super(stampedLock);
+            }
+
+            @Override
+            public void lock() {
+                Holds holds = this.holds(true);
+                if (holds.writeCount == 0) {
+                    if (holds.readCount != 0) {
+                        throw new IllegalStateException(stampedReadLockCanNotBeUpgraded());
+                    }
+                    holds.writeStamp = this.stampedLock.writeLock();
+                }
+                holds.writeCount++;
+            }
+
+            @Override
+            public boolean tryLock() {
+                Holds holds = this.holds(true);
+                if (holds.writeCount == 0) {
+                    if (holds.readCount != 0) {
+                        throw new IllegalStateException(stampedReadLockCanNotBeUpgraded());
+                    }
+                    long stamp = this.stampedLock.tryWriteLock();
+                    if (stamp == 0L) {
+                        this.release(holds);
+                        return false;
+                    }
+                    holds.writeStamp = stamp;
+                }
+                holds.writeCount++;
+                return true;
+            }
+
+            @Override
+            public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+                Holds holds = this.holds(true);
+                if (holds.writeCount == 0) {
+                    if (holds.readCount != 0) {
+                        throw new IllegalStateException(stampedReadLockCanNotBeUpgraded());
+                    }
+                    long stamp = 0L;
+                    try {
+                        stamp = this.stampedLock.tryWriteLock(time, unit);
+                    } finally {
+                        if (stamp == 0L) {
+                            this.release(holds);
+                        }
+                    }
+                    if (stamp == 0L) {
+                        return false;
+                    }
+                    holds.writeStamp = stamp;
+                }
+                holds.writeCount++;
+                return true;
+            }
+
+            @Override
+            public void unlock() {
+                Holds holds = this.holds(false);
+                if (holds == null || holds.writeCount == 0) {
+                    throw new IllegalMonitorStateException();
+                }
+                if (--holds.writeCount == 0) {
+                    if (holds.readCount != 0) {
+                        // The nested read lock outlives the write lock, downgrade it.
+                        this.stampedLock.tryConvertToReadLock(holds.writeStamp);
+                        holds.readLocked = true;
+                    } else {
+                        this.stampedLock.unlockWrite(holds.writeStamp);
+                    }
+                    this.release(holds);
+                }
+            }
+
+            @Override
+            boolean isHeld(Holds holds) {
+                return holds.writeCount != 0;
+            }
+        }
+        
+        /*
+         * The await methods release all the holds of the current thread and 
+         * acquire them again before returning. The monitor is locked before the 
+         * holds are released, and the signaling thread must hold the lock, so the 
+         * signal can not be lost between the releasing and the waiting.
+         */
+        private static class ConditionImpl implements Condition {
+            
+            private final AbstractLockImpl lock;
+            
+            private final ReentrantLock monitor = new ReentrantLock();
+            
+            private final Condition condition = this.monitor.newCondition();
+            
+            ConditionImpl(AbstractLockImpl lock) {
+                this.lock = lock;
+            }
+
+            @Override
+            public void await() throws InterruptedException {
+                this.await(condition -> {
+                    condition.await();
+                    return null;
+                });
+            }
+
+            @Override
+            public void awaitUninterruptibly() {
+                try {
+                    this.await(condition -> {
+                        condition.awaitUninterruptibly();
+                        return null;
+                    });
+                } catch (InterruptedException ex) {
+                    throw new AssertionError(ex);
+                }
+            }
+
+            @Override
+            public long awaitNanos(long nanosTimeout) throws InterruptedException {
+                return this.await(condition -> condition.awaitNanos(nanosTimeout));
+            }
+
+            @Override
+            public boolean await(long time, TimeUnit unit) throws InterruptedException {
+                return this.await(condition -> condition.await(time, unit));
+            }
+
+            @Override
+            public boolean awaitUntil(Date deadline) throws InterruptedException {
+                return this.await(condition -> condition.awaitUntil(deadline));
+            }
+
+            @Override
+            public void signal() {
+                this.signal(false);
+            }
+
+            @Override
+            public void signalAll() {
+                this.signal(true);
+            }
+            
+            private void signal(boolean all) {
+                Holds holds = this.lock.holds(false);
+                if (holds == null || !this.lock.isHeld(holds)) {
+                    throw new IllegalMonitorStateException();
+                }
+                this.monitor.lock();
+                try {
+                    if (all) {
+                        this.condition.signalAll();
+                    } else {
+                        this.condition.signal();
+                    }
+                } finally {
+                    this.monitor.unlock();
+                }
+            }
+            
+            private <R> R await(Waiter<R> waiter) throws InterruptedException {
+                Holds holds;
+                this.monitor.lock();
+                try {
+                    holds = this.lock.releaseAll();
+                } catch (RuntimeException | Error ex) {
+                    this.monitor.unlock();
+                    throw ex;
+                }
+                try {
+                    return waiter.await(this.condition);
+                } finally {
+                    // Unlock the monitor first, the signaling thread may hold the lock
+                    this.monitor.unlock();
+                    this.lock.acquireAll(holds);
+                }
+            }
+            
+            @FunctionalInterface
+            private interface Waiter<R> {
+                
+                R await(Condition condition) throws InterruptedException;
+            }
+        }
+    }
+    
     @I18N
     private static native String notSupported(String methodSignature);
 
@@ -2452,6 +2912,9 @@ public class MACollections {
     @I18N
     private static native String canNotSupportUnstableKeys(String parameterName);
     
+    @I18N
+    private static native String stampedReadLockCanNotBeUpgraded();
+    
     /*
      * Atuomatically generate by tool.
      */
@@ -4708,6 +5171,14 @@ public class MACollections {
         return locked(m, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> Map<K, V> stampedLocked(Map<K, V> m) {
+        return locked(m, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> Map<K, V> stampedLocked(Map<K, V> m, StampedLock stampedLock) {
+        return locked(m, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> Map<K, V> locked(Map<K, V> m, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(m, readWriteLock)) {
@@ -4875,6 +5346,14 @@ public class MACollections {
         return locked(m, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> SortedMap<K, V> stampedLocked(SortedMap<K, V> m) {
+        return locked(m, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> SortedMap<K, V> stampedLocked(SortedMap<K, V> m, StampedLock stampedLock) {
+        return locked(m, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> SortedMap<K, V> locked(SortedMap<K, V> m, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(m, readWriteLock)) {
@@ -4988,6 +5467,14 @@ public class MACollections {
         return locked(m, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> NavigableMap<K, V> stampedLocked(NavigableMap<K, V> m) {
+        return locked(m, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> NavigableMap<K, V> stampedLocked(NavigableMap<K, V> m, StampedLock stampedLock) {
+        return locked(m, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> NavigableMap<K, V> locked(NavigableMap<K, V> m, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(m, readWriteLock)) {
@@ -5141,6 +5628,14 @@ public class MACollections {
         return locked(m, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> XMap<K, V> stampedLocked(XMap<K, V> m) {
+        return locked(m, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> XMap<K, V> stampedLocked(XMap<K, V> m, StampedLock stampedLock) {
+        return locked(m, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> XMap<K, V> locked(XMap<K, V> m, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(m, readWriteLock)) {
@@ -5264,6 +5759,14 @@ public class MACollections {
         return locked(m, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> XSortedMap<K, V> stampedLocked(XSortedMap<K, V> m) {
+        return locked(m, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> XSortedMap<K, V> stampedLocked(XSortedMap<K, V> m, StampedLock stampedLock) {
+        return locked(m, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> XSortedMap<K, V> locked(XSortedMap<K, V> m, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(m, readWriteLock)) {
@@ -5347,6 +5850,14 @@ public class MACollections {
         return locked(m, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> XSortedMap.XSortedMapView<K, V> stampedLocked(XSortedMap.XSortedMapView<K, V> m) {
+        return locked(m, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> XSortedMap.XSortedMapView<K, V> stampedLocked(XSortedMap.XSortedMapView<K, V> m, StampedLock stampedLock) {
+        return locked(m, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> XSortedMap.XSortedMapView<K, V> locked(XSortedMap.XSortedMapView<K, V> m, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(m, readWriteLock)) {
@@ -5399,6 +5910,14 @@ public class MACollections {
         return locked(m, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> XNavigableMap<K, V> stampedLocked(XNavigableMap<K, V> m) {
+        return locked(m, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> XNavigableMap<K, V> stampedLocked(XNavigableMap<K, V> m, StampedLock stampedLock) {
+        return locked(m, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> XNavigableMap<K, V> locked(XNavigableMap<K, V> m, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(m, readWriteLock)) {
@@ -5458,6 +5977,14 @@ public class MACollections {
         return locked(m, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> XNavigableMap.XNavigableMapView<K, V> stampedLocked(XNavigableMap.XNavigableMapView<K, V> m) {
+        return locked(m, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> XNavigableMap.XNavigableMapView<K, V> stampedLocked(XNavigableMap.XNavigableMapView<K, V> m, StampedLock stampedLock) {
+        return locked(m, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> XNavigableMap.XNavigableMapView<K, V> locked(XNavigableMap.XNavigableMapView<K, V> m, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(m, readWriteLock)) {
@@ -5502,6 +6029,14 @@ public class MACollections {
         return locked(m, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> XOrderedMap<K, V> stampedLocked(XOrderedMap<K, V> m) {
+        return locked(m, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> XOrderedMap<K, V> stampedLocked(XOrderedMap<K, V> m, StampedLock stampedLock) {
+        return locked(m, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> XOrderedMap<K, V> locked(XOrderedMap<K, V> m, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(m, readWriteLock)) {
@@ -5561,6 +6096,14 @@ public class MACollections {
         return locked(m, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> XOrderedMap.XOrderedMapView<K, V> stampedLocked(XOrderedMap.XOrderedMapView<K, V> m) {
+        return locked(m, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> XOrderedMap.XOrderedMapView<K, V> stampedLocked(XOrderedMap.XOrderedMapView<K, V> m, StampedLock stampedLock) {
+        return locked(m, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> XOrderedMap.XOrderedMapView<K, V> locked(XOrderedMap.XOrderedMapView<K, V> m, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(m, readWriteLock)) {
@@ -5605,6 +6148,14 @@ public class MACollections {
         return locked(m, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> MAMap<K, V> stampedLocked(MAMap<K, V> m) {
+        return locked(m, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> MAMap<K, V> stampedLocked(MAMap<K, V> m, StampedLock stampedLock) {
+        return locked(m, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> MAMap<K, V> locked(MAMap<K, V> m, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(m, readWriteLock)) {
@@ -5684,6 +6235,14 @@ public class MACollections {
         return locked(m, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> MASortedMap<K, V> stampedLocked(MASortedMap<K, V> m) {
+        return locked(m, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> MASortedMap<K, V> stampedLocked(MASortedMap<K, V> m, StampedLock stampedLock) {
+        return locked(m, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> MASortedMap<K, V> locked(MASortedMap<K, V> m, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(m, readWriteLock)) {
@@ -5743,6 +6302,14 @@ public class MACollections {
         return locked(m, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> MASortedMap.MASortedMapView<K, V> stampedLocked(MASortedMap.MASortedMapView<K, V> m) {
+        return locked(m, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> MASortedMap.MASortedMapView<K, V> stampedLocked(MASortedMap.MASortedMapView<K, V> m, StampedLock stampedLock) {
+        return locked(m, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> MASortedMap.MASortedMapView<K, V> locked(MASortedMap.MASortedMapView<K, V> m, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(m, readWriteLock)) {
@@ -5787,6 +6354,14 @@ public class MACollections {
         return locked(m, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> MANavigableMap<K, V> stampedLocked(MANavigableMap<K, V> m) {
+        return locked(m, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> MANavigableMap<K, V> stampedLocked(MANavigableMap<K, V> m, StampedLock stampedLock) {
+        return locked(m, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> MANavigableMap<K, V> locked(MANavigableMap<K, V> m, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(m, readWriteLock)) {
@@ -5834,6 +6409,14 @@ public class MACollections {
         return locked(m, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> MANavigableMap.MANavigableMapView<K, V> stampedLocked(MANavigableMap.MANavigableMapView<K, V> m) {
+        return locked(m, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> MANavigableMap.MANavigableMapView<K, V> stampedLocked(MANavigableMap.MANavigableMapView<K, V> m, StampedLock stampedLock) {
+        return locked(m, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> MANavigableMap.MANavigableMapView<K, V> locked(MANavigableMap.MANavigableMapView<K, V> m, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(m, readWriteLock)) {
@@ -5874,6 +6457,14 @@ public class MACollections {
         return locked(m, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> MAOrderedMap<K, V> stampedLocked(MAOrderedMap<K, V> m) {
+        return locked(m, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> MAOrderedMap<K, V> stampedLocked(MAOrderedMap<K, V> m, StampedLock stampedLock) {
+        return locked(m, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> MAOrderedMap<K, V> locked(MAOrderedMap<K, V> m, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(m, readWriteLock)) {
@@ -5921,6 +6512,14 @@ public class MACollections {
         return locked(m, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> MAOrderedMap.MAOrderedMapView<K, V> stampedLocked(MAOrderedMap.MAOrderedMapView<K, V> m) {
+        return locked(m, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> MAOrderedMap.MAOrderedMapView<K, V> stampedLocked(MAOrderedMap.MAOrderedMapView<K, V> m, StampedLock stampedLock) {
+        return locked(m, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> MAOrderedMap.MAOrderedMapView<K, V> locked(MAOrderedMap.MAOrderedMapView<K, V> m, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(m, readWriteLock)) {
@@ -5961,6 +6560,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> Collection<E> stampedLocked(Collection<E> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> Collection<E> stampedLocked(Collection<E> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> Collection<E> locked(Collection<E> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -6257,6 +6864,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> Set<E> stampedLocked(Set<E> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> Set<E> stampedLocked(Set<E> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> Set<E> locked(Set<E> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -6453,6 +7068,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> SortedSet<E> stampedLocked(SortedSet<E> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> SortedSet<E> stampedLocked(SortedSet<E> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> SortedSet<E> locked(SortedSet<E> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -6569,6 +7192,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> NavigableSet<E> stampedLocked(NavigableSet<E> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> NavigableSet<E> stampedLocked(NavigableSet<E> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> NavigableSet<E> locked(NavigableSet<E> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -6645,6 +7276,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> List<E> stampedLocked(List<E> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> List<E> stampedLocked(List<E> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> List<E> locked(List<E> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -6777,6 +7416,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> XCollection<E> stampedLocked(XCollection<E> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> XCollection<E> stampedLocked(XCollection<E> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> XCollection<E> locked(XCollection<E> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -6989,6 +7636,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <V> XMap.XValuesView<V> stampedLocked(XMap.XValuesView<V> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <V> XMap.XValuesView<V> stampedLocked(XMap.XValuesView<V> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <V> XMap.XValuesView<V> locked(XMap.XValuesView<V> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -7034,6 +7689,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> XSet<E> stampedLocked(XSet<E> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> XSet<E> stampedLocked(XSet<E> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> XSet<E> locked(XSet<E> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -7198,6 +7861,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> XMap.XEntrySetView<K, V> stampedLocked(XMap.XEntrySetView<K, V> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> XMap.XEntrySetView<K, V> stampedLocked(XMap.XEntrySetView<K, V> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> XMap.XEntrySetView<K, V> locked(XMap.XEntrySetView<K, V> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -7243,6 +7914,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <K> XMap.XKeySetView<K> stampedLocked(XMap.XKeySetView<K> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K> XMap.XKeySetView<K> stampedLocked(XMap.XKeySetView<K> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K> XMap.XKeySetView<K> locked(XMap.XKeySetView<K> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -7312,6 +7991,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> XSortedSet<E> stampedLocked(XSortedSet<E> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> XSortedSet<E> stampedLocked(XSortedSet<E> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> XSortedSet<E> locked(XSortedSet<E> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -7412,6 +8099,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> XSortedSet.XSortedSetView<E> stampedLocked(XSortedSet.XSortedSetView<E> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> XSortedSet.XSortedSetView<E> stampedLocked(XSortedSet.XSortedSetView<E> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> XSortedSet.XSortedSetView<E> locked(XSortedSet.XSortedSetView<E> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -7481,6 +8176,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <K> XSortedMap.XSortedKeySetView<K> stampedLocked(XSortedMap.XSortedKeySetView<K> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K> XSortedMap.XSortedKeySetView<K> stampedLocked(XSortedMap.XSortedKeySetView<K> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K> XSortedMap.XSortedKeySetView<K> locked(XSortedMap.XSortedKeySetView<K> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -7534,6 +8237,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> XNavigableSet<E> stampedLocked(XNavigableSet<E> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> XNavigableSet<E> stampedLocked(XNavigableSet<E> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> XNavigableSet<E> locked(XNavigableSet<E> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -7602,6 +8313,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> XNavigableSet.XNavigableSetView<E> stampedLocked(XNavigableSet.XNavigableSetView<E> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> XNavigableSet.XNavigableSetView<E> stampedLocked(XNavigableSet.XNavigableSetView<E> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> XNavigableSet.XNavigableSetView<E> locked(XNavigableSet.XNavigableSetView<E> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -7655,6 +8374,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <K> XNavigableMap.XNavigableKeySetView<K> stampedLocked(XNavigableMap.XNavigableKeySetView<K> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K> XNavigableMap.XNavigableKeySetView<K> stampedLocked(XNavigableMap.XNavigableKeySetView<K> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K> XNavigableMap.XNavigableKeySetView<K> locked(XNavigableMap.XNavigableKeySetView<K> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -7700,6 +8427,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> XOrderedSet<E> stampedLocked(XOrderedSet<E> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> XOrderedSet<E> stampedLocked(XOrderedSet<E> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> XOrderedSet<E> locked(XOrderedSet<E> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -7768,6 +8503,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> XOrderedSet.XOrderedSetView<E> stampedLocked(XOrderedSet.XOrderedSetView<E> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> XOrderedSet.XOrderedSetView<E> stampedLocked(XOrderedSet.XOrderedSetView<E> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> XOrderedSet.XOrderedSetView<E> locked(XOrderedSet.XOrderedSetView<E> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -7821,6 +8564,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <K> XOrderedMap.XOrderedKeySetView<K> stampedLocked(XOrderedMap.XOrderedKeySetView<K> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K> XOrderedMap.XOrderedKeySetView<K> stampedLocked(XOrderedMap.XOrderedKeySetView<K> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K> XOrderedMap.XOrderedKeySetView<K> locked(XOrderedMap.XOrderedKeySetView<K> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -7866,6 +8617,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> XList<E> stampedLocked(XList<E> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> XList<E> stampedLocked(XList<E> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> XList<E> locked(XList<E> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -7947,6 +8706,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> XList.XListView<E> stampedLocked(XList.XListView<E> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> XList.XListView<E> stampedLocked(XList.XListView<E> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> XList.XListView<E> locked(XList.XListView<E> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -7998,6 +8765,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> MACollection<E> stampedLocked(MACollection<E> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> MACollection<E> stampedLocked(MACollection<E> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> MACollection<E> locked(MACollection<E> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -8122,6 +8897,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> MASet<E> stampedLocked(MASet<E> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> MASet<E> stampedLocked(MASet<E> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> MASet<E> locked(MASet<E> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -8222,6 +9005,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> MAMap.MAKeySetView<K, V> stampedLocked(MAMap.MAKeySetView<K, V> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> MAMap.MAKeySetView<K, V> stampedLocked(MAMap.MAKeySetView<K, V> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> MAMap.MAKeySetView<K, V> locked(MAMap.MAKeySetView<K, V> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -8274,6 +9065,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> MAMap.MAValuesView<K, V> stampedLocked(MAMap.MAValuesView<K, V> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> MAMap.MAValuesView<K, V> stampedLocked(MAMap.MAValuesView<K, V> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> MAMap.MAValuesView<K, V> locked(MAMap.MAValuesView<K, V> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -8314,6 +9113,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> MAMap.MAEntrySetView<K, V> stampedLocked(MAMap.MAEntrySetView<K, V> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> MAMap.MAEntrySetView<K, V> stampedLocked(MAMap.MAEntrySetView<K, V> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> MAMap.MAEntrySetView<K, V> locked(MAMap.MAEntrySetView<K, V> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -8354,6 +9161,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> MASortedSet<E> stampedLocked(MASortedSet<E> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> MASortedSet<E> stampedLocked(MASortedSet<E> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> MASortedSet<E> locked(MASortedSet<E> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -8422,6 +9237,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> MASortedSet.MASortedSetView<E> stampedLocked(MASortedSet.MASortedSetView<E> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> MASortedSet.MASortedSetView<E> stampedLocked(MASortedSet.MASortedSetView<E> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> MASortedSet.MASortedSetView<E> locked(MASortedSet.MASortedSetView<E> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -8475,6 +9298,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> MASortedMap.MASortedKeySetView<K, V> stampedLocked(MASortedMap.MASortedKeySetView<K, V> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> MASortedMap.MASortedKeySetView<K, V> stampedLocked(MASortedMap.MASortedKeySetView<K, V> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> MASortedMap.MASortedKeySetView<K, V> locked(MASortedMap.MASortedKeySetView<K, V> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -8519,6 +9350,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> MANavigableSet<E> stampedLocked(MANavigableSet<E> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> MANavigableSet<E> stampedLocked(MANavigableSet<E> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> MANavigableSet<E> locked(MANavigableSet<E> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -8571,6 +9410,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> MANavigableSet.MANavigableSetView<E> stampedLocked(MANavigableSet.MANavigableSetView<E> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> MANavigableSet.MANavigableSetView<E> stampedLocked(MANavigableSet.MANavigableSetView<E> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> MANavigableSet.MANavigableSetView<E> locked(MANavigableSet.MANavigableSetView<E> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -8616,6 +9463,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> MANavigableMap.MANavigableKeySetView<K, V> stampedLocked(MANavigableMap.MANavigableKeySetView<K, V> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> MANavigableMap.MANavigableKeySetView<K, V> stampedLocked(MANavigableMap.MANavigableKeySetView<K, V> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> MANavigableMap.MANavigableKeySetView<K, V> locked(MANavigableMap.MANavigableKeySetView<K, V> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -8656,6 +9511,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> MAOrderedSet<E> stampedLocked(MAOrderedSet<E> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> MAOrderedSet<E> stampedLocked(MAOrderedSet<E> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> MAOrderedSet<E> locked(MAOrderedSet<E> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -8708,6 +9571,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> MAOrderedSet.MAOrderedSetView<E> stampedLocked(MAOrderedSet.MAOrderedSetView<E> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> MAOrderedSet.MAOrderedSetView<E> stampedLocked(MAOrderedSet.MAOrderedSetView<E> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> MAOrderedSet.MAOrderedSetView<E> locked(MAOrderedSet.MAOrderedSetView<E> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -8753,6 +9624,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> MAOrderedMap.MAOrderedKeySetView<K, V> stampedLocked(MAOrderedMap.MAOrderedKeySetView<K, V> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> MAOrderedMap.MAOrderedKeySetView<K, V> stampedLocked(MAOrderedMap.MAOrderedKeySetView<K, V> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> MAOrderedMap.MAOrderedKeySetView<K, V> locked(MAOrderedMap.MAOrderedKeySetView<K, V> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -8793,6 +9672,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> MAList<E> stampedLocked(MAList<E> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> MAList<E> stampedLocked(MAList<E> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> MAList<E> locked(MAList<E> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -8850,6 +9737,14 @@ public class MACollections {
         return locked(c, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> MAList.MAListView<E> stampedLocked(MAList.MAListView<E> c) {
+        return locked(c, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> MAList.MAListView<E> stampedLocked(MAList.MAListView<E> c, StampedLock stampedLock) {
+        return locked(c, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> MAList.MAListView<E> locked(MAList.MAListView<E> c, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(c, readWriteLock)) {
@@ -8893,6 +9788,14 @@ public class MACollections {
         return locked(itr, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> Iterator<E> stampedLocked(Iterator<E> itr) {
+        return locked(itr, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> Iterator<E> stampedLocked(Iterator<E> itr, StampedLock stampedLock) {
+        return locked(itr, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> Iterator<E> locked(Iterator<E> itr, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(itr, readWriteLock)) {
@@ -8985,6 +9888,14 @@ public class MACollections {
         return locked(itr, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> ListIterator<E> stampedLocked(ListIterator<E> itr) {
+        return locked(itr, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> ListIterator<E> stampedLocked(ListIterator<E> itr, StampedLock stampedLock) {
+        return locked(itr, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> ListIterator<E> locked(ListIterator<E> itr, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(itr, readWriteLock)) {
@@ -9071,6 +9982,14 @@ public class MACollections {
         return locked(itr, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> XCollection.XIterator<E> stampedLocked(XCollection.XIterator<E> itr) {
+        return locked(itr, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> XCollection.XIterator<E> stampedLocked(XCollection.XIterator<E> itr, StampedLock stampedLock) {
+        return locked(itr, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> XCollection.XIterator<E> locked(XCollection.XIterator<E> itr, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(itr, readWriteLock)) {
@@ -9140,6 +10059,14 @@ public class MACollections {
         return locked(itr, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> XMap.XEntrySetView.XEntrySetIterator<K, V> stampedLocked(XMap.XEntrySetView.XEntrySetIterator<K, V> itr) {
+        return locked(itr, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> XMap.XEntrySetView.XEntrySetIterator<K, V> stampedLocked(XMap.XEntrySetView.XEntrySetIterator<K, V> itr, StampedLock stampedLock) {
+        return locked(itr, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> XMap.XEntrySetView.XEntrySetIterator<K, V> locked(XMap.XEntrySetView.XEntrySetIterator<K, V> itr, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(itr, readWriteLock)) {
@@ -9185,6 +10112,14 @@ public class MACollections {
         return locked(itr, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> XList.XListIterator<E> stampedLocked(XList.XListIterator<E> itr) {
+        return locked(itr, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> XList.XListIterator<E> stampedLocked(XList.XListIterator<E> itr, StampedLock stampedLock) {
+        return locked(itr, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> XList.XListIterator<E> locked(XList.XListIterator<E> itr, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(itr, readWriteLock)) {
@@ -9229,6 +10164,14 @@ public class MACollections {
         return locked(itr, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> MACollection.MAIterator<E> stampedLocked(MACollection.MAIterator<E> itr) {
+        return locked(itr, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> MACollection.MAIterator<E> stampedLocked(MACollection.MAIterator<E> itr, StampedLock stampedLock) {
+        return locked(itr, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> MACollection.MAIterator<E> locked(MACollection.MAIterator<E> itr, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(itr, readWriteLock)) {
@@ -9286,6 +10229,14 @@ public class MACollections {
         return locked(itr, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> MAMap.MAKeySetView.MAKeySetIterator<K, V> stampedLocked(MAMap.MAKeySetView.MAKeySetIterator<K, V> itr) {
+        return locked(itr, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> MAMap.MAKeySetView.MAKeySetIterator<K, V> stampedLocked(MAMap.MAKeySetView.MAKeySetIterator<K, V> itr, StampedLock stampedLock) {
+        return locked(itr, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> MAMap.MAKeySetView.MAKeySetIterator<K, V> locked(MAMap.MAKeySetView.MAKeySetIterator<K, V> itr, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(itr, readWriteLock)) {
@@ -9326,6 +10277,14 @@ public class MACollections {
         return locked(itr, readWriteLock, readWriteLock == null);
     }
 
+    public static <E> MAList.MAListIterator<E> stampedLocked(MAList.MAListIterator<E> itr) {
+        return locked(itr, new StampedReadWriteLock(null), true);
+    }
+
+    public static <E> MAList.MAListIterator<E> stampedLocked(MAList.MAListIterator<E> itr, StampedLock stampedLock) {
+        return locked(itr, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <E> MAList.MAListIterator<E> locked(MAList.MAListIterator<E> itr, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(itr, readWriteLock)) {
@@ -9366,6 +10325,14 @@ public class MACollections {
         return locked(itr, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> MAMap.MAEntrySetView.MAEntrySetIterator<K, V> stampedLocked(MAMap.MAEntrySetView.MAEntrySetIterator<K, V> itr) {
+        return locked(itr, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> MAMap.MAEntrySetView.MAEntrySetIterator<K, V> stampedLocked(MAMap.MAEntrySetView.MAEntrySetIterator<K, V> itr, StampedLock stampedLock) {
+        return locked(itr, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> MAMap.MAEntrySetView.MAEntrySetIterator<K, V> locked(MAMap.MAEntrySetView.MAEntrySetIterator<K, V> itr, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(itr, readWriteLock)) {
@@ -9406,6 +10373,14 @@ public class MACollections {
         return locked(itr, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> MAMap.MAValuesView.MAValuesIterator<K, V> stampedLocked(MAMap.MAValuesView.MAValuesIterator<K, V> itr) {
+        return locked(itr, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> MAMap.MAValuesView.MAValuesIterator<K, V> stampedLocked(MAMap.MAValuesView.MAValuesIterator<K, V> itr, StampedLock stampedLock) {
+        return locked(itr, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> MAMap.MAValuesView.MAValuesIterator<K, V> locked(MAMap.MAValuesView.MAValuesIterator<K, V> itr, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(itr, readWriteLock)) {
@@ -9446,6 +10421,14 @@ public class MACollections {
         return locked(e, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> Map.Entry<K, V> stampedLocked(Map.Entry<K, V> e) {
+        return locked(e, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> Map.Entry<K, V> stampedLocked(Map.Entry<K, V> e, StampedLock stampedLock) {
+        return locked(e, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> Map.Entry<K, V> locked(Map.Entry<K, V> e, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(e, readWriteLock)) {
@@ -9497,6 +10480,14 @@ public class MACollections {
         return locked(e, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> XMap.XEntry<K, V> stampedLocked(XMap.XEntry<K, V> e) {
+        return locked(e, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> XMap.XEntry<K, V> stampedLocked(XMap.XEntry<K, V> e, StampedLock stampedLock) {
+        return locked(e, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> XMap.XEntry<K, V> locked(XMap.XEntry<K, V> e, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(e, readWriteLock)) {
@@ -9541,6 +10532,14 @@ public class MACollections {
         return locked(e, readWriteLock, readWriteLock == null);
     }
 
+    public static <K, V> MAMap.MAEntry<K, V> stampedLocked(MAMap.MAEntry<K, V> e) {
+        return locked(e, new StampedReadWriteLock(null), true);
+    }
+
+    public static <K, V> MAMap.MAEntry<K, V> stampedLocked(MAMap.MAEntry<K, V> e, StampedLock stampedLock) {
+        return locked(e, new StampedReadWriteLock(stampedLock), stampedLock == null);
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, V> MAMap.MAEntry<K, V> locked(MAMap.MAEntry<K, V> e, ReadWriteLock readWriteLock, boolean usingInternalLock) {
         if (MACollections.isLocked(e, readWriteLock)) {
@@ -14736,6 +15735,16 @@ public class MACollections {
             return ((MANavigableMap<K, V>)this.m).higherKey(key);
         }
 
+        @Override
+        public int indexOfKey(K key) {
+            return ((MANavigableMap<K, V>)this.m).indexOfKey(key);
+        }
+
+        @Override
+        public K keyAt(int index) {
+            return ((MANavigableMap<K, V>)this.m).keyAt(index);
+        }
+
         @Override
         public MANavigableMap.MANavigableKeySetView<K, V> keySet() {
              return MACollections.unmodifiable(((MANavigableMap<K, V>)this.m).keySet());
@@ -14790,6 +15799,11 @@ public class MACollections {
              return MACollections.unmodifiable(((MANavigableMap<K, V>)this.m).higherEntry(key));
         }
 
+        @Override
+        public MAMap.MAEntry<K, V> entryAt(int index) {
+             return MACollections.unmodifiable(((MANavigableMap<K, V>)this.m).entryAt(index));
+        }
+
         @Override
         public MAMap.MAEntry<K, V> lastEntry() {
              return MACollections.unmodifiable(((MANavigableMap<K, V>)this.m).lastEntry());
@@ -15259,6 +16273,11 @@ public class MACollections {
              return MACollections.unmodifiable(((XNavigableMap<K, V>)this.m).higherEntry(key));
         }
 
+        @Override
+        public XMap.XEntry<K, V> entryAt(int index) {
+             return MACollections.unmodifiable(((XNavigableMap<K, V>)this.m).entryAt(index));
+        }
+
         @Override
         public XNavigableMap.XNavigableMapView<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
              return MACollections.unmodifiable(((XNavigableMap<K, V>)this.m).subMap(fromKey, fromInclusive, toKey, toInclusive));
@@ -15279,6 +16298,16 @@ public class MACollections {
             return ((XNavigableMap<K, V>)this.m).higherKey(key);
         }
 
+        @Override
+        public int indexOfKey(K key) {
+            return ((XNavigableMap<K, V>)this.m).indexOfKey(key);
+        }
+
+        @Override
+        public K keyAt(int index) {
+            return ((XNavigableMap<K, V>)this.m).keyAt(index);
+        }
+
         @Override
         public XNavigableMap.XNavigableMapView<K, V> tailMap(K fromKey) {
              return MACollections.unmodifiable(((XNavigableMap<K, V>)this.m).tailMap(fromKey));
@@ -16409,6 +17438,16 @@ public class MACollections {
             return ((MANavigableSet<E>)this.c).higher(e);
         }
 
+        @Override
+        public int indexOf(E e) {
+            return ((MANavigableSet<E>)this.c).indexOf(e);
+        }
+
+        @Override
+        public E elementAt(int index) {
+            return ((MANavigableSet<E>)this.c).elementAt(index);
+        }
+
         @Override
         public MACollection.MAIterator<E> descendingIterator() {
              return MACollections.unmodifiable(((MANavigableSet<E>)this.c).descendingIterator());
@@ -17299,6 +18338,16 @@ public class MACollections {
             return ((XNavigableSet<E>)this.c).higher(e);
         }
 
+        @Override
+        public int indexOf(E e) {
+            return ((XNavigableSet<E>)this.c).indexOf(e);
+        }
+
+        @Override
+        public E elementAt(int index) {
+            return ((XNavigableSet<E>)this.c).elementAt(index);
+        }
+
         @Override
         public XNavigableSet.XNavigableSetView<E> headSet(E toElement) {
              return MACollections.unmodifiable(((XNavigableSet<E>)this.c).headSet(toElement));
@@ -19332,6 +20381,38 @@ public class MACollections {
             }
         }
 
+        @Override
+        public int indexOfKey(K key) {
+            Lock lock;
+            if (((MANavigableMap<K, V>)this.m).isReadWriteLockSupported()) {
+                lock = this.readWriteLock.readLock();
+            } else {
+                lock = this.readWriteLock.writeLock();
+            }
+            lock.lock();
+            try {
+                return ((MANavigableMap<K, V>)this.m).indexOfKey(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public K keyAt(int index) {
+            Lock lock;
+            if (((MANavigableMap<K, V>)this.m).isReadWriteLockSupported()) {
+                lock = this.readWriteLock.readLock();
+            } else {
+                lock = this.readWriteLock.writeLock();
+            }
+            lock.lock();
+            try {
+                return ((MANavigableMap<K, V>)this.m).keyAt(index);
+            } finally {
+                lock.unlock();
+            }
+        }
+
         @Override
         public MANavigableMap.MANavigableKeySetView<K, V> keySet() {
             Lock lock;
@@ -19482,6 +20563,22 @@ public class MACollections {
             }
         }
 
+        @Override
+        public MAMap.MAEntry<K, V> entryAt(int index) {
+            Lock lock;
+            if (((MANavigableMap<K, V>)this.m).isReadWriteLockSupported()) {
+                lock = this.readWriteLock.readLock();
+            } else {
+                lock = this.readWriteLock.writeLock();
+            }
+            lock.lock();
+            try {
+                return MACollections.locked(((MANavigableMap<K, V>)this.m).entryAt(index), this.readWriteLock, this.usingInternalLock);
+            } finally {
+                lock.unlock();
+            }
+        }
+
         @Override
         public MAMap.MAEntry<K, V> lastEntry() {
             Lock lock;
@@ -20468,6 +21565,22 @@ public class MACollections {
             }
         }
 
+        @Override
+        public XMap.XEntry<K, V> entryAt(int index) {
+            Lock lock;
+            if (((XNavigableMap<K, V>)this.m).isReadWriteLockSupported()) {
+                lock = this.readWriteLock.readLock();
+            } else {
+                lock = this.readWriteLock.writeLock();
+            }
+            lock.lock();
+            try {
+                return MACollections.locked(((XNavigableMap<K, V>)this.m).entryAt(index), this.readWriteLock, this.usingInternalLock);
+            } finally {
+                lock.unlock();
+            }
+        }
+
         @Override
         public XNavigableMap.XNavigableMapView<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
             Lock lock;
@@ -20532,6 +21645,38 @@ public class MACollections {
             }
         }
 
+        @Override
+        public int indexOfKey(K key) {
+            Lock lock;
+            if (((XNavigableMap<K, V>)this.m).isReadWriteLockSupported()) {
+                lock = this.readWriteLock.readLock();
+            } else {
+                lock = this.readWriteLock.writeLock();
+            }
+            lock.lock();
+            try {
+                return ((XNavigableMap<K, V>)this.m).indexOfKey(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public K keyAt(int index) {
+            Lock lock;
+            if (((XNavigableMap<K, V>)this.m).isReadWriteLockSupported()) {
+                lock = this.readWriteLock.readLock();
+            } else {
+                lock = this.readWriteLock.writeLock();
+            }
+            lock.lock();
+            try {
+                return ((XNavigableMap<K, V>)this.m).keyAt(index);
+            } finally {
+                lock.unlock();
+            }
+        }
+
         @Override
         public XNavigableMap.XNavigableMapView<K, V> tailMap(K fromKey) {
             Lock lock;
@@ -21685,34 +22830,12 @@ public class MACollections {
 
         @Override
         public boolean isEmpty() {
-            Lock lock;
-            if (MACollections.isReadWriteLockSupported(this.m)) {
-                lock = this.readWriteLock.readLock();
-            } else {
-                lock = this.readWriteLock.writeLock();
-            }
-            lock.lock();
-            try {
-                return this.m.isEmpty();
-            } finally {
-                lock.unlock();
-            }
+            return this.read(this.m, m -> m.isEmpty());
         }
 
         @Override
         public V get(Object key) {
-            Lock lock;
-            if (MACollections.isReadWriteLockSupported(this.m)) {
-                lock = this.readWriteLock.readLock();
-            } else {
-                lock = this.readWriteLock.writeLock();
-            }
-            lock.lock();
-            try {
-                return this.m.get(key);
-            } finally {
-                lock.unlock();
-            }
+            return this.read(this.m, m -> m.get(key));
         }
 
         /*
@@ -21740,18 +22863,7 @@ public class MACollections {
 
         @Override
         public boolean containsKey(Object o) {
-            Lock lock;
-            if (MACollections.isReadWriteLockSupported(this.m)) {
-                lock = this.readWriteLock.readLock();
-            } else {
-                lock = this.readWriteLock.writeLock();
-            }
-            lock.lock();
-            try {
-                return this.m.containsKey(o);
-            } finally {
-                lock.unlock();
-            }
+            return this.read(this.m, m -> m.containsKey(o));
         }
 
         @Override
@@ -21831,23 +22943,7 @@ public class MACollections {
         }
 
         @Override
-        public boolean equals(Object obj) {
-            Lock lock;
-            if (MACollections.isReadWriteLockSupported(this.m)) {
-                lock = this.readWriteLock.readLock();
-            } else {
-                lock = this.readWriteLock.writeLock();
-            }
-            lock.lock();
-            try {
-                return this.m.equals(obj);
-            } finally {
-                lock.unlock();
-            }
-        }
-
-        @Override
-        public boolean containsValue(Object o) {
+        public boolean equals(Object obj) {
             Lock lock;
             if (MACollections.isReadWriteLockSupported(this.m)) {
                 lock = this.readWriteLock.readLock();
@@ -21856,14 +22952,14 @@ public class MACollections {
             }
             lock.lock();
             try {
-                return this.m.containsValue(o);
+                return this.m.equals(obj);
             } finally {
                 lock.unlock();
             }
         }
 
         @Override
-        public int size() {
+        public boolean containsValue(Object o) {
             Lock lock;
             if (MACollections.isReadWriteLockSupported(this.m)) {
                 lock = this.readWriteLock.readLock();
@@ -21872,11 +22968,16 @@ public class MACollections {
             }
             lock.lock();
             try {
-                return this.m.size();
+                return this.m.containsValue(o);
             } finally {
                 lock.unlock();
             }
         }
+
+        @Override
+        public int size() {
+            return this.read(this.m, m -> m.size());
+        }
     }
 
     /*
@@ -22028,18 +23129,7 @@ public class MACollections {
 
         @Override
         public E get(int index) {
-            Lock lock;
-            if (((MAList<E>)this.c).isReadWriteLockSupported()) {
-                lock = this.readWriteLock.readLock();
-            } else {
-                lock = this.readWriteLock.writeLock();
-            }
-            lock.lock();
-            try {
-                return ((MAList<E>)this.c).get(index);
-            } finally {
-                lock.unlock();
-            }
+            return this.read((MAList<E>)this.c, c -> c.get(index));
         }
 
         @Override
@@ -22767,6 +23857,38 @@ public class MACollections {
             }
         }
 
+        @Override
+        public int indexOf(E e) {
+            Lock lock;
+            if (((MANavigableSet<E>)this.c).isReadWriteLockSupported()) {
+                lock = this.readWriteLock.readLock();
+            } else {
+                lock = this.readWriteLock.writeLock();
+            }
+            lock.lock();
+            try {
+                return ((MANavigableSet<E>)this.c).indexOf(e);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public E elementAt(int index) {
+            Lock lock;
+            if (((MANavigableSet<E>)this.c).isReadWriteLockSupported()) {
+                lock = this.readWriteLock.readLock();
+            } else {
+                lock = this.readWriteLock.writeLock();
+            }
+            lock.lock();
+            try {
+                return ((MANavigableSet<E>)this.c).elementAt(index);
+            } finally {
+                lock.unlock();
+            }
+        }
+
         @Override
         public MACollection.MAIterator<E> descendingIterator() {
             Lock lock;
@@ -23808,18 +24930,7 @@ public class MACollections {
 
         @Override
         public E get(int index) {
-            Lock lock;
-            if (((XList<E>)this.c).isReadWriteLockSupported()) {
-                lock = this.readWriteLock.readLock();
-            } else {
-                lock = this.readWriteLock.writeLock();
-            }
-            lock.lock();
-            try {
-                return ((XList<E>)this.c).get(index);
-            } finally {
-                lock.unlock();
-            }
+            return this.read((XList<E>)this.c, c -> c.get(index));
         }
 
         @Override
@@ -24412,6 +25523,38 @@ public class MACollections {
             }
         }
 
+        @Override
+        public int indexOf(E e) {
+            Lock lock;
+            if (((XNavigableSet<E>)this.c).isReadWriteLockSupported()) {
+                lock = this.readWriteLock.readLock();
+            } else {
+                lock = this.readWriteLock.writeLock();
+            }
+            lock.lock();
+            try {
+                return ((XNavigableSet<E>)this.c).indexOf(e);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public E elementAt(int index) {
+            Lock lock;
+            if (((XNavigableSet<E>)this.c).isReadWriteLockSupported()) {
+                lock = this.readWriteLock.readLock();
+            } else {
+                lock = this.readWriteLock.writeLock();
+            }
+            lock.lock();
+            try {
+                return ((XNavigableSet<E>)this.c).elementAt(index);
+            } finally {
+                lock.unlock();
+            }
+        }
+
         @Override
         public XNavigableSet.XNavigableSetView<E> headSet(E toElement) {
             Lock lock;
@@ -25403,18 +26546,7 @@ public class MACollections {
 
         @Override
         public E get(int index) {
-            Lock lock;
-            if (MACollections.isReadWriteLockSupported(this.c)) {
-                lock = this.readWriteLock.readLock();
-            } else {
-                lock = this.readWriteLock.writeLock();
-            }
-            lock.lock();
-            try {
-                return ((List<E>)this.c).get(index);
-            } finally {
-                lock.unlock();
-            }
+            return this.read((List<E>)this.c, c -> c.get(index));
         }
 
         @Override
@@ -25979,18 +27111,7 @@ public class MACollections {
 
         @Override
         public boolean isEmpty() {
-            Lock lock;
-            if (MACollections.isReadWriteLockSupported(this.c)) {
-                lock = this.readWriteLock.readLock();
-            } else {
-                lock = this.readWriteLock.writeLock();
-            }
-            lock.lock();
-            try {
-                return this.c.isEmpty();
-            } finally {
-                lock.unlock();
-            }
+            return this.read(this.c, c -> c.isEmpty());
         }
 
         @Override
@@ -26028,18 +27149,7 @@ public class MACollections {
 
         @Override
         public boolean contains(Object o) {
-            Lock lock;
-            if (MACollections.isReadWriteLockSupported(this.c)) {
-                lock = this.readWriteLock.readLock();
-            } else {
-                lock = this.readWriteLock.writeLock();
-            }
-            lock.lock();
-            try {
-                return this.c.contains(o);
-            } finally {
-                lock.unlock();
-            }
+            return this.read(this.c, c -> c.contains(o));
         }
 
         @Override
@@ -26157,18 +27267,7 @@ public class MACollections {
 
         @Override
         public int size() {
-            Lock lock;
-            if (MACollections.isReadWriteLockSupported(this.c)) {
-                lock = this.readWriteLock.readLock();
-            } else {
-                lock = this.readWriteLock.writeLock();
-            }
-            lock.lock();
-            try {
-                return this.c.size();
-            } finally {
-                lock.unlock();
-            }
+            return this.read(this.c, c -> c.size());
         }
 
         @Override
@@ -26911,34 +28010,12 @@ public class MACollections {
 
         @Override
         public K getKey() {
-            Lock lock;
-            if (MACollections.isReadWriteLockSupported(this.e)) {
-                lock = this.readWriteLock.readLock();
-            } else {
-                lock = this.readWriteLock.writeLock();
-            }
-            lock.lock();
-            try {
-                return this.e.getKey();
-            } finally {
-                lock.unlock();
-            }
+            return this.read(this.e, e -> e.getKey());
         }
 
         @Override
         public V getValue() {
-            Lock lock;
-            if (MACollections.isReadWriteLockSupported(this.e)) {
-                lock = this.readWriteLock.readLock();
-            } else {
-                lock = this.readWriteLock.writeLock();
-            }
-            lock.lock();
-            try {
-                return this.e.getValue();
-            } finally {
-                lock.unlock();
-            }
+            return this.read(this.e, e -> e.getValue());
         }
 
         @Override
@@ -27379,6 +28456,36 @@ public class MACollections {
             return ((MANavigableMap<K, V>)this.m).higherKey(key);
         }
 
+        @Override
+        public int indexOfKey(K key) {
+            if (this.initThread != Thread.currentThread()) {
+                throw new IllegalThreadException(
+                    illegalLockingThread("int org.babyfish.collection.XNavigableMap<K, V>.indexOfKey(K)")
+                );
+            }
+            if (this.lockingManager.state == LockingManager.DISPOSED) {
+                throw new LockingObjectDisposedException(
+                    lockingObjectDisposed("int org.babyfish.collection.XNavigableMap<K, V>.indexOfKey(K)")
+                );
+            }
+            return ((MANavigableMap<K, V>)this.m).indexOfKey(key);
+        }
+
+        @Override
+        public K keyAt(int index) {
+            if (this.initThread != Thread.currentThread()) {
+                throw new IllegalThreadException(
+                    illegalLockingThread("K org.babyfish.collection.XNavigableMap<K, V>.keyAt(int)")
+                );
+            }
+            if (this.lockingManager.state == LockingManager.DISPOSED) {
+                throw new LockingObjectDisposedException(
+                    lockingObjectDisposed("K org.babyfish.collection.XNavigableMap<K, V>.keyAt(int)")
+                );
+            }
+            return ((MANavigableMap<K, V>)this.m).keyAt(index);
+        }
+
         @Override
         public MANavigableMap.MANavigableKeySetView<K, V> keySet() {
             if (this.initThread != Thread.currentThread()) {
@@ -27504,6 +28611,16 @@ public class MACollections {
             return MACollections.locking(((MANavigableMap<K, V>)this.m).higherEntry(key), this.lockingManager);
         }
 
+        @Override
+        public MAMap.MAEntry<K, V> entryAt(int index) {
+            if (this.initThread != Thread.currentThread()) {
+                throw new IllegalThreadException(
+                    illegalLockingThread("org.babyfish.collection.MAMap.MAEntry<K, V> org.babyfish.collection.MANavigableMap<K, V>.entryAt(int)")
+                );
+            }
+            return MACollections.locking(((MANavigableMap<K, V>)this.m).entryAt(index), this.lockingManager);
+        }
+
         @Override
         public MAMap.MAEntry<K, V> lastEntry() {
             if (this.initThread != Thread.currentThread()) {
@@ -28357,6 +29474,16 @@ public class MACollections {
             return MACollections.locking(((XNavigableMap<K, V>)this.m).higherEntry(key), this.lockingManager);
         }
 
+        @Override
+        public XMap.XEntry<K, V> entryAt(int index) {
+            if (this.initThread != Thread.currentThread()) {
+                throw new IllegalThreadException(
+                    illegalLockingThread("org.babyfish.collection.XMap.XEntry<K, V> org.babyfish.collection.XNavigableMap<K, V>.entryAt(int)")
+                );
+            }
+            return MACollections.locking(((XNavigableMap<K, V>)this.m).entryAt(index), this.lockingManager);
+        }
+
         @Override
         public XNavigableMap.XNavigableMapView<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
             if (this.initThread != Thread.currentThread()) {
@@ -28407,6 +29534,36 @@ public class MACollections {
             return ((XNavigableMap<K, V>)this.m).higherKey(key);
         }
 
+        @Override
+        public int indexOfKey(K key) {
+            if (this.initThread != Thread.currentThread()) {
+                throw new IllegalThreadException(
+                    illegalLockingThread("int org.babyfish.collection.XNavigableMap<K, V>.indexOfKey(K)")
+                );
+            }
+            if (this.lockingManager.state == LockingManager.DISPOSED) {
+                throw new LockingObjectDisposedException(
+                    lockingObjectDisposed("int org.babyfish.collection.XNavigableMap<K, V>.indexOfKey(K)")
+                );
+            }
+            return ((XNavigableMap<K, V>)this.m).indexOfKey(key);
+        }
+
+        @Override
+        public K keyAt(int index) {
+            if (this.initThread != Thread.currentThread()) {
+                throw new IllegalThreadException(
+                    illegalLockingThread("K org.babyfish.collection.XNavigableMap<K, V>.keyAt(int)")
+                );
+            }
+            if (this.lockingManager.state == LockingManager.DISPOSED) {
+                throw new LockingObjectDisposedException(
+                    lockingObjectDisposed("K org.babyfish.collection.XNavigableMap<K, V>.keyAt(int)")
+                );
+            }
+            return ((XNavigableMap<K, V>)this.m).keyAt(index);
+        }
+
         @Override
         public XNavigableMap.XNavigableMapView<K, V> tailMap(K fromKey) {
             if (this.initThread != Thread.currentThread()) {
@@ -30500,6 +31657,36 @@ public class MACollections {
             return ((MANavigableSet<E>)this.c).higher(e);
         }
 
+        @Override
+        public int indexOf(E e) {
+            if (this.initThread != Thread.currentThread()) {
+                throw new IllegalThreadException(
+                    illegalLockingThread("int org.babyfish.collection.XNavigableSet<E>.indexOf(E)")
+                );
+            }
+            if (this.lockingManager.state == LockingManager.DISPOSED) {
+                throw new LockingObjectDisposedException(
+                    lockingObjectDisposed("int org.babyfish.collection.XNavigableSet<E>.indexOf(E)")
+                );
+            }
+            return ((MANavigableSet<E>)this.c).indexOf(e);
+        }
+
+        @Override
+        public E elementAt(int index) {
+            if (this.initThread != Thread.currentThread()) {
+                throw new IllegalThreadException(
+                    illegalLockingThread("E org.babyfish.collection.XNavigableSet<E>.elementAt(int)")
+                );
+            }
+            if (this.lockingManager.state == LockingManager.DISPOSED) {
+                throw new LockingObjectDisposedException(
+                    lockingObjectDisposed("E org.babyfish.collection.XNavigableSet<E>.elementAt(int)")
+                );
+            }
+            return ((MANavigableSet<E>)this.c).elementAt(index);
+        }
+
         @Override
         public MACollection.MAIterator<E> descendingIterator() {
             if (this.initThread != Thread.currentThread()) {
@@ -32047,6 +33234,36 @@ public class MACollections {
             return ((XNavigableSet<E>)this.c).higher(e);
         }
 
+        @Override
+        public int indexOf(E e) {
+            if (this.initThread != Thread.currentThread()) {
+                throw new IllegalThreadException(
+                    illegalLockingThread("int org.babyfish.collection.XNavigableSet<E>.indexOf(E)")
+                );
+            }
+            if (this.lockingManager.state == LockingManager.DISPOSED) {
+                throw new LockingObjectDisposedException(
+                    lockingObjectDisposed("int org.babyfish.collection.XNavigableSet<E>.indexOf(E)")
+                );
+            }
+            return ((XNavigableSet<E>)this.c).indexOf(e);
+        }
+
+        @Override
+        public E elementAt(int index) {
+            if (this.initThread != Thread.currentThread()) {
+                throw new IllegalThreadException(
+                    illegalLockingThread("E org.babyfish.collection.XNavigableSet<E>.elementAt(int)")
+                );
+            }
+            if (this.lockingManager.state == LockingManager.DISPOSED) {
+                throw new LockingObjectDisposedException(
+                    lockingObjectDisposed("E org.babyfish.collection.XNavigableSet<E>.elementAt(int)")
+                );
+            }
+            return ((XNavigableSet<E>)this.c).elementAt(index);
+        }
+
         @Override
         public XNavigableSet.XNavigableSetView<E> headSet(E toElement) {
             if (this.initThread != Thread.currentThread()) {
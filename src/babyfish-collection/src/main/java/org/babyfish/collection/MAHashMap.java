@@ -25,7 +25,9 @@ import java.util.Comparator;
 import java.util.Map;
 
 import org.babyfish.collection.spi.AbstractMAMap;
+import org.babyfish.collection.spi.base.BaseEntries;
 import org.babyfish.collection.spi.base.HashEntries;
+import org.babyfish.collection.spi.base.OpenHashEntries;
 
 /**
  * @author Tao Chen
@@ -2105,6 +2107,69 @@ public class MAHashMap<K, V> extends AbstractMAMap<K, V> implements Serializable
         this.putAll(m);
     }
 
+    public MAHashMap(HashTableType hashTableType) {
+        super(
+                createBaseEntries(
+                        hashTableType,
+                        BidiType.NONE,
+                        ReplacementRule.NEW_REFERENCE_WIN,
+                        null,
+                        null,
+                        16,
+                        .75F
+                )
+        );
+    }
+
+    public MAHashMap(
+            HashTableType hashTableType,
+            BidiType bidiType, 
+            ReplacementRule keyReplacementRule,
+            EqualityComparator<? super K> keyEqualityComparator,
+            UnifiedComparator<? super V> valueUnifiedComparator,
+            int initCapacity,
+            Float loadFactor) {
+        super(
+                createBaseEntries(
+                        hashTableType,
+                        bidiType,
+                        keyReplacementRule,
+                        keyEqualityComparator,
+                        valueUnifiedComparator,
+                        initCapacity,
+                        loadFactor
+                )
+        );
+    }
+
+    private static <K, V> BaseEntries<K, V> createBaseEntries(
+            HashTableType hashTableType,
+            BidiType bidiType, 
+            ReplacementRule keyReplacementRule,
+            EqualityComparator<? super K> keyEqualityComparator,
+            UnifiedComparator<? super V> valueUnifiedComparator,
+            int initCapacity,
+            Float loadFactor) {
+        if (hashTableType == HashTableType.OPEN_ADDRESSING) {
+            return new OpenHashEntries<K, V>(
+                    bidiType,
+                    keyReplacementRule,
+                    keyEqualityComparator,
+                    valueUnifiedComparator,
+                    initCapacity,
+                    loadFactor
+            );
+        }
+        return new HashEntries<K, V>(
+                bidiType,
+                keyReplacementRule,
+                keyEqualityComparator,
+                valueUnifiedComparator,
+                initCapacity,
+                loadFactor
+        );
+    }
+
     private void writeObject(ObjectOutputStream out) throws IOException {
         this.writeState(out);
     }
@@ -0,0 +1,389 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.babyfish.collection.event.MapElementEvent;
+import org.babyfish.collection.event.modification.OrderedMapModifications;
+import org.babyfish.collection.spi.AbstractMAOrderedMap;
+import org.babyfish.collection.spi.base.BaseEntry;
+import org.babyfish.collection.spi.base.LinkedHashEntries;
+import org.babyfish.collection.spi.base.OrderedBaseEntries;
+import org.babyfish.data.event.ModificationType;
+import org.babyfish.data.event.PropertyVersion;
+import org.babyfish.lang.Arguments;
+
+/**
+ * A bounded cache based on {@link LinkedHashEntries}, the head entry is 
+ * evicted when the maximum size or the maximum weight is exceeded.
+ * 
+ * <ul>
+ *  <li>
+ *      {@link #get(Object)} adjusts the order according to the {@link EvictionPolicy}
+ *      and counts the hits and misses, it does not raise any event.
+ *  </li>
+ *  <li>
+ *      Each evicted entry raises the detach events of the MA event system, 
+ *      their modification is {@link OrderedMapModifications.Evict}, 
+ *      so the listeners can distinguish the eviction from the explicit removing.
+ *  </li>
+ *  <li>
+ *      The eviction is executed after {@link #put(Object, Object)} and 
+ *      {@link #putAll(Map)}, the other operations such as 
+ *      {@link #putIfAbsent(Object, Object)}, {@link #computeIfAbsent(Object, java.util.function.Function)} 
+ *      and {@link #merge(Object, Object, java.util.function.BiFunction)} are based on them.
+ *      If a value is changed by the {@link java.util.Map.Entry#setValue(Object)}, 
+ *      the weight is updated but the eviction is delayed until the next putting.
+ *  </li>
+ * </ul>
+ * 
+ * <p>
+ * This class is not thread-safe, use 
+ * {@link MACollections#locked(MAOrderedMap)} to get the thread-safe variant, 
+ * {@link #get(Object)} of this cache changes the order so that the locked wrapper
+ * always uses the write lock. The statistics can be read from any thread.
+ * </p>
+ *
+ * @author Tao Chen
+ */
+public class MALinkedHashCache<K, V> extends AbstractMAOrderedMap<K, V> implements Serializable {
+
+    private static final long serialVersionUID = -2282745823950493516L;
+    
+    private EvictionPolicy evictionPolicy;
+    
+    private int maxSize;
+    
+    private Weigher<? super K, ? super V> weigher;
+    
+    private long maxWeight;
+    
+    private transient long weight;
+    
+    /*
+     * The statistics are read and reset by other threads without the lock,
+     * "++" of a volatile field is not atomic and may lose the counts.
+     */
+    private final LongAdder hitCount = new LongAdder();
+    
+    private final LongAdder missCount = new LongAdder();
+    
+    private final LongAdder evictionCount = new LongAdder();
+    
+    public MALinkedHashCache(int maxSize) {
+        this(ReplacementRule.NEW_REFERENCE_WIN, null, null, EvictionPolicy.LRU, maxSize, null, 0L);
+    }
+    
+    public MALinkedHashCache(EvictionPolicy evictionPolicy, int maxSize) {
+        this(ReplacementRule.NEW_REFERENCE_WIN, null, null, evictionPolicy, maxSize, null, 0L);
+    }
+    
+    public MALinkedHashCache(
+            EvictionPolicy evictionPolicy, 
+            Weigher<? super K, ? super V> weigher, 
+            long maxWeight) {
+        this(ReplacementRule.NEW_REFERENCE_WIN, null, null, evictionPolicy, 0, weigher, maxWeight);
+    }
+    
+    /**
+     * @param maxSize The maximum number of the entries, 0 means unlimited, 
+     * it must be positive when the weigher is null. 
+     * @param weigher The optional weigher.
+     * @param maxWeight The maximum of the total weight, it is ignored when the weigher is null.
+     */
+    public MALinkedHashCache(
+            ReplacementRule keyReplacementRule,
+            EqualityComparator<? super K> keyEqualityComparator,
+            EqualityComparator<? super V> valueEqualityComparator,
+            EvictionPolicy evictionPolicy,
+            int maxSize,
+            Weigher<? super K, ? super V> weigher,
+            long maxWeight) {
+        super(
+                new LinkedHashEntries<K, V>(
+                        BidiType.NONE,
+                        keyReplacementRule,
+                        keyEqualityComparator,
+                        valueEqualityComparator,
+                        16,
+                        .75F,
+                        false,
+                        orderAdjustMode(evictionPolicy),
+                        orderAdjustMode(evictionPolicy)
+                )
+        );
+        if (weigher == null) {
+            Arguments.mustBeGreaterThanValueWhen("the weigher is null", "maxSize", maxSize, 0);
+        } else {
+            Arguments.mustBeGreaterThanOrEqualToValue("maxSize", maxSize, 0);
+            Arguments.mustBeGreaterThanValueWhen("the weigher is not null", "maxWeight", maxWeight, 0L);
+        }
+        this.evictionPolicy = evictionPolicy != null ? evictionPolicy : EvictionPolicy.LRU;
+        this.maxSize = maxSize;
+        this.weigher = weigher;
+        this.maxWeight = weigher != null ? maxWeight : 0L;
+    }
+    
+    public EvictionPolicy evictionPolicy() {
+        return this.evictionPolicy;
+    }
+    
+    public int maxSize() {
+        return this.maxSize;
+    }
+    
+    public Weigher<? super K, ? super V> weigher() {
+        return this.weigher;
+    }
+    
+    public long maxWeight() {
+        return this.maxWeight;
+    }
+    
+    /**
+     * @return The total weight of all the entries, or {@link #size()} if there is no weigher.
+     */
+    public long getWeight() {
+        return this.weigher != null ? this.weight : this.size();
+    }
+    
+    public long getHitCount() {
+        return this.hitCount.sum();
+    }
+    
+    public long getMissCount() {
+        return this.missCount.sum();
+    }
+    
+    public long getEvictionCount() {
+        return this.evictionCount.sum();
+    }
+    
+    public void resetStatistics() {
+        this.hitCount.reset();
+        this.missCount.reset();
+        this.evictionCount.reset();
+    }
+
+    /**
+     * The {@link #get(Object)} of this cache adjusts the order of the entries, 
+     * so the read lock is not enough.
+     */
+    @Override
+    public boolean isReadWriteLockSupported() {
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V get(Object key) {
+        BaseEntry<K, V> be = this.<OrderedBaseEntries<K, V>>getBaseEntries().access((K)key, null);
+        if (be == null) {
+            this.missCount.increment();
+            return null;
+        }
+        this.hitCount.increment();
+        return be.getValue();
+    }
+
+    @Override
+    public V put(K key, V value) {
+        V oldValue = super.put(key, value);
+        this.evict();
+        return oldValue;
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        super.putAll(m);
+        this.evict();
+    }
+    
+    /**
+     * Evicts the head entries until neither the maximum size nor the maximum weight is exceeded.
+     * It is called automatically after putting.
+     */
+    public void evict() {
+        int maxSize = this.maxSize;
+        long maxWeight = this.maxWeight;
+        while (!this.isEmpty()) {
+            if ((maxSize == 0 || this.size() <= maxSize) && 
+                    (this.weigher == null || this.weight <= maxWeight)) {
+                break;
+            }
+            this.pollFirstEntry(OrderedMapModifications.<K, V>evict());
+            this.evictionCount.increment();
+        }
+        if (this.isEmpty()) {
+            this.weight = 0L;
+        }
+    }
+
+    /**
+     * The weight can only be maintained by the modification events
+     * when the weigher is specified.
+     */
+    @Override
+    protected boolean isModificationObserved() {
+        return this.weigher != null || super.isModificationObserved();
+    }
+
+    @Override
+    protected void onModified(MapElementEvent<K, V> e) throws Throwable {
+        Weigher<? super K, ? super V> weigher = this.weigher;
+        if (weigher != null) {
+            ModificationType modificationType = e.getModificationType();
+            if (modificationType.contains(PropertyVersion.DETACH)) {
+                this.weight -= weigher.weigh(
+                        e.getKey(PropertyVersion.DETACH), 
+                        e.getValue(PropertyVersion.DETACH));
+            }
+            if (modificationType.contains(PropertyVersion.ATTACH)) {
+                this.weight += weigher.weigh(
+                        e.getKey(PropertyVersion.ATTACH), 
+                        e.getValue(PropertyVersion.ATTACH));
+            }
+        }
+    }
+    
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        this.writeState(out);
+    }
+    
+    private void readObject(ObjectInputStream in) throws ClassNotFoundException, IOException {
+        in.defaultReadObject();
+        this.readState(in);
+        Weigher<? super K, ? super V> weigher = this.weigher;
+        if (weigher != null) {
+            long weight = 0L;
+            for (Entry<K, V> e : this.entrySet()) {
+                weight += weigher.weigh(e.getKey(), e.getValue());
+            }
+            this.weight = weight;
+        }
+    }
+    
+    private static OrderAdjustMode orderAdjustMode(EvictionPolicy evictionPolicy) {
+        if (evictionPolicy == null) {
+            return OrderAdjustMode.TAIL;
+        }
+        switch (evictionPolicy) {
+        case LFU:
+            return OrderAdjustMode.NEXT;
+        case FIFO:
+            return OrderAdjustMode.NONE;
+        default:
+            return OrderAdjustMode.TAIL;
+        }
+    }
+    
+    public enum EvictionPolicy {
+        
+        /**
+         * Each hit moves the entry to the tail, the least recently used entry is evicted.
+         */
+        LRU,
+        
+        /**
+         * Each hit moves the entry one step toward the tail, 
+         * so the frequently used entries gather at the tail 
+         * and the infrequently used entry is evicted. 
+         * This is an O(1) approximation of the least frequently used policy
+         * which does not keep any counter.
+         */
+        LFU,
+        
+        /**
+         * The order is never changed, the earliest inserted entry is evicted.
+         */
+        FIFO
+    }
+    
+    @FunctionalInterface
+    public interface Weigher<K, V> {
+        
+        long weigh(K key, V value);
+    }
+    
+    public static class Builder<K, V> {
+        
+        private ReplacementRule keyReplacementRule = ReplacementRule.NEW_REFERENCE_WIN;
+        
+        private EqualityComparator<? super K> keyEqualityComparator;
+        
+        private EqualityComparator<? super V> valueEqualityComparator;
+        
+        private EvictionPolicy evictionPolicy = EvictionPolicy.LRU;
+        
+        private int maxSize;
+        
+        private Weigher<? super K, ? super V> weigher;
+        
+        private long maxWeight;
+        
+        public Builder<K, V> setKeyReplacementRule(ReplacementRule keyReplacementRule) {
+            this.keyReplacementRule = keyReplacementRule != null ? keyReplacementRule : ReplacementRule.NEW_REFERENCE_WIN;
+            return this;
+        }
+        
+        public Builder<K, V> setKeyEqualityComparator(EqualityComparator<? super K> keyEqualityComparator) {
+            this.keyEqualityComparator = keyEqualityComparator;
+            return this;
+        }
+        
+        public Builder<K, V> setValueEqualityComparator(EqualityComparator<? super V> valueEqualityComparator) {
+            this.valueEqualityComparator = valueEqualityComparator;
+            return this;
+        }
+        
+        public Builder<K, V> setEvictionPolicy(EvictionPolicy evictionPolicy) {
+            this.evictionPolicy = evictionPolicy != null ? evictionPolicy : EvictionPolicy.LRU;
+            return this;
+        }
+        
+        public Builder<K, V> setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+            return this;
+        }
+        
+        public Builder<K, V> setWeigher(Weigher<? super K, ? super V> weigher, long maxWeight) {
+            this.weigher = weigher;
+            this.maxWeight = maxWeight;
+            return this;
+        }
+        
+        public MALinkedHashCache<K, V> build() {
+            return new MALinkedHashCache<K, V>(
+                    this.keyReplacementRule,
+                    this.keyEqualityComparator,
+                    this.valueEqualityComparator,
+                    this.evictionPolicy,
+                    this.maxSize,
+                    this.weigher,
+                    this.maxWeight
+            );
+        }
+    }
+}
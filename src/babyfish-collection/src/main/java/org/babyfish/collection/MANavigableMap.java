@@ -41,6 +41,11 @@ public interface MANavigableMap<K, V> extends XNavigableMap<K, V>, MASortedMap<K
 
     @Override
     MAEntry<K, V> higherEntry(K key);
+    
+    @Override
+    default MAEntry<K, V> entryAt(int index) {
+        return this.entryOfKey(this.keyAt(index));
+    }
 
     @Override
     MANavigableMapView<K,V> descendingMap();
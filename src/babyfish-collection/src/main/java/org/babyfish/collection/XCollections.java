@@ -0,0 +1,452 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+import org.babyfish.lang.Arguments;
+import org.babyfish.lang.I18N;
+
+/**
+ * Compact binary codec of the X collections.
+ * 
+ * <p>
+ * Unlike the java serialization, the stream does not contain the object graph of 
+ * the collection, it only contains a size header, the descriptor of the comparator 
+ * and the elements written by the {@link Codec} objects. When the stream is read, 
+ * the factory receives the size so that the hash tables can be pre-sized, and the 
+ * elements are added in bulk so that the red-black trees can be built from the 
+ * sorted data in linear time.
+ * </p>
+ * 
+ * <p>
+ * The size header of the stream is not trusted: the size passed to the factory 
+ * is bounded, the buffers start from the bounded size and grow as the elements 
+ * arrive, so a corrupted or malicious header can not cause a huge allocation 
+ * before the stream runs out.
+ * </p>
+ * 
+ * <p>
+ * The comparator itself is not written, the factory must create the collection 
+ * with the same kind of comparator, otherwise the reading is rejected.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public class XCollections {
+    
+    private static final int FORMAT_VERSION = 1;
+    
+    private static final int KIND_COLLECTION = 1;
+    
+    private static final int KIND_MAP = 2;
+    
+    private static final int MAX_SIZE_HINT = 1 << 12;
+    
+    private static final int MAX_BYTE_CHUNK = 1 << 16;
+    
+    private static final Codec<String> STRING_CODEC = new StringCodec();
+    
+    private static final Codec<Integer> INTEGER_CODEC = new IntegerCodec();
+    
+    private static final Codec<Long> LONG_CODEC = new LongCodec();
+    
+    private static final Codec<Object> OBJECT_CODEC = new ObjectCodec();
+
+    protected XCollections() throws UnsupportedOperationException {
+        throw new UnsupportedOperationException();
+    }
+    
+    public static <E> void write(
+            XCollection<E> c, 
+            DataOutput out, 
+            Codec<? super E> codec) throws IOException {
+        Arguments.mustNotBeNull("c", c);
+        Arguments.mustNotBeNull("out", out);
+        Arguments.mustNotBeNull("codec", codec);
+        Object[] elements = c.toArray();
+        writeHeader(out, KIND_COLLECTION, elements.length, c.unifiedComparator());
+        for (Object element : elements) {
+            @SuppressWarnings("unchecked")
+            E e = (E)element;
+            codec.write(out, e);
+        }
+    }
+    
+    public static <K, V> void write(
+            XMap<K, V> m, 
+            DataOutput out, 
+            Codec<? super K> keyCodec,
+            Codec<? super V> valueCodec) throws IOException {
+        Arguments.mustNotBeNull("m", m);
+        Arguments.mustNotBeNull("out", out);
+        Arguments.mustNotBeNull("keyCodec", keyCodec);
+        Arguments.mustNotBeNull("valueCodec", valueCodec);
+        Object[] entries = m.entrySet().toArray();
+        writeHeader(out, KIND_MAP, entries.length, m.keyUnifiedComparator());
+        for (Object entry : entries) {
+            @SuppressWarnings("unchecked")
+            Map.Entry<K, V> e = (Map.Entry<K, V>)entry;
+            keyCodec.write(out, e.getKey());
+            valueCodec.write(out, e.getValue());
+        }
+    }
+    
+    /**
+     * Reads the collection written by {@link #write(XCollection, DataOutput, Codec)}.
+     * 
+     * @param in The data input
+     * @param factory The factory to create the empty collection, its argument is 
+     * the element count of the stream bounded by 4096 so that it can pre-size the collection.
+     * @param codec The codec to read the elements
+     * @return The collection created by the factory and filled by the elements
+     * @throws IOException The stream can not be read or it is not created by this codec
+     * @throws ClassNotFoundException The codec can not resolve the class of some element
+     */
+    public static <E, C extends XCollection<E>> C read(
+            DataInput in, 
+            IntFunction<C> factory, 
+            Codec<? extends E> codec) throws IOException, ClassNotFoundException {
+        Arguments.mustNotBeNull("in", in);
+        Arguments.mustNotBeNull("factory", factory);
+        Arguments.mustNotBeNull("codec", codec);
+        int size = readHeader(in, KIND_COLLECTION);
+        String descriptor = in.readUTF();
+        C c = createTarget(factory, Math.min(size, MAX_SIZE_HINT), descriptor);
+        if (size != 0) {
+            Object[] elements = new Object[Math.min(size, MAX_SIZE_HINT)];
+            for (int i = 0; i < size; i++) {
+                if (i == elements.length) {
+                    elements = Arrays.copyOf(elements, grow(i, size));
+                }
+                elements[i] = codec.read(in);
+            }
+            @SuppressWarnings("unchecked")
+            List<E> elementList = Arrays.asList((E[])elements);
+            c.addAll(elementList);
+        }
+        return c;
+    }
+    
+    /**
+     * Reads the map written by {@link #write(XMap, DataOutput, Codec, Codec)}.
+     * 
+     * @param in The data input
+     * @param factory The factory to create the empty map, its argument is 
+     * the entry count of the stream bounded by 4096 so that it can pre-size the map.
+     * @param keyCodec The codec to read the keys
+     * @param valueCodec The codec to read the values
+     * @return The map created by the factory and filled by the entries
+     * @throws IOException The stream can not be read or it is not created by this codec
+     * @throws ClassNotFoundException The codec can not resolve the class of some key or value
+     */
+    public static <K, V, M extends XMap<K, V>> M read(
+            DataInput in, 
+            IntFunction<M> factory, 
+            Codec<? extends K> keyCodec,
+            Codec<? extends V> valueCodec) throws IOException, ClassNotFoundException {
+        Arguments.mustNotBeNull("in", in);
+        Arguments.mustNotBeNull("factory", factory);
+        Arguments.mustNotBeNull("keyCodec", keyCodec);
+        Arguments.mustNotBeNull("valueCodec", valueCodec);
+        int size = readHeader(in, KIND_MAP);
+        String descriptor = in.readUTF();
+        M m = createTarget(factory, Math.min(size, MAX_SIZE_HINT), descriptor);
+        if (size != 0) {
+            @SuppressWarnings("unchecked")
+            Map.Entry<K, V>[] entries = new Map.Entry[Math.min(size, MAX_SIZE_HINT)];
+            for (int i = 0; i < size; i++) {
+                if (i == entries.length) {
+                    entries = Arrays.copyOf(entries, grow(i, size));
+                }
+                K key = keyCodec.read(in);
+                V value = valueCodec.read(in);
+                entries[i] = new AbstractMap.SimpleImmutableEntry<K, V>(key, value);
+            }
+            m.putAll(new EntryArrayMap<K, V>(entries));
+        }
+        return m;
+    }
+    
+    public static Codec<String> stringCodec() {
+        return STRING_CODEC;
+    }
+    
+    public static Codec<Integer> integerCodec() {
+        return INTEGER_CODEC;
+    }
+    
+    public static Codec<Long> longCodec() {
+        return LONG_CODEC;
+    }
+    
+    /**
+     * Returns the codec that writes the elements by java serialization, 
+     * it can only be used when the {@link DataOutput} is {@link ObjectOutput}
+     * and the {@link DataInput} is {@link ObjectInput}.
+     * 
+     * @return The codec based on java serialization
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Codec<T> objectCodec() {
+        return (Codec<T>)OBJECT_CODEC;
+    }
+    
+    private static void writeHeader(
+            DataOutput out, 
+            int kind, 
+            int size, 
+            UnifiedComparator<?> unifiedComparator) throws IOException {
+        out.writeByte(FORMAT_VERSION);
+        out.writeByte(kind);
+        out.writeInt(size);
+        out.writeUTF(descriptorOf(unifiedComparator));
+    }
+    
+    private static int readHeader(DataInput in, int kind) throws IOException {
+        int version = in.readUnsignedByte();
+        if (version != FORMAT_VERSION) {
+            throw new StreamCorruptedException(unsupportedFormatVersion(version));
+        }
+        int actualKind = in.readUnsignedByte();
+        if (actualKind != kind) {
+            throw new StreamCorruptedException(
+                    illegalKind(
+                            kind == KIND_MAP ? XMap.class : XCollection.class, 
+                            actualKind == KIND_MAP ? XMap.class : XCollection.class
+                    )
+            );
+        }
+        int size = in.readInt();
+        if (size < 0) {
+            throw new StreamCorruptedException(illegalSize(size));
+        }
+        return size;
+    }
+    
+    /*
+     * Doubles the buffer but never exceeds the size of the stream header, 
+     * the allocated memory is at most twice of the data that has been read.
+     */
+    private static int grow(int length, int size) {
+        return (int)Math.min(size, length * 2L);
+    }
+    
+    private static <T> T createTarget(IntFunction<T> factory, int size, String descriptor) {
+        T target = factory.apply(size);
+        if (target == null) {
+            throw new IllegalArgumentException(factoryReturnsNull("factory"));
+        }
+        UnifiedComparator<?> unifiedComparator;
+        boolean empty;
+        if (target instanceof XMap<?, ?>) {
+            unifiedComparator = ((XMap<?, ?>)target).keyUnifiedComparator();
+            empty = ((XMap<?, ?>)target).isEmpty();
+        } else {
+            unifiedComparator = ((XCollection<?>)target).unifiedComparator();
+            empty = ((XCollection<?>)target).isEmpty();
+        }
+        if (!empty) {
+            throw new IllegalArgumentException(factoryReturnsNonEmpty("factory"));
+        }
+        String targetDescriptor = descriptorOf(unifiedComparator);
+        if (!targetDescriptor.equals(descriptor)) {
+            throw new IllegalArgumentException(
+                    factoryReturnsIncompatibleComparator("factory", descriptor, targetDescriptor)
+            );
+        }
+        return target;
+    }
+    
+    private static String descriptorOf(UnifiedComparator<?> unifiedComparator) {
+        Object comparator = unifiedComparator.comparator();
+        if (comparator == null) {
+            comparator = unifiedComparator.equalityComparator();
+        }
+        return comparator == null ? "" : comparator.getClass().getName();
+    }
+    
+    /**
+     * The codec of the elements, keys or values.
+     * 
+     * @author Tao Chen
+     */
+    public interface Codec<T> {
+        
+        void write(DataOutput out, T value) throws IOException;
+        
+        T read(DataInput in) throws IOException, ClassNotFoundException;
+    }
+    
+    private static class StringCodec implements Codec<String> {
+
+        @Override
+        public void write(DataOutput out, String value) throws IOException {
+            if (value == null) {
+                out.writeInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        @Override
+        public String read(DataInput in) throws IOException {
+            int length = in.readInt();
+            if (length == -1) {
+                return null;
+            }
+            if (length < -1) {
+                throw new StreamCorruptedException(illegalSize(length));
+            }
+            byte[] bytes = new byte[Math.min(length, MAX_BYTE_CHUNK)];
+            in.readFully(bytes);
+            while (bytes.length < length) {
+                int readLength = bytes.length;
+                bytes = Arrays.copyOf(bytes, grow(readLength, length));
+                in.readFully(bytes, readLength, bytes.length - readLength);
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+    
+    private static class IntegerCodec implements Codec<Integer> {
+
+        @Override
+        public void write(DataOutput out, Integer value) throws IOException {
+            out.writeBoolean(value != null);
+            if (value != null) {
+                out.writeInt(value);
+            }
+        }
+
+        @Override
+        public Integer read(DataInput in) throws IOException {
+            return in.readBoolean() ? in.readInt() : null;
+        }
+    }
+    
+    private static class LongCodec implements Codec<Long> {
+
+        @Override
+        public void write(DataOutput out, Long value) throws IOException {
+            out.writeBoolean(value != null);
+            if (value != null) {
+                out.writeLong(value);
+            }
+        }
+
+        @Override
+        public Long read(DataInput in) throws IOException {
+            return in.readBoolean() ? in.readLong() : null;
+        }
+    }
+    
+    private static class ObjectCodec implements Codec<Object> {
+
+        @Override
+        public void write(DataOutput out, Object value) throws IOException {
+            if (!(out instanceof ObjectOutput)) {
+                throw new IllegalArgumentException(mustBeObjectStream("out", ObjectOutput.class));
+            }
+            ((ObjectOutput)out).writeObject(value);
+        }
+
+        @Override
+        public Object read(DataInput in) throws IOException, ClassNotFoundException {
+            if (!(in instanceof ObjectInput)) {
+                throw new IllegalArgumentException(mustBeObjectStream("in", ObjectInput.class));
+            }
+            return ((ObjectInput)in).readObject();
+        }
+    }
+    
+    /*
+     * The map only used as the argument of putAll, its entrySet().toArray() returns 
+     * the decoded entries directly so that the tree based map can build itself from them.
+     */
+    private static class EntryArrayMap<K, V> extends AbstractMap<K, V> {
+        
+        private Map.Entry<K, V>[] entries;
+        
+        EntryArrayMap(Map.Entry<K, V>[] entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public Set<Map.Entry<K, V>> entrySet() {
+            Map.Entry<K, V>[] entries = this.entries;
+            return new AbstractSet<Map.Entry<K,V>>() {
+                
+                @Override
+                public Iterator<Map.Entry<K, V>> iterator() {
+                    return Arrays.asList(entries).iterator();
+                }
+
+                @Override
+                public int size() {
+                    return entries.length;
+                }
+
+                @Override
+                public Object[] toArray() {
+                    return entries;
+                }
+            };
+        }
+    }
+    
+    @I18N
+    private static native String unsupportedFormatVersion(int version);
+    
+    @I18N
+    private static native String illegalKind(Class<?> expectedType, Class<?> actualType);
+    
+    @I18N
+    private static native String illegalSize(int size);
+    
+    @I18N
+    private static native String factoryReturnsNull(String parameterName);
+    
+    @I18N
+    private static native String factoryReturnsNonEmpty(String parameterName);
+    
+    @I18N
+    private static native String factoryReturnsIncompatibleComparator(
+            String parameterName, 
+            String expectedComparatorType, 
+            String actualComparatorType);
+    
+    @I18N
+    private static native String mustBeObjectStream(String parameterName, Class<?> expectedType);
+}
@@ -17,9 +17,11 @@
  */
 package org.babyfish.collection;
 
+import java.util.Iterator;
 import java.util.NavigableMap;
 
 import org.babyfish.collection.XNavigableSet.XNavigableSetView;
+import org.babyfish.lang.Arguments;
 
 /**
  * @author Tao Chen
@@ -44,6 +46,46 @@ public interface XNavigableMap<K, V> extends NavigableMap<K, V>, XSortedMap<K, V
     @Override
     XEntry<K, V> ceilingEntry(K key);
     
+    /**
+     * Returns the zero-based position of the key in the iteration order of this map.
+     * For the tree based implementations, its time complexity is O(log n), 
+     * even if this map is a view such as {@link #subMap(Object, Object)} 
+     * or {@link #descendingMap()}.
+     * 
+     * 
+     * <p>
+     * These methods are default methods so that the existing implementations 
+     * of this interface are still compatible, the default implementations are O(n).
+     * </p>
+     * 
+     * @param key The key to be located
+     * @return The position of the key, or -1 if this map does not contain the key
+     */
+    default int indexOfKey(K key) {
+        return this.containsKey(key) ? this.headMap(key, false).size() : -1;
+    }
+    
+    /**
+     * @exception IndexOutOfBoundsException The index is negative or not less than {@link #size()}
+     * @see #indexOfKey(Object)
+     */
+    default K keyAt(int index) {
+        Arguments.indexMustBetweenValue("index", index, 0, true, this.size(), false);
+        Iterator<K> itr = this.keySet().iterator();
+        while (index-- > 0) {
+            itr.next();
+        }
+        return itr.next();
+    }
+    
+    /**
+     * @exception IndexOutOfBoundsException The index is negative or not less than {@link #size()}
+     * @see #indexOfKey(Object)
+     */
+    default XEntry<K, V> entryAt(int index) {
+        return this.entryOfKey(this.keyAt(index));
+    }
+    
     @Override
     XNavigableMapView<K, V> descendingMap();
     
@@ -17,8 +17,11 @@
  */
 package org.babyfish.collection;
 
+import java.util.Iterator;
 import java.util.NavigableSet;
 
+import org.babyfish.lang.Arguments;
+
 /**
  * @author Tao Chen
  */
@@ -27,6 +30,38 @@ public interface XNavigableSet<E> extends NavigableSet<E>, XSortedSet<E> {
     @Override
     XIterator<E> descendingIterator();
     
+    /**
+     * Returns the zero-based position of the element in the iteration order of this set.
+     * For the tree based implementations, its time complexity is O(log n), 
+     * even if this set is a view such as {@link #subSet(Object, Object)} 
+     * or {@link #descendingSet()}.
+     * 
+     * 
+     * <p>
+     * The default implementations iterate this set and are O(n), 
+     * they only exist to keep the third-party implementations compatible.
+     * </p>
+     * 
+     * @param e The element to be located
+     * @return The position of the element, or -1 if this set does not contain the element
+     */
+    default int indexOf(E e) {
+        return this.contains(e) ? this.headSet(e, false).size() : -1;
+    }
+    
+    /**
+     * @exception IndexOutOfBoundsException The index is negative or not less than {@link #size()}
+     * @see #indexOf(Object)
+     */
+    default E elementAt(int index) {
+        Arguments.indexMustBetweenValue("index", index, 0, true, this.size(), false);
+        Iterator<E> itr = this.iterator();
+        while (index-- > 0) {
+            itr.next();
+        }
+        return itr.next();
+    }
+    
     @Override
     XNavigableSetView<E> descendingSet();
     
@@ -0,0 +1,317 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.event;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.babyfish.lang.Arguments;
+import org.babyfish.lang.I18N;
+
+/**
+ * Delivers the "modified" notifications of the wrapped listeners on an {@link Executor}
+ * so that the slow listeners, for example the listeners that do I/O work, 
+ * do not stall the modification of the collection.
+ * 
+ * <ul>
+ *  <li>
+ *      Ordering: The notifications of all the listeners wrapped by the same dispatcher
+ *      are delivered one by one, in the order of the modifications. Two dispatchers
+ *      have no ordering relationship between each other.
+ *  </li>
+ *  <li>
+ *      Backpressure: The pending notifications are kept by a bounded ring buffer,
+ *      when it is full, the modifying thread is blocked until the executor takes 
+ *      some notifications away.
+ *  </li>
+ *  <li>
+ *      Snapshot: The event objects are created by the modification and never changed
+ *      after the "modified" notification, so the elements, the modification type and
+ *      the result of the modification can be read by the asynchronous listener safely.
+ *      The asynchronous listener should not use the attribute contexts of the event,
+ *      they are shared by the listeners that are notified synchronously.
+ *  </li>
+ *  <li>
+ *      The "modifying" notifications are still delivered synchronously because they
+ *      can veto the modification by throwing exception.
+ *  </li>
+ * </ul>
+ * 
+ * <p>
+ * The exception raised by the asynchronous listener can not be thrown to the modifying
+ * thread, it is passed to the uncaught exception handler of the executor thread and
+ * the following notifications are still delivered.
+ * </p>
+ * 
+ * <p>
+ * The listener returned by the "async" methods is a new object, it must be used 
+ * to remove the listener from the collection later.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public class AsyncEventDispatcher {
+    
+    private Executor executor;
+    
+    private Runnable[] buffer;
+    
+    private int head;
+    
+    private int count;
+    
+    private Thread drainingThread;
+    
+    private boolean scheduled;
+    
+    private ReentrantLock lock = new ReentrantLock();
+    
+    private Condition notFull = this.lock.newCondition();
+    
+    private Condition idle = this.lock.newCondition();
+    
+    public AsyncEventDispatcher(Executor executor, int capacity) {
+        this.executor = Arguments.mustNotBeNull("executor", executor);
+        this.buffer = new Runnable[Arguments.mustBeGreaterThanValue("capacity", capacity, 0)];
+    }
+    
+    public <E> ElementListener<E> async(ElementListener<E> listener) {
+        Arguments.mustNotBeNull("listener", listener);
+        return new ElementListener<E>() {
+            @Override
+            public void modifying(ElementEvent<E> e) throws Throwable {
+                listener.modifying(e);
+            }
+            @Override
+            public void modified(ElementEvent<E> e) throws Throwable {
+                AsyncEventDispatcher.this.enqueue(() -> listener.modified(e));
+            }
+        };
+    }
+    
+    public <E> ListElementListener<E> async(ListElementListener<E> listener) {
+        Arguments.mustNotBeNull("listener", listener);
+        return new ListElementListener<E>() {
+            @Override
+            public void modifying(ListElementEvent<E> e) throws Throwable {
+                listener.modifying(e);
+            }
+            @Override
+            public void modified(ListElementEvent<E> e) throws Throwable {
+                AsyncEventDispatcher.this.enqueue(() -> listener.modified(e));
+            }
+        };
+    }
+    
+    public <E> ElementBatchListener<E> async(ElementBatchListener<E> listener) {
+        Arguments.mustNotBeNull("listener", listener);
+        return new ElementBatchListener<E>() {
+            @Override
+            public void modifying(ElementBatchEvent<E> e) throws Throwable {
+                listener.modifying(e);
+            }
+            @Override
+            public void modified(ElementBatchEvent<E> e) throws Throwable {
+                AsyncEventDispatcher.this.enqueue(() -> listener.modified(e));
+            }
+        };
+    }
+    
+    public <K, V> MapElementListener<K, V> async(MapElementListener<K, V> listener) {
+        Arguments.mustNotBeNull("listener", listener);
+        return new MapElementListener<K, V>() {
+            @Override
+            public void modifying(MapElementEvent<K, V> e) throws Throwable {
+                listener.modifying(e);
+            }
+            @Override
+            public void modified(MapElementEvent<K, V> e) throws Throwable {
+                AsyncEventDispatcher.this.enqueue(() -> listener.modified(e));
+            }
+        };
+    }
+    
+    public <K, V> MapElementBatchListener<K, V> async(MapElementBatchListener<K, V> listener) {
+        Arguments.mustNotBeNull("listener", listener);
+        return new MapElementBatchListener<K, V>() {
+            @Override
+            public void modifying(MapElementBatchEvent<K, V> e) throws Throwable {
+                listener.modifying(e);
+            }
+            @Override
+            public void modified(MapElementBatchEvent<K, V> e) throws Throwable {
+                AsyncEventDispatcher.this.enqueue(() -> listener.modified(e));
+            }
+        };
+    }
+    
+    public <K, V> EntryElementListener<K, V> async(EntryElementListener<K, V> listener) {
+        Arguments.mustNotBeNull("listener", listener);
+        return new EntryElementListener<K, V>() {
+            @Override
+            public void modifying(EntryElementEvent<K, V> e) throws Throwable {
+                listener.modifying(e);
+            }
+            @Override
+            public void modified(EntryElementEvent<K, V> e) throws Throwable {
+                AsyncEventDispatcher.this.enqueue(() -> listener.modified(e));
+            }
+        };
+    }
+    
+    public <K, V> KeySetElementListener<K, V> async(KeySetElementListener<K, V> listener) {
+        Arguments.mustNotBeNull("listener", listener);
+        return new KeySetElementListener<K, V>() {
+            @Override
+            public void modifying(KeySetElementEvent<K, V> e) throws Throwable {
+                listener.modifying(e);
+            }
+            @Override
+            public void modified(KeySetElementEvent<K, V> e) throws Throwable {
+                AsyncEventDispatcher.this.enqueue(() -> listener.modified(e));
+            }
+        };
+    }
+    
+    public <K, V> ValuesElementListener<K, V> async(ValuesElementListener<K, V> listener) {
+        Arguments.mustNotBeNull("listener", listener);
+        return new ValuesElementListener<K, V>() {
+            @Override
+            public void modifying(ValuesElementEvent<K, V> e) throws Throwable {
+                listener.modifying(e);
+            }
+            @Override
+            public void modified(ValuesElementEvent<K, V> e) throws Throwable {
+                AsyncEventDispatcher.this.enqueue(() -> listener.modified(e));
+            }
+        };
+    }
+    
+    /**
+     * Waits until all the pending notifications have been delivered.
+     * 
+     * @param timeout The maximum time to wait
+     * @param unit The time unit of the timeout argument
+     * @return false if the waiting time elapsed before all the pending
+     * notifications have been delivered, otherwise true
+     * @throws InterruptedException The current thread is interrupted
+     */
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            while (this.scheduled) {
+                if (nanos <= 0L) {
+                    return false;
+                }
+                nanos = this.idle.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void enqueue(Notification notification) throws InterruptedException {
+        Runnable[] buffer = this.buffer;
+        boolean schedule = false;
+        ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            while (this.count == buffer.length) {
+                if (this.drainingThread == Thread.currentThread()) {
+                    /*
+                     * The asynchronous listener modifies the collection again, 
+                     * waiting here is a deadlock because only this thread 
+                     * can take the notifications away.
+                     */
+                    throw new IllegalStateException(
+                            bufferIsFullInDeliveringThread(AsyncEventDispatcher.class)
+                    );
+                }
+                this.notFull.await();
+            }
+            buffer[(this.head + this.count) % buffer.length] = () -> {
+                try {
+                    notification.deliver();
+                } catch (Throwable ex) {
+                    Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, ex);
+                }
+            };
+            this.count++;
+            if (!this.scheduled) {
+                this.scheduled = true;
+                schedule = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (schedule) {
+            try {
+                this.executor.execute(this::drain);
+            } catch (RuntimeException | Error ex) {
+                lock.lock();
+                try {
+                    this.scheduled = false;
+                    this.idle.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                throw ex;
+            }
+        }
+    }
+    
+    private void drain() {
+        Runnable[] buffer = this.buffer;
+        ReentrantLock lock = this.lock;
+        while (true) {
+            Runnable task;
+            lock.lock();
+            try {
+                if (this.count == 0) {
+                    this.drainingThread = null;
+                    this.scheduled = false;
+                    this.idle.signalAll();
+                    return;
+                }
+                this.drainingThread = Thread.currentThread();
+                task = buffer[this.head];
+                buffer[this.head] = null;
+                this.head = (this.head + 1) % buffer.length;
+                this.count--;
+                this.notFull.signal();
+            } finally {
+                lock.unlock();
+            }
+            task.run();
+        }
+    }
+    
+    @FunctionalInterface
+    private interface Notification {
+        void deliver() throws Throwable;
+    }
+    
+    @I18N
+    private static native String bufferIsFullInDeliveringThread(Class<?> dispatcherType);
+}
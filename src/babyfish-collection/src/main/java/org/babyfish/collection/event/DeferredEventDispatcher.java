@@ -0,0 +1,182 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.event;
+
+import org.babyfish.collection.FrozenContext;
+import org.babyfish.lang.Arguments;
+
+/**
+ * Defers the "modified" notifications of the wrapped listeners until the 
+ * outermost {@link FrozenContext#batch()} of the current thread is closed.
+ * 
+ * <p>
+ * Inside the batch, the "modified" notifications are queued and delivered 
+ * in the order of the modifications after all the suspended frozen contexts 
+ * have been resumed, so the listener sees the collection that has already 
+ * contained the re-added elements. Outside of any batch, the notifications 
+ * are delivered immediately. The deferred listener should not depend on the
+ * current state of the elements of the event, their frozen properties may 
+ * have been changed again by the later modifications of the same batch.
+ * </p>
+ * 
+ * <p>
+ * The "modifying" notifications are still delivered immediately because they
+ * can veto the modification by throwing exception.
+ * </p>
+ * 
+ * <p>
+ * The listener returned by the "deferred" methods is a new object, it must be used 
+ * to remove the listener from the collection later.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public class DeferredEventDispatcher {
+    
+    protected DeferredEventDispatcher() {
+        throw new UnsupportedOperationException();
+    }
+    
+    public static <E> ElementListener<E> deferred(ElementListener<E> listener) {
+        Arguments.mustNotBeNull("listener", listener);
+        return new ElementListener<E>() {
+            @Override
+            public void modifying(ElementEvent<E> e) throws Throwable {
+                listener.modifying(e);
+            }
+            @Override
+            public void modified(ElementEvent<E> e) throws Throwable {
+                if (!FrozenContext.deferModified(() -> listener.modified(e))) {
+                    listener.modified(e);
+                }
+            }
+        };
+    }
+    
+    public static <E> ListElementListener<E> deferred(ListElementListener<E> listener) {
+        Arguments.mustNotBeNull("listener", listener);
+        return new ListElementListener<E>() {
+            @Override
+            public void modifying(ListElementEvent<E> e) throws Throwable {
+                listener.modifying(e);
+            }
+            @Override
+            public void modified(ListElementEvent<E> e) throws Throwable {
+                if (!FrozenContext.deferModified(() -> listener.modified(e))) {
+                    listener.modified(e);
+                }
+            }
+        };
+    }
+    
+    public static <E> ElementBatchListener<E> deferred(ElementBatchListener<E> listener) {
+        Arguments.mustNotBeNull("listener", listener);
+        return new ElementBatchListener<E>() {
+            @Override
+            public void modifying(ElementBatchEvent<E> e) throws Throwable {
+                listener.modifying(e);
+            }
+            @Override
+            public void modified(ElementBatchEvent<E> e) throws Throwable {
+                if (!FrozenContext.deferModified(() -> listener.modified(e))) {
+                    listener.modified(e);
+                }
+            }
+        };
+    }
+    
+    public static <K, V> MapElementListener<K, V> deferred(MapElementListener<K, V> listener) {
+        Arguments.mustNotBeNull("listener", listener);
+        return new MapElementListener<K, V>() {
+            @Override
+            public void modifying(MapElementEvent<K, V> e) throws Throwable {
+                listener.modifying(e);
+            }
+            @Override
+            public void modified(MapElementEvent<K, V> e) throws Throwable {
+                if (!FrozenContext.deferModified(() -> listener.modified(e))) {
+                    listener.modified(e);
+                }
+            }
+        };
+    }
+    
+    public static <K, V> MapElementBatchListener<K, V> deferred(MapElementBatchListener<K, V> listener) {
+        Arguments.mustNotBeNull("listener", listener);
+        return new MapElementBatchListener<K, V>() {
+            @Override
+            public void modifying(MapElementBatchEvent<K, V> e) throws Throwable {
+                listener.modifying(e);
+            }
+            @Override
+            public void modified(MapElementBatchEvent<K, V> e) throws Throwable {
+                if (!FrozenContext.deferModified(() -> listener.modified(e))) {
+                    listener.modified(e);
+                }
+            }
+        };
+    }
+    
+    public static <K, V> EntryElementListener<K, V> deferred(EntryElementListener<K, V> listener) {
+        Arguments.mustNotBeNull("listener", listener);
+        return new EntryElementListener<K, V>() {
+            @Override
+            public void modifying(EntryElementEvent<K, V> e) throws Throwable {
+                listener.modifying(e);
+            }
+            @Override
+            public void modified(EntryElementEvent<K, V> e) throws Throwable {
+                if (!FrozenContext.deferModified(() -> listener.modified(e))) {
+                    listener.modified(e);
+                }
+            }
+        };
+    }
+    
+    public static <K, V> KeySetElementListener<K, V> deferred(KeySetElementListener<K, V> listener) {
+        Arguments.mustNotBeNull("listener", listener);
+        return new KeySetElementListener<K, V>() {
+            @Override
+            public void modifying(KeySetElementEvent<K, V> e) throws Throwable {
+                listener.modifying(e);
+            }
+            @Override
+            public void modified(KeySetElementEvent<K, V> e) throws Throwable {
+                if (!FrozenContext.deferModified(() -> listener.modified(e))) {
+                    listener.modified(e);
+                }
+            }
+        };
+    }
+    
+    public static <K, V> ValuesElementListener<K, V> deferred(ValuesElementListener<K, V> listener) {
+        Arguments.mustNotBeNull("listener", listener);
+        return new ValuesElementListener<K, V>() {
+            @Override
+            public void modifying(ValuesElementEvent<K, V> e) throws Throwable {
+                listener.modifying(e);
+            }
+            @Override
+            public void modified(ValuesElementEvent<K, V> e) throws Throwable {
+                if (!FrozenContext.deferModified(() -> listener.modified(e))) {
+                    listener.modified(e);
+                }
+            }
+        };
+    }
+}
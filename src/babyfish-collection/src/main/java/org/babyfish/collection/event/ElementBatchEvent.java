@@ -0,0 +1,244 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.event;
+
+import java.util.Arrays;
+
+import org.babyfish.data.event.Modification;
+import org.babyfish.data.event.ModificationEvent;
+import org.babyfish.data.event.ModificationType;
+import org.babyfish.data.event.PropertyVersion;
+import org.babyfish.lang.Arguments;
+
+/**
+ * One event for all the elements changed by one modification.
+ * 
+ * <p>
+ * The elements are kept by parallel arrays and accessed by the indexed methods,
+ * so that a bulk operation such as clear, addAll, removeAll or retainAll 
+ * does not need to create one {@link ElementEvent} for each element.
+ * {@link #getModificationType()} returns the modification type shared by 
+ * all the items, or {@link ModificationType#REPLACE} if they are different.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public class ElementBatchEvent<E> extends ModificationEvent {
+
+    private static final long serialVersionUID = -2190367487702158823L;
+
+    private int size;
+    
+    private ModificationType[] modificationTypes;
+    
+    private Object[] detachedElements;
+    
+    private Object[] attachedElements;
+    
+    private int[] detachedIndexes;
+    
+    private int[] attachedIndexes;
+    
+    protected ElementBatchEvent(
+            Object source,
+            Modification modification,
+            int size,
+            ModificationType[] modificationTypes,
+            Object[] detachedElements,
+            Object[] attachedElements,
+            int[] detachedIndexes,
+            int[] attachedIndexes) {
+        super(source, modification, batchModificationType(modificationTypes, size));
+        this.size = size;
+        this.modificationTypes = modificationTypes;
+        this.detachedElements = detachedElements;
+        this.attachedElements = attachedElements;
+        this.detachedIndexes = detachedIndexes;
+        this.attachedIndexes = attachedIndexes;
+    }
+    
+    protected ElementBatchEvent(Object source, ElementBatchEvent<E> target) {
+        super(source, target);
+        this.size = target.size;
+        this.modificationTypes = target.modificationTypes;
+        this.detachedElements = target.detachedElements;
+        this.attachedElements = target.attachedElements;
+        this.detachedIndexes = target.detachedIndexes;
+        this.attachedIndexes = target.attachedIndexes;
+    }
+    
+    public int size() {
+        return this.size;
+    }
+    
+    public ModificationType getModificationType(int index) {
+        return this.modificationTypes[this.checkIndex(index)];
+    }
+    
+    @SuppressWarnings("unchecked")
+    public E getElement(int index, PropertyVersion version) {
+        this.checkIndex(index);
+        switch (Arguments.mustNotBeNull("version", version)) {
+        case DETACH:
+            return (E)this.detachedElements[index];
+        case ATTACH:
+            return (E)this.attachedElements[index];
+        default:
+            throw new AssertionError("Internal bug");
+        }
+    }
+    
+    /**
+     * Returns the list index of the element, or -1 if the source is not a list 
+     * or the element does not have the specified version.
+     */
+    public int getIndex(int index, PropertyVersion version) {
+        this.checkIndex(index);
+        switch (Arguments.mustNotBeNull("version", version)) {
+        case DETACH:
+            return this.detachedIndexes[index];
+        case ATTACH:
+            return this.attachedIndexes[index];
+        default:
+            throw new AssertionError("Internal bug");
+        }
+    }
+    
+    @Override
+    public ElementBatchEvent<E> dispatch(Object source) {
+        return new ElementBatchEvent<>(source, this);
+    }
+    
+    /**
+     * Creates a batch that contains only one item for an element event, 
+     * it is used to deliver the modifications bubbled from the views and iterators.
+     */
+    public static <E> ElementBatchEvent<E> of(Object source, ElementEvent<E> e) {
+        Builder<E> builder = new Builder<>(1);
+        ModificationType modificationType = e.getModificationType();
+        if (e instanceof ListElementEvent<?>) {
+            ListElementEvent<E> le = (ListElementEvent<E>)e;
+            builder.add(
+                    modificationType, 
+                    le.getElement(PropertyVersion.DETACH), 
+                    le.getElement(PropertyVersion.ATTACH), 
+                    modificationType.contains(PropertyVersion.DETACH) ? le.getIndex(PropertyVersion.DETACH) : -1, 
+                    modificationType.contains(PropertyVersion.ATTACH) ? le.getIndex(PropertyVersion.ATTACH) : -1);
+        } else {
+            builder.add(
+                    modificationType, 
+                    e.getElement(PropertyVersion.DETACH), 
+                    e.getElement(PropertyVersion.ATTACH), 
+                    -1, 
+                    -1);
+        }
+        return builder.build(source, e.getFinalModification());
+    }
+    
+    private int checkIndex(int index) {
+        return Arguments.mustBetweenValue("index", index, 0, true, this.size, false);
+    }
+    
+    private static ModificationType batchModificationType(ModificationType[] modificationTypes, int size) {
+        Arguments.mustBeGreaterThanValue("size", size, 0);
+        ModificationType modificationType = modificationTypes[0];
+        for (int i = 1; i < size; i++) {
+            if (modificationTypes[i] != modificationType) {
+                return ModificationType.REPLACE;
+            }
+        }
+        return modificationType;
+    }
+    
+    /**
+     * Collects the items of a batch, it is used by the implementation of 
+     * the collections and not thread safe.
+     */
+    public static class Builder<E> {
+        
+        private int size;
+        
+        private ModificationType[] modificationTypes;
+        
+        private Object[] detachedElements;
+        
+        private Object[] attachedElements;
+        
+        private int[] detachedIndexes;
+        
+        private int[] attachedIndexes;
+        
+        public Builder() {
+            this(8);
+        }
+        
+        public Builder(int initialCapacity) {
+            Arguments.mustBeGreaterThanValue("initialCapacity", initialCapacity, 0);
+            this.modificationTypes = new ModificationType[initialCapacity];
+            this.detachedElements = new Object[initialCapacity];
+            this.attachedElements = new Object[initialCapacity];
+            this.detachedIndexes = new int[initialCapacity];
+            this.attachedIndexes = new int[initialCapacity];
+        }
+        
+        public int size() {
+            return this.size;
+        }
+        
+        public Builder<E> add(
+                ModificationType modificationType, 
+                E detachedElement, 
+                E attachedElement, 
+                int detachedIndex, 
+                int attachedIndex) {
+            Arguments.mustNotBeNull("modificationType", modificationType);
+            int size = this.size;
+            if (size == this.modificationTypes.length) {
+                int newCapacity = size << 1;
+                this.modificationTypes = Arrays.copyOf(this.modificationTypes, newCapacity);
+                this.detachedElements = Arrays.copyOf(this.detachedElements, newCapacity);
+                this.attachedElements = Arrays.copyOf(this.attachedElements, newCapacity);
+                this.detachedIndexes = Arrays.copyOf(this.detachedIndexes, newCapacity);
+                this.attachedIndexes = Arrays.copyOf(this.attachedIndexes, newCapacity);
+            }
+            this.modificationTypes[size] = modificationType;
+            this.detachedElements[size] = detachedElement;
+            this.attachedElements[size] = attachedElement;
+            this.detachedIndexes[size] = detachedIndex;
+            this.attachedIndexes[size] = attachedIndex;
+            this.size = size + 1;
+            return this;
+        }
+        
+        /**
+         * Creates the event, the builder can not be used after this method is called 
+         * because the event shares the arrays of the builder.
+         */
+        public ElementBatchEvent<E> build(Object source, Modification modification) {
+            return new ElementBatchEvent<>(
+                    source, 
+                    modification, 
+                    this.size, 
+                    this.modificationTypes, 
+                    this.detachedElements, 
+                    this.attachedElements, 
+                    this.detachedIndexes, 
+                    this.attachedIndexes);
+        }
+    }
+}
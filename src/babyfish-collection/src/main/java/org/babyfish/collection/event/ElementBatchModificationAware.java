@@ -0,0 +1,41 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.event;
+
+import org.babyfish.data.ModificationAware;
+
+/**
+ * Implemented by the collections that can notify the listener only once 
+ * for all the elements changed by one modification.
+ * 
+ * <p>
+ * The batch listener only receives the modifications executed on the 
+ * collection that it is registered on, the modifications executed on the
+ * views and iterators of that collection are received as batches 
+ * that contain only one element. If the collection has no other observer,
+ * no {@link ElementEvent} is created at all.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public interface ElementBatchModificationAware<E> extends ModificationAware {
+
+    void addElementBatchListener(ElementBatchListener<? super E> listener);
+    
+    void removeElementBatchListener(ElementBatchListener<? super E> listener);
+}
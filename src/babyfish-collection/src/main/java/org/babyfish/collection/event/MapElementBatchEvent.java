@@ -0,0 +1,227 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.event;
+
+import java.util.Arrays;
+
+import org.babyfish.data.event.Modification;
+import org.babyfish.data.event.ModificationEvent;
+import org.babyfish.data.event.ModificationType;
+import org.babyfish.data.event.PropertyVersion;
+import org.babyfish.lang.Arguments;
+
+/**
+ * One event for all the entries changed by one modification of a map.
+ * 
+ * <p>
+ * It is the map version of {@link ElementBatchEvent}, the keys and values 
+ * are kept by parallel arrays and accessed by the indexed methods.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public class MapElementBatchEvent<K, V> extends ModificationEvent {
+
+    private static final long serialVersionUID = 4475917146508340418L;
+
+    private int size;
+    
+    private ModificationType[] modificationTypes;
+    
+    private Object[] detachedKeys;
+    
+    private Object[] attachedKeys;
+    
+    private Object[] detachedValues;
+    
+    private Object[] attachedValues;
+    
+    protected MapElementBatchEvent(
+            Object source,
+            Modification modification,
+            int size,
+            ModificationType[] modificationTypes,
+            Object[] detachedKeys,
+            Object[] attachedKeys,
+            Object[] detachedValues,
+            Object[] attachedValues) {
+        super(source, modification, batchModificationType(modificationTypes, size));
+        this.size = size;
+        this.modificationTypes = modificationTypes;
+        this.detachedKeys = detachedKeys;
+        this.attachedKeys = attachedKeys;
+        this.detachedValues = detachedValues;
+        this.attachedValues = attachedValues;
+    }
+    
+    protected MapElementBatchEvent(Object source, MapElementBatchEvent<K, V> target) {
+        super(source, target);
+        this.size = target.size;
+        this.modificationTypes = target.modificationTypes;
+        this.detachedKeys = target.detachedKeys;
+        this.attachedKeys = target.attachedKeys;
+        this.detachedValues = target.detachedValues;
+        this.attachedValues = target.attachedValues;
+    }
+    
+    public int size() {
+        return this.size;
+    }
+    
+    public ModificationType getModificationType(int index) {
+        return this.modificationTypes[this.checkIndex(index)];
+    }
+    
+    @SuppressWarnings("unchecked")
+    public K getKey(int index, PropertyVersion version) {
+        this.checkIndex(index);
+        switch (Arguments.mustNotBeNull("version", version)) {
+        case DETACH:
+            return (K)this.detachedKeys[index];
+        case ATTACH:
+            return (K)this.attachedKeys[index];
+        default:
+            throw new AssertionError("Internal bug");
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    public V getValue(int index, PropertyVersion version) {
+        this.checkIndex(index);
+        switch (Arguments.mustNotBeNull("version", version)) {
+        case DETACH:
+            return (V)this.detachedValues[index];
+        case ATTACH:
+            return (V)this.attachedValues[index];
+        default:
+            throw new AssertionError("Internal bug");
+        }
+    }
+    
+    @Override
+    public MapElementBatchEvent<K, V> dispatch(Object source) {
+        return new MapElementBatchEvent<>(source, this);
+    }
+    
+    /**
+     * Creates a batch that contains only one item for a map element event, 
+     * it is used to deliver the modifications bubbled from the views.
+     */
+    public static <K, V> MapElementBatchEvent<K, V> of(Object source, MapElementEvent<K, V> e) {
+        return new Builder<K, V>(1)
+                .add(
+                        e.getModificationType(), 
+                        e.getKey(PropertyVersion.DETACH), 
+                        e.getKey(PropertyVersion.ATTACH), 
+                        e.getValue(PropertyVersion.DETACH), 
+                        e.getValue(PropertyVersion.ATTACH))
+                .build(source, e.getFinalModification());
+    }
+    
+    private int checkIndex(int index) {
+        return Arguments.mustBetweenValue("index", index, 0, true, this.size, false);
+    }
+    
+    private static ModificationType batchModificationType(ModificationType[] modificationTypes, int size) {
+        Arguments.mustBeGreaterThanValue("size", size, 0);
+        ModificationType modificationType = modificationTypes[0];
+        for (int i = 1; i < size; i++) {
+            if (modificationTypes[i] != modificationType) {
+                return ModificationType.REPLACE;
+            }
+        }
+        return modificationType;
+    }
+    
+    /**
+     * Collects the items of a batch, it is used by the implementation of 
+     * the maps and not thread safe.
+     */
+    public static class Builder<K, V> {
+        
+        private int size;
+        
+        private ModificationType[] modificationTypes;
+        
+        private Object[] detachedKeys;
+        
+        private Object[] attachedKeys;
+        
+        private Object[] detachedValues;
+        
+        private Object[] attachedValues;
+        
+        public Builder() {
+            this(8);
+        }
+        
+        public Builder(int initialCapacity) {
+            Arguments.mustBeGreaterThanValue("initialCapacity", initialCapacity, 0);
+            this.modificationTypes = new ModificationType[initialCapacity];
+            this.detachedKeys = new Object[initialCapacity];
+            this.attachedKeys = new Object[initialCapacity];
+            this.detachedValues = new Object[initialCapacity];
+            this.attachedValues = new Object[initialCapacity];
+        }
+        
+        public int size() {
+            return this.size;
+        }
+        
+        public Builder<K, V> add(
+                ModificationType modificationType, 
+                K detachedKey, 
+                K attachedKey, 
+                V detachedValue, 
+                V attachedValue) {
+            Arguments.mustNotBeNull("modificationType", modificationType);
+            int size = this.size;
+            if (size == this.modificationTypes.length) {
+                int newCapacity = size << 1;
+                this.modificationTypes = Arrays.copyOf(this.modificationTypes, newCapacity);
+                this.detachedKeys = Arrays.copyOf(this.detachedKeys, newCapacity);
+                this.attachedKeys = Arrays.copyOf(this.attachedKeys, newCapacity);
+                this.detachedValues = Arrays.copyOf(this.detachedValues, newCapacity);
+                this.attachedValues = Arrays.copyOf(this.attachedValues, newCapacity);
+            }
+            this.modificationTypes[size] = modificationType;
+            this.detachedKeys[size] = detachedKey;
+            this.attachedKeys[size] = attachedKey;
+            this.detachedValues[size] = detachedValue;
+            this.attachedValues[size] = attachedValue;
+            this.size = size + 1;
+            return this;
+        }
+        
+        /**
+         * Creates the event, the builder can not be used after this method is called 
+         * because the event shares the arrays of the builder.
+         */
+        public MapElementBatchEvent<K, V> build(Object source, Modification modification) {
+            return new MapElementBatchEvent<>(
+                    source, 
+                    modification, 
+                    this.size, 
+                    this.modificationTypes, 
+                    this.detachedKeys, 
+                    this.attachedKeys, 
+                    this.detachedValues, 
+                    this.attachedValues);
+        }
+    }
+}
@@ -38,6 +38,10 @@ public class OrderedMapModifications extends MapModifications {
         return new AccessByKey<>(key);
     }
     
+    public static <K, V> Evict<K, V> evict() {
+        return new Evict<>();
+    }
+    
     public static class PollFirstEntry<K, V> extends AbstractModification implements MapModification<K, V> {
         
         private static final long serialVersionUID = 6994894451368420630L;
@@ -52,6 +56,13 @@ public class OrderedMapModifications extends MapModifications {
         PollLastEntry() {}
     }
     
+    public static class Evict<K, V> extends AbstractModification implements MapModification<K, V> {
+        
+        private static final long serialVersionUID = -3530386151170498243L;
+
+        Evict() {}
+    }
+    
     public static class AccessByKey<K, V> extends AbstractModification implements MapModification<K, V> {
         
         private static final long serialVersionUID = 1079667383588195601L;
@@ -0,0 +1,219 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.primitive;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.RandomAccess;
+
+/**
+ * The shared core of the growable arrays of unboxed primitive values.
+ *
+ * <p>
+ * This class owns the primitive array as an opaque object and implements 
+ * the capacity management and the element shifting by 
+ * {@link System#arraycopy(Object, int, Object, int, int)}; 
+ * the derived classes such as {@link IntArrayList} and {@link LongArrayList}
+ * only implement the element access of their primitive type.
+ * </p>
+ *
+ * @author Tao Chen
+ */
+public abstract class AbstractPrimitiveArrayList implements RandomAccess, Serializable {
+    
+    private static final long serialVersionUID = -2204816523418936917L;
+    
+    private static final int MIN_CAPACITY = 8;
+    
+    // int[], long[], ... chosen by the derived class
+    transient Object arr;
+    
+    transient int size;
+    
+    private transient int capacity;
+    
+    AbstractPrimitiveArrayList(int initCapacity) {
+        this.arr = this.newArray(initCapacity);
+        this.capacity = initCapacity;
+    }
+    
+    AbstractPrimitiveArrayList(Object elements, int length) {
+        this.arr = this.newArray(length);
+        this.capacity = length;
+        System.arraycopy(elements, 0, this.arr, 0, length);
+        this.size = length;
+    }
+    
+    public int size() {
+        return this.size;
+    }
+    
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+    
+    public void clear() {
+        this.size = 0;
+    }
+    
+    public void trimToSize() {
+        if (this.size < this.capacity) {
+            this.arr = this.copyElements();
+            this.capacity = this.size;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 1;
+        for (int i = 0; i < this.size; i++) {
+            h = 31 * h + this.elementHashCode(i);
+        }
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof AbstractPrimitiveArrayList)) {
+            return false;
+        }
+        AbstractPrimitiveArrayList other = (AbstractPrimitiveArrayList)obj;
+        if (this.arr.getClass() != other.arr.getClass() || this.size != other.size) {
+            return false;
+        }
+        for (int i = 0; i < this.size; i++) {
+            if (!this.elementEquals(other.arr, i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append('[');
+        for (int i = 0; i < this.size; i++) {
+            if (i != 0) {
+                builder.append(", ");
+            }
+            this.appendElement(builder, i);
+        }
+        builder.append(']');
+        return builder.toString();
+    }
+    
+    /**
+     * Returns the primitive array of this list, grown so that the next 
+     * element can be appended at {@link #size}.
+     */
+    final Object prepareAppend() {
+        if (this.size == this.capacity) {
+            this.grow(this.size + 1);
+        }
+        return this.arr;
+    }
+    
+    /**
+     * Shifts the elements at and after the index to the right, the derived 
+     * class must store the new element into the returned array at the index.
+     */
+    final Object openGap(int index) {
+        Object arr = this.prepareAppend();
+        System.arraycopy(arr, index, arr, index + 1, this.size - index);
+        this.size++;
+        return arr;
+    }
+    
+    final void closeGap(int index) {
+        System.arraycopy(this.arr, index + 1, this.arr, index, this.size - index - 1);
+        this.size--;
+    }
+    
+    final void appendElements(Object elements, int length) {
+        int newSize = this.size + length;
+        if (newSize > this.capacity) {
+            this.grow(newSize);
+        }
+        System.arraycopy(elements, 0, this.arr, this.size, length);
+        this.size = newSize;
+    }
+    
+    final Object copyElements() {
+        Object newArr = this.newArray(this.size);
+        System.arraycopy(this.arr, 0, newArr, 0, this.size);
+        return newArr;
+    }
+    
+    final void checkIndex(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + this.size);
+        }
+    }
+    
+    private void grow(int minCapacity) {
+        int capacity = Math.max(Math.max(this.capacity + (this.capacity >> 1), MIN_CAPACITY), minCapacity);
+        Object newArr = this.newArray(capacity);
+        System.arraycopy(this.arr, 0, newArr, 0, this.size);
+        this.arr = newArr;
+        this.capacity = capacity;
+    }
+    
+    /*
+     * The element operations of the primitive type, "index" is always
+     * an index of the array of this list.
+     */
+    
+    // Returns the shared empty array when the length is 0
+    abstract Object newArray(int length);
+    
+    // The hash code of the boxed element
+    abstract int elementHashCode(int index);
+    
+    abstract boolean elementEquals(Object otherArr, int index);
+    
+    abstract void appendElement(StringBuilder builder, int index);
+    
+    abstract void writeElement(ObjectOutputStream out, int index) throws IOException;
+    
+    abstract void readElement(ObjectInputStream in, int index) throws IOException;
+    
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(this.size);
+        for (int i = 0; i < this.size; i++) {
+            this.writeElement(out, i);
+        }
+    }
+    
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int size = in.readInt();
+        this.arr = this.newArray(size);
+        this.capacity = size;
+        this.size = size;
+        for (int i = 0; i < size; i++) {
+            this.readElement(in, i);
+        }
+    }
+}
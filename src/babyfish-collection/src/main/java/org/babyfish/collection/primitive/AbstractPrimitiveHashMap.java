@@ -0,0 +1,523 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.primitive;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import org.babyfish.lang.Arguments;
+
+/**
+ * The shared core of the hash maps whose keys are unboxed primitive values.
+ *
+ * <p>
+ * The keys and values are stored in two parallel arrays with linear probing 
+ * and backward-shift deletion. This class implements the table algorithms 
+ * once; the derived classes such as {@link IntHashMap} and {@link LongHashMap} 
+ * only own the primitive key array and implement the slot operations of 
+ * their key type, they also expose the unboxed API of the key type.
+ * </p>
+ *
+ * @author Tao Chen
+ */
+public abstract class AbstractPrimitiveHashMap<V> implements Serializable {
+    
+    private static final long serialVersionUID = 3018297461529402651L;
+
+    static final float LOAD_FACTOR = .75F;
+    
+    static final int MIN_CAPACITY = 4;
+    
+    private static final Object[] EMPTY_VALUES = new Object[0];
+    
+    // The primitive key array, the key 0 is the marker of a free slot
+    transient Object keys;
+    
+    transient Object[] values;
+    
+    transient int slotSize;
+    
+    // The mapping of the key 0 is stored separately
+    transient boolean containsZeroKey;
+    
+    transient V zeroValue;
+    
+    private transient int threshold;
+    
+    transient int modCount;
+    
+    AbstractPrimitiveHashMap(int initCapacity) {
+        Arguments.mustBeGreaterThanOrEqualToValue("initCapacity", initCapacity, 0);
+        this.keys = this.newKeys(0);
+        this.values = EMPTY_VALUES;
+        if (initCapacity != 0) {
+            this.allocate(tableSizeFor(initCapacity));
+        }
+    }
+    
+    public int size() {
+        return this.containsZeroKey ? this.slotSize + 1 : this.slotSize;
+    }
+    
+    public boolean isEmpty() {
+        return this.slotSize == 0 && !this.containsZeroKey;
+    }
+    
+    public boolean containsValue(Object value) {
+        if (this.containsZeroKey && Objects.equals(this.zeroValue, value)) {
+            return true;
+        }
+        Object keys = this.keys;
+        Object[] values = this.values;
+        for (int i = values.length - 1; i >= 0; i--) {
+            if (!this.isFreeSlot(keys, i) && Objects.equals(values[i], value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public void clear() {
+        if (!this.isEmpty()) {
+            this.keys = this.newKeys(this.values.length);
+            Arrays.fill(this.values, null);
+            this.slotSize = 0;
+            this.containsZeroKey = false;
+            this.zeroValue = null;
+            this.modCount++;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        int h = this.containsZeroKey ? Objects.hashCode(this.zeroValue) : 0;
+        Object keys = this.keys;
+        Object[] values = this.values;
+        for (int i = values.length - 1; i >= 0; i--) {
+            if (!this.isFreeSlot(keys, i)) {
+                h += this.slotHashCode(keys, i) ^ Objects.hashCode(values[i]);
+            }
+        }
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof AbstractPrimitiveHashMap<?>)) {
+            return false;
+        }
+        AbstractPrimitiveHashMap<?> other = (AbstractPrimitiveHashMap<?>)obj;
+        if (this.keys.getClass() != other.keys.getClass() || 
+                this.size() != other.size() || 
+                this.containsZeroKey != other.containsZeroKey) {
+            return false;
+        }
+        if (this.containsZeroKey && !Objects.equals(this.zeroValue, other.zeroValue)) {
+            return false;
+        }
+        Object keys = this.keys;
+        Object[] values = this.values;
+        for (int i = values.length - 1; i >= 0; i--) {
+            if (!this.isFreeSlot(keys, i)) {
+                int otherIndex = other.indexOfSlot(keys, i);
+                if (otherIndex == -1 || !Objects.equals(values[i], other.values[otherIndex])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append('{');
+        if (this.containsZeroKey) {
+            builder.append("0=");
+            this.appendValue(builder, this.zeroValue);
+        }
+        Object keys = this.keys;
+        Object[] values = this.values;
+        for (int i = values.length - 1; i >= 0; i--) {
+            if (!this.isFreeSlot(keys, i)) {
+                if (builder.length() != 1) {
+                    builder.append(", ");
+                }
+                this.appendSlot(builder, keys, i);
+                builder.append('=');
+                this.appendValue(builder, values[i]);
+            }
+        }
+        builder.append('}');
+        return builder.toString();
+    }
+    
+    /**
+     * Allocates the table on demand, it must be invoked by the derived class 
+     * before it probes a free slot for the new key.
+     */
+    final void prepareInsertion() {
+        if (this.values.length == 0) {
+            this.allocate(MIN_CAPACITY);
+        }
+    }
+    
+    /**
+     * Must be invoked by the derived class after it filled a free slot.
+     */
+    final void afterInsertion() {
+        this.modCount++;
+        if (++this.slotSize > this.threshold) {
+            this.allocate(this.values.length << 1);
+        }
+    }
+    
+    final V putZero(V value) {
+        V oldValue = this.zeroValue;
+        if (!this.containsZeroKey) {
+            this.containsZeroKey = true;
+            this.modCount++;
+        }
+        this.zeroValue = value;
+        return oldValue;
+    }
+    
+    final V removeZero() {
+        if (!this.containsZeroKey) {
+            return null;
+        }
+        V oldValue = this.zeroValue;
+        this.containsZeroKey = false;
+        this.zeroValue = null;
+        this.modCount++;
+        return oldValue;
+    }
+    
+    @SuppressWarnings("unchecked")
+    final V removeSlot(int index) {
+        V oldValue = (V)this.values[index];
+        this.removeAt(index, null);
+        return oldValue;
+    }
+    
+    /*
+     * Backward shift deletion, the following slots of the same cluster are
+     * moved back so that no tombstone is required.
+     */
+    private void removeAt(int index, AbstractEntryIterator<V> itr) {
+        Object keys = this.keys;
+        Object[] values = this.values;
+        int mask = values.length - 1;
+        int hole = index;
+        int next = (hole + 1) & mask;
+        while (!this.isFreeSlot(keys, next)) {
+            int home = this.slotHash(keys, next) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                if (itr != null && next < hole) {
+                    itr.addWrappedKey(keys, next);
+                }
+                this.copySlot(keys, next, keys, hole);
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        this.freeSlot(keys, hole);
+        values[hole] = null;
+        this.slotSize--;
+        this.modCount++;
+    }
+    
+    private void allocate(int capacity) {
+        Object oldKeys = this.keys;
+        Object[] oldValues = this.values;
+        Object keys = this.newKeys(capacity);
+        Object[] values = new Object[capacity];
+        int mask = capacity - 1;
+        for (int i = oldValues.length - 1; i >= 0; i--) {
+            if (!this.isFreeSlot(oldKeys, i)) {
+                int index = this.slotHash(oldKeys, i) & mask;
+                while (!this.isFreeSlot(keys, index)) {
+                    index = (index + 1) & mask;
+                }
+                this.copySlot(oldKeys, i, keys, index);
+                values[index] = oldValues[i];
+            }
+        }
+        this.keys = keys;
+        this.values = values;
+        this.threshold = (int)(capacity * LOAD_FACTOR);
+    }
+    
+    private void appendValue(StringBuilder builder, Object value) {
+        builder.append(value == this ? "(this Map)" : value);
+    }
+    
+    private static int tableSizeFor(int size) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * LOAD_FACTOR < size) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+    
+    /*
+     * The slot operations of the key type, "keys" is the primitive key array 
+     * of this map, an old table or an iterator.
+     */
+    
+    abstract Object newKeys(int capacity);
+    
+    abstract boolean isFreeSlot(Object keys, int slot);
+    
+    // The spread hash used to probe the table
+    abstract int slotHash(Object keys, int slot);
+    
+    // The hash code of the boxed key, used by hashCode()
+    abstract int slotHashCode(Object keys, int slot);
+    
+    abstract void copySlot(Object srcKeys, int srcSlot, Object destKeys, int destSlot);
+    
+    abstract void freeSlot(Object keys, int slot);
+    
+    // Returns the slot of this table whose key equals the key of keys[slot], or -1
+    abstract int indexOfSlot(Object keys, int slot);
+    
+    abstract void appendSlot(StringBuilder builder, Object keys, int slot);
+    
+    abstract void writeSlot(ObjectOutputStream out, Object keys, int slot) throws IOException;
+    
+    // Reads one key and one value and puts them into this map
+    abstract void readMapping(ObjectInputStream in) throws IOException, ClassNotFoundException;
+    
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(this.size());
+        out.writeBoolean(this.containsZeroKey);
+        if (this.containsZeroKey) {
+            out.writeObject(this.zeroValue);
+        }
+        Object keys = this.keys;
+        Object[] values = this.values;
+        for (int i = values.length - 1; i >= 0; i--) {
+            if (!this.isFreeSlot(keys, i)) {
+                this.writeSlot(out, keys, i);
+                out.writeObject(values[i]);
+            }
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int size = in.readInt();
+        this.keys = this.newKeys(0);
+        this.values = EMPTY_VALUES;
+        if (size != 0) {
+            this.allocate(tableSizeFor(size));
+        }
+        if (in.readBoolean()) {
+            this.putZero((V)in.readObject());
+            size--;
+        }
+        for (int i = size; i > 0; i--) {
+            this.readMapping(in);
+        }
+    }
+    
+    /**
+     * Cursor style iterator that never boxes the keys, call {@link #next()}
+     * then read the current mapping by the <code>key()</code> method of the 
+     * derived class and {@link #value()}.
+     */
+    public static abstract class AbstractEntryIterator<V> {
+        
+        private static final int NONE = -3;
+        
+        private static final int ZERO_KEY = -2;
+        
+        private static final int WRAPPED = -1;
+        
+        private AbstractPrimitiveHashMap<V> map;
+        
+        private int expectedModCount;
+        
+        private boolean zeroKeyPending;
+        
+        // The slots in [0, index) have not been visited, the table is visited backward
+        private int index;
+        
+        /*
+         * The keys moved from the unvisited head of the table into its visited 
+         * tail by the backward shift of remove().
+         */
+        private Object wrappedKeys;
+        
+        private int wrappedSize;
+        
+        private int wrappedCapacity;
+        
+        private int current = NONE;
+        
+        // The array and the slot of the current key, used by key() of the derived class
+        Object currentKeys;
+        
+        int currentSlot;
+        
+        AbstractEntryIterator(AbstractPrimitiveHashMap<V> map) {
+            this.map = map;
+            this.expectedModCount = map.modCount;
+            this.zeroKeyPending = map.containsZeroKey;
+            this.index = map.values.length;
+        }
+        
+        public boolean hasNext() {
+            return this.zeroKeyPending || this.seek() != -1 || this.wrappedSize != 0;
+        }
+        
+        public void next() {
+            this.checkForComodification();
+            if (this.zeroKeyPending) {
+                this.zeroKeyPending = false;
+                this.current = ZERO_KEY;
+                this.currentKeys = null;
+                return;
+            }
+            int slot = this.seek();
+            if (slot != -1) {
+                this.index = slot;
+                this.current = slot;
+                this.currentKeys = this.map.keys;
+                this.currentSlot = slot;
+                return;
+            }
+            if (this.wrappedSize != 0) {
+                this.current = WRAPPED;
+                this.currentKeys = this.wrappedKeys;
+                this.currentSlot = --this.wrappedSize;
+                return;
+            }
+            throw new NoSuchElementException();
+        }
+        
+        @SuppressWarnings("unchecked")
+        public V value() {
+            this.checkCurrent();
+            switch (this.current) {
+            case ZERO_KEY:
+                return this.map.zeroValue;
+            case WRAPPED:
+                return (V)this.map.values[this.map.indexOfSlot(this.currentKeys, this.currentSlot)];
+            default:
+                return (V)this.map.values[this.current];
+            }
+        }
+        
+        public V setValue(V value) {
+            V oldValue = this.value();
+            switch (this.current) {
+            case ZERO_KEY:
+                this.map.zeroValue = value;
+                break;
+            case WRAPPED:
+                this.map.values[this.map.indexOfSlot(this.currentKeys, this.currentSlot)] = value;
+                break;
+            default:
+                this.map.values[this.current] = value;
+                break;
+            }
+            return oldValue;
+        }
+        
+        public void remove() {
+            this.checkCurrent();
+            switch (this.current) {
+            case ZERO_KEY:
+                this.map.removeZero();
+                break;
+            case WRAPPED:
+                /*
+                 * The whole table has been visited, 
+                 * so the moved keys need not be tracked.
+                 */
+                this.map.removeAt(this.map.indexOfSlot(this.currentKeys, this.currentSlot), null);
+                break;
+            default:
+                this.map.removeAt(this.current, this);
+                break;
+            }
+            this.expectedModCount = this.map.modCount;
+            this.current = NONE;
+        }
+        
+        /**
+         * Returns false if the current key is the key 0 which is not 
+         * stored in any key array.
+         */
+        final boolean checkCurrentKey() {
+            this.checkCurrent();
+            return this.current != ZERO_KEY;
+        }
+        
+        private void addWrappedKey(Object keys, int slot) {
+            Object wrappedKeys = this.wrappedKeys;
+            if (this.wrappedSize == this.wrappedCapacity) {
+                int newCapacity = Math.max(MIN_CAPACITY, this.wrappedCapacity << 1);
+                Object newWrappedKeys = this.map.newKeys(newCapacity);
+                if (wrappedKeys != null) {
+                    System.arraycopy(wrappedKeys, 0, newWrappedKeys, 0, this.wrappedSize);
+                }
+                this.wrappedKeys = wrappedKeys = newWrappedKeys;
+                this.wrappedCapacity = newCapacity;
+            }
+            this.map.copySlot(keys, slot, wrappedKeys, this.wrappedSize++);
+        }
+        
+        private int seek() {
+            Object keys = this.map.keys;
+            int index = this.index;
+            while (index > 0 && this.map.isFreeSlot(keys, index - 1)) {
+                index--;
+            }
+            this.index = index;
+            return index - 1;
+        }
+        
+        private void checkCurrent() {
+            this.checkForComodification();
+            if (this.current == NONE) {
+                throw new IllegalStateException();
+            }
+        }
+        
+        private void checkForComodification() {
+            if (this.map.modCount != this.expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.primitive;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+import org.babyfish.collection.MACollections;
+import org.babyfish.collection.XList;
+import org.babyfish.lang.Arguments;
+
+/**
+ * A growable array of unboxed <code>long</code> values.
+ *
+ * <p>
+ * The elements are stored in a <code>long[]</code> directly, no wrapper object
+ * is allocated per element. This list is not an {@link XList}: it does not 
+ * use the BaseElements SPI and has no views, view infos, unified comparator 
+ * or modification events. {@link #toXList()} copies the elements into a boxed 
+ * {@link XList} for the APIs which require it.
+ * </p>
+ *
+ * @author Tao Chen
+ */
+public class LongArrayList extends AbstractPrimitiveArrayList {
+    
+    private static final long serialVersionUID = -7736027451912063158L;
+    
+    private static final long[] EMPTY_ARR = new long[0];
+    
+    public LongArrayList() {
+        super(0);
+    }
+    
+    public LongArrayList(int initCapacity) {
+        super(Arguments.mustBeGreaterThanOrEqualToValue("initCapacity", initCapacity, 0));
+    }
+    
+    public LongArrayList(long ... elements) {
+        super(Arguments.mustNotBeNull("elements", elements), elements.length);
+    }
+    
+    public long get(int index) {
+        this.checkIndex(index);
+        return ((long[])this.arr)[index];
+    }
+    
+    public long set(int index, long element) {
+        this.checkIndex(index);
+        long[] arr = (long[])this.arr;
+        long oldElement = arr[index];
+        arr[index] = element;
+        return oldElement;
+    }
+    
+    public void add(long element) {
+        ((long[])this.prepareAppend())[this.size++] = element;
+    }
+    
+    public void add(int index, long element) {
+        Arguments.mustBetweenValue("index", index, 0, true, this.size, true);
+        ((long[])this.openGap(index))[index] = element;
+    }
+    
+    public void addAll(long ... elements) {
+        Arguments.mustNotBeNull("elements", elements);
+        this.appendElements(elements, elements.length);
+    }
+    
+    public long removeAt(int index) {
+        this.checkIndex(index);
+        long oldElement = ((long[])this.arr)[index];
+        this.closeGap(index);
+        return oldElement;
+    }
+    
+    public boolean removeElement(long element) {
+        int index = this.indexOf(element);
+        if (index == -1) {
+            return false;
+        }
+        this.removeAt(index);
+        return true;
+    }
+    
+    public boolean contains(long element) {
+        return this.indexOf(element) != -1;
+    }
+    
+    public int indexOf(long element) {
+        long[] arr = (long[])this.arr;
+        for (int i = 0; i < this.size; i++) {
+            if (arr[i] == element) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    public int lastIndexOf(long element) {
+        long[] arr = (long[])this.arr;
+        for (int i = this.size - 1; i >= 0; i--) {
+            if (arr[i] == element) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    public void sort() {
+        Arrays.sort((long[])this.arr, 0, this.size);
+    }
+    
+    public long[] toArray() {
+        return (long[])this.copyElements();
+    }
+    
+    /**
+     * Returns an unmodifiable boxed copy of this list.
+     */
+    public XList<Long> toXList() {
+        return MACollections.wrapLong(this.toArray());
+    }
+
+    @Override
+    final Object newArray(int length) {
+        return length == 0 ? EMPTY_ARR : new long[length];
+    }
+
+    @Override
+    final int elementHashCode(int index) {
+        return Long.hashCode(((long[])this.arr)[index]);
+    }
+
+    @Override
+    final boolean elementEquals(Object otherArr, int index) {
+        return ((long[])this.arr)[index] == ((long[])otherArr)[index];
+    }
+
+    @Override
+    final void appendElement(StringBuilder builder, int index) {
+        builder.append(((long[])this.arr)[index]);
+    }
+
+    @Override
+    final void writeElement(ObjectOutputStream out, int index) throws IOException {
+        out.writeLong(((long[])this.arr)[index]);
+    }
+
+    @Override
+    final void readElement(ObjectInputStream in, int index) throws IOException {
+        ((long[])this.arr)[index] = in.readLong();
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.primitive;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.babyfish.lang.Arguments;
+
+/**
+ * A hash map whose keys are unboxed <code>long</code> values.
+ *
+ * <p>
+ * The keys and values are stored in two parallel arrays with linear probing,
+ * so no entry object and no boxed key is allocated per mapping. That is
+ * useful for the large maps keyed by entity primary keys. This map is not
+ * an {@link org.babyfish.collection.XMap}: it does not use the BaseEntries SPI 
+ * and has no views, view infos, unified comparators or modification events;
+ * use {@link org.babyfish.collection.HashMap} or 
+ * {@link org.babyfish.collection.MAHashMap} when they are required.
+ * </p>
+ *
+ * <p>
+ * The table algorithms are shared with the maps of the other key types by 
+ * {@link AbstractPrimitiveHashMap}, this class only implements the 
+ * <code>long</code> specific probing and slot operations.
+ * </p>
+ *
+ * @author Tao Chen
+ */
+public class LongHashMap<V> extends AbstractPrimitiveHashMap<V> {
+    
+    private static final long serialVersionUID = 2891370440626195217L;
+    
+    private static final long[] EMPTY_KEYS = new long[0];
+    
+    public LongHashMap() {
+        super(0);
+    }
+    
+    public LongHashMap(int initCapacity) {
+        super(initCapacity);
+    }
+    
+    public LongHashMap(LongHashMap<? extends V> m) {
+        this(Arguments.mustNotBeNull("m", m).size());
+        this.putAll(m);
+    }
+    
+    public boolean containsKey(long key) {
+        if (key == 0) {
+            return this.containsZeroKey;
+        }
+        return this.indexOf(key) != -1;
+    }
+    
+    public V get(long key) {
+        return this.getOrDefault(key, null);
+    }
+    
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(long key, V defaultValue) {
+        if (key == 0) {
+            return this.containsZeroKey ? this.zeroValue : defaultValue;
+        }
+        int index = this.indexOf(key);
+        return index != -1 ? (V)this.values[index] : defaultValue;
+    }
+    
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (key == 0) {
+            return this.putZero(value);
+        }
+        this.prepareInsertion();
+        long[] keys = (long[])this.keys;
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (true) {
+            long k = keys[index];
+            if (k == 0) {
+                break;
+            }
+            if (k == key) {
+                V oldValue = (V)this.values[index];
+                this.values[index] = value;
+                return oldValue;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        this.values[index] = value;
+        this.afterInsertion();
+        return null;
+    }
+    
+    public void putAll(LongHashMap<? extends V> m) {
+        Arguments.mustNotBeNull("m", m);
+        if (m.containsZeroKey) {
+            this.put(0, m.zeroValue);
+        }
+        long[] keys = (long[])m.keys;
+        Object[] values = m.values;
+        for (int i = keys.length - 1; i >= 0; i--) {
+            if (keys[i] != 0) {
+                @SuppressWarnings("unchecked")
+                V value = (V)values[i];
+                this.put(keys[i], value);
+            }
+        }
+    }
+    
+    public V remove(long key) {
+        if (key == 0) {
+            return this.removeZero();
+        }
+        int index = this.indexOf(key);
+        if (index == -1) {
+            return null;
+        }
+        return this.removeSlot(index);
+    }
+    
+    public long[] keys() {
+        long[] arr = new long[this.size()];
+        int len = 0;
+        if (this.containsZeroKey) {
+            arr[len++] = 0;
+        }
+        long[] keys = (long[])this.keys;
+        for (int i = keys.length - 1; i >= 0; i--) {
+            if (keys[i] != 0) {
+                arr[len++] = keys[i];
+            }
+        }
+        return arr;
+    }
+    
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryVisitor<? super V> visitor) {
+        Arguments.mustNotBeNull("visitor", visitor);
+        if (this.containsZeroKey) {
+            visitor.visit(0, this.zeroValue);
+        }
+        long[] keys = (long[])this.keys;
+        Object[] values = this.values;
+        for (int i = keys.length - 1; i >= 0; i--) {
+            if (keys[i] != 0) {
+                visitor.visit(keys[i], (V)values[i]);
+            }
+        }
+    }
+    
+    public EntryIterator<V> iterator() {
+        return new EntryIterator<>(this);
+    }
+    
+    private int indexOf(long key) {
+        long[] keys = (long[])this.keys;
+        if (keys.length == 0) {
+            return -1;
+        }
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (true) {
+            long k = keys[index];
+            if (k == key) {
+                return index;
+            }
+            if (k == 0) {
+                return -1;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+    
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int)(h ^ (h >>> 32));
+    }
+
+    @Override
+    final Object newKeys(int capacity) {
+        return capacity == 0 ? EMPTY_KEYS : new long[capacity];
+    }
+
+    @Override
+    final boolean isFreeSlot(Object keys, int slot) {
+        return ((long[])keys)[slot] == 0;
+    }
+
+    @Override
+    final int slotHash(Object keys, int slot) {
+        return hash(((long[])keys)[slot]);
+    }
+
+    @Override
+    final int slotHashCode(Object keys, int slot) {
+        return Long.hashCode(((long[])keys)[slot]);
+    }
+
+    @Override
+    final void copySlot(Object srcKeys, int srcSlot, Object destKeys, int destSlot) {
+        ((long[])destKeys)[destSlot] = ((long[])srcKeys)[srcSlot];
+    }
+
+    @Override
+    final void freeSlot(Object keys, int slot) {
+        ((long[])keys)[slot] = 0;
+    }
+
+    @Override
+    final int indexOfSlot(Object keys, int slot) {
+        return this.indexOf(((long[])keys)[slot]);
+    }
+
+    @Override
+    final void appendSlot(StringBuilder builder, Object keys, int slot) {
+        builder.append(((long[])keys)[slot]);
+    }
+
+    @Override
+    final void writeSlot(ObjectOutputStream out, Object keys, int slot) throws IOException {
+        out.writeLong(((long[])keys)[slot]);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    final void readMapping(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        long key = in.readLong();
+        this.put(key, (V)in.readObject());
+    }
+    
+    @FunctionalInterface
+    public interface EntryVisitor<V> {
+        
+        void visit(long key, V value);
+    }
+    
+    /**
+     * Cursor style iterator that never boxes the keys, call {@link #next()}
+     * then read the current mapping by {@link #key()} and {@link #value()}.
+     */
+    public static class EntryIterator<V> extends AbstractEntryIterator<V> {
+        
+        EntryIterator(LongHashMap<V> map) {
+            super(map);
+        }
+        
+        public long key() {
+            return this.checkCurrentKey() ? ((long[])this.currentKeys)[this.currentSlot] : 0;
+        }
+    }
+}
@@ -23,6 +23,9 @@ import java.util.NavigableSet;
 
 import org.babyfish.collection.MAList;
 import org.babyfish.collection.UnifiedComparator;
+import org.babyfish.collection.event.ElementBatchEvent;
+import org.babyfish.collection.event.ElementBatchListener;
+import org.babyfish.collection.event.ElementBatchModificationAware;
 import org.babyfish.collection.event.ElementEvent.Modification;
 import org.babyfish.collection.event.ElementListener;
 import org.babyfish.collection.event.ListElementEvent;
@@ -40,6 +43,7 @@ import org.babyfish.data.ModificationException;
 import org.babyfish.data.View;
 import org.babyfish.data.event.AttributeScope;
 import org.babyfish.data.event.Cause;
+import org.babyfish.data.event.ModificationType;
 import org.babyfish.data.event.PropertyVersion;
 import org.babyfish.data.event.spi.GlobalAttributeContext;
 import org.babyfish.data.event.spi.InAllChainAttributeContext;
@@ -49,15 +53,23 @@ import org.babyfish.lang.I18N;
 /**
  * @author Tao Chen
  */
-public abstract class AbstractMAList<E> extends AbstractXList<E> implements MAList<E> {
+public abstract class AbstractMAList<E> 
+extends AbstractXList<E> 
+implements MAList<E>, ElementBatchModificationAware<E> {
     
     private static final Object AK_ELEMENT_LISTENER = new Object();
 
     private static final Object AK_LIST_ELEMENT_LISTENER = new Object();
+    
+    private static final Object AK_ELEMENT_BATCH_LISTENER = new Object();
+    
+    private static final Object AK_ELEMENT_BATCH_EVENT = new Object();
 
     protected transient ElementListener<E> elementListener;
     
     protected transient ListElementListener<E> listElementListener;
+    
+    protected transient ElementBatchListener<E> elementBatchListener;
 
     protected AbstractMAList(BaseElements<E> baseElements) {
         super(baseElements);
@@ -121,8 +133,52 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
                     this.listElementListener, 
                     (ListElementListener<E>)listener);
     }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void addElementBatchListener(ElementBatchListener<? super E> listener) {
+        this.elementBatchListener = ElementBatchListener.combine(
+                    this.elementBatchListener, 
+                    (ElementBatchListener<E>)listener);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void removeElementBatchListener(ElementBatchListener<? super E> listener) {
+        this.elementBatchListener = ElementBatchListener.remove(
+                    this.elementBatchListener, 
+                    (ElementBatchListener<E>)listener);
+    }
+    
+    /**
+     * Returns whether the modification of this list can be observed by anything.
+     * 
+     * <p>
+     * If it returns false, the modification operations do not create the handler,
+     * modification and event objects, they modify the base elements directly 
+     * just like the X collections. 
+     * Override it and return true if the derived class observes the modification 
+     * by some way that is not listener or the overridden event methods.
+     * </p>
+     */
+    protected boolean isModificationObserved() {
+        return 
+                this.elementListener != null || 
+                this.listElementListener != null || 
+                this instanceof View ||
+                ModificationHooks.isOverridden(this.getClass());
+    }
+    
+    /**
+     * Returns whether the modification operations need the handler, 
+     * either for the element events or for the batch listener.
+     */
+    final boolean isHandlerRequired() {
+        return this.elementBatchListener != null || this.isModificationObserved();
+    }
     
     protected void executeModifying(ListElementEvent<E> e) {
+        long start = CollectionInstrumentations.ENABLED ? System.nanoTime() : 0L;
         Throwable finalThrowable = null;
         try {
             this.onModifying(e);    
@@ -136,6 +192,13 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
                 finalThrowable = ex;
             }
         }
+        try {
+            this.raiseBubbledBatchModifying(e);
+        } catch (Throwable ex) {
+            if (finalThrowable == null) {
+                finalThrowable = ex;
+            }
+        }
         try {
             this.bubbleModifying(e);
         } catch (Throwable ex) {
@@ -143,18 +206,29 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
                 finalThrowable = ex;
             }
         }
+        if (CollectionInstrumentations.ENABLED) {
+            CollectionInstrumentations.eventExecuted(this, e, false, System.nanoTime() - start);
+        }
         if (finalThrowable != null) {
             throw new ModificationException(false, e, finalThrowable);
         }
     }
 
     protected void executeModified(ListElementEvent<E> e) {
+        long start = CollectionInstrumentations.ENABLED ? System.nanoTime() : 0L;
         Throwable finalThrowable = null;
         try {
             this.bubbleModified(e);     
         } catch (Throwable ex) {
             finalThrowable = ex;
         }
+        try {
+            this.raiseBubbledBatchModified(e);
+        } catch (Throwable ex) {
+            if (finalThrowable == null) {
+                finalThrowable = ex;
+            }
+        }
         try {
             this.raiseModified(e);
         } catch (Throwable ex) {
@@ -169,6 +243,9 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
                 finalThrowable = ex;
             }
         }
+        if (CollectionInstrumentations.ENABLED) {
+            CollectionInstrumentations.eventExecuted(this, e, true, System.nanoTime() - start);
+        }
         if (finalThrowable != null) {
             throw new ModificationException(true, e, finalThrowable);
         }
@@ -247,6 +324,68 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
         }
     }
     
+    void executeBatchModifying(ElementBatchEvent<E> e) {
+        try {
+            this.raiseBatchModifying(e);
+        } catch (Throwable ex) {
+            throw new ModificationException(false, e, ex);
+        }
+    }
+    
+    void executeBatchModified(ElementBatchEvent<E> e) {
+        try {
+            this.raiseBatchModified(e);
+        } catch (Throwable ex) {
+            throw new ModificationException(true, e, ex);
+        }
+    }
+    
+    private void raiseBatchModifying(ElementBatchEvent<E> e) throws Throwable {
+        ElementBatchListener<E> elementBatchListener = this.elementBatchListener;
+        if (elementBatchListener != null) {
+            e
+            .getAttributeContext(AttributeScope.LOCAL)
+            .addAttribute(AK_ELEMENT_BATCH_LISTENER, elementBatchListener);
+            elementBatchListener.modifying(e);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void raiseBatchModified(ElementBatchEvent<E> e) throws Throwable {
+        ElementBatchListener<E> elementBatchListener = 
+            (ElementBatchListener<E>)
+            e
+            .getAttributeContext(AttributeScope.LOCAL)
+            .removeAttribute(AK_ELEMENT_BATCH_LISTENER);
+        if (elementBatchListener != null) {
+            elementBatchListener.modified(e);
+        }
+    }
+    
+    private void raiseBubbledBatchModifying(ListElementEvent<E> e) throws Throwable {
+        if (e.getCause() != null && this.elementBatchListener != null) {
+            ElementBatchEvent<E> batchEvent = ElementBatchEvent.of(this, e);
+            e
+            .getAttributeContext(AttributeScope.LOCAL)
+            .addAttribute(AK_ELEMENT_BATCH_EVENT, batchEvent);
+            this.raiseBatchModifying(batchEvent);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void raiseBubbledBatchModified(ListElementEvent<E> e) throws Throwable {
+        if (e.getCause() != null) {
+            ElementBatchEvent<E> batchEvent = 
+                (ElementBatchEvent<E>)
+                e
+                .getAttributeContext(AttributeScope.LOCAL)
+                .removeAttribute(AK_ELEMENT_BATCH_EVENT);
+            if (batchEvent != null) {
+                this.raiseBatchModified(batchEvent);
+            }
+        }
+    }
+    
     protected void bubbleModifying(ListElementEvent<E> e) {
         
     }
@@ -262,7 +401,9 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
                 this.tailHide(),
                 this.baseElements.allSize() - this.headHide() - this.tailHide(), 
                 e, 
-                this.new HandlerImpl4List(ListModifications.add(e)),
+                this.isHandlerRequired() ? 
+                        this.new HandlerImpl4List(ListModifications.add(e)) : 
+                        null,
                 this.createBaseElementsRangeChangeHandler());
         return true;
     }
@@ -274,8 +415,9 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
                 this.tailHide(),
                 index, 
                 element, 
-                this.new HandlerImpl4List(
-                        ListModifications.add(index, element)),
+                this.isHandlerRequired() ? 
+                        this.new HandlerImpl4List(ListModifications.add(index, element)) : 
+                        null,
                         this.createBaseElementsRangeChangeHandler());
     }
 
@@ -286,7 +428,9 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
                 this.tailHide(),
                 this.baseElements.allSize() - this.headHide() - this.tailHide(),
                 c, 
-                this.new HandlerImpl4List(ListModifications.addAll(c)),
+                this.isHandlerRequired() ? 
+                        this.new HandlerImpl4List(ListModifications.addAll(c)) : 
+                        null,
                 this.createBaseElementsRangeChangeHandler());
     }
 
@@ -297,7 +441,9 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
                 this.tailHide(),
                 index,
                 c, 
-                this.new HandlerImpl4List(ListModifications.addAll(index, c)),
+                this.isHandlerRequired() ? 
+                        this.new HandlerImpl4List(ListModifications.addAll(index, c)) : 
+                        null,
                 this.createBaseElementsRangeChangeHandler());
     }
 
@@ -306,7 +452,9 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
         this.baseElements.clear(
                 this.headHide(),
                 this.tailHide(),
-                this.new HandlerImpl4List(ListModifications.<E>clear()));
+                this.isHandlerRequired() ? 
+                        this.new HandlerImpl4List(ListModifications.<E>clear()) : 
+                        null);
     }
 
     @Override
@@ -330,7 +478,9 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
                 this.headHide(),
                 this.tailHide(),
                 index, 
-                this.new HandlerImpl4List(ListModifications.<E>remove(index)));
+                this.isHandlerRequired() ? 
+                        this.new HandlerImpl4List(ListModifications.<E>remove(index)) : 
+                        null);
     }
 
     @Override
@@ -339,7 +489,9 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
                 this.headHide(),
                 this.tailHide(),
                 o, 
-                this.new HandlerImpl4List(ListModifications.<E>remove(o)));
+                this.isHandlerRequired() ? 
+                        this.new HandlerImpl4List(ListModifications.<E>remove(o)) : 
+                        null);
     }
 
     @Override
@@ -348,7 +500,9 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
                 this.headHide(),
                 this.tailHide(),
                 c, 
-                this.new HandlerImpl4List(ListModifications.<E>removeAll(c)));
+                this.isHandlerRequired() ? 
+                        this.new HandlerImpl4List(ListModifications.<E>removeAll(c)) : 
+                        null);
     }
 
     @Override
@@ -357,7 +511,9 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
                 this.headHide(),
                 this.tailHide(),
                 c, 
-                this.new HandlerImpl4List(ListModifications.<E>retainAll(c)));
+                this.isHandlerRequired() ? 
+                        this.new HandlerImpl4List(ListModifications.<E>retainAll(c)) : 
+                        null);
     }
 
     @Override
@@ -367,7 +523,9 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
                 this.tailHide(),
                 index, 
                 element, 
-                this.new HandlerImpl4List(ListModifications.set(index, element)),
+                this.isHandlerRequired() ? 
+                        this.new HandlerImpl4List(ListModifications.set(index, element)) : 
+                        null,
                 this.createBaseElementsRangeChangeHandler());
     }
 
@@ -436,6 +594,14 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
                         (ListElementListener<E>)listener);
         }
         
+        protected boolean isModificationObserved() {
+            return 
+                    this.elementListener != null || 
+                    this.listElementListener != null || 
+                    this.parentList.isHandlerRequired() ||
+                    ModificationHooks.isOverridden(this.getClass());
+        }
+        
         protected void executeModifying(ListElementEvent<E> e) {
             Throwable finalThrowable = null;
             try {
@@ -610,7 +776,10 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
         @Override
         public void remove() {
             try {
-                this.iterator.remove(new HandlerImpl4ListIterator(ListIteratorModifications.<E>remove()));
+                this.iterator.remove(
+                        this.isModificationObserved() ? 
+                                new HandlerImpl4ListIterator(ListIteratorModifications.<E>remove()) : 
+                                null);
             } finally {
                 this.syncParentModCount();
             }
@@ -619,7 +788,11 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
         @Override
         public void set(E e) {
             try {
-                this.iterator.set(e, new HandlerImpl4ListIterator(ListIteratorModifications.set(e)));
+                this.iterator.set(
+                        e, 
+                        this.isModificationObserved() ? 
+                                new HandlerImpl4ListIterator(ListIteratorModifications.set(e)) : 
+                                null);
             } finally {
                 this.syncParentModCount();
             }
@@ -628,7 +801,11 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
         @Override
         public void add(E e) {
             try {
-                this.iterator.add(e, new HandlerImpl4ListIterator(ListIteratorModifications.add(e)));
+                this.iterator.add(
+                        e, 
+                        this.isModificationObserved() ? 
+                                new HandlerImpl4ListIterator(ListIteratorModifications.add(e)) : 
+                                null);
             } finally {
                 this.syncParentModCount();
             }
@@ -794,6 +971,15 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
             
         }
         
+        @Override
+        protected boolean isModificationObserved() {
+            return 
+                    this.elementListener != null || 
+                    this.listElementListener != null || 
+                    this.parentList.isHandlerRequired() ||
+                    ModificationHooks.isOverridden(this.getClass());
+        }
+        
         @Override
         protected int headHide() {
             return this.headHide;
@@ -1073,12 +1259,29 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
         
         private final Modification<E> modification;
         
+        private final boolean elementEventRequired;
+        
+        private ElementBatchEvent.Builder<E> batchBuilder;
+        
+        private ElementBatchEvent<E> batchEvent;
+        
+        private int unflushedCount;
+        
         HandlerImpl4List(Modification<E> modification) {
+            AbstractMAList<E> owner = AbstractMAList.this;
             this.modification = modification;
+            this.elementEventRequired = owner.isModificationObserved();
+            if (owner.elementBatchListener != null) {
+                this.batchBuilder = new ElementBatchEvent.Builder<>();
+            }
         }
         
         @Override
         public Object createAddingArgument(int index, E element) {
+            this.prepare(ModificationType.ATTACH, null, element, -1, index);
+            if (!this.elementEventRequired) {
+                return null;
+            }
             return ListElementEvent.createAttachEvent(
                     AbstractMAList.this, 
                     this.modification, 
@@ -1097,12 +1300,22 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
         @SuppressWarnings("unchecked")
         @Override
         public void added(int index, E element, Object argument) {
-            ListElementEvent<E> event = (ListElementEvent<E>)argument;
-            AbstractMAList.this.executeModified(event);
+            try {
+                if (argument != null) {
+                    ListElementEvent<E> event = (ListElementEvent<E>)argument;
+                    AbstractMAList.this.executeModified(event);
+                }
+            } finally {
+                this.flushed();
+            }
         }
 
         @Override
         public Object createChangingArgument(int oldIndex, int newIndex, E oldElement, E newElement) {
+            this.prepare(ModificationType.REPLACE, oldElement, newElement, oldIndex, newIndex);
+            if (!this.elementEventRequired) {
+                return null;
+            }
             return ListElementEvent.createReplaceEvent(
                     AbstractMAList.this, 
                     this.modification, 
@@ -1123,12 +1336,22 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
         @SuppressWarnings("unchecked")
         @Override
         public void changed(int oldIndex, int newIndex, E oldElement, E newElement, Object argument) {
-            ListElementEvent<E> event = (ListElementEvent<E>)argument;
-            AbstractMAList.this.executeModified(event);
+            try {
+                if (argument != null) {
+                    ListElementEvent<E> event = (ListElementEvent<E>)argument;
+                    AbstractMAList.this.executeModified(event);
+                }
+            } finally {
+                this.flushed();
+            }
         }
 
         @Override
         public Object createRemovingArgument(int index, E element) {
+            this.prepare(ModificationType.DETACH, element, null, index, -1);
+            if (!this.elementEventRequired) {
+                return null;
+            }
             return ListElementEvent.createDetachEvent(
                     AbstractMAList.this, 
                     this.modification, 
@@ -1140,23 +1363,50 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
         @SuppressWarnings("unchecked")
         @Override
         public void removing(int index, E element, Object argument) {
-            ListElementEvent<E> event = (ListElementEvent<E>)argument;
-            AbstractMAList.this.executeModifying(event);
+            if (argument != null) {
+                ListElementEvent<E> event = (ListElementEvent<E>)argument;
+                AbstractMAList.this.executeModifying(event);
+            }
         }
 
         @SuppressWarnings("unchecked")
         @Override
         public void removed(int index, E element, Object argument) {
-            ListElementEvent<E> event = (ListElementEvent<E>)argument;
-            AbstractMAList.this.executeModified(event);
+            try {
+                if (argument != null) {
+                    ListElementEvent<E> event = (ListElementEvent<E>)argument;
+                    AbstractMAList.this.executeModified(event);
+                }
+            } finally {
+                this.flushed();
+            }
+        }
+        
+        @Override
+        public void executing() {
+            ElementBatchEvent.Builder<E> batchBuilder = this.batchBuilder;
+            if (batchBuilder != null && batchBuilder.size() != 0) {
+                this.batchBuilder = null;
+                ElementBatchEvent<E> batchEvent = batchBuilder.build(AbstractMAList.this, this.modification);
+                this.batchEvent = batchEvent;
+                try {
+                    AbstractMAList.this.executeBatchModifying(batchEvent);
+                } catch (RuntimeException | Error ex) {
+                    ((InAllChainAttributeContext)batchEvent.getAttributeContext(AttributeScope.IN_ALL_CHAIN))
+                    .setPreThrowable(ex);
+                    throw ex;
+                }
+            }
         }
         
         @SuppressWarnings("unchecked")
         @Override
         public void setPreThrowable(Object argument, Throwable throwable) {
-            ListElementEvent<E> event = (ListElementEvent<E>)argument;
-            ((InAllChainAttributeContext)event.getAttributeContext(AttributeScope.IN_ALL_CHAIN))
-            .setPreThrowable(throwable);
+            if (argument != null) {
+                ListElementEvent<E> event = (ListElementEvent<E>)argument;
+                ((InAllChainAttributeContext)event.getAttributeContext(AttributeScope.IN_ALL_CHAIN))
+                .setPreThrowable(throwable);
+            }
         }
 
         @Override
@@ -1172,6 +1422,29 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
         public void setConflictAbsIndexes(NavigableSet<Integer> conflictAbsIndexes) {
             ConflictAbsoluteIndexes.set(this.modification, conflictAbsIndexes);
         }
+        
+        private void prepare(
+                ModificationType modificationType, 
+                E detachedElement, 
+                E attachedElement, 
+                int detachedIndex, 
+                int attachedIndex) {
+            this.unflushedCount++;
+            ElementBatchEvent.Builder<E> batchBuilder = this.batchBuilder;
+            if (batchBuilder != null) {
+                batchBuilder.add(modificationType, detachedElement, attachedElement, detachedIndex, attachedIndex);
+            }
+        }
+        
+        private void flushed() {
+            if (--this.unflushedCount == 0) {
+                ElementBatchEvent<E> batchEvent = this.batchEvent;
+                if (batchEvent != null) {
+                    this.batchEvent = null;
+                    AbstractMAList.this.executeBatchModified(batchEvent);
+                }
+            }
+        }
     }
     
     private class SpecialHandlerFactoryImpl implements BaseElementsSpecialHandlerFactory<E> {
@@ -1180,12 +1453,16 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
 
         @Override
         public BaseElementsHandler<E> createInversedSuspendingHandler(E element) {
-            return new HandlerImpl4List(ListModifications.suspendViaInversedFrozenContext(element));
+            return AbstractMAList.this.isHandlerRequired() ? 
+                    AbstractMAList.this.new HandlerImpl4List(ListModifications.suspendViaInversedFrozenContext(element)) : 
+                    null;
         }
 
         @Override
         public BaseElementsHandler<E> createInversedResumingHandler() {
-            return new HandlerImpl4List(ListModifications.resumeViaInversedFrozenContext());
+            return AbstractMAList.this.isHandlerRequired() ? 
+                    AbstractMAList.this.new HandlerImpl4List(ListModifications.resumeViaInversedFrozenContext()) : 
+                    null;
         }
 
         @Override
@@ -19,6 +19,7 @@ package org.babyfish.collection.spi;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.Spliterator;
 
 import org.babyfish.collection.MAMap;
 import org.babyfish.collection.UnifiedComparator;
@@ -29,6 +30,9 @@ import org.babyfish.collection.event.EntryElementEvent;
 import org.babyfish.collection.event.EntryElementListener;
 import org.babyfish.collection.event.KeySetElementEvent;
 import org.babyfish.collection.event.KeySetElementListener;
+import org.babyfish.collection.event.MapElementBatchEvent;
+import org.babyfish.collection.event.MapElementBatchListener;
+import org.babyfish.collection.event.MapElementBatchModificationAware;
 import org.babyfish.collection.event.MapElementEvent;
 import org.babyfish.collection.event.MapElementEvent.MapModification;
 import org.babyfish.collection.event.MapElementListener;
@@ -43,6 +47,7 @@ import org.babyfish.collection.spi.base.BaseEntriesHandler;
 import org.babyfish.collection.spi.base.BaseEntriesSpecialHandlerFactory;
 import org.babyfish.collection.spi.base.BaseEntry;
 import org.babyfish.collection.spi.base.BaseEntryIterator;
+import org.babyfish.collection.spi.base.BasicAlgorithms;
 import org.babyfish.collection.spi.base.NoEntryException;
 import org.babyfish.collection.viewinfo.CollectionViewInfos;
 import org.babyfish.collection.viewinfo.MapViewInfos;
@@ -52,6 +57,7 @@ import org.babyfish.data.View;
 import org.babyfish.data.ViewInfo;
 import org.babyfish.data.event.AttributeScope;
 import org.babyfish.data.event.Cause;
+import org.babyfish.data.event.ModificationType;
 import org.babyfish.data.event.spi.GlobalAttributeContext;
 import org.babyfish.data.event.spi.InAllChainAttributeContext;
 import org.babyfish.lang.Arguments;
@@ -62,7 +68,7 @@ import org.babyfish.validator.Validator;
  */
 public abstract class AbstractMAMap<K, V> 
     extends AbstractXMap<K, V> 
-    implements MAMap<K, V> {
+    implements MAMap<K, V>, MapElementBatchModificationAware<K, V> {
     
     private static final Object AK_ELEMENT_LISTENER = new Object();
     
@@ -73,9 +79,15 @@ public abstract class AbstractMAMap<K, V>
     private static final Object AK_VALUES_ELEMENT_LISTENER = new Object();
     
     private static final Object AK_ENTRY_ELEMENT_LISTENER = new Object();
+    
+    private static final Object AK_MAP_ELEMENT_BATCH_LISTENER = new Object();
+    
+    private static final Object AK_MAP_ELEMENT_BATCH_EVENT = new Object();
 
     protected transient MapElementListener<K, V> mapElementListener;
     
+    protected transient MapElementBatchListener<K, V> mapElementBatchListener;
+    
     protected AbstractMAMap(BaseEntries<K, V> baseEntries) {
         super(baseEntries);
         if (!(this instanceof View)) {
@@ -108,7 +120,34 @@ public abstract class AbstractMAMap<K, V>
         
     }
 
+    /**
+     * Returns whether the modification of this map can be observed by anything.
+     * 
+     * <p>
+     * If it returns false, the modification operations do not create the handler,
+     * modification and event objects, they modify the base entries directly 
+     * just like the X collections. 
+     * Override it and return true if the derived class observes the modification 
+     * by some way that is not listener or the overridden event methods.
+     * </p>
+     */
+    protected boolean isModificationObserved() {
+        return 
+                this.mapElementListener != null || 
+                this instanceof View ||
+                ModificationHooks.isOverridden(this.getClass());
+    }
+    
+    /**
+     * Returns whether the modification operations need the handler, 
+     * either for the map element events or for the batch listener.
+     */
+    final boolean isHandlerRequired() {
+        return this.mapElementBatchListener != null || this.isModificationObserved();
+    }
+    
     protected void executeModifying(MapElementEvent<K, V> e) {
+        long start = CollectionInstrumentations.ENABLED ? System.nanoTime() : 0L;
         Throwable finalThrowable = null;
         try {
             this.onModifying(e);    
@@ -122,6 +161,13 @@ public abstract class AbstractMAMap<K, V>
                 finalThrowable = ex;
             }
         }
+        try {
+            this.raiseBubbledBatchModifying(e);
+        } catch (Throwable ex) {
+            if (finalThrowable == null) {
+                finalThrowable = ex;
+            }
+        }
         try {
             this.bubbleModifying(e);
         } catch (Throwable ex) {
@@ -129,18 +175,29 @@ public abstract class AbstractMAMap<K, V>
                 finalThrowable = ex;
             }
         }
+        if (CollectionInstrumentations.ENABLED) {
+            CollectionInstrumentations.eventExecuted(this, e, false, System.nanoTime() - start);
+        }
         if (finalThrowable != null) {
             throw new ModificationException(false, e, finalThrowable);
         }
     }
 
     protected void executeModified(MapElementEvent<K, V> e) {
+        long start = CollectionInstrumentations.ENABLED ? System.nanoTime() : 0L;
         Throwable finalThrowable = null;
         try {
             this.bubbleModified(e);     
         } catch (Throwable ex) {
             finalThrowable = ex;
         }
+        try {
+            this.raiseBubbledBatchModified(e);
+        } catch (Throwable ex) {
+            if (finalThrowable == null) {
+                finalThrowable = ex;
+            }
+        }
         try {
             this.raiseModified(e);
         } catch (Throwable ex) {
@@ -155,6 +212,9 @@ public abstract class AbstractMAMap<K, V>
                 finalThrowable = ex;
             }
         }
+        if (CollectionInstrumentations.ENABLED) {
+            CollectionInstrumentations.eventExecuted(this, e, true, System.nanoTime() - start);
+        }
         if (finalThrowable != null) {
             throw new ModificationException(true, e, finalThrowable);
         }
@@ -190,6 +250,99 @@ public abstract class AbstractMAMap<K, V>
         }
     }
     
+    /**
+     * Used by the handlers that always modify only one entry, the event is 
+     * delivered to the batch listener as a batch that contains only one entry.
+     */
+    final void executeSingleModifying(MapElementEvent<K, V> e) {
+        this.executeModifying(e);
+        if (this.mapElementBatchListener != null) {
+            MapElementBatchEvent<K, V> batchEvent = MapElementBatchEvent.of(this, e);
+            e
+            .getAttributeContext(AttributeScope.LOCAL)
+            .addAttribute(AK_MAP_ELEMENT_BATCH_EVENT, batchEvent);
+            this.executeBatchModifying(batchEvent);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    final void executeSingleModified(MapElementEvent<K, V> e) {
+        try {
+            this.executeModified(e);
+        } finally {
+            MapElementBatchEvent<K, V> batchEvent = 
+                (MapElementBatchEvent<K, V>)
+                e
+                .getAttributeContext(AttributeScope.LOCAL)
+                .removeAttribute(AK_MAP_ELEMENT_BATCH_EVENT);
+            if (batchEvent != null) {
+                this.executeBatchModified(batchEvent);
+            }
+        }
+    }
+    
+    void executeBatchModifying(MapElementBatchEvent<K, V> e) {
+        try {
+            this.raiseBatchModifying(e);
+        } catch (Throwable ex) {
+            throw new ModificationException(false, e, ex);
+        }
+    }
+    
+    void executeBatchModified(MapElementBatchEvent<K, V> e) {
+        try {
+            this.raiseBatchModified(e);
+        } catch (Throwable ex) {
+            throw new ModificationException(true, e, ex);
+        }
+    }
+    
+    private void raiseBatchModifying(MapElementBatchEvent<K, V> e) throws Throwable {
+        MapElementBatchListener<K, V> mapElementBatchListener = this.mapElementBatchListener;
+        if (mapElementBatchListener != null) {
+            e
+            .getAttributeContext(AttributeScope.LOCAL)
+            .addAttribute(AK_MAP_ELEMENT_BATCH_LISTENER, mapElementBatchListener);
+            mapElementBatchListener.modifying(e);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void raiseBatchModified(MapElementBatchEvent<K, V> e) throws Throwable {
+        MapElementBatchListener<K, V> mapElementBatchListener = 
+            (MapElementBatchListener<K, V>)
+            e
+            .getAttributeContext(AttributeScope.LOCAL)
+            .removeAttribute(AK_MAP_ELEMENT_BATCH_LISTENER);
+        if (mapElementBatchListener != null) {
+            mapElementBatchListener.modified(e);
+        }
+    }
+    
+    private void raiseBubbledBatchModifying(MapElementEvent<K, V> e) throws Throwable {
+        if (e.getCause() != null && this.mapElementBatchListener != null) {
+            MapElementBatchEvent<K, V> batchEvent = MapElementBatchEvent.of(this, e);
+            e
+            .getAttributeContext(AttributeScope.LOCAL)
+            .addAttribute(AK_MAP_ELEMENT_BATCH_EVENT, batchEvent);
+            this.raiseBatchModifying(batchEvent);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void raiseBubbledBatchModified(MapElementEvent<K, V> e) throws Throwable {
+        if (e.getCause() != null) {
+            MapElementBatchEvent<K, V> batchEvent = 
+                (MapElementBatchEvent<K, V>)
+                e
+                .getAttributeContext(AttributeScope.LOCAL)
+                .removeAttribute(AK_MAP_ELEMENT_BATCH_EVENT);
+            if (batchEvent != null) {
+                this.raiseBatchModified(batchEvent);
+            }
+        }
+    }
+    
     protected void bubbleModifying(MapElementEvent<K, V> e) {
         
     }
@@ -228,6 +381,22 @@ public abstract class AbstractMAMap<K, V>
                     this.mapElementListener, 
                     (MapElementListener<K, V>)listener);
     }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void addMapElementBatchListener(MapElementBatchListener<? super K, ? super V> listener) {
+        this.mapElementBatchListener = MapElementBatchListener.combine(
+                    this.mapElementBatchListener, 
+                    (MapElementBatchListener<K, V>)listener);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void removeMapElementBatchListener(MapElementBatchListener<? super K, ? super V> listener) {
+        this.mapElementBatchListener = MapElementBatchListener.remove(
+                    this.mapElementBatchListener, 
+                    (MapElementBatchListener<K, V>)listener);
+    }
     
     @Override
     public MAEntrySetView<K, V> entrySet() {
@@ -267,20 +436,26 @@ public abstract class AbstractMAMap<K, V>
         return this.baseEntries.put(
                 key, 
                 value, 
-                this.new HandlerImpl4Map(MapModifications.put(key, value)));
+                this.isHandlerRequired() ? 
+                        this.new HandlerImpl4Map(MapModifications.put(key, value)) : 
+                        null);
     }
 
     @Override
     public void putAll(Map<? extends K, ? extends V> m) {
         this.baseEntries.putAll(
                 m, 
-                this.new HandlerImpl4Map(MapModifications.putAll(m)));
+                this.isHandlerRequired() ? 
+                        this.new HandlerImpl4Map(MapModifications.putAll(m)) : 
+                        null);
     }
 
     @Override
     public void clear() {
         this.baseEntries.clear(
-                this.new HandlerImpl4Map(MapModifications.<K, V>clear()));
+                this.isHandlerRequired() ? 
+                        this.new HandlerImpl4Map(MapModifications.<K, V>clear()) : 
+                        null);
     }
 
     @SuppressWarnings("unchecked")
@@ -288,7 +463,9 @@ public abstract class AbstractMAMap<K, V>
     public V remove(Object key) {
         BaseEntry<K, V> be = this.baseEntries.removeByKey(
                 key, 
-                this.new HandlerImpl4Map(MapModifications.<K, V>remove((K)key)));
+                this.isHandlerRequired() ? 
+                        this.new HandlerImpl4Map(MapModifications.<K, V>remove((K)key)) : 
+                        null);
         return be != null ? be.getValue() : null;
     }
 
@@ -302,6 +479,13 @@ public abstract class AbstractMAMap<K, V>
             super(parentMap);
         }
         
+        protected boolean isModificationObserved() {
+            return 
+                    this.elementListener != null || 
+                    this.<AbstractMAMap<K, V>>getParentMap().isHandlerRequired() ||
+                    ModificationHooks.isOverridden(this.getClass());
+        }
+        
         protected void executeModifying(ElementEvent<Entry<K, V>> e) {
             Throwable finalThrowable = null;
             try {
@@ -419,7 +603,9 @@ public abstract class AbstractMAMap<K, V>
         @Override
         public void clear() {
             this.getParentMap().baseEntries.clear(
-                    this.new HandlerImpl4EntrySet(CollectionModifications.<Entry<K, V>>clear()));
+                    this.isModificationObserved() ? 
+                        this.new HandlerImpl4EntrySet(CollectionModifications.<Entry<K, V>>clear()) : 
+                        null);
         }
     
         @Override
@@ -429,7 +615,9 @@ public abstract class AbstractMAMap<K, V>
             }
             return this.getParentMap().baseEntries.removeByEntry(
                     o, 
-                    this.new HandlerImpl4EntrySet(CollectionModifications.<Entry<K, V>>remove(o))
+                    this.isModificationObserved() ? 
+                        this.new HandlerImpl4EntrySet(CollectionModifications.<Entry<K, V>>remove(o)) : 
+                        null
             ) != null;
         }
     
@@ -437,20 +625,39 @@ public abstract class AbstractMAMap<K, V>
         public boolean removeAll(Collection<?> c) {
             return this.getParentMap().baseEntries.removeAllByEntryCollection(
                     c, 
-                    this.new HandlerImpl4EntrySet(CollectionModifications.<Entry<K, V>>removeAll(c)));
+                    this.isModificationObserved() ? 
+                        this.new HandlerImpl4EntrySet(CollectionModifications.<Entry<K, V>>removeAll(c)) : 
+                        null);
         }
     
         @Override
         public boolean retainAll(Collection<?> c) {
             return this.getParentMap().baseEntries.retainAllByEntryCollection(
                     c, 
-                    this.new HandlerImpl4EntrySet(CollectionModifications.<Entry<K, V>>retainAll(c)));
+                    this.isModificationObserved() ? 
+                        this.new HandlerImpl4EntrySet(CollectionModifications.<Entry<K, V>>retainAll(c)) : 
+                        null);
         }
 
         @Override
         public MAEntrySetIterator<K, V> iterator() {
             return new IteratorImpl<K, V>(this);
         }
+        
+        @Override
+        public Spliterator<Entry<K, V>> spliterator() {
+            AbstractMAMap<K, V> parentMap = this.getParentMap();
+            return BasicAlgorithms.mapSpliterator(
+                    parentMap.baseEntries.spliterator(), 
+                    be -> {
+                        try {
+                            return new EntryImpl<K, V>(parentMap, be);
+                        } catch (NoEntryException ex) {
+                            throw new AssertionError();
+                        }
+                    },
+                    0);
+        }
 
         protected static class IteratorImpl<K, V> implements MAEntrySetIterator<K, V> {
             
@@ -486,6 +693,13 @@ public abstract class AbstractMAMap<K, V>
                             (ElementListener<Entry<K ,V>>)listener);
             }
             
+            protected boolean isModificationObserved() {
+                return 
+                        this.elementListener != null || 
+                        this.parentEntrySet.isModificationObserved() ||
+                        ModificationHooks.isOverridden(this.getClass());
+            }
+            
             protected void executeModifying(ElementEvent<Entry<K, V>> e) {
                 Throwable finalThrowable = null;
                 try {
@@ -601,7 +815,10 @@ public abstract class AbstractMAMap<K, V>
         
             @Override
             public void remove() {
-                this.beIterator.remove(this.new HandlerImpl4EntryIterator());
+                this.beIterator.remove(
+                        this.isModificationObserved() ? 
+                                this.new HandlerImpl4EntryIterator() : 
+                                null);
             }
             
             @Override
@@ -740,6 +957,15 @@ public abstract class AbstractMAMap<K, V>
             return MapViewInfos.keySet();
         }
 
+        @Override
+        protected boolean isModificationObserved() {
+            return 
+                    this.elementListener != null || 
+                    this.keySetElementListener != null ||
+                    this.parentMap.isHandlerRequired() ||
+                    ModificationHooks.isOverridden(this.getClass());
+        }
+
         @SuppressWarnings("unchecked")
         @Deprecated
         @Override
@@ -896,6 +1122,13 @@ public abstract class AbstractMAMap<K, V>
                 return CollectionViewInfos.iterator();
             }
 
+            @Override
+            protected boolean isModificationObserved() {
+                return 
+                        this.keySetElementListener != null ||
+                        super.isModificationObserved();
+            }
+
             @SuppressWarnings("unchecked")
             @Deprecated
             @Override
@@ -1065,6 +1298,14 @@ public abstract class AbstractMAMap<K, V>
             return this.getParentMap().baseEntries.valueUnifiedComparator();
         }
         
+        protected boolean isModificationObserved() {
+            return 
+                    this.elementListener != null || 
+                    this.valuesElementListener != null ||
+                    this.<AbstractMAMap<K, V>>getParentMap().isHandlerRequired() ||
+                    ModificationHooks.isOverridden(this.getClass());
+        }
+        
         protected void executeModifying(ValuesElementEvent<K, V> e) {
             Throwable finalThrowable = null;
             try {
@@ -1242,14 +1483,18 @@ public abstract class AbstractMAMap<K, V>
         @Override
         public void clear() {
             this.<AbstractMAMap<K, V>>getParentMap().baseEntries.clear(
-                    this.new HandlerImpl(CollectionModifications.<V>clear()));
+                    this.isModificationObserved() ? 
+                        this.new HandlerImpl(CollectionModifications.<V>clear()) : 
+                        null);
         }
 
         @Override
         public boolean remove(Object o) {
             return this.<AbstractMAMap<K, V>>getParentMap().baseEntries.removeByValue(
                     o, 
-                    this.new HandlerImpl(CollectionModifications.<V>remove(o))
+                    this.isModificationObserved() ? 
+                        this.new HandlerImpl(CollectionModifications.<V>remove(o)) : 
+                        null
             ) != null;
         }
 
@@ -1257,14 +1502,18 @@ public abstract class AbstractMAMap<K, V>
         public boolean removeAll(Collection<?> c) {
             return this.<AbstractMAMap<K, V>>getParentMap().baseEntries.removeAllByValueCollection(
                     c, 
-                    this.new HandlerImpl(CollectionModifications.<V>removeAll(c)));
+                    this.isModificationObserved() ? 
+                        this.new HandlerImpl(CollectionModifications.<V>removeAll(c)) : 
+                        null);
         }
 
         @Override
         public boolean retainAll(Collection<?> c) {
             return this.<AbstractMAMap<K, V>>getParentMap().baseEntries.retainAllByValueCollection(
                     c, 
-                    this.new HandlerImpl(CollectionModifications.<V>retainAll(c)));
+                    this.isModificationObserved() ? 
+                        this.new HandlerImpl(CollectionModifications.<V>retainAll(c)) : 
+                        null);
         }
         
         @Override
@@ -1324,6 +1573,14 @@ public abstract class AbstractMAMap<K, V>
                             (ValuesElementListener<K, V>)listener);
             }
 
+            protected boolean isModificationObserved() {
+                return 
+                        this.elementListener != null || 
+                        this.valuesElementListener != null ||
+                        this.parentValues.isModificationObserved() ||
+                        ModificationHooks.isOverridden(this.getClass());
+            }
+            
             protected void executeModifying(ValuesElementEvent<K, V> e) {
                 Throwable finalThrowable = null;
                 try {
@@ -1477,7 +1734,10 @@ public abstract class AbstractMAMap<K, V>
 
             @Override
             public void remove() {
-                this.beIterator.remove(this.new HandlerImpl());
+                this.beIterator.remove(
+                        this.isModificationObserved() ? 
+                                this.new HandlerImpl() : 
+                                null);
             }
             
             @Override
@@ -1564,7 +1824,11 @@ public abstract class AbstractMAMap<K, V>
         
         @Override
         public V setValue(V value) {
-            return this.baseEntry.setValue(value, this.new HandlerImpl4Entry(EntryModifications.<V>set(value)));
+            return this.baseEntry.setValue(
+                    value, 
+                    this.isModificationObserved() ? 
+                            this.new HandlerImpl4Entry(EntryModifications.<V>set(value)) : 
+                            null);
         }
         
         @SuppressWarnings("unchecked")
@@ -1604,6 +1868,14 @@ public abstract class AbstractMAMap<K, V>
                         (EntryElementListener<K, V>)listener);
         }
 
+        protected boolean isModificationObserved() {
+            return 
+                    this.elementListener != null || 
+                    this.entryElementListener != null ||
+                    this.parentMap.isHandlerRequired() ||
+                    ModificationHooks.isOverridden(this.getClass());
+        }
+        
         protected void executeModifying(EntryElementEvent<K, V> e) {
             Throwable finalThrowable = null;
             try {
@@ -1870,13 +2142,30 @@ public abstract class AbstractMAMap<K, V>
     private class HandlerImpl4Map implements BaseEntriesHandler<K, V> {
         
         private final MapModification<K, V> modification;
+        
+        private final boolean elementEventRequired;
+        
+        private MapElementBatchEvent.Builder<K, V> batchBuilder;
+        
+        private MapElementBatchEvent<K, V> batchEvent;
+        
+        private int unflushedCount;
 
         public HandlerImpl4Map(MapModification<K, V> modification) {
+            AbstractMAMap<K, V> owner = AbstractMAMap.this;
             this.modification = modification;
+            this.elementEventRequired = owner.isModificationObserved();
+            if (owner.mapElementBatchListener != null) {
+                this.batchBuilder = new MapElementBatchEvent.Builder<>();
+            }
         }
         
         @Override
         public Object createAddingArgument(K key, V value) {
+            this.prepare(ModificationType.ATTACH, null, key, null, value);
+            if (!this.elementEventRequired) {
+                return null;
+            }
             return MapElementEvent.createAttachEvent(
                     AbstractMAMap.this, 
                     this.modification,
@@ -1894,13 +2183,23 @@ public abstract class AbstractMAMap<K, V>
         @SuppressWarnings("unchecked")
         @Override
         public void added(K key, V value, Object argument) {
-            MapElementEvent<K, V> event = (MapElementEvent<K, V>)argument;
-            AbstractMAMap.this.executeModified(event);
+            try {
+                if (argument != null) {
+                    MapElementEvent<K, V> event = (MapElementEvent<K, V>)argument;
+                    AbstractMAMap.this.executeModified(event);
+                }
+            } finally {
+                this.flushed();
+            }
         }
         
         @Override
         public Object createChangingArgument(K oldKey, V oldValue, K newKey,
                 V newValue) {
+            this.prepare(ModificationType.REPLACE, oldKey, newKey, oldValue, newValue);
+            if (!this.elementEventRequired) {
+                return null;
+            }
             return MapElementEvent.createReplaceEvent(
                     AbstractMAMap.this, 
                     this.modification,
@@ -1920,12 +2219,22 @@ public abstract class AbstractMAMap<K, V>
         @SuppressWarnings("unchecked")
         @Override
         public void changed(K oldKey, V oldValue, K newKey, V newValue, Object argument) {
-            MapElementEvent<K, V> event = (MapElementEvent<K, V>)argument;
-            AbstractMAMap.this.executeModified(event);
+            try {
+                if (argument != null) {
+                    MapElementEvent<K, V> event = (MapElementEvent<K, V>)argument;
+                    AbstractMAMap.this.executeModified(event);
+                }
+            } finally {
+                this.flushed();
+            }
         }
         
         @Override
         public Object createRemovingArgument(K oldKey, V oldValue) {
+            this.prepare(ModificationType.DETACH, oldKey, null, oldValue, null);
+            if (!this.elementEventRequired) {
+                return null;
+            }
             return MapElementEvent.createDetachEvent(
                     AbstractMAMap.this, 
                     this.modification, 
@@ -1943,8 +2252,31 @@ public abstract class AbstractMAMap<K, V>
         @SuppressWarnings("unchecked")
         @Override
         public void removed(K oldKey, V oldValue, Object argument) {
-            MapElementEvent<K, V> event = (MapElementEvent<K, V>)argument;
-            AbstractMAMap.this.executeModified(event);
+            try {
+                if (argument != null) {
+                    MapElementEvent<K, V> event = (MapElementEvent<K, V>)argument;
+                    AbstractMAMap.this.executeModified(event);
+                }
+            } finally {
+                this.flushed();
+            }
+        }
+        
+        @Override
+        public void executing() {
+            MapElementBatchEvent.Builder<K, V> batchBuilder = this.batchBuilder;
+            if (batchBuilder != null && batchBuilder.size() != 0) {
+                this.batchBuilder = null;
+                MapElementBatchEvent<K, V> batchEvent = batchBuilder.build(AbstractMAMap.this, this.modification);
+                this.batchEvent = batchEvent;
+                try {
+                    AbstractMAMap.this.executeBatchModifying(batchEvent);
+                } catch (RuntimeException | Error ex) {
+                    ((InAllChainAttributeContext)batchEvent.getAttributeContext(AttributeScope.IN_ALL_CHAIN))
+                    .setPreThrowable(ex);
+                    throw ex;
+                }
+            }
         }
         
         @SuppressWarnings("unchecked")
@@ -1963,6 +2295,29 @@ public abstract class AbstractMAMap<K, V>
                 ((GlobalAttributeContext)this.modification.getAttributeContext()).success();    
             }
         }
+        
+        private void prepare(
+                ModificationType modificationType, 
+                K detachedKey, 
+                K attachedKey, 
+                V detachedValue, 
+                V attachedValue) {
+            this.unflushedCount++;
+            MapElementBatchEvent.Builder<K, V> batchBuilder = this.batchBuilder;
+            if (batchBuilder != null) {
+                batchBuilder.add(modificationType, detachedKey, attachedKey, detachedValue, attachedValue);
+            }
+        }
+        
+        private void flushed() {
+            if (--this.unflushedCount == 0) {
+                MapElementBatchEvent<K, V> batchEvent = this.batchEvent;
+                if (batchEvent != null) {
+                    this.batchEvent = null;
+                    AbstractMAMap.this.executeBatchModified(batchEvent);
+                }
+            }
+        }
     }
     
     private static abstract class AbstractEntryHandlerImpl<K, V> implements BaseEntriesHandler<K, V> {
@@ -2130,30 +2485,30 @@ public abstract class AbstractMAMap<K, V>
 
         @Override
         public BaseEntriesHandler<K, V> createSuspendingHandler(K key) {
-            return AbstractMAMap.this.new HandlerImpl4Map(
-                    MapModifications.suspendViaFrozenContext(key)
-            );
+            return AbstractMAMap.this.isHandlerRequired() ? 
+                    AbstractMAMap.this.new HandlerImpl4Map(MapModifications.suspendViaFrozenContext(key)) : 
+                    null;
         }
 
         @Override
         public BaseEntriesHandler<K, V> createResumingHandler() {
-            return AbstractMAMap.this.new HandlerImpl4Map(
-                    MapModifications.resumeViaFrozenContext()
-            );
+            return AbstractMAMap.this.isHandlerRequired() ? 
+                    AbstractMAMap.this.new HandlerImpl4Map(MapModifications.resumeViaFrozenContext()) : 
+                    null;
         }
 
         @Override
         public BaseEntriesHandler<K, V> createInversedSuspendingHandler(V value) {
-            return AbstractMAMap.this.new HandlerImpl4Map(
-                    MapModifications.suspendViaInversedFrozenContext(value)
-            );
+            return AbstractMAMap.this.isHandlerRequired() ? 
+                    AbstractMAMap.this.new HandlerImpl4Map(MapModifications.suspendViaInversedFrozenContext(value)) : 
+                    null;
         }
 
         @Override
         public BaseEntriesHandler<K, V> createInversedResumingHandler() {
-            return AbstractMAMap.this.new HandlerImpl4Map(
-                    MapModifications.resumeViaInversedFrozenContext()
-            );
+            return AbstractMAMap.this.isHandlerRequired() ? 
+                    AbstractMAMap.this.new HandlerImpl4Map(MapModifications.resumeViaInversedFrozenContext()) : 
+                    null;
         }
         
     }
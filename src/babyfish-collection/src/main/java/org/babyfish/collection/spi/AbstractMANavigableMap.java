@@ -227,20 +227,41 @@ implements MANavigableMap<K, V> {
         return be == null ? null : be.getKey();
     }
 
+    @Override
+    public int indexOfKey(K key) {
+        return ((NavigableBaseEntries<K, V>)this.baseEntries).indexOf(key);
+    }
+
+    @Override
+    public K keyAt(int index) {
+        return ((NavigableBaseEntries<K, V>)this.baseEntries).entryAt(index).getKey();
+    }
+
+    @Override
+    public MAEntry<K, V> entryAt(int index) {
+        try {
+            return new EntryAtImpl<K, V>(this, index);
+        } catch (NoEntryException e) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + this.size());
+        }
+    }
+
     @Override
     public Entry<K, V> pollFirstEntry() {
         // The returned entry is dead, need not wrap it.
         return ((NavigableBaseEntries<K, V>)this.baseEntries).pollFirst(
-                this.new HandlerImpl4NavigableMap(
-                        NavigableMapModifications.<K, V>pollFirstEntry()));
+                this.isHandlerRequired() ? 
+                        this.new HandlerImpl4NavigableMap(NavigableMapModifications.<K, V>pollFirstEntry()) : 
+                        null);
     }
 
     @Override
     public Entry<K, V> pollLastEntry() {
         // The returned entry is dead, need not wrap it.
         return ((NavigableBaseEntries<K, V>)this.baseEntries).pollFirst(
-                this.new HandlerImpl4NavigableMap(
-                        NavigableMapModifications.<K, V>pollLastEntry()));
+                this.isHandlerRequired() ? 
+                        this.new HandlerImpl4NavigableMap(NavigableMapModifications.<K, V>pollLastEntry()) : 
+                        null);
     }
 
     @Override
@@ -267,6 +288,14 @@ implements MANavigableMap<K, V> {
             return (T)this.parentMap;
         }
 
+        @Override
+        protected boolean isModificationObserved() {
+            return 
+                    this.mapElementListener != null || 
+                    this.parentMap.isHandlerRequired() ||
+                    ModificationHooks.isOverridden(this.getClass());
+        }
+
         @Override
         protected void bubbleModifying(MapElementEvent<K, V> e) {
             AbstractMANavigableMap<K, V> parentMap = this.parentMap;
@@ -1091,6 +1120,22 @@ implements MANavigableMap<K, V> {
         
     }
     
+    protected static class EntryAtImpl<K, V> extends AbstractEntryImpl<K, V> {
+        
+        private NavigableMapViewInfos.EntryAt viewInfo;
+
+        protected EntryAtImpl(AbstractMANavigableMap<K, V> parentMap, int index) throws NoEntryException {
+            super(parentMap, ((NavigableBaseEntries<K, V>)parentMap.baseEntries).entryAt(index));
+            this.viewInfo = NavigableMapViewInfos.entryAt(index);
+        }
+        
+        @Override
+        public NavigableMapViewInfos.EntryAt viewInfo() {
+            return this.viewInfo;
+        }
+        
+    }
+    
     class HandlerImpl4NavigableMap implements BaseEntriesHandler<K, V> {
         
         private final MapModification<K, V> modification;
@@ -1154,14 +1199,14 @@ implements MANavigableMap<K, V> {
         @Override
         public void removing(K oldKey, V oldValue, Object argument) {
             MapElementEvent<K, V> e = (MapElementEvent<K, V>)argument; 
-            AbstractMANavigableMap.this.executeModifying(e);
+            AbstractMANavigableMap.this.executeSingleModifying(e);
         }
 
         @SuppressWarnings("unchecked")
         @Override
         public void removed(K oldKey, V oldValue, Object argument) {
             MapElementEvent<K, V> e = (MapElementEvent<K, V>)argument;
-            AbstractMANavigableMap.this.executeModified(e);
+            AbstractMANavigableMap.this.executeSingleModified(e);
         }
         
         @SuppressWarnings("unchecked")
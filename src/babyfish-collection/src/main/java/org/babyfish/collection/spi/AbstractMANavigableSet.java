@@ -160,12 +160,23 @@ implements MANavigableSet<E> {
         return be == null ? null : be.getKey();
     }
 
+    @Override
+    public int indexOf(E e) {
+        return ((NavigableBaseEntries<E, Object>)this.baseEntries).indexOf(e);
+    }
+
+    @Override
+    public E elementAt(int index) {
+        return ((NavigableBaseEntries<E, Object>)this.baseEntries).entryAt(index).getKey();
+    }
+
     @Override
     public E pollFirst() {
         BaseEntry<E, Object> be = 
             ((NavigableBaseEntries<E, Object>)this.baseEntries).pollFirst(
-                    this.new HandlerImpl4Set(
-                            NavigableSetModifications.<E>pollFirst()));
+                    this.isHandlerRequired() ? 
+                        this.new HandlerImpl4Set(NavigableSetModifications.<E>pollFirst()) : 
+                        null);
         return be == null ? null : be.getKey();
     }
 
@@ -173,8 +184,9 @@ implements MANavigableSet<E> {
     public E pollLast() {
         BaseEntry<E, Object> be = 
             ((NavigableBaseEntries<E, Object>)this.baseEntries).pollLast(
-                    this.new HandlerImpl4Set(
-                            NavigableSetModifications.<E>pollLast()));
+                    this.isHandlerRequired() ? 
+                        this.new HandlerImpl4Set(NavigableSetModifications.<E>pollLast()) : 
+                        null);
         return be == null ? null : be.getKey();
     }
 
@@ -194,6 +206,14 @@ implements MANavigableSet<E> {
             this.parentSet = parentSet;
         }
         
+        @Override
+        protected boolean isModificationObserved() {
+            return 
+                    this.elementListener != null || 
+                    this.parentSet.isHandlerRequired() ||
+                    ModificationHooks.isOverridden(this.getClass());
+        }
+        
         @Override
         protected void bubbleModifying(ElementEvent<E> e) {
             AbstractMANavigableSet<E> parentSet = this.parentSet;
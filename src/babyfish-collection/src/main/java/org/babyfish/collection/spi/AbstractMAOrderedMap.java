@@ -146,7 +146,9 @@ implements MAOrderedMap<K, V> {
         BaseEntry<K, V> be=
                 ((OrderedBaseEntries<K, V>)this.baseEntries).access(
                         key,
-                        this.new HandlerImpl4OrderedMap(OrderedMapModifications.<K, V>access(key)));
+                        this.isHandlerRequired() ? 
+                                this.new HandlerImpl4OrderedMap(OrderedMapModifications.<K, V>access(key)) : 
+                                null);
         if (be != null) {
             return be.getValue();
         }
@@ -157,14 +159,29 @@ implements MAOrderedMap<K, V> {
     public Entry<K, V> pollFirstEntry() {
         // The returned entry is dead, need not wrap it.
         return ((OrderedBaseEntries<K, V>)this.baseEntries).pollFirst(
-                this.new HandlerImpl4OrderedMap(OrderedMapModifications.<K, V>pollFirstEntry()));
+                this.isHandlerRequired() ? 
+                        this.new HandlerImpl4OrderedMap(OrderedMapModifications.<K, V>pollFirstEntry()) : 
+                        null);
+    }
+
+    /**
+     * Removes the first entry like {@link #pollFirstEntry()}, 
+     * but the events of this operation carry the specified modification.
+     */
+    protected final Entry<K, V> pollFirstEntry(MapModification<K, V> modification) {
+        return ((OrderedBaseEntries<K, V>)this.baseEntries).pollFirst(
+                this.isHandlerRequired() ? 
+                        this.new HandlerImpl4OrderedMap(modification) : 
+                        null);
     }
 
     @Override
     public Entry<K, V> pollLastEntry() {
         // The returned entry is dead, need not wrap it.
         return ((OrderedBaseEntries<K, V>)this.baseEntries).pollLast(
-                this.new HandlerImpl4OrderedMap(OrderedMapModifications.<K, V>pollLastEntry()));
+                this.isHandlerRequired() ? 
+                        this.new HandlerImpl4OrderedMap(OrderedMapModifications.<K, V>pollLastEntry()) : 
+                        null);
     }
 
     @Override
@@ -190,6 +207,14 @@ implements MAOrderedMap<K, V> {
             return OrderedMapViewInfos.descendingMap();
         }
 
+        @Override
+        protected boolean isModificationObserved() {
+            return 
+                    this.mapElementListener != null || 
+                    this.parentMap.isHandlerRequired() ||
+                    ModificationHooks.isOverridden(this.getClass());
+        }
+
         @Override
         protected void bubbleModifying(MapElementEvent<K, V> e) {
             AbstractMAOrderedMap<K, V> parentMap = this.parentMap;
@@ -750,14 +775,14 @@ implements MAOrderedMap<K, V> {
         @Override
         public void changing(K oldKey, V oldValue, K newKey, V newValue, Object argument) {
             MapElementEvent<K, V> e = (MapElementEvent<K, V>)argument;
-            AbstractMAOrderedMap.this.executeModifying(e); 
+            AbstractMAOrderedMap.this.executeSingleModifying(e); 
         }
 
         @SuppressWarnings("unchecked")
         @Override
         public void changed(K oldKey, V oldValue, K newKey, V newValue, Object argument) {
             MapElementEvent<K, V> e = (MapElementEvent<K, V>)argument;
-            AbstractMAOrderedMap.this.executeModified(e);
+            AbstractMAOrderedMap.this.executeSingleModified(e);
         }
 
         @Override
@@ -773,14 +798,14 @@ implements MAOrderedMap<K, V> {
         @Override
         public void removing(K oldKey, V oldValue, Object argument) {
             MapElementEvent<K, V> e = (MapElementEvent<K, V>)argument;
-            AbstractMAOrderedMap.this.executeModifying(e);
+            AbstractMAOrderedMap.this.executeSingleModifying(e);
         }
 
         @SuppressWarnings("unchecked")
         @Override
         public void removed(K oldKey, V oldValue, Object argument) {
             MapElementEvent<K, V> e = (MapElementEvent<K, V>)argument;
-            AbstractMAOrderedMap.this.executeModified(e);
+            AbstractMAOrderedMap.this.executeSingleModified(e);
         }
         
         @SuppressWarnings("unchecked")
@@ -99,7 +99,9 @@ implements MAOrderedSet<E> {
     public E pollFirst() {
         BaseEntry<E, Object> be = 
             ((OrderedBaseEntries<E, Object>)this.baseEntries).pollFirst(
-                    this.new HandlerImpl4Set(OrderedSetModifications.<E>pollFirst()));
+                    this.isHandlerRequired() ? 
+                        this.new HandlerImpl4Set(OrderedSetModifications.<E>pollFirst()) : 
+                        null);
         return be == null ? null : be.getKey();
     }
     
@@ -107,7 +109,9 @@ implements MAOrderedSet<E> {
     public E pollLast() {
         BaseEntry<E, Object> be = 
             ((OrderedBaseEntries<E, Object>)this.baseEntries).pollLast(
-                    this.new HandlerImpl4Set(OrderedSetModifications.<E>pollLast()));
+                    this.isHandlerRequired() ? 
+                        this.new HandlerImpl4Set(OrderedSetModifications.<E>pollLast()) : 
+                        null);
         return be == null ? null : be.getKey();
     }
 
@@ -126,6 +130,14 @@ implements MAOrderedSet<E> {
             this.parentSet = parentSet;
         }
         
+        @Override
+        protected boolean isModificationObserved() {
+            return 
+                    this.elementListener != null || 
+                    this.parentSet.isHandlerRequired() ||
+                    ModificationHooks.isOverridden(this.getClass());
+        }
+        
         @Override
         protected void bubbleModifying(ElementEvent<E> e) {
             AbstractMAOrderedSet<E> parentSet = this.parentSet;
@@ -22,6 +22,9 @@ import java.util.Collection;
 import org.babyfish.collection.MASet;
 import org.babyfish.collection.ReplacementRule;
 import org.babyfish.collection.UnifiedComparator;
+import org.babyfish.collection.event.ElementBatchEvent;
+import org.babyfish.collection.event.ElementBatchListener;
+import org.babyfish.collection.event.ElementBatchModificationAware;
 import org.babyfish.collection.event.ElementEvent;
 import org.babyfish.collection.event.ElementEvent.Modification;
 import org.babyfish.collection.event.ElementListener;
@@ -40,6 +43,7 @@ import org.babyfish.data.ModificationException;
 import org.babyfish.data.View;
 import org.babyfish.data.event.AttributeScope;
 import org.babyfish.data.event.Cause;
+import org.babyfish.data.event.ModificationType;
 import org.babyfish.data.event.spi.GlobalAttributeContext;
 import org.babyfish.data.event.spi.InAllChainAttributeContext;
 import org.babyfish.lang.Arguments;
@@ -49,15 +53,21 @@ import org.babyfish.lang.Arguments;
  */
 public abstract class AbstractMASet<E> 
 extends AbstractXSet<E> 
-implements MASet<E> {
+implements MASet<E>, ElementBatchModificationAware<E> {
     
     private static final EventCreator<?> EVENT_CREATOR_4_SET =
             new EventCreatorImpl4Set<>();
     
     private static final Object AK_ELEMENT_LISTENER = new Object();
     
+    private static final Object AK_ELEMENT_BATCH_LISTENER = new Object();
+    
+    private static final Object AK_ELEMENT_BATCH_EVENT = new Object();
+    
     protected transient ElementListener<E> elementListener;
     
+    protected transient ElementBatchListener<E> elementBatchListener;
+    
     protected AbstractMASet(BaseEntries<E, Object> baseEntries) {
         super(baseEntries);
         if (!(this instanceof View)) {
@@ -90,7 +100,34 @@ implements MASet<E> {
         
     }
 
+    /**
+     * Returns whether the modification of this set can be observed by anything.
+     * 
+     * <p>
+     * If it returns false, the modification operations do not create the handler,
+     * modification and event objects, they modify the base entries directly 
+     * just like the X collections. 
+     * Override it and return true if the derived class observes the modification 
+     * by some way that is not listener or the overridden event methods.
+     * </p>
+     */
+    protected boolean isModificationObserved() {
+        return 
+                this.elementListener != null || 
+                this instanceof View ||
+                ModificationHooks.isOverridden(this.getClass());
+    }
+    
+    /**
+     * Returns whether the modification operations need the handler, 
+     * either for the element events or for the batch listener.
+     */
+    final boolean isHandlerRequired() {
+        return this.elementBatchListener != null || this.isModificationObserved();
+    }
+    
     protected void executeModifying(ElementEvent<E> e) {
+        long start = CollectionInstrumentations.ENABLED ? System.nanoTime() : 0L;
         Throwable finalThrowable = null;
         try {
             this.onModifying(e);    
@@ -104,6 +141,13 @@ implements MASet<E> {
                 finalThrowable = ex;
             }
         }
+        try {
+            this.raiseBubbledBatchModifying(e);
+        } catch (Throwable ex) {
+            if (finalThrowable == null) {
+                finalThrowable = ex;
+            }
+        }
         try {
             this.bubbleModifying(e);
         } catch (Throwable ex) {
@@ -111,18 +155,29 @@ implements MASet<E> {
                 finalThrowable = ex;
             }
         }
+        if (CollectionInstrumentations.ENABLED) {
+            CollectionInstrumentations.eventExecuted(this, e, false, System.nanoTime() - start);
+        }
         if (finalThrowable != null) {
             throw new ModificationException(false, e, finalThrowable);
         }
     }
 
     protected void executeModified(ElementEvent<E> e) {
+        long start = CollectionInstrumentations.ENABLED ? System.nanoTime() : 0L;
         Throwable finalThrowable = null;
         try {
             this.bubbleModified(e);     
         } catch (Throwable ex) {
             finalThrowable = ex;
         }
+        try {
+            this.raiseBubbledBatchModified(e);
+        } catch (Throwable ex) {
+            if (finalThrowable == null) {
+                finalThrowable = ex;
+            }
+        }
         try {
             this.raiseModified(e);
         } catch (Throwable ex) {
@@ -137,6 +192,9 @@ implements MASet<E> {
                 finalThrowable = ex;
             }
         }
+        if (CollectionInstrumentations.ENABLED) {
+            CollectionInstrumentations.eventExecuted(this, e, true, System.nanoTime() - start);
+        }
         if (finalThrowable != null) {
             throw new ModificationException(true, e, finalThrowable);
         }
@@ -172,6 +230,68 @@ implements MASet<E> {
         }
     }
     
+    void executeBatchModifying(ElementBatchEvent<E> e) {
+        try {
+            this.raiseBatchModifying(e);
+        } catch (Throwable ex) {
+            throw new ModificationException(false, e, ex);
+        }
+    }
+    
+    void executeBatchModified(ElementBatchEvent<E> e) {
+        try {
+            this.raiseBatchModified(e);
+        } catch (Throwable ex) {
+            throw new ModificationException(true, e, ex);
+        }
+    }
+    
+    private void raiseBatchModifying(ElementBatchEvent<E> e) throws Throwable {
+        ElementBatchListener<E> elementBatchListener = this.elementBatchListener;
+        if (elementBatchListener != null) {
+            e
+            .getAttributeContext(AttributeScope.LOCAL)
+            .addAttribute(AK_ELEMENT_BATCH_LISTENER, elementBatchListener);
+            elementBatchListener.modifying(e);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void raiseBatchModified(ElementBatchEvent<E> e) throws Throwable {
+        ElementBatchListener<E> elementBatchListener = 
+            (ElementBatchListener<E>)
+            e
+            .getAttributeContext(AttributeScope.LOCAL)
+            .removeAttribute(AK_ELEMENT_BATCH_LISTENER);
+        if (elementBatchListener != null) {
+            elementBatchListener.modified(e);
+        }
+    }
+    
+    private void raiseBubbledBatchModifying(ElementEvent<E> e) throws Throwable {
+        if (e.getCause() != null && this.elementBatchListener != null) {
+            ElementBatchEvent<E> batchEvent = ElementBatchEvent.of(this, e);
+            e
+            .getAttributeContext(AttributeScope.LOCAL)
+            .addAttribute(AK_ELEMENT_BATCH_EVENT, batchEvent);
+            this.raiseBatchModifying(batchEvent);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void raiseBubbledBatchModified(ElementEvent<E> e) throws Throwable {
+        if (e.getCause() != null) {
+            ElementBatchEvent<E> batchEvent = 
+                (ElementBatchEvent<E>)
+                e
+                .getAttributeContext(AttributeScope.LOCAL)
+                .removeAttribute(AK_ELEMENT_BATCH_EVENT);
+            if (batchEvent != null) {
+                this.raiseBatchModified(batchEvent);
+            }
+        }
+    }
+    
     protected void bubbleModifying(ElementEvent<E> e) {
         
     }
@@ -202,47 +322,75 @@ implements MASet<E> {
                     this.elementListener, 
                     (ElementListener<E>)listener);
     }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void addElementBatchListener(ElementBatchListener<? super E> listener) {
+        this.elementBatchListener = ElementBatchListener.combine(
+                    this.elementBatchListener, 
+                    (ElementBatchListener<E>)listener);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void removeElementBatchListener(ElementBatchListener<? super E> listener) {
+        this.elementBatchListener = ElementBatchListener.remove(
+                    this.elementBatchListener, 
+                    (ElementBatchListener<E>)listener);
+    }
     
     @Override
     public boolean add(E e) {
         return null == this.baseEntries.put(
                 e, 
                 BaseEntries.PRESENT, 
-                this.new HandlerImpl4Set(CollectionModifications.add(e)));
+                this.isHandlerRequired() ? 
+                        this.new HandlerImpl4Set(CollectionModifications.add(e)) : 
+                        null);
     }
     
     @Override
     public boolean addAll(Collection<? extends E> c) {
         return this.baseEntries.addAll(
                 c,
-                this.new HandlerImpl4Set(CollectionModifications.addAll(c)));
+                this.isHandlerRequired() ? 
+                        this.new HandlerImpl4Set(CollectionModifications.addAll(c)) : 
+                        null);
     }
 
     @Override
     public void clear() {
         this.baseEntries.clear(
-                this.new HandlerImpl4Set(CollectionModifications.<E>clear()));
+                this.isHandlerRequired() ? 
+                        this.new HandlerImpl4Set(CollectionModifications.<E>clear()) : 
+                        null);
     }
 
     @Override
     public boolean remove(Object o) {
         return null != this.baseEntries.removeByKey(
                 o, 
-                this.new HandlerImpl4Set(CollectionModifications.<E>remove(o)));
+                this.isHandlerRequired() ? 
+                        this.new HandlerImpl4Set(CollectionModifications.<E>remove(o)) : 
+                        null);
     }
 
     @Override
     public boolean removeAll(Collection<?> c) {
         return this.baseEntries.removeAllByKeyCollection(
                 c, 
-                this.new HandlerImpl4Set(CollectionModifications.<E>removeAll(c)));
+                this.isHandlerRequired() ? 
+                        this.new HandlerImpl4Set(CollectionModifications.<E>removeAll(c)) : 
+                        null);
     }
     
     @Override
     public boolean retainAll(Collection<?> c) {
         return this.baseEntries.retainAllByKeyCollection(
                 c, 
-                this.new HandlerImpl4Set(CollectionModifications.<E>retainAll(c)));
+                this.isHandlerRequired() ? 
+                        this.new HandlerImpl4Set(CollectionModifications.<E>retainAll(c)) : 
+                        null);
     }
     
     @Override
@@ -306,6 +454,13 @@ implements MASet<E> {
                         (ElementListener<E>)listener);
         }
 
+        protected boolean isModificationObserved() {
+            return 
+                    this.elementListener != null || 
+                    this.parentSet.isHandlerRequired() ||
+                    ModificationHooks.isOverridden(this.getClass());
+        }
+        
         protected void executeModifying(ElementEvent<E> e) {
             Throwable finalThrowable = null;
             try {
@@ -413,7 +568,10 @@ implements MASet<E> {
 
         @Override
         public void remove() {
-            this.beIterator.remove(this.new HandlerImpl4Iterator());
+            this.beIterator.remove(
+                    this.isModificationObserved() ? 
+                            this.new HandlerImpl4Iterator() : 
+                            null);
         }
 
         @Override
@@ -491,6 +649,14 @@ implements MASet<E> {
         
         private final boolean handleChange;
         
+        private final boolean elementEventRequired;
+        
+        private ElementBatchEvent.Builder<E> batchBuilder;
+        
+        private ElementBatchEvent<E> batchEvent;
+        
+        private int unflushedCount;
+        
         public HandlerImpl4Set(Modification<E> modification) {
             this.modification = modification;
             AbstractMASet<E> owner = AbstractMASet.this;
@@ -499,10 +665,18 @@ implements MASet<E> {
                 ReplacementRule.NEW_REFERENCE_WIN
                 &&
                 !(owner instanceof KeySetElementModificationAware<?, ?>);
+            this.elementEventRequired = owner.isModificationObserved();
+            if (owner.elementBatchListener != null) {
+                this.batchBuilder = new ElementBatchEvent.Builder<>();
+            }
         }
 
         @Override
         public Object createAddingArgument(E key, Object value) {
+            this.prepare(ModificationType.ATTACH, null, key);
+            if (!this.elementEventRequired) {
+                return null;
+            }
             AbstractMASet<E> owner = AbstractMASet.this;
             return owner.eventCreator().createAttachEvent(
                     owner, 
@@ -521,19 +695,30 @@ implements MASet<E> {
         @SuppressWarnings("unchecked")
         @Override
         public void added(E oldKey, Object oldValue, Object argument) {
-            ElementEvent<E> e = (ElementEvent<E>)argument;
-            AbstractMASet.this.executeModified(e);
+            try {
+                ElementEvent<E> e = (ElementEvent<E>)argument;
+                if (e != null) {
+                    AbstractMASet.this.executeModified(e);
+                }
+            } finally {
+                this.flushed();
+            }
         }
 
         @Override
         public Object createChangingArgument(E oldKey, Object oldValue,
                 E newKey, Object newValue) {
             if (this.handleChange) {
-                return ElementEvent.createReplaceEvent(
-                        AbstractMASet.this, 
-                        this.modification, 
-                        oldKey, 
-                        newKey);
+                this.prepare(ModificationType.REPLACE, oldKey, newKey);
+                if (this.elementEventRequired) {
+                    return ElementEvent.createReplaceEvent(
+                            AbstractMASet.this, 
+                            this.modification, 
+                            oldKey, 
+                            newKey);
+                }
+            } else {
+                this.unflushedCount++;
             }
             return null;
         }
@@ -550,14 +735,22 @@ implements MASet<E> {
         @SuppressWarnings("unchecked")
         @Override
         public void changed(E oldKey, Object oldValue, E newKey, Object newValue, Object argument) {
-            ElementEvent<E> e = (ElementEvent<E>)argument;
-            if (e != null) {
-                AbstractMASet.this.executeModified(e);
+            try {
+                ElementEvent<E> e = (ElementEvent<E>)argument;
+                if (e != null) {
+                    AbstractMASet.this.executeModified(e);
+                }
+            } finally {
+                this.flushed();
             }
         }
 
         @Override
         public Object createRemovingArgument(E oldKey, Object oldValue) {
+            this.prepare(ModificationType.DETACH, oldKey, null);
+            if (!this.elementEventRequired) {
+                return null;
+            }
             AbstractMASet<E> owner = AbstractMASet.this;
             return owner.eventCreator().createDetachEvent(
                     owner, 
@@ -576,8 +769,31 @@ implements MASet<E> {
         @SuppressWarnings("unchecked")
         @Override
         public void removed(E oldKey, Object oldValue, Object argument) {
-            ElementEvent<E> e = (ElementEvent<E>)argument;
-            AbstractMASet.this.executeModified(e);
+            try {
+                ElementEvent<E> e = (ElementEvent<E>)argument;
+                if (e != null) {
+                    AbstractMASet.this.executeModified(e);
+                }
+            } finally {
+                this.flushed();
+            }
+        }
+        
+        @Override
+        public void executing() {
+            ElementBatchEvent.Builder<E> batchBuilder = this.batchBuilder;
+            if (batchBuilder != null && batchBuilder.size() != 0) {
+                this.batchBuilder = null;
+                ElementBatchEvent<E> batchEvent = batchBuilder.build(AbstractMASet.this, this.modification);
+                this.batchEvent = batchEvent;
+                try {
+                    AbstractMASet.this.executeBatchModifying(batchEvent);
+                } catch (RuntimeException | Error ex) {
+                    ((InAllChainAttributeContext)batchEvent.getAttributeContext(AttributeScope.IN_ALL_CHAIN))
+                    .setPreThrowable(ex);
+                    throw ex;
+                }
+            }
         }
 
         @SuppressWarnings("unchecked")
@@ -596,6 +812,24 @@ implements MASet<E> {
                 ((GlobalAttributeContext)this.modification.getAttributeContext()).success();    
             }
         }
+        
+        private void prepare(ModificationType modificationType, E detachedElement, E attachedElement) {
+            this.unflushedCount++;
+            ElementBatchEvent.Builder<E> batchBuilder = this.batchBuilder;
+            if (batchBuilder != null) {
+                batchBuilder.add(modificationType, detachedElement, attachedElement, -1, -1);
+            }
+        }
+        
+        private void flushed() {
+            if (--this.unflushedCount == 0) {
+                ElementBatchEvent<E> batchEvent = this.batchEvent;
+                if (batchEvent != null) {
+                    this.batchEvent = null;
+                    AbstractMASet.this.executeBatchModified(batchEvent);
+                }
+            }
+        }
     }
     
     private static class EventCreatorImpl4Set<E> implements EventCreator<E> {
@@ -649,16 +883,16 @@ implements MASet<E> {
 
         @Override
         public BaseEntriesHandler<E, Object> createSuspendingHandler(E key) {
-            return AbstractMASet.this.new HandlerImpl4Set(
-                    SetModifications.suspendViaFrozenContext(key)
-            );
+            return AbstractMASet.this.isHandlerRequired() ? 
+                    AbstractMASet.this.new HandlerImpl4Set(SetModifications.suspendViaFrozenContext(key)) : 
+                    null;
         }
 
         @Override
         public BaseEntriesHandler<E, Object> createResumingHandler() {
-            return AbstractMASet.this.new HandlerImpl4Set(
-                    SetModifications.resumeViaFrozenContext()
-            );
+            return AbstractMASet.this.isHandlerRequired() ? 
+                    AbstractMASet.this.new HandlerImpl4Set(SetModifications.resumeViaFrozenContext()) : 
+                    null;
         }
     }
 }
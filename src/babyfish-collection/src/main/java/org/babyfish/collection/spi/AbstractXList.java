@@ -22,6 +22,7 @@ import java.io.Serializable;
 import java.util.Collection;
 import java.util.ConcurrentModificationException;
 import java.util.NavigableSet;
+import java.util.Spliterator;
 
 import org.babyfish.collection.BidiType;
 import org.babyfish.collection.UnifiedComparator;
@@ -255,6 +256,11 @@ public abstract class AbstractXList<E> extends StatefulObject implements XList<E
     public XListIterator<E> iterator() {
         return this.listIterator(0);
     }
+    
+    @Override
+    public Spliterator<E> spliterator() {
+        return this.baseElements.spliterator(this.headHide(), this.tailHide());
+    }
 
     @Override
     public XListIterator<E> listIterator() {
@@ -593,6 +599,12 @@ public abstract class AbstractXList<E> extends StatefulObject implements XList<E
         public XListIterator<E> iterator() {
             return this.listIterator(0);
         }
+        
+        @Override
+        public Spliterator<E> spliterator() {
+            this.checkConcurrentModification();
+            return super.spliterator();
+        }
 
         @Override
         public XListIterator<E> listIterator() {
@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.Map;
+import java.util.Spliterator;
 
 import org.babyfish.collection.BidiType;
 import org.babyfish.collection.ReplacementRule;
@@ -214,8 +215,7 @@ public abstract class AbstractXMap<K, V> extends StatefulObject implements XMap<
 
     @Override
     public V get(Object key) {
-        BaseEntry<K, V> be = this.baseEntries.getBaseEntry(key);
-        return be == null ? null : be.getValue();
+        return this.baseEntries.get(key);
     }
 
     @Override
@@ -425,6 +425,20 @@ public abstract class AbstractXMap<K, V> extends StatefulObject implements XMap<
             return new IteratorImpl<K, V>(this);
         }
         
+        @Override
+        public Spliterator<Entry<K, V>> spliterator() {
+            return BasicAlgorithms.mapSpliterator(
+                    this.parentMap.baseEntries.spliterator(), 
+                    be -> {
+                        try {
+                            return new EntryImpl<K, V>(be);
+                        } catch (NoEntryException ex) {
+                            throw new AssertionError();
+                        }
+                    },
+                    0);
+        }
+        
         @Override
         public Object[] toArray() {
             return BasicAlgorithms.collectionToArray(this);
@@ -667,6 +681,14 @@ public abstract class AbstractXMap<K, V> extends StatefulObject implements XMap<
             return this.parentMap.baseEntries.retainAllByValueCollection(c, null);
         }
         
+        @Override
+        public Spliterator<V> spliterator() {
+            return BasicAlgorithms.mapSpliterator(
+                    this.parentMap.baseEntries.spliterator(), 
+                    BaseEntry::getValue,
+                    Spliterator.DISTINCT);
+        }
+        
         @Override
         public XIterator<V> iterator() {
             final BaseEntryIterator<K, V> beIterator = 
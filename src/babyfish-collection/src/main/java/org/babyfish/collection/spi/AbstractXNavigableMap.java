@@ -206,6 +206,25 @@ public class AbstractXNavigableMap<K, V> extends AbstractXMap<K, V> implements X
         return be == null ? null : be.getKey();
     }
 
+    @Override
+    public int indexOfKey(K key) {
+        return this.<NavigableBaseEntries<K, V>>getBaseEntries().indexOf(key);
+    }
+
+    @Override
+    public K keyAt(int index) {
+        return this.<NavigableBaseEntries<K, V>>getBaseEntries().entryAt(index).getKey();
+    }
+
+    @Override
+    public XEntry<K, V> entryAt(int index) {
+        try {
+            return new EntryAtImpl<K, V>(this, index);
+        } catch (NoEntryException ex) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + this.size());
+        }
+    }
+
     @Override
     public Entry<K, V> pollFirstEntry() {
         return this.<NavigableBaseEntries<K, V>>getBaseEntries().pollFirst(null);
@@ -547,4 +566,20 @@ public class AbstractXNavigableMap<K, V> extends AbstractXMap<K, V> implements X
             return this.viewInfo;
         }
     }
+    
+    protected static class EntryAtImpl<K, V> extends AbstractEntryImpl<K, V> {
+
+        private NavigableMapViewInfos.EntryAt viewInfo;
+        
+        public EntryAtImpl(AbstractXNavigableMap<K, V> parentMap, int index)
+                throws NoEntryException {
+            super(((NavigableBaseEntries<K, V>)parentMap.baseEntries).entryAt(index));
+            this.viewInfo = NavigableMapViewInfos.entryAt(index);
+        }
+
+        @Override
+        public NavigableMapViewInfos.EntryAt viewInfo() {
+            return this.viewInfo;
+        }
+    }
 }
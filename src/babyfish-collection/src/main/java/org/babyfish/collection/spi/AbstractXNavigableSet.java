@@ -140,6 +140,16 @@ public class AbstractXNavigableSet<E> extends AbstractXSet<E> implements XNaviga
         return be == null ? null : be.getKey();
     }
 
+    @Override
+    public int indexOf(E e) {
+        return this.<NavigableBaseEntries<E, Object>>getBaseEntries().indexOf(e);
+    }
+
+    @Override
+    public E elementAt(int index) {
+        return this.<NavigableBaseEntries<E, Object>>getBaseEntries().entryAt(index).getKey();
+    }
+
     @Override
     public E pollFirst() {
         BaseEntry<E, Object> be = this.<NavigableBaseEntries<E, Object>>getBaseEntries().pollFirst(null);
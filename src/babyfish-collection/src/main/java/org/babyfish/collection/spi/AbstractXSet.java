@@ -20,6 +20,7 @@ package org.babyfish.collection.spi;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.Spliterator;
 
 import org.babyfish.collection.ReplacementRule;
 import org.babyfish.collection.UnifiedComparator;
@@ -27,6 +28,7 @@ import org.babyfish.collection.XMap;
 import org.babyfish.collection.XMap.XKeySetView;
 import org.babyfish.collection.XSet;
 import org.babyfish.collection.spi.base.BaseEntries;
+import org.babyfish.collection.spi.base.BaseEntry;
 import org.babyfish.collection.spi.base.BaseEntryIterator;
 import org.babyfish.collection.spi.base.BasicAlgorithms;
 import org.babyfish.collection.spi.base.TransientValueEntries;
@@ -185,6 +187,11 @@ public abstract class AbstractXSet<E> extends StatefulObject implements XSet<E>
         return this.baseEntries.retainAllByKeyCollection(c, null);
     }
     
+    @Override
+    public Spliterator<E> spliterator() {
+        return BasicAlgorithms.mapSpliterator(this.baseEntries.spliterator(), BaseEntry::getKey, 0);
+    }
+    
     @Override
     public XIterator<E> iterator() {
         final BaseEntryIterator<E, Object> beIterator = this.baseEntries.iterator();
@@ -0,0 +1,67 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.spi;
+
+import org.babyfish.data.event.ModificationEvent;
+
+/**
+ * The callbacks of the runtime instrumentation of the collection framework.
+ * 
+ * <p>
+ * The implementation is specified by the system property 
+ * {@value CollectionInstrumentations#PROPERTY_NAME}, see {@link CollectionInstrumentations}.
+ * All the methods can be invoked by any thread concurrently, 
+ * they should be fast and must not modify the collections.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public interface CollectionInstrumentation {
+    
+    /**
+     * Invoked after the internal storage of a hash table or an array list is resized.
+     * 
+     * @param container The internal container, for example HashEntries or ArrayElements.
+     */
+    default void resized(Object container, int oldCapacity, int newCapacity) {}
+    
+    /**
+     * Invoked after the "modifying" or "modified" notification of an event is executed
+     * by a root MA collection, the time includes all the listeners and the bubbling.
+     * 
+     * @param collection The MA collection or map that raises the event
+     */
+    default void eventExecuted(Object collection, ModificationEvent e, boolean modified, long nanos) {}
+    
+    /**
+     * Invoked after a lazy collection or map is loaded.
+     * 
+     * @param lazyCollection The root lazy collection or map
+     */
+    default void loaded(Object lazyCollection, long nanos) {}
+    
+    /**
+     * Invoked after the freezing of an object is suspended by its frozen context.
+     */
+    default void freezingSuspended(Object obj) {}
+    
+    /**
+     * Invoked after the freezing suspended by a frozen context is resumed.
+     */
+    default void freezingResumed() {}
+}
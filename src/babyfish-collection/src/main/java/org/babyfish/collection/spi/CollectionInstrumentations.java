@@ -0,0 +1,142 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.spi;
+
+import org.babyfish.data.event.ModificationEvent;
+import org.babyfish.lang.I18N;
+
+/**
+ * The entry of the runtime instrumentation of the collection framework.
+ * 
+ * <p>
+ * The instrumentation is disabled unless the system property 
+ * {@value #PROPERTY_NAME} is specified when this class is initialized. 
+ * Its value can be "jmx" to use {@link JmxCollectionInstrumentation}, 
+ * or the name of a class that implements {@link CollectionInstrumentation} 
+ * and has a public constructor without parameters.
+ * </p>
+ * 
+ * <p>
+ * The instrumentation can not be changed at runtime, so {@link #ENABLED} is a 
+ * constant for JIT compiler and the disabled instrumentation costs nothing.
+ * The collections use this class by this pattern
+ * <pre>
+ * long start = CollectionInstrumentations.ENABLED ? System.nanoTime() : 0L;
+ * ...
+ * if (CollectionInstrumentations.ENABLED) {
+ *     CollectionInstrumentations.loaded(this, System.nanoTime() - start);
+ * }
+ * </pre>
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public class CollectionInstrumentations {
+    
+    public static final String PROPERTY_NAME = "org.babyfish.collection.instrumentation";
+    
+    private static final CollectionInstrumentation INSTANCE = create(System.getProperty(PROPERTY_NAME));
+    
+    public static final boolean ENABLED = INSTANCE != null;
+    
+    protected CollectionInstrumentations() throws UnsupportedOperationException {
+        throw new UnsupportedOperationException();
+    }
+    
+    /**
+     * @return The current instrumentation or null if it is disabled
+     */
+    public static CollectionInstrumentation get() {
+        return INSTANCE;
+    }
+    
+    public static void resized(Object container, int oldCapacity, int newCapacity) {
+        CollectionInstrumentation instrumentation = INSTANCE;
+        if (instrumentation != null) {
+            instrumentation.resized(container, oldCapacity, newCapacity);
+        }
+    }
+    
+    public static void eventExecuted(Object collection, ModificationEvent e, boolean modified, long nanos) {
+        CollectionInstrumentation instrumentation = INSTANCE;
+        if (instrumentation != null) {
+            instrumentation.eventExecuted(collection, e, modified, nanos);
+        }
+    }
+    
+    public static void loaded(Object lazyCollection, long nanos) {
+        CollectionInstrumentation instrumentation = INSTANCE;
+        if (instrumentation != null) {
+            instrumentation.loaded(lazyCollection, nanos);
+        }
+    }
+    
+    public static void freezingSuspended(Object obj) {
+        CollectionInstrumentation instrumentation = INSTANCE;
+        if (instrumentation != null) {
+            instrumentation.freezingSuspended(obj);
+        }
+    }
+    
+    public static void freezingResumed() {
+        CollectionInstrumentation instrumentation = INSTANCE;
+        if (instrumentation != null) {
+            instrumentation.freezingResumed();
+        }
+    }
+    
+    static CollectionInstrumentation create(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        if (value.equals("jmx")) {
+            return new JmxCollectionInstrumentation();
+        }
+        Class<?> instrumentationType;
+        try {
+            instrumentationType = Class.forName(
+                    value, 
+                    true, 
+                    CollectionInstrumentations.class.getClassLoader());
+        } catch (ClassNotFoundException ex) {
+            throw new IllegalArgumentException(
+                    illegalInstrumentationType(PROPERTY_NAME, value, CollectionInstrumentation.class), 
+                    ex
+            );
+        }
+        if (!CollectionInstrumentation.class.isAssignableFrom(instrumentationType)) {
+            throw new IllegalArgumentException(
+                    illegalInstrumentationType(PROPERTY_NAME, value, CollectionInstrumentation.class)
+            );
+        }
+        try {
+            return (CollectionInstrumentation)instrumentationType.newInstance();
+        } catch (InstantiationException | IllegalAccessException ex) {
+            throw new IllegalArgumentException(
+                    illegalInstrumentationType(PROPERTY_NAME, value, CollectionInstrumentation.class), 
+                    ex
+            );
+        }
+    }
+    
+    @I18N
+    private static native String illegalInstrumentationType(
+            String propertyName, 
+            String propertyValue, 
+            Class<CollectionInstrumentation> instrumentationType);
+}
@@ -0,0 +1,70 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.spi;
+
+import java.util.Map;
+
+/**
+ * The management interface of {@link JmxCollectionInstrumentation}.
+ * 
+ * <p>
+ * The "ByType" maps are keyed by the class name of the collection, the map or 
+ * the internal container, so the collection type that consumes the CPU 
+ * can be found. The "ByName" maps are keyed by the names given by
+ * {@link JmxCollectionInstrumentation#track(Object, String)}, 
+ * so the CPU consumed by one instance can be found.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public interface CollectionMetricsMXBean {
+    
+    long getResizeCount();
+    
+    long getEventCount();
+    
+    long getEventNanos();
+    
+    long getLoadCount();
+    
+    long getLoadNanos();
+    
+    long getFreezingSuspendCount();
+    
+    long getFreezingResumeCount();
+    
+    Map<String, Long> getResizeCountByType();
+    
+    Map<String, Long> getEventCountByType();
+    
+    Map<String, Long> getEventNanosByType();
+    
+    Map<String, Long> getLoadCountByType();
+    
+    Map<String, Long> getLoadNanosByType();
+    
+    Map<String, Long> getEventCountByName();
+    
+    Map<String, Long> getEventNanosByName();
+    
+    Map<String, Long> getLoadCountByName();
+    
+    Map<String, Long> getLoadNanosByName();
+    
+    void reset();
+}
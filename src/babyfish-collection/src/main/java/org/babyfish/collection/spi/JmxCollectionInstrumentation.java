@@ -0,0 +1,348 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.spi;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.babyfish.data.event.ModificationEvent;
+import org.babyfish.lang.Arguments;
+
+/**
+ * The instrumentation that accumulates the counters and exports them 
+ * by the platform MBean server, its object name is {@value #OBJECT_NAME}.
+ * 
+ * <p>
+ * The counters are always grouped by the class of the collection. 
+ * A collection or map can also be given a name by {@link #track(Object, String)}, 
+ * then its events and loadings are counted by that name too, so that one hot 
+ * instance can be found among the instances of the same class. 
+ * The tracked instances are weakly referenced.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public class JmxCollectionInstrumentation implements CollectionInstrumentation, CollectionMetricsMXBean {
+    
+    public static final String OBJECT_NAME = "org.babyfish.collection:type=CollectionMetrics";
+    
+    private ConcurrentMap<Class<?>, Counter> resizeCounters = new ConcurrentHashMap<>();
+    
+    private ConcurrentMap<Class<?>, Counter> eventCounters = new ConcurrentHashMap<>();
+    
+    private ConcurrentMap<Class<?>, Counter> loadCounters = new ConcurrentHashMap<>();
+    
+    private ConcurrentMap<InstanceKey, String> trackedNames = new ConcurrentHashMap<>();
+    
+    private ReferenceQueue<Object> staleKeyQueue = new ReferenceQueue<>();
+    
+    private ConcurrentMap<String, Counter> namedEventCounters = new ConcurrentHashMap<>();
+    
+    private ConcurrentMap<String, Counter> namedLoadCounters = new ConcurrentHashMap<>();
+    
+    private LongAdder freezingSuspendCount = new LongAdder();
+    
+    private LongAdder freezingResumeCount = new LongAdder();
+    
+    public JmxCollectionInstrumentation() {
+        this(true);
+    }
+    
+    protected JmxCollectionInstrumentation(boolean register) {
+        if (register) {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            try {
+                ObjectName objectName = new ObjectName(OBJECT_NAME);
+                try {
+                    server.registerMBean(this, objectName);
+                } catch (InstanceAlreadyExistsException ex) {
+                    server.unregisterMBean(objectName);
+                    server.registerMBean(this, objectName);
+                }
+            } catch (JMException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+
+    @Override
+    public void resized(Object container, int oldCapacity, int newCapacity) {
+        counter(this.resizeCounters, container).increment(0L);
+    }
+
+    @Override
+    public void eventExecuted(Object collection, ModificationEvent e, boolean modified, long nanos) {
+        counter(this.eventCounters, collection).increment(nanos);
+        this.namedIncrement(this.namedEventCounters, collection, nanos);
+    }
+
+    @Override
+    public void loaded(Object lazyCollection, long nanos) {
+        counter(this.loadCounters, lazyCollection).increment(nanos);
+        this.namedIncrement(this.namedLoadCounters, lazyCollection, nanos);
+    }
+    
+    /**
+     * Gives a name to a collection or map, after that, its events and loadings 
+     * are counted by this name too, see {@link #getEventCountByName()}. 
+     * Several instances can share the same name.
+     * 
+     * <p>
+     * The events are reported by the root MA collection, so the root collection
+     * should be tracked, not its views. The resizing is reported by the internal 
+     * container which is not visible to the user, so it is never counted by name.
+     * </p>
+     * 
+     * @param collection The collection or map to be tracked, it is weakly referenced
+     * @param name The name of the tracked collection
+     */
+    public void track(Object collection, String name) {
+        Arguments.mustNotBeNull("collection", collection);
+        Arguments.mustNotBeNull("name", name);
+        this.expungeStaleKeys();
+        this.trackedNames.put(new InstanceKey(collection, this.staleKeyQueue), name);
+    }
+    
+    public void untrack(Object collection) {
+        Arguments.mustNotBeNull("collection", collection);
+        this.expungeStaleKeys();
+        this.trackedNames.remove(new InstanceKey(collection, null));
+    }
+
+    @Override
+    public void freezingSuspended(Object obj) {
+        this.freezingSuspendCount.increment();
+    }
+
+    @Override
+    public void freezingResumed() {
+        this.freezingResumeCount.increment();
+    }
+
+    @Override
+    public long getResizeCount() {
+        return sumCount(this.resizeCounters);
+    }
+
+    @Override
+    public long getEventCount() {
+        return sumCount(this.eventCounters);
+    }
+
+    @Override
+    public long getEventNanos() {
+        return sumNanos(this.eventCounters);
+    }
+
+    @Override
+    public long getLoadCount() {
+        return sumCount(this.loadCounters);
+    }
+
+    @Override
+    public long getLoadNanos() {
+        return sumNanos(this.loadCounters);
+    }
+
+    @Override
+    public long getFreezingSuspendCount() {
+        return this.freezingSuspendCount.sum();
+    }
+
+    @Override
+    public long getFreezingResumeCount() {
+        return this.freezingResumeCount.sum();
+    }
+
+    @Override
+    public Map<String, Long> getResizeCountByType() {
+        return countMap(this.resizeCounters);
+    }
+
+    @Override
+    public Map<String, Long> getEventCountByType() {
+        return countMap(this.eventCounters);
+    }
+
+    @Override
+    public Map<String, Long> getEventNanosByType() {
+        return nanosMap(this.eventCounters);
+    }
+
+    @Override
+    public Map<String, Long> getLoadCountByType() {
+        return countMap(this.loadCounters);
+    }
+
+    @Override
+    public Map<String, Long> getLoadNanosByType() {
+        return nanosMap(this.loadCounters);
+    }
+
+    @Override
+    public Map<String, Long> getEventCountByName() {
+        return countMap(this.namedEventCounters);
+    }
+
+    @Override
+    public Map<String, Long> getEventNanosByName() {
+        return nanosMap(this.namedEventCounters);
+    }
+
+    @Override
+    public Map<String, Long> getLoadCountByName() {
+        return countMap(this.namedLoadCounters);
+    }
+
+    @Override
+    public Map<String, Long> getLoadNanosByName() {
+        return nanosMap(this.namedLoadCounters);
+    }
+
+    /**
+     * Clears all the counters, the names given by {@link #track(Object, String)} are retained.
+     */
+    @Override
+    public void reset() {
+        this.resizeCounters.clear();
+        this.eventCounters.clear();
+        this.loadCounters.clear();
+        this.namedEventCounters.clear();
+        this.namedLoadCounters.clear();
+        this.freezingSuspendCount.reset();
+        this.freezingResumeCount.reset();
+    }
+    
+    private void namedIncrement(ConcurrentMap<String, Counter> namedCounters, Object o, long nanos) {
+        if (this.trackedNames.isEmpty()) {
+            return;
+        }
+        String name = this.trackedNames.get(new InstanceKey(o, null));
+        if (name != null) {
+            namedCounters.computeIfAbsent(name, n -> new Counter()).increment(nanos);
+        }
+    }
+    
+    private void expungeStaleKeys() {
+        Object staleKey;
+        while ((staleKey = this.staleKeyQueue.poll()) != null) {
+            this.trackedNames.remove(staleKey);
+        }
+    }
+    
+    private static Counter counter(ConcurrentMap<Class<?>, Counter> counters, Object o) {
+        Class<?> type = o.getClass();
+        Counter counter = counters.get(type);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(type, t -> new Counter());
+        }
+        return counter;
+    }
+    
+    private static long sumCount(ConcurrentMap<Class<?>, Counter> counters) {
+        long sum = 0L;
+        for (Counter counter : counters.values()) {
+            sum += counter.count.sum();
+        }
+        return sum;
+    }
+    
+    private static long sumNanos(ConcurrentMap<Class<?>, Counter> counters) {
+        long sum = 0L;
+        for (Counter counter : counters.values()) {
+            sum += counter.nanos.sum();
+        }
+        return sum;
+    }
+    
+    private static Map<String, Long> countMap(ConcurrentMap<?, Counter> counters) {
+        Map<String, Long> map = new TreeMap<>();
+        for (Map.Entry<?, Counter> e : counters.entrySet()) {
+            map.merge(keyName(e.getKey()), e.getValue().count.sum(), Long::sum);
+        }
+        return map;
+    }
+    
+    private static Map<String, Long> nanosMap(ConcurrentMap<?, Counter> counters) {
+        Map<String, Long> map = new TreeMap<>();
+        for (Map.Entry<?, Counter> e : counters.entrySet()) {
+            map.merge(keyName(e.getKey()), e.getValue().nanos.sum(), Long::sum);
+        }
+        return map;
+    }
+    
+    private static String keyName(Object key) {
+        return key instanceof Class<?> ? ((Class<?>)key).getName() : (String)key;
+    }
+    
+    /*
+     * The collections override equals() and hashCode() by their contents, 
+     * so the tracked instances are keyed by identity.
+     */
+    private static final class InstanceKey extends WeakReference<Object> {
+        
+        private final int hash;
+        
+        InstanceKey(Object referent, ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            this.hash = System.identityHashCode(referent);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof InstanceKey)) {
+                return false;
+            }
+            Object referent = this.get();
+            return referent != null && referent == ((InstanceKey)obj).get();
+        }
+    }
+    
+    private static class Counter {
+        
+        final LongAdder count = new LongAdder();
+        
+        final LongAdder nanos = new LongAdder();
+        
+        void increment(long nanos) {
+            this.count.increment();
+            if (nanos != 0L) {
+                this.nanos.add(nanos);
+            }
+        }
+    }
+}
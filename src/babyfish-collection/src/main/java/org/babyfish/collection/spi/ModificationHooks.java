@@ -0,0 +1,82 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.spi;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Decides whether a derived class of the MA collections (or of their views and iterators)
+ * overrides the methods that can observe the modification without any listener, 
+ * such as onModifying, onModified, executeModifying or bubbleModified.
+ * 
+ * <p>
+ * The classes of the babyfish collection framework itself are not examined, 
+ * their own bubbling is considered by the {@code isModificationObserved()} 
+ * of each view and iterator.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+final class ModificationHooks {
+    
+    private static final String FRAMEWORK_PACKAGE_PREFIX = "org.babyfish.collection.";
+    
+    private static final ClassValue<Boolean> OVERRIDDEN = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            for (Class<?> clazz = type; clazz != null; clazz = clazz.getSuperclass()) {
+                if (clazz.getName().startsWith(FRAMEWORK_PACKAGE_PREFIX)) {
+                    return false;
+                }
+                for (Method method : clazz.getDeclaredMethods()) {
+                    if (!method.isSynthetic() && 
+                            !Modifier.isStatic(method.getModifiers()) && 
+                            isHookName(method.getName())) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    };
+
+    private ModificationHooks() {
+        throw new UnsupportedOperationException();
+    }
+    
+    static boolean isOverridden(Class<?> type) {
+        return OVERRIDDEN.get(type);
+    }
+    
+    private static boolean isHookName(String methodName) {
+        switch (methodName) {
+        case "executeModifying":
+        case "executeModified":
+        case "onModifying":
+        case "onModified":
+        case "raiseModifying":
+        case "raiseModified":
+        case "bubbleModifying":
+        case "bubbleModified":
+            return true;
+        default:
+            return false;
+        }
+    }
+}
@@ -1148,6 +1148,17 @@ public abstract class AbstractBaseElementsImpl<E> implements BaseElements<E>, Se
                         )
                 );
             }
+            if (this.finalThrowable == null && this.len != 0) {
+                AbstractBaseElementsImpl<E> owner = AbstractBaseElementsImpl.this;
+                owner.freeze();
+                try {
+                    this.handler.executing();
+                } catch (RuntimeException | Error ex) {
+                    this.finalThrowable = ex;
+                } finally {
+                    owner.unfreeze();
+                }
+            }
             if (this.finalThrowable != null) {
                 this.state = TRIGGER_EXECUTED;
                 return false;
@@ -1893,6 +1893,17 @@ public abstract class AbstractBaseEntriesImpl<K, V> implements BaseEntries<K, V>
                         )
                 );
             }
+            if (this.handler != null && this.finalThrowable == null && this.len != 0) {
+                AbstractBaseEntriesImpl<K, V> owner = AbstractBaseEntriesImpl.this;
+                owner.freeze();
+                try {
+                    this.handler.executing();
+                } catch (RuntimeException | Error ex) {
+                    this.finalThrowable = ex;
+                } finally {
+                    owner.unfreeze();
+                }
+            }
             if (this.finalThrowable != null) {
                 this.state = TRIGGER_EXECUTED;
                 return false;
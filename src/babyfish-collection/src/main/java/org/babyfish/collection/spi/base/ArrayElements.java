@@ -21,9 +21,13 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 import org.babyfish.collection.BidiType;
 import org.babyfish.collection.UnifiedComparator;
+import org.babyfish.collection.spi.CollectionInstrumentations;
 import org.babyfish.collection.spi.base.AbstractBaseElementsImpl.Trigger.History;
 import org.babyfish.lang.Arguments;
 
@@ -522,6 +526,11 @@ public class ArrayElements<E> extends AbstractBaseElementsImpl<E> {
         return this.new BaseElementIteratorImpl(subListHeadHide, subListTailHide, index, rangeChangeHandler);
     }
     
+    @Override
+    public Spliterator<E> spliterator(int subListHeadHide, int subListTailHide) {
+        return this.new SpliteratorImpl(subListHeadHide, this.allSize - subListTailHide);
+    }
+    
     @Override
     public int modCount() {
         return this.modCount;
@@ -534,6 +543,9 @@ public class ArrayElements<E> extends AbstractBaseElementsImpl<E> {
             if (newCapacity < newSize) {
                 newCapacity = newSize;
             }
+            if (CollectionInstrumentations.ENABLED) {
+                CollectionInstrumentations.resized(this, oldCapacity, newCapacity);
+            }
             return newCapacity;
         }
         return -1;
@@ -547,8 +559,11 @@ public class ArrayElements<E> extends AbstractBaseElementsImpl<E> {
         int oldCapacity = this.data == null ? 0 : this.data.length;
         if (oldCapacity > newSize) {
             int newCapacity = (int)(oldCapacity * factor);
-            if (newCapacity >= newSize) {
-                return newCapacity < oldCapacity ? newCapacity : -1;
+            if (newCapacity >= newSize && newCapacity < oldCapacity) {
+                if (CollectionInstrumentations.ENABLED) {
+                    CollectionInstrumentations.resized(this, oldCapacity, newCapacity);
+                }
+                return newCapacity;
             }
         }
         return -1;
@@ -615,4 +630,84 @@ public class ArrayElements<E> extends AbstractBaseElementsImpl<E> {
         
     }
     
+    /*
+     * Splits the absolute index range [index, fence) of the array by half,
+     * the sub list is supported by the headHide/tailHide that decide the initial range.
+     */
+    private class SpliteratorImpl implements Spliterator<E> {
+        
+        private int index;
+        
+        private int fence;
+        
+        private int expectedModCount;
+        
+        SpliteratorImpl(int index, int fence) {
+            this(index, fence, ArrayElements.this.modCount);
+        }
+        
+        private SpliteratorImpl(int index, int fence, int expectedModCount) {
+            this.index = index;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            int lo = this.index;
+            int mid = (lo + this.fence) >>> 1;
+            if (lo >= mid) {
+                return null;
+            }
+            this.index = mid;
+            return ArrayElements.this.new SpliteratorImpl(lo, mid, this.expectedModCount);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            Arguments.mustNotBeNull("action", action);
+            if (this.expectedModCount != ArrayElements.this.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+            int i = this.index;
+            if (i >= this.fence) {
+                return false;
+            }
+            this.index = i + 1;
+            action.accept((E)ArrayElements.this.data[i]);
+            if (this.expectedModCount != ArrayElements.this.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            Arguments.mustNotBeNull("action", action);
+            if (this.expectedModCount != ArrayElements.this.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+            Object[] data = ArrayElements.this.data;
+            int fence = this.fence;
+            for (int i = this.index; i < fence; i++) {
+                action.accept((E)data[i]);
+            }
+            this.index = fence;
+            if (this.expectedModCount != ArrayElements.this.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.fence - this.index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
 }
@@ -18,6 +18,7 @@
 package org.babyfish.collection.spi.base;
 
 import java.util.Collection;
+import java.util.Spliterator;
 
 import org.babyfish.collection.BidiType;
 import org.babyfish.collection.UnifiedComparator;
@@ -91,4 +92,13 @@ public interface BaseElements<E> extends BaseContainer {
             int subListTailHide, 
             int index, 
             BaseElementsConflictHandler rangeChangeHandler);
+    
+    /**
+     * Returns a fail-fast spliterator over the elements of the (sub) list. The default
+     * implementation adapts {@link #listIterator(int, int, int, BaseElementsConflictHandler)}, 
+     * the implementations that support random access should override it.
+     */
+    default Spliterator<E> spliterator(int subListHeadHide, int subListTailHide) {
+        return BasicAlgorithms.baseElementsSpliterator(this, subListHeadHide, subListTailHide);
+    }
 }
@@ -42,6 +42,12 @@ public interface BaseElementsHandler<E> {
     
     void removed(int index, E element, Object argument);
     
+    /**
+     * Invoked after all the pre-notifications of one modification and before the
+     * base elements are changed, the exception thrown by it cancels the modification.
+     */
+    default void executing() {}
+    
     void setPreThrowable(Object argument, Throwable throwable);
     
     void setNullOrThrowable(Throwable nullOrThrowable);
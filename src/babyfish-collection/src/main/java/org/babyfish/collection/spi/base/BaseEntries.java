@@ -20,6 +20,7 @@ package org.babyfish.collection.spi.base;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Spliterator;
 
 import org.babyfish.collection.BidiType;
 import org.babyfish.collection.ReplacementRule;
@@ -65,6 +66,17 @@ public interface BaseEntries<K, V> extends BaseContainer {
     
     BaseEntry<K, V> getBaseEntry(Object key);
     
+    /**
+     * Returns the value of the key or null. The default implementation 
+     * reads it from {@link #getBaseEntry(Object)}, the implementations 
+     * whose entries are created on demand should override it so that the 
+     * lookup allocates nothing.
+     */
+    default V get(Object key) {
+        BaseEntry<K, V> be = this.getBaseEntry(key);
+        return be == null ? null : be.getValue();
+    }
+    
     BaseEntry<K, V> getBaseEntryByValue(V value);
     
     boolean containsEntry(Object e);
@@ -111,4 +123,13 @@ public interface BaseEntries<K, V> extends BaseContainer {
     void resumeViaFronzeContext(FrozenContextSuspending<K, V> suspending);
     
     BaseEntryIterator<K, V> iterator();
+    
+    /**
+     * Returns a fail-fast spliterator over the base entries. The default
+     * implementation adapts {@link #iterator()}, the implementations whose
+     * structure can be divided cheaply should override it.
+     */
+    default Spliterator<BaseEntry<K, V>> spliterator() {
+        return BasicAlgorithms.baseEntriesSpliterator(this, Spliterator.DISTINCT);
+    }
 }
@@ -58,6 +58,12 @@ public interface BaseEntriesHandler<K, V> {
         throw new UnsupportedOperationException();
     }
     
+    /**
+     * Invoked after all the pre-notifications of one modification and before the
+     * base entries are changed, the exception thrown by it cancels the modification.
+     */
+    default void executing() {}
+    
     default void setPreThrowable(Object argument, Throwable throwable) {}
     
     default void setNullOrThrowable(Throwable nullOrThrowable) {}
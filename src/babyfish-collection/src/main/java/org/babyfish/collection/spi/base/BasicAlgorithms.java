@@ -24,8 +24,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import org.babyfish.collection.UnifiedComparator;
+import org.babyfish.lang.Arguments;
 
 /**
  * @author Tao Chen
@@ -219,6 +224,58 @@ public class BasicAlgorithms {
         }
     }
     
+    public static <K, V> Spliterator<BaseEntry<K, V>> baseEntriesSpliterator(
+            BaseEntries<K, V> baseEntries, int characteristics) {
+        final BaseEntryIterator<K, V> beItr = baseEntries.iterator();
+        return Spliterators.spliterator(
+                new Iterator<BaseEntry<K, V>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return beItr.hasNext();
+                    }
+                    @Override
+                    public BaseEntry<K, V> next() {
+                        return beItr.next();
+                    }
+                }, 
+                baseEntries.size(), 
+                characteristics);
+    }
+    
+    public static <E> Spliterator<E> baseElementsSpliterator(
+            BaseElements<E> baseElements, int subListHeadHide, int subListTailHide) {
+        final BaseListIterator<E> beItr = baseElements.listIterator(subListHeadHide, subListTailHide, 0, null);
+        return Spliterators.spliterator(
+                new Iterator<E>() {
+                    @Override
+                    public boolean hasNext() {
+                        return beItr.hasNext();
+                    }
+                    @Override
+                    public E next() {
+                        return beItr.next();
+                    }
+                }, 
+                baseElements.allSize() - subListHeadHide - subListTailHide, 
+                Spliterator.ORDERED);
+    }
+    
+    /**
+     * Converts the spliterator of base objects to the spliterator of the objects 
+     * exposed by the views, each split of the result splits the original spliterator.
+     * 
+     * @param spliterator The original spliterator
+     * @param mapper The function to convert the base objects
+     * @param removedCharacteristics The characteristics that are not kept after the conversion,
+     * for example, {@link Spliterator#DISTINCT} when the values of map are returned.
+     */
+    public static <T, R> Spliterator<R> mapSpliterator(
+            Spliterator<T> spliterator, 
+            Function<? super T, ? extends R> mapper,
+            int removedCharacteristics) {
+        return new MappedSpliterator<T, R>(spliterator, mapper, removedCharacteristics);
+    }
+    
     private static <K, V> boolean containsAll(Map<K, V> a, Map<K, V> b) {
         try {
             for (Entry<K, V> e : a.entrySet()) {
@@ -241,4 +298,55 @@ public class BasicAlgorithms {
         }
         return true;
     }
+    
+    private static class MappedSpliterator<T, R> implements Spliterator<R> {
+        
+        private Spliterator<T> spliterator;
+        
+        private Function<? super T, ? extends R> mapper;
+        
+        private int removedCharacteristics;
+        
+        MappedSpliterator(
+                Spliterator<T> spliterator, 
+                Function<? super T, ? extends R> mapper,
+                int removedCharacteristics) {
+            this.spliterator = spliterator;
+            this.mapper = mapper;
+            this.removedCharacteristics = removedCharacteristics;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super R> action) {
+            Arguments.mustNotBeNull("action", action);
+            Function<? super T, ? extends R> mapper = this.mapper;
+            return this.spliterator.tryAdvance(t -> action.accept(mapper.apply(t)));
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super R> action) {
+            Arguments.mustNotBeNull("action", action);
+            Function<? super T, ? extends R> mapper = this.mapper;
+            this.spliterator.forEachRemaining(t -> action.accept(mapper.apply(t)));
+        }
+
+        @Override
+        public Spliterator<R> trySplit() {
+            Spliterator<T> prefix = this.spliterator.trySplit();
+            if (prefix == null) {
+                return null;
+            }
+            return new MappedSpliterator<T, R>(prefix, this.mapper, this.removedCharacteristics);
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.spliterator.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return this.spliterator.characteristics() & ~(this.removedCharacteristics | SORTED);
+        }
+    }
 }
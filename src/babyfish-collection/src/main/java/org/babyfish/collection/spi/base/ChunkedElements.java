@@ -0,0 +1,941 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.spi.base;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.babyfish.collection.BidiType;
+import org.babyfish.collection.ReaderOptimizationType;
+import org.babyfish.collection.UnifiedComparator;
+import org.babyfish.collection.spi.base.AbstractBaseElementsImpl.Trigger.History;
+import org.babyfish.lang.Arguments;
+
+/**
+ * The unrolled linked list implementation of {@link BaseElements}.
+ * 
+ * <p>
+ * Each node of the list is a chunk that holds at most {@link #chunkCapacity()}
+ * elements in a window of its array, so the insertion and the deletion at the 
+ * head or the tail are O(1) amortized and the index based accessing only need to 
+ * skip O(n/chunkCapacity) chunks.
+ * </p>
+ * 
+ * <p>
+ * Unlike {@link LinkedElements}, the elements are moved between the chunks 
+ * when a chunk is split or merged, so the nodes are not supported.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public final class ChunkedElements<E> extends AbstractBaseElementsImpl<E> {
+    
+    private static final long serialVersionUID = -2461953785403546620L;
+    
+    public static final int DEFAULT_CHUNK_CAPACITY = 64;
+    
+    public static final int MIN_CHUNK_CAPACITY = 4;
+    
+    private int chunkCapacity;
+    
+    private ReaderOptimizationType readerOptimizationType;
+    
+    private transient Chunk first;
+    
+    private transient Chunk last;
+    
+    private transient int allSize;
+    
+    //This member can not be changed 
+    //when readerOptimizationType == ReaderOptimizationType.OPITIMIZE_READ_LOCK
+    private transient Position lastAccess;
+    
+    private transient int modCount;
+    
+    public ChunkedElements(
+            BidiType bidiType,
+            ReaderOptimizationType readerOptimizationType, 
+            Object comparatorOrEqualityComparatorOrUnifiedComparator,
+            int chunkCapacity) {
+        super(bidiType, comparatorOrEqualityComparatorOrUnifiedComparator);
+        this.readerOptimizationType = Arguments.mustNotBeNull("readerOptimizationType", readerOptimizationType);
+        this.chunkCapacity = Arguments.mustBeGreaterThanOrEqualToValue(
+                "chunkCapacity", chunkCapacity, MIN_CHUNK_CAPACITY);
+    }
+    
+    public ReaderOptimizationType readerOptimizationType() {
+        return this.readerOptimizationType;
+    }
+    
+    public int chunkCapacity() {
+        return this.chunkCapacity;
+    }
+    
+    @Override
+    public boolean isReadWriteLockSupported() {
+        return this.readerOptimizationType == ReaderOptimizationType.OPTIMIZE_READ_LOCK;
+    }
+
+    @Override
+    public boolean randomAccess() {
+        return false;
+    }
+    
+    @Override
+    public int allSize() {
+        return this.allSize;
+    }
+    
+    @Override
+    public E get(int subListHeadHide, int subListTailHide, int index) {
+        this.checkSubListRange(subListHeadHide, subListTailHide);
+        Arguments.indexMustBetweenOther(
+                "index", 
+                index, 
+                "0", 
+                0, 
+                true, 
+                "allSize() - subListHeadHide - subListTailHide", 
+                this.allSize - subListHeadHide - subListTailHide, 
+                false);
+        return this.valueAt(subListHeadHide + index);
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    protected int firstIndex(int subListHeadHide, int subListTailHide, Object o) {
+        this.checkSubListRange(subListHeadHide, subListTailHide);
+        int fenceIndex = this.allSize - subListTailHide;
+        if (subListHeadHide >= fenceIndex) {
+            return -1;
+        }
+        UnifiedComparator<? super E> unifiedComparator = this.unifiedComparator();
+        Position position = this.positionOf(subListHeadHide);
+        Chunk chunk = position.chunk;
+        int i = chunk.offset + subListHeadHide - position.start;
+        int absIndex = subListHeadHide;
+        while (true) {
+            Object[] data = chunk.data;
+            int end = chunk.offset + chunk.size;
+            for (; i < end; i++) {
+                if (absIndex == fenceIndex) {
+                    return -1;
+                }
+                if (o == null ? data[i] == null : unifiedComparator.equals((E)o, (E)data[i])) {
+                    return absIndex - subListHeadHide;
+                }
+                absIndex++;
+            }
+            chunk = chunk.next;
+            if (chunk == null) {
+                return -1;
+            }
+            i = chunk.offset;
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    protected int lastIndex(int subListHeadHide, int subListTailHide, Object o) {
+        this.checkSubListRange(subListHeadHide, subListTailHide);
+        int absIndex = this.allSize - subListTailHide - 1;
+        if (absIndex < subListHeadHide) {
+            return -1;
+        }
+        UnifiedComparator<? super E> unifiedComparator = this.unifiedComparator();
+        Position position = this.positionOf(absIndex);
+        Chunk chunk = position.chunk;
+        int i = chunk.offset + absIndex - position.start;
+        while (true) {
+            Object[] data = chunk.data;
+            int begin = chunk.offset;
+            for (; i >= begin; i--) {
+                if (absIndex < subListHeadHide) {
+                    return -1;
+                }
+                if (o == null ? data[i] == null : unifiedComparator.equals((E)o, (E)data[i])) {
+                    return absIndex - subListHeadHide;
+                }
+                absIndex--;
+            }
+            chunk = chunk.prev;
+            if (chunk == null) {
+                return -1;
+            }
+            i = chunk.offset + chunk.size - 1;
+        }
+    }
+
+    @Override
+    protected void addImpl(E element, AttachProcessor<E> attachProcessor) {
+        Trigger<E> trigger = attachProcessor.getTrigger();
+        if (trigger != null) {
+            trigger.preAdd(attachProcessor.getActualIndex(false), element);
+        }
+        if (attachProcessor.beginExecute()) {
+            try {
+                this.insert(attachProcessor.getActualIndex(true), element);
+                BaseEntries<E, Object> inversedEntries = this.inversedEntries();
+                if (inversedEntries != null) {
+                    inversedEntries.put(element, null, null);
+                }
+                this.allSize++;
+                this.lastAccess = null;
+                this.modCount++;
+                attachProcessor.endExecute(null);
+            } catch (RuntimeException | Error ex) {
+                attachProcessor.endExecute(ex);
+            }
+        }
+        attachProcessor.flush();
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    protected void addAllImpl(Collection<? extends E> c, AttachProcessor<E> attachProcessor) {
+        Trigger<E> trigger = attachProcessor.getTrigger();
+        if (trigger != null) {
+            int addedCount = 0;
+            int actualIndex = attachProcessor.getActualIndex(false);
+            for (E e : c) {
+                trigger.preAdd(actualIndex + addedCount++, e);
+            }
+        }
+        if (attachProcessor.beginExecute()) {
+            try {
+                Object[] appendData = c.toArray();
+                this.insertAll(attachProcessor.getActualIndex(true), appendData);
+                BaseEntries<E, Object> inversedEntries = this.inversedEntries();
+                if (inversedEntries != null) {
+                    for (int i = appendData.length - 1; i >= 0; i--) {
+                        inversedEntries.put((E)appendData[i], null, null);
+                    }
+                }
+                this.allSize += appendData.length;
+                this.lastAccess = null;
+                this.modCount++;
+                attachProcessor.endExecute(null);
+            } catch (RuntimeException | Error ex) {
+                attachProcessor.endExecute(ex);
+            }
+        }
+        attachProcessor.flush();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected E setImpl(E element, AttachProcessor<E> attachProcessor) {
+        Trigger<E> trigger = attachProcessor.getTrigger();
+        if (trigger != null) {
+            trigger.preChange(
+                    attachProcessor.getExpectedIndex(false),
+                    attachProcessor.getActualIndex(false), 
+                    this.valueAt(attachProcessor.getExpectedIndex(true)), 
+                    element);
+        }
+        E retval = null;
+        if (attachProcessor.beginExecute()) {
+            try {
+                int absIndex = attachProcessor.getActualIndex(true);
+                Position position = this.positionOf(absIndex);
+                Object[] data = position.chunk.data;
+                int i = position.chunk.offset + absIndex - position.start;
+                retval = (E)data[i];
+                data[i] = element;
+                BaseEntries<E, Object> inversedEntries = this.inversedEntries();
+                if (inversedEntries != null) {
+                    inversedEntries.removeByKey(retval, null);
+                    inversedEntries.put(element, null, null);
+                }
+                attachProcessor.endExecute(null);
+            } catch (RuntimeException | Error ex) {
+                attachProcessor.endExecute(ex);
+            }
+        }
+        attachProcessor.flush();
+        return retval;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected void clear(int subListHeadHide, int subListTailHide, Trigger<E> trigger) {
+        this.checkSubListRange(subListHeadHide, subListTailHide);
+        int fenceIndex = this.allSize - subListTailHide;
+        if (subListHeadHide == fenceIndex) {
+            return;
+        }
+        Object[] values = null;
+        if (trigger != null) {
+            values = this.toArray(subListHeadHide, fenceIndex);
+            for (int i = 0; i < values.length; i++) {
+                trigger.preRemove(i, (E)values[i]);
+            }
+        }
+        if (trigger == null || trigger.beginExecute()) {
+            try {
+                BaseEntries<E, Object> inversedEntries = this.inversedEntries();
+                if (inversedEntries != null) {
+                    if (subListHeadHide == 0 && subListTailHide == 0) {
+                        inversedEntries.clear(null);
+                    } else {
+                        if (values == null) {
+                            values = this.toArray(subListHeadHide, fenceIndex);
+                        }
+                        for (int i = values.length - 1; i >= 0; i--) {
+                            inversedEntries.removeByKey(values[i], null);
+                        }
+                    }
+                }
+                this.deleteRange(subListHeadHide, fenceIndex);
+                this.modCount++;
+                if (trigger != null) {
+                    trigger.endExecute(null);
+                }
+            } catch (RuntimeException | Error ex) {
+                if (trigger == null) {
+                    throw ex;
+                }
+                trigger.endExecute(ex);
+            }
+        }
+        if (trigger != null) {
+            trigger.flush();
+        }
+    }
+    
+    @Override
+    protected boolean remove(int subListHeadHide, int subListTailHide, Object o, Trigger<E> trigger) {
+        // Need not to call this.checkSubListRange because this.indexOf will call it
+        int index = this.indexOf(subListHeadHide, subListTailHide, o);
+        if (index != -1) {
+            this.removeAt(subListHeadHide, subListTailHide, index, trigger);
+            return true;
+        }
+        return false;
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    protected E removeAt(int subListHeadHide, int subListTailHide, int index, Trigger<E> trigger) {
+        this.checkSubListRange(subListHeadHide, subListTailHide);
+        Arguments.indexMustBetweenOther(
+                "index", 
+                index, 
+                "0", 
+                0, 
+                true, 
+                "allSize() - subListHeadHide - subListTailHide", 
+                this.allSize - subListHeadHide - subListTailHide, 
+                false);
+        int absIndex = subListHeadHide + index;
+        if (trigger != null) {
+            trigger.preRemove(index, this.valueAt(absIndex));
+        }
+        E retval = null;
+        if (trigger == null || trigger.beginExecute()) {
+            try {
+                retval = (E)this.deleteAt(absIndex);
+                BaseEntries<E, Object> inversedEntries = this.inversedEntries();
+                if (inversedEntries != null) {
+                    inversedEntries.removeByKey(retval, null);
+                }
+                this.modCount++;
+                if (trigger != null) {
+                    trigger.endExecute(null);
+                }
+            } catch (RuntimeException | Error ex) {
+                if (trigger == null) {
+                    throw ex;
+                }
+                trigger.endExecute(ex);
+            }
+        }
+        if (trigger != null) {
+            trigger.flush();
+        }
+        return retval;
+    }
+    
+    @Override
+    protected boolean removeAll(int subListHeadHide, int subListTailHide, Collection<?> c, Trigger<E> trigger) {
+        return this.removeMatched(subListHeadHide, subListTailHide, c, false, trigger);
+    }
+    
+    @Override
+    protected boolean retainAll(int subListHeadHide, int subListTailHide, Collection<?> c, Trigger<E> trigger) {
+        return this.removeMatched(subListHeadHide, subListTailHide, c, true, trigger);
+    }
+    
+    @Override
+    public BaseListIterator<E> listIterator(
+            int subListHeadHide, 
+            int subListTailHide, 
+            int index, 
+            BaseElementsConflictHandler conflictHandler) {
+        return this.new BaseElementIteratorImpl(subListHeadHide, subListTailHide, index, conflictHandler);
+    }
+
+    @Override
+    public int modCount() {
+        return this.modCount;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private boolean removeMatched(
+            int subListHeadHide, 
+            int subListTailHide, 
+            Collection<?> c, 
+            boolean retain, 
+            Trigger<E> trigger) {
+        this.checkSubListRange(subListHeadHide, subListTailHide);
+        Object[] values = this.toArray(subListHeadHide, this.allSize - subListTailHide);
+        OverriddenContainsBehavior ocb = OverriddenContainsBehavior.of(
+                (Collection<? extends E>)c, this.unifiedComparator());
+        if (trigger == null) {
+            boolean[] deleted = null;
+            for (int i = 0; i < values.length; i++) {
+                if (ocb.contains(values[i]) != retain) {
+                    if (deleted == null) {
+                        deleted = new boolean[values.length];
+                    }
+                    deleted[i] = true;
+                }
+            }
+            if (deleted == null) {
+                return false;
+            }
+            this.deleteAll(subListHeadHide, values, deleted);
+            this.modCount++;
+            return true;
+        }
+        
+        for (int i = 0; i < values.length; i++) {
+            if (ocb.contains(values[i]) != retain) {
+                trigger.preRemove(i, (E)values[i]);
+            }
+        }
+        if (trigger.beginExecute()) {
+            try {
+                if (trigger.getLength() != 0) {
+                    History<E> history = trigger.getHistory(0);
+                    boolean[] deleted = new boolean[values.length];
+                    for (int i = 0; i < trigger.getLength(); i++) {
+                        deleted[history.getOldIndex(i)] = true;
+                    }
+                    this.deleteAll(subListHeadHide, values, deleted);
+                    this.modCount++;
+                }
+                trigger.endExecute(null);
+            } catch (RuntimeException | Error ex) {
+                trigger.endExecute(ex);
+            }
+        }
+        trigger.flush();
+        return trigger.getLength() != 0;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private E valueAt(int absIndex) {
+        Position position = this.positionOf(absIndex);
+        Chunk chunk = position.chunk;
+        return (E)chunk.data[chunk.offset + absIndex - position.start];
+    }
+
+    /*
+     * The absIndex must be less than allSize. Skips the chunks from the head, 
+     * the tail or the last accessed chunk, which one is the nearest.
+     * 
+     * When readerOptimizationType is OPTIMIZE_READING, the returned 
+     * object is the shared lastAccess so that the caller must read 
+     * its fields immediately.
+     */
+    private Position positionOf(int absIndex) {
+        Position lastAccess = this.lastAccess;
+        int fromHead = absIndex;
+        int fromTail = this.allSize - absIndex - 1;
+        int fromLastAccess = lastAccess == null ? Integer.MAX_VALUE : Math.abs(absIndex - lastAccess.start);
+        Chunk chunk;
+        int start;
+        if (fromLastAccess < fromHead && fromLastAccess < fromTail) {
+            chunk = lastAccess.chunk;
+            start = lastAccess.start;
+        } else if (fromHead <= fromTail) {
+            chunk = this.first;
+            start = 0;
+        } else {
+            chunk = this.last;
+            start = this.allSize - chunk.size;
+        }
+        while (absIndex < start) {
+            chunk = chunk.prev;
+            start -= chunk.size;
+        }
+        while (absIndex >= start + chunk.size) {
+            start += chunk.size;
+            chunk = chunk.next;
+        }
+        if (this.readerOptimizationType == ReaderOptimizationType.OPTIMIZE_READING) {
+            if (lastAccess == null) {
+                this.lastAccess = lastAccess = new Position();
+            }
+            lastAccess.chunk = chunk;
+            lastAccess.start = start;
+            return lastAccess;
+        }
+        Position position = new Position();
+        position.chunk = chunk;
+        position.start = start;
+        return position;
+    }
+    
+    private Object[] toArray(int fromIndex, int fenceIndex) {
+        Object[] arr = new Object[fenceIndex - fromIndex];
+        if (arr.length != 0) {
+            Position position = this.positionOf(fromIndex);
+            Chunk chunk = position.chunk;
+            int local = fromIndex - position.start;
+            int copied = 0;
+            while (copied < arr.length) {
+                int count = Math.min(arr.length - copied, chunk.size - local);
+                System.arraycopy(chunk.data, chunk.offset + local, arr, copied, count);
+                copied += count;
+                local = 0;
+                chunk = chunk.next;
+            }
+        }
+        return arr;
+    }
+
+    /**
+     * This method doesn't modify the {@link #allSize} 
+     * so that it can only be called by {@link #addImpl(Object, AttachProcessor)}
+     */
+    private void insert(int absIndex, Object value) {
+        int chunkCapacity = this.chunkCapacity;
+        if (absIndex == this.allSize) {
+            Chunk last = this.last;
+            if (last != null) {
+                int end = last.offset + last.size;
+                if (end < chunkCapacity) {
+                    last.data[end] = value;
+                    last.size++;
+                    return;
+                }
+                // Compact the tail chunk only when it is less than half full, 
+                // so that the queue like using is still O(1) amortized
+                if (last.size < chunkCapacity >> 1) {
+                    compact(last);
+                    last.data[last.size++] = value;
+                    return;
+                }
+            }
+            Chunk chunk = new Chunk(chunkCapacity, 0);
+            chunk.data[0] = value;
+            chunk.size = 1;
+            this.linkAfter(chunk, last);
+            return;
+        }
+        Position position = this.positionOf(absIndex);
+        Chunk chunk = position.chunk;
+        int local = absIndex - position.start;
+        if (chunk.size == chunkCapacity) {
+            if (local == 0) {
+                Chunk prev = chunk.prev;
+                if (prev != null && prev.size < chunkCapacity) {
+                    insertInto(prev, prev.size, value);
+                    return;
+                }
+                // Fill the new head chunk from right to left
+                Chunk newChunk = new Chunk(chunkCapacity, chunkCapacity - 1);
+                newChunk.data[chunkCapacity - 1] = value;
+                newChunk.size = 1;
+                this.linkAfter(newChunk, prev);
+                return;
+            }
+            Chunk newChunk = this.split(chunk, chunkCapacity >> 1);
+            if (local > chunk.size) {
+                local -= chunk.size;
+                chunk = newChunk;
+            }
+        }
+        insertInto(chunk, local, value);
+    }
+    
+    /**
+     * This method doesn't modify the {@link #allSize} 
+     * so that it can only be called by {@link #addAllImpl(Collection, AttachProcessor)}
+     * and {@link #readObject(ObjectInputStream)}
+     */
+    private void insertAll(int absIndex, Object[] values) {
+        if (values.length == 0) {
+            return;
+        }
+        Chunk before;
+        if (absIndex == this.allSize) {
+            before = this.last;
+        } else {
+            Position position = this.positionOf(absIndex);
+            Chunk chunk = position.chunk;
+            int local = absIndex - position.start;
+            if (local == 0) {
+                before = chunk.prev;
+            } else {
+                this.split(chunk, local);
+                before = chunk;
+            }
+        }
+        int copied = 0;
+        if (before != null) {
+            int end = before.offset + before.size;
+            copied = Math.min(values.length, before.data.length - end);
+            System.arraycopy(values, 0, before.data, end, copied);
+            before.size += copied;
+        }
+        int chunkCapacity = this.chunkCapacity;
+        while (copied < values.length) {
+            Chunk chunk = new Chunk(chunkCapacity, 0);
+            int count = Math.min(values.length - copied, chunkCapacity);
+            System.arraycopy(values, copied, chunk.data, 0, count);
+            chunk.size = count;
+            this.linkAfter(chunk, before);
+            before = chunk;
+            copied += count;
+        }
+    }
+
+    /**
+     * Notes, this method doesn't modify {@link #modCount} and
+     * {@link #inversedEntries()}
+     */
+    private Object deleteAt(int absIndex) {
+        Position position = this.positionOf(absIndex);
+        Chunk chunk = position.chunk;
+        int local = absIndex - position.start;
+        Object[] data = chunk.data;
+        int offset = chunk.offset;
+        int size = chunk.size;
+        Object value = data[offset + local];
+        if (local < size - local - 1) {
+            System.arraycopy(data, offset, data, offset + 1, local);
+            data[offset] = null;
+            chunk.offset = offset + 1;
+        } else {
+            System.arraycopy(data, offset + local + 1, data, offset + local, size - local - 1);
+            data[offset + size - 1] = null;
+        }
+        chunk.size = size - 1;
+        this.rebalance(chunk);
+        this.allSize--;
+        this.lastAccess = null;
+        return value;
+    }
+    
+    /**
+     * Notes, this method doesn't modify {@link #modCount} and
+     * {@link #inversedEntries()}
+     */
+    private void deleteRange(int fromIndex, int fenceIndex) {
+        int count = fenceIndex - fromIndex;
+        if (count == 0) {
+            return;
+        }
+        if (count == this.allSize) {
+            this.first = null;
+            this.last = null;
+        } else {
+            Position position = this.positionOf(fromIndex);
+            Chunk chunk = position.chunk;
+            int local = fromIndex - position.start;
+            Chunk partialChunk = null;
+            for (int remaining = count; remaining > 0; ) {
+                Chunk next = chunk.next;
+                int deletedCount = Math.min(remaining, chunk.size - local);
+                if (deletedCount == chunk.size) {
+                    this.unlink(chunk);
+                } else {
+                    Object[] data = chunk.data;
+                    int offset = chunk.offset;
+                    int size = chunk.size;
+                    if (local == 0) {
+                        Arrays.fill(data, offset, offset + deletedCount, null);
+                        chunk.offset = offset + deletedCount;
+                    } else {
+                        System.arraycopy(
+                                data, 
+                                offset + local + deletedCount, 
+                                data, 
+                                offset + local, 
+                                size - local - deletedCount);
+                        Arrays.fill(data, offset + size - deletedCount, offset + size, null);
+                    }
+                    chunk.size = size - deletedCount;
+                    if (partialChunk == null) {
+                        partialChunk = chunk;
+                    }
+                }
+                remaining -= deletedCount;
+                local = 0;
+                chunk = next;
+            }
+            // The partial chunks at both sides of the deleted range are neighbors now
+            if (partialChunk != null) {
+                this.rebalance(partialChunk);
+            }
+        }
+        this.allSize -= count;
+        this.lastAccess = null;
+    }
+    
+    /**
+     * Notes, this method doesn't modify {@link #modCount}
+     */
+    private void deleteAll(int fromIndex, Object[] values, boolean[] deleted) {
+        BaseEntries<E, Object> inversedEntries = this.inversedEntries();
+        int retainedCount = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (deleted[i]) {
+                if (inversedEntries != null) {
+                    inversedEntries.removeByKey(values[i], null);
+                }
+            } else {
+                values[retainedCount++] = values[i];
+            }
+        }
+        if (retainedCount != 0) {
+            Position position = this.positionOf(fromIndex);
+            Chunk chunk = position.chunk;
+            int local = fromIndex - position.start;
+            int copied = 0;
+            while (copied < retainedCount) {
+                int count = Math.min(retainedCount - copied, chunk.size - local);
+                System.arraycopy(values, copied, chunk.data, chunk.offset + local, count);
+                copied += count;
+                local = 0;
+                chunk = chunk.next;
+            }
+        }
+        this.deleteRange(fromIndex + retainedCount, fromIndex + values.length);
+    }
+    
+    private Chunk split(Chunk chunk, int local) {
+        Object[] data = chunk.data;
+        int from = chunk.offset + local;
+        int count = chunk.size - local;
+        Chunk newChunk = new Chunk(this.chunkCapacity, 0);
+        System.arraycopy(data, from, newChunk.data, 0, count);
+        Arrays.fill(data, from, from + count, null);
+        newChunk.size = count;
+        chunk.size = local;
+        this.linkAfter(newChunk, chunk);
+        return newChunk;
+    }
+    
+    private void rebalance(Chunk chunk) {
+        if (chunk.size == 0) {
+            this.unlink(chunk);
+            return;
+        }
+        int halfCapacity = this.chunkCapacity >> 1;
+        Chunk next = chunk.next;
+        if (next != null && chunk.size + next.size <= halfCapacity) {
+            this.merge(chunk, next);
+            return;
+        }
+        Chunk prev = chunk.prev;
+        if (prev != null && prev.size + chunk.size <= halfCapacity) {
+            this.merge(prev, chunk);
+        }
+    }
+    
+    private void merge(Chunk chunk, Chunk next) {
+        if (chunk.offset + chunk.size + next.size > chunk.data.length) {
+            compact(chunk);
+        }
+        System.arraycopy(next.data, next.offset, chunk.data, chunk.offset + chunk.size, next.size);
+        chunk.size += next.size;
+        this.unlink(next);
+    }
+    
+    private void linkAfter(Chunk chunk, Chunk prev) {
+        Chunk next = prev != null ? prev.next : this.first;
+        chunk.prev = prev;
+        chunk.next = next;
+        if (prev != null) {
+            prev.next = chunk;
+        } else {
+            this.first = chunk;
+        }
+        if (next != null) {
+            next.prev = chunk;
+        } else {
+            this.last = chunk;
+        }
+    }
+    
+    private void unlink(Chunk chunk) {
+        Chunk prev = chunk.prev;
+        Chunk next = chunk.next;
+        if (prev != null) {
+            prev.next = next;
+        } else {
+            this.first = next;
+        }
+        if (next != null) {
+            next.prev = prev;
+        } else {
+            this.last = prev;
+        }
+        chunk.prev = null;
+        chunk.next = null;
+    }
+    
+    /*
+     * The chunk must have free space
+     */
+    private static void insertInto(Chunk chunk, int local, Object value) {
+        Object[] data = chunk.data;
+        int offset = chunk.offset;
+        int size = chunk.size;
+        if (offset != 0 && (local < size - local || offset + size == data.length)) {
+            System.arraycopy(data, offset, data, offset - 1, local);
+            chunk.offset = --offset;
+        } else {
+            System.arraycopy(data, offset + local, data, offset + local + 1, size - local);
+        }
+        data[offset + local] = value;
+        chunk.size = size + 1;
+    }
+    
+    private static void compact(Chunk chunk) {
+        int offset = chunk.offset;
+        if (offset != 0) {
+            Object[] data = chunk.data;
+            int size = chunk.size;
+            System.arraycopy(data, offset, data, 0, size);
+            Arrays.fill(data, Math.max(size, offset), offset + size, null);
+            chunk.offset = 0;
+        }
+    }
+    
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(this.allSize);
+        for (Chunk chunk = this.first; chunk != null; chunk = chunk.next) {
+            Object[] data = chunk.data;
+            int end = chunk.offset + chunk.size;
+            for (int i = chunk.offset; i < end; i++) {
+                out.writeObject(data[i]);
+            }
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int allSize = in.readInt();
+        Object[] values = new Object[allSize];
+        for (int i = 0; i < allSize; i++) {
+            values[i] = in.readObject();
+        }
+        this.insertAll(0, values);
+        this.allSize = allSize;
+        BaseEntries<E, Object> inversedEntries = this.inversedEntries();
+        if (inversedEntries != null) {
+            for (Object value : values) {
+                inversedEntries.put((E)value, null, null);
+            }
+        }
+    }
+    
+    private static class Chunk {
+        
+        final Object[] data;
+        
+        int offset;
+        
+        int size;
+        
+        Chunk prev;
+        
+        Chunk next;
+        
+        Chunk(int capacity, int offset) {
+            this.data = new Object[capacity];
+            this.offset = offset;
+        }
+    }
+    
+    private static class Position {
+        
+        Chunk chunk;
+        
+        int start;
+    }
+
+    private class BaseElementIteratorImpl extends AbstractBaseElementIteratorImpl {
+
+        private Chunk chunk;
+        
+        private int chunkStart;
+        
+        private int chunkModCount;
+        
+        BaseElementIteratorImpl(
+                int subListHeadHide, 
+                int subListTailHide,
+                int index,
+                BaseElementsConflictHandler conflictHandler) {
+            super(subListHeadHide, subListTailHide, index, conflictHandler);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected E get(int absoluteIndex) {
+            ChunkedElements<E> owner = ChunkedElements.this;
+            Chunk chunk = this.chunk;
+            int start = this.chunkStart;
+            if (chunk == null || this.chunkModCount != owner.modCount) {
+                Position position = owner.positionOf(absoluteIndex);
+                chunk = position.chunk;
+                start = position.start;
+            } else {
+                // The iterator moves step by step, the neighbor chunk is used in most cases
+                while (absoluteIndex < start) {
+                    chunk = chunk.prev;
+                    start -= chunk.size;
+                }
+                while (absoluteIndex >= start + chunk.size) {
+                    start += chunk.size;
+                    chunk = chunk.next;
+                }
+            }
+            this.chunk = chunk;
+            this.chunkStart = start;
+            this.chunkModCount = owner.modCount;
+            return (E)chunk.data[chunk.offset + absoluteIndex - start];
+        }
+        
+        @Override
+        public void reset() {
+            this.chunk = null;
+        }
+    }
+}
@@ -20,11 +20,15 @@ package org.babyfish.collection.spi.base;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.ConcurrentModificationException;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 import org.babyfish.collection.BidiType;
 import org.babyfish.collection.EqualityComparator;
@@ -32,6 +36,7 @@ import org.babyfish.collection.FrozenContext;
 import org.babyfish.collection.FrozenEqualityComparator;
 import org.babyfish.collection.ReplacementRule;
 import org.babyfish.collection.UnifiedComparator;
+import org.babyfish.collection.spi.CollectionInstrumentations;
 import org.babyfish.collection.spi.base.AbstractBaseEntriesImpl.Trigger.History;
 import org.babyfish.lang.Arguments;
 
@@ -46,7 +51,28 @@ public class HashEntries<K, V> extends AbstractRootBaseEntriesImpl<K, V> impleme
     
     private static final int MAX_CAPACITY = 1 << 30;
     
+    /*
+     * The bucket whose length reaches this value will be indexed by BucketIndex
+     */
+    private static final int INDEX_THRESHOLD = 8;
+    
+    /*
+     * The index of the bucket whose length falls to this value will be dropped
+     */
+    private static final int UNINDEX_THRESHOLD = 6;
+    
+    /*
+     * The small table should be resized rather than indexed
+     */
+    private static final int MIN_INDEXED_CAPACITY = 64;
+    
     private BaseEntryImpl<K, V>[] buckets;
+    
+    /*
+     * It is null until some bucket is indexed,
+     * otherwise its length is same with the length of buckets.
+     */
+    private BucketIndex<K, V>[] bucketIndexes;
 
     private int size;
     
@@ -115,7 +141,11 @@ public class HashEntries<K, V> extends AbstractRootBaseEntriesImpl<K, V> impleme
     @Override
     public final BaseEntryImpl<K, V> getBaseEntry(Object key) {
         BaseEntryImpl<K, V>[] buckets = this.buckets;
+        BucketIndex<K, V>[] bucketIndexes = this.bucketIndexes;
         if (key == null) {
+            if (bucketIndexes != null && bucketIndexes[0] != null) {
+                return bucketIndexes[0].find(0, null, null);
+            }
             for (BaseEntryImpl<K, V> e = buckets[0]; e != null; e = e.next) {
                 if (e.key == null) {
                     return e;
@@ -126,6 +156,9 @@ public class HashEntries<K, V> extends AbstractRootBaseEntriesImpl<K, V> impleme
         UnifiedComparator<? super K> keyUnifiedComparator = this.keyUnifiedComparator();
         int hash = hash(keyUnifiedComparator.hashCode((K)key));
         int bucketIndex = (buckets.length - 1) & hash;
+        if (bucketIndexes != null && bucketIndexes[bucketIndex] != null) {
+            return bucketIndexes[bucketIndex].find(hash, (K)key, keyUnifiedComparator);
+        }
         for (BaseEntryImpl<K, V> e = buckets[bucketIndex]; e != null; e = e.next) {
             if (e.hash == hash) {
                 K k = e.key;
@@ -348,6 +381,7 @@ public class HashEntries<K, V> extends AbstractRootBaseEntriesImpl<K, V> impleme
                     be.recordRemove(true);
                 }
                 this.buckets = new BaseEntryImpl[this.initCapacity];
+                this.bucketIndexes = null;
                 if (this.loadFactor != null) {
                     this.threshold = (int)(this.initCapacity * this.loadFactor);
                 }
@@ -440,6 +474,11 @@ public class HashEntries<K, V> extends AbstractRootBaseEntriesImpl<K, V> impleme
     public BaseEntryIterator<K, V> iterator() {
         return this.new EntryIterator();
     }
+    
+    @Override
+    public Spliterator<BaseEntry<K, V>> spliterator() {
+        return this.new EntrySpliterator(0, -1, 0, 0);
+    }
 
     @Override
     public int modCount() {
@@ -466,6 +505,13 @@ public class HashEntries<K, V> extends AbstractRootBaseEntriesImpl<K, V> impleme
                 } else {
                     prev.next = next;
                 }
+                BucketIndex<K, V>[] bucketIndexes = this.bucketIndexes;
+                if (bucketIndexes != null) {
+                    BucketIndex<K, V> index = bucketIndexes[bucketIndex];
+                    if (index != null && index.remove(be) <= UNINDEX_THRESHOLD) {
+                        bucketIndexes[bucketIndex] = null;
+                    }
+                }
                 this.size--;
                 be.recordRemove(false);
                 BaseEntries<V, K> inversedEntries = this.inversedEntries();
@@ -548,6 +594,25 @@ public class HashEntries<K, V> extends AbstractRootBaseEntriesImpl<K, V> impleme
         this.transfer(newEntries);
         this.buckets = newEntries;
         this.threshold = (int)(newCapacity * this.loadFactor);
+        if (CollectionInstrumentations.ENABLED) {
+            CollectionInstrumentations.resized(this, buckets.length, newCapacity);
+        }
+        
+        /*
+         * Scaling up only splits the buckets, so the long bucket can only 
+         * come from the old indexed buckets or the buckets that were too small
+         * to be indexed; but scaling down merges the buckets.
+         */
+        boolean reindex = 
+                this.bucketIndexes != null || 
+                !scaleUp || 
+                buckets.length < MIN_INDEXED_CAPACITY;
+        this.bucketIndexes = null;
+        if (reindex && newCapacity >= MIN_INDEXED_CAPACITY) {
+            for (int i = newCapacity - 1; i >= 0; i--) {
+                this.indexBucket(i);
+            }
+        }
     }
     
     private void addEntry(
@@ -557,7 +622,14 @@ public class HashEntries<K, V> extends AbstractRootBaseEntriesImpl<K, V> impleme
             int bucketIndex) {
         BaseEntryImpl<K, V>[] buckets = this.buckets;
         BaseEntryImpl<K, V> e = buckets[bucketIndex];
-        buckets[bucketIndex] = this.createBaseEntry(hash, key, value, e);
+        BaseEntryImpl<K, V> newEntry = this.createBaseEntry(hash, key, value, e);
+        buckets[bucketIndex] = newEntry;
+        BucketIndex<K, V>[] bucketIndexes = this.bucketIndexes;
+        if (bucketIndexes != null && bucketIndexes[bucketIndex] != null) {
+            bucketIndexes[bucketIndex].add(newEntry);
+        } else if (buckets.length >= MIN_INDEXED_CAPACITY) {
+            this.indexBucket(bucketIndex);
+        }
         BaseEntries<V, K> inversedEntries = this.inversedEntries();
         if (inversedEntries != null) {
             inversedEntries.put(value, key, null);
@@ -574,8 +646,23 @@ public class HashEntries<K, V> extends AbstractRootBaseEntriesImpl<K, V> impleme
             Object keyEqualityComparator //Unnecessary parameter for optimization
         ) {
         V oldValue = be.value;
-        if (isKeyStrict) {
+        if (isKeyStrict && be.key != newKey) {
+            /*
+             * The new key is equal to the old key but it is another instance,
+             * the bucket index may order the same-hash keys by identity.
+             */
+            BucketIndex<K, V>[] bucketIndexes = this.bucketIndexes;
+            BucketIndex<K, V> index = 
+                    bucketIndexes != null ? 
+                    bucketIndexes[(this.buckets.length - 1) & be.hash] : 
+                    null;
+            if (index != null) {
+                index.remove(be);
+            }
             be.setRawKey(newKey, keyEqualityComparator);
+            if (index != null) {
+                index.add(be);
+            }
         }
         be.value = newValue;
         be.recordChange();
@@ -587,6 +674,25 @@ public class HashEntries<K, V> extends AbstractRootBaseEntriesImpl<K, V> impleme
         return oldValue;
     }
 
+    /*
+     * Creates the index for the specified bucket if it is long enough
+     */
+    @SuppressWarnings("unchecked")
+    private void indexBucket(int bucketIndex) {
+        BaseEntryImpl<K, V> first = this.buckets[bucketIndex];
+        int length = 0;
+        for (BaseEntryImpl<K, V> e = first; e != null; e = e.next) {
+            if (++length == INDEX_THRESHOLD) {
+                BucketIndex<K, V>[] bucketIndexes = this.bucketIndexes;
+                if (bucketIndexes == null) {
+                    this.bucketIndexes = bucketIndexes = new BucketIndex[this.buckets.length];
+                }
+                bucketIndexes[bucketIndex] = new BucketIndex<>(first, this.keyUnifiedComparator());
+                return;
+            }
+        }
+    }
+
     private static int hash(int h) {
         h ^= (h >>> 20) ^ (h >>> 12);
         return h ^ (h >>> 7) ^ (h >>> 4);
@@ -618,7 +724,7 @@ public class HashEntries<K, V> extends AbstractRootBaseEntriesImpl<K, V> impleme
         this.loadFactor = (Float)in.readObject();
         int size = in.readInt();
         this.buckets = new BaseEntryImpl[in.readInt()];
-        this.threshold = (int)(this.buckets.hashCode() * this.loadFactor);
+        this.threshold = (int)(this.buckets.length * this.loadFactor);
         this.init();
         if (this instanceof TransientValueEntries) {
             for (int i = size - 1; i >= 0; i--) {
@@ -717,6 +823,347 @@ public class HashEntries<K, V> extends AbstractRootBaseEntriesImpl<K, V> impleme
         
     }
 
+    /*
+     * Splits the bucket range [index, fence) by half, 
+     * the fence and the size are initialized lazily when it is used at first time.
+     */
+    private class EntrySpliterator implements Spliterator<BaseEntry<K, V>> {
+        
+        private BaseEntryImpl<K, V> current;
+        
+        private int index;
+        
+        private int fence;
+        
+        private int estimatedSize;
+        
+        private int expectedModCount;
+        
+        EntrySpliterator(int index, int fence, int estimatedSize, int expectedModCount) {
+            this.index = index;
+            this.fence = fence;
+            this.estimatedSize = estimatedSize;
+            this.expectedModCount = expectedModCount;
+        }
+        
+        private int fence() {
+            int fence = this.fence;
+            if (fence < 0) {
+                HashEntries<K, V> owner = HashEntries.this;
+                this.estimatedSize = owner.size;
+                this.expectedModCount = owner.modCount;
+                fence = this.fence = owner.buckets.length;
+            }
+            return fence;
+        }
+
+        @Override
+        public Spliterator<BaseEntry<K, V>> trySplit() {
+            int hi = this.fence();
+            int lo = this.index;
+            int mid = (lo + hi) >>> 1;
+            if (lo >= mid || this.current != null) {
+                return null;
+            }
+            this.index = mid;
+            return HashEntries.this.new EntrySpliterator(
+                    lo, 
+                    mid, 
+                    this.estimatedSize >>>= 1, 
+                    this.expectedModCount);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super BaseEntry<K, V>> action) {
+            Arguments.mustNotBeNull("action", action);
+            int hi = this.fence();
+            BaseEntryImpl<K, V>[] buckets = HashEntries.this.buckets;
+            while (this.current != null || this.index < hi) {
+                if (this.current == null) {
+                    this.current = buckets[this.index++];
+                } else {
+                    BaseEntryImpl<K, V> be = this.current;
+                    this.current = be.next;
+                    action.accept(be);
+                    if (this.expectedModCount != HashEntries.this.modCount) {
+                        throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super BaseEntry<K, V>> action) {
+            Arguments.mustNotBeNull("action", action);
+            int hi = this.fence();
+            BaseEntryImpl<K, V>[] buckets = HashEntries.this.buckets;
+            BaseEntryImpl<K, V> be = this.current;
+            int i = this.index;
+            this.current = null;
+            this.index = hi;
+            for (;;) {
+                for (; be != null; be = be.next) {
+                    action.accept(be);
+                }
+                if (i >= hi) {
+                    break;
+                }
+                be = buckets[i++];
+            }
+            if (this.expectedModCount != HashEntries.this.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            this.fence();
+            return this.estimatedSize;
+        }
+
+        @Override
+        public int characteristics() {
+            return 
+                    (this.fence < 0 || this.estimatedSize == HashEntries.this.size ? Spliterator.SIZED : 0) | 
+                    Spliterator.DISTINCT;
+        }
+    }
+
+    /*
+     * The index of a long bucket, it keeps the entries of the bucket sorted by hash 
+     * so that getBaseEntry() can find the run of the entries with the same hash by 
+     * binary search. The linked chain of the bucket is still the master data that is 
+     * used by iteration and resizing, this index is only used by lookup.
+     * 
+     * The entries with the same hash are sorted too, so that the keys that collide
+     * on the full hash code can still be found by binary search:
+     * (1) By the comparator of the key unified comparator, or the key equality 
+     *     comparator that implements Comparator too; that comparator must be 
+     *     consistent with the equality.
+     * (2) Otherwise, by class and Comparable if the key equality is the natural 
+     *     equality.
+     * (3) Otherwise, by class and identity hash code, that only makes the lookup
+     *     by the same key instance fast, the lookup by another equal instance has
+     *     to compare the run one by one.
+     * The natural equality allows the keys of different classes to be equal, so 
+     * the other classes of the run are compared one by one, the run of a well-behaved
+     * key type has only one class.
+     */
+    private static class BucketIndex<K, V> {
+        
+        private static final int CLASS_ORDER = 0;
+        
+        private static final int KEY_ORDER = 1;
+        
+        private static final int IDENTITY_ORDER = 2;
+        
+        private Comparator<? super K> keyComparator;
+        
+        private boolean naturalEquality;
+        
+        private int[] hashes;
+        
+        private BaseEntryImpl<K, V>[] entries;
+        
+        private int size;
+        
+        @SuppressWarnings("unchecked")
+        BucketIndex(BaseEntryImpl<K, V> first, UnifiedComparator<? super K> keyUnifiedComparator) {
+            Comparator<? super K> keyComparator = keyUnifiedComparator.comparator();
+            if (keyComparator == null) {
+                Object equalityComparator = keyUnifiedComparator.equalityComparator();
+                if (equalityComparator instanceof Comparator<?>) {
+                    keyComparator = (Comparator<? super K>)equalityComparator;
+                }
+            }
+            this.keyComparator = keyComparator;
+            this.naturalEquality = keyUnifiedComparator.isEmpty();
+            int size = 0;
+            for (BaseEntryImpl<K, V> e = first; e != null; e = e.next) {
+                size++;
+            }
+            BaseEntryImpl<K, V>[] entries = new BaseEntryImpl[size << 1];
+            int index = 0;
+            for (BaseEntryImpl<K, V> e = first; e != null; e = e.next) {
+                entries[index++] = e;
+            }
+            Arrays.sort(entries, 0, size, (a, b) -> {
+                int cmp = Integer.compare(a.hash, b.hash);
+                return cmp != 0 ? cmp : this.compare(a.key, b.key, IDENTITY_ORDER);
+            });
+            int[] hashes = new int[entries.length];
+            for (int i = 0; i < size; i++) {
+                hashes[i] = entries[i].hash;
+            }
+            this.hashes = hashes;
+            this.entries = entries;
+            this.size = size;
+        }
+        
+        BaseEntryImpl<K, V> find(int hash, K key, UnifiedComparator<? super K> keyUnifiedComparator) {
+            BaseEntryImpl<K, V>[] entries = this.entries;
+            int low = this.lowerBound(hash);
+            int high = this.upperBound(hash);
+            if (key == null) {
+                // The null key is the least key of its run
+                return low < high && entries[low].key == null ? entries[low] : null;
+            }
+            int from = this.search(low, high, key, IDENTITY_ORDER, false);
+            for (int i = from; i < high && this.compare(key, entries[i].key, IDENTITY_ORDER) == 0; i++) {
+                if (entries[i].key == key) {
+                    return entries[i];
+                }
+            }
+            from = this.search(low, from, key, KEY_ORDER, false);
+            int to = this.search(from, high, key, KEY_ORDER, true);
+            BaseEntryImpl<K, V> be = this.linearFind(from, to, key, keyUnifiedComparator);
+            if (be == null && this.keyComparator == null) {
+                // The other keys of the same class have been excluded by the order
+                int classFrom = this.search(low, from, key, CLASS_ORDER, false);
+                be = this.linearFind(low, classFrom, key, keyUnifiedComparator);
+                if (be == null) {
+                    int classTo = this.search(to, high, key, CLASS_ORDER, true);
+                    be = this.linearFind(classTo, high, key, keyUnifiedComparator);
+                }
+            }
+            return be;
+        }
+        
+        void add(BaseEntryImpl<K, V> be) {
+            int size = this.size;
+            if (size == this.entries.length) {
+                this.hashes = Arrays.copyOf(this.hashes, size << 1);
+                this.entries = Arrays.copyOf(this.entries, size << 1);
+            }
+            int index = this.search(
+                    this.lowerBound(be.hash), 
+                    this.upperBound(be.hash), 
+                    be.key, 
+                    IDENTITY_ORDER, 
+                    true
+            );
+            System.arraycopy(this.hashes, index, this.hashes, index + 1, size - index);
+            System.arraycopy(this.entries, index, this.entries, index + 1, size - index);
+            this.hashes[index] = be.hash;
+            this.entries[index] = be;
+            this.size = size + 1;
+        }
+        
+        int remove(BaseEntryImpl<K, V> be) {
+            BaseEntryImpl<K, V>[] entries = this.entries;
+            int size = this.size;
+            for (int i = this.lowerBound(be.hash); i < size; i++) {
+                if (entries[i] == be) {
+                    System.arraycopy(this.hashes, i + 1, this.hashes, i, size - i - 1);
+                    System.arraycopy(entries, i + 1, entries, i, size - i - 1);
+                    entries[--size] = null;
+                    this.size = size;
+                    break;
+                }
+            }
+            return size;
+        }
+        
+        private BaseEntryImpl<K, V> linearFind(
+                int from, int to, K key, UnifiedComparator<? super K> keyUnifiedComparator) {
+            BaseEntryImpl<K, V>[] entries = this.entries;
+            for (int i = from; i < to; i++) {
+                if (keyUnifiedComparator.equals(key, entries[i].key)) {
+                    return entries[i];
+                }
+            }
+            return null;
+        }
+        
+        /*
+         * Searches the first entry of [low, high) whose key is not less than
+         * the specified key, or greater than it if "upper" is true.
+         */
+        private int search(int low, int high, K key, int order, boolean upper) {
+            BaseEntryImpl<K, V>[] entries = this.entries;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int cmp = this.compare(entries[mid].key, key, order);
+                if (cmp < 0 || (upper && cmp == 0)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+        
+        /*
+         * Compares the keys with the same hash, the CLASS_ORDER is the prefix 
+         * of the KEY_ORDER and the KEY_ORDER is the prefix of the IDENTITY_ORDER.
+         */
+        @SuppressWarnings("unchecked")
+        private int compare(K k1, K k2, int order) {
+            if (k1 == k2) {
+                return 0;
+            }
+            if (k1 == null) {
+                return -1;
+            }
+            if (k2 == null) {
+                return 1;
+            }
+            int cmp;
+            Comparator<? super K> keyComparator = this.keyComparator;
+            if (keyComparator != null) {
+                cmp = order == CLASS_ORDER ? 0 : keyComparator.compare(k1, k2);
+            } else {
+                Class<?> class1 = k1.getClass();
+                Class<?> class2 = k2.getClass();
+                if (class1 != class2) {
+                    cmp = class1.getName().compareTo(class2.getName());
+                    return cmp != 0 ? 
+                            cmp : 
+                            Integer.compare(System.identityHashCode(class1), System.identityHashCode(class2));
+                }
+                cmp = order != CLASS_ORDER && this.naturalEquality && k1 instanceof Comparable<?> ?
+                        ((Comparable<Object>)k1).compareTo(k2) :
+                        0;
+            }
+            if (cmp != 0 || order != IDENTITY_ORDER) {
+                return cmp;
+            }
+            return Integer.compare(System.identityHashCode(k1), System.identityHashCode(k2));
+        }
+        
+        private int lowerBound(int hash) {
+            int[] hashes = this.hashes;
+            int low = 0;
+            int high = this.size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (hashes[mid] < hash) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+        
+        private int upperBound(int hash) {
+            int[] hashes = this.hashes;
+            int low = 0;
+            int high = this.size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (hashes[mid] <= hash) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+    
     static class BaseEntryImpl<K, V> extends AbstractBaseEntryImpl<K, V> {
         
         /**
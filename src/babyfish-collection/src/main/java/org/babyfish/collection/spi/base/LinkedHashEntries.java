@@ -21,6 +21,7 @@ import java.util.Collection;
 import java.util.ConcurrentModificationException;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
 
 import org.babyfish.collection.EqualityComparator;
 import org.babyfish.collection.BidiType;
@@ -251,6 +252,14 @@ public class LinkedHashEntries<K, V> extends HashEntries<K, V> implements Ordere
     public BaseEntryIterator<K, V> iterator() {
         return this.new AscendingEntryIterator();
     }
+    
+    @Override
+    public Spliterator<BaseEntry<K, V>> spliterator() {
+        /*
+         * The bucket splitting of super class breaks the order
+         */
+        return BasicAlgorithms.baseEntriesSpliterator(this, Spliterator.ORDERED | Spliterator.DISTINCT);
+    }
 
     @Override
     protected LinkedFrozenContextSuspending<K, V> createFrozenContextSuspending(BaseEntry<K, V> be) {
@@ -457,6 +466,11 @@ public class LinkedHashEntries<K, V> extends HashEntries<K, V> implements Ordere
         public BaseEntryIterator<K, V> iterator() {
             return LinkedHashEntries.this.new DescendingEntryIterator();
         }
+        
+        @Override
+        public Spliterator<BaseEntry<K, V>> spliterator() {
+            return BasicAlgorithms.baseEntriesSpliterator(this, Spliterator.ORDERED | Spliterator.DISTINCT);
+        }
 
         @Override
         public boolean isEmpty() {
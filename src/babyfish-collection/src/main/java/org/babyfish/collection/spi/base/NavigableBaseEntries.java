@@ -19,6 +19,8 @@ package org.babyfish.collection.spi.base;
 
 import java.util.Comparator;
 
+import org.babyfish.lang.Arguments;
+
 /**
  * @author Tao Chen
  */
@@ -45,6 +47,44 @@ public interface NavigableBaseEntries<K, V> extends DescendingBaseEntries<K, V>
     
     BaseEntry<K, V> higher(K key);
     
+    /**
+     * The default implementation iterates the entries, 
+     * it is O(n) and should be overridden by the implementations 
+     * which can do better, such as {@link RedBlackTreeEntries}.
+     * 
+     * @return The zero-based position of the key in the iteration order of 
+     * this object, or -1 if this object does not contain the key.
+     */
+    default int indexOf(K key) {
+        BaseEntry<K, V> be = this.getBaseEntry(key);
+        if (be != null) {
+            int index = 0;
+            for (BaseEntryIterator<K, V> itr = this.iterator(); itr.hasNext(); index++) {
+                if (itr.next() == be) {
+                    return index;
+                }
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * The default implementation iterates the entries, 
+     * it is O(n) and should be overridden by the implementations 
+     * which can do better, such as {@link RedBlackTreeEntries}.
+     * 
+     * @return The entry at the zero-based position of the iteration order of this object.
+     * @exception IndexOutOfBoundsException The index is negative or not less than {@link #size()}.
+     */
+    default BaseEntry<K, V> entryAt(int index) {
+        Arguments.indexMustBetweenValue("index", index, 0, true, this.size(), false);
+        BaseEntryIterator<K, V> itr = this.iterator();
+        while (index-- > 0) {
+            itr.next();
+        }
+        return itr.next();
+    }
+    
     BaseEntry<K, V> pollFirst(BaseEntriesHandler<K, V> handler);
     
     BaseEntry<K, V> pollLast(BaseEntriesHandler<K, V> handler);
@@ -0,0 +1,990 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.spi.base;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+
+import org.babyfish.collection.BidiType;
+import org.babyfish.collection.EqualityComparator;
+import org.babyfish.collection.FrozenContext;
+import org.babyfish.collection.FrozenEqualityComparator;
+import org.babyfish.collection.ReplacementRule;
+import org.babyfish.collection.UnifiedComparator;
+import org.babyfish.collection.spi.CollectionInstrumentations;
+import org.babyfish.collection.spi.base.AbstractBaseEntriesImpl.Trigger.History;
+import org.babyfish.lang.Arguments;
+
+/**
+ * Open-addressing alternative of {@link HashEntries}.
+ *
+ * <p>
+ * The data is kept in three flat parallel arrays probed linearly: the cached 
+ * hash codes, the keys and the values. There is no node object per entry, 
+ * so a table costs about (4 + 2 * reference size) / loadFactor bytes per 
+ * entry (the sets do not allocate the value array at all), and a failed 
+ * comparison in a probe sequence only reads the <code>int[]</code> of the 
+ * hash codes. Removal uses backward shifting so no tombstone is left in the 
+ * table.
+ * </p>
+ *
+ * <p>
+ * The {@link BaseEntry} objects returned by {@link #getBaseEntry(Object)} 
+ * and the iterator are light-weight views created on demand, they locate 
+ * their slot again by the key after the table is structurally modified. 
+ * A view becomes a detached entry that remembers its last key and value 
+ * when it is deleted or its key can not be found any more.
+ * </p>
+ *
+ * <p>
+ * An open-addressing table must never be full, so the load factor must be
+ * less than 1 and <code>null</code> load factor means the default one,
+ * it can not be used to disable the rehashing like {@link HashEntries}.
+ * </p>
+ *
+ * @author Tao Chen
+ */
+public class OpenHashEntries<K, V> extends AbstractRootBaseEntriesImpl<K, V> implements BaseEntries<K, V> {
+    
+    private static final long serialVersionUID = -3460727011598342573L;
+    
+    private static final int MIN_CAPACITY = 4;
+    
+    private static final int MAX_CAPACITY = 1 << 30;
+    
+    private static final float DEFAULT_LOAD_FACTOR = .75F;
+    
+    // The null key is stored as this object because null means free slot
+    private static final Object NULL_KEY = new Object();
+    
+    private transient int[] hashes;
+    
+    private transient Object[] keys;
+    
+    // Always null for TransientValueEntries, all of its values are PRESENT
+    private transient Object[] values;
+
+    private transient int size;
+    
+    private float loadFactor;
+    
+    private int initCapacity;
+    
+    private transient int threshold;
+    
+    transient int modCount;
+    
+    public OpenHashEntries(
+            BidiType bidiType,
+            ReplacementRule keyReplacementRule,
+            EqualityComparator<? super K> keyEqualityComparator,
+            Object valueComparatorOrEqualityComparatorOrUnifiedComparator,
+            int initCapacity, 
+            Float loadFactor) {
+        super(
+                bidiType,
+                keyReplacementRule, 
+                keyEqualityComparator, 
+                valueComparatorOrEqualityComparatorOrUnifiedComparator);
+        Arguments.mustBeLessThanOrEqualToValue("initCapacity", initCapacity, MAX_CAPACITY);
+        if (loadFactor != null) {
+            Arguments.mustBetweenValue(
+                    "loadFactor.floatValue()", 
+                    loadFactor.floatValue(), 
+                    0F, 
+                    false, 
+                    1F, 
+                    false);
+            this.loadFactor = loadFactor.floatValue();
+        } else {
+            this.loadFactor = DEFAULT_LOAD_FACTOR;
+        }
+        int c = MIN_CAPACITY;
+        while (c < initCapacity) {
+            c <<= 1;
+        }
+        this.initCapacity = c;
+        this.allocate(c);
+    }
+    
+    @Override
+    public boolean isReadWriteLockSupported() {
+        return true;
+    }
+        
+    @Override
+    public int size() {
+        return this.size;
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+    
+    @SuppressWarnings("unchecked")
+    public EqualityComparator<? super K> equalityComparator() {
+        return (EqualityComparator<? super K>)this.keyComparatorOrEqualityComparator();
+    }
+    
+    @Override
+    public final BaseEntryImpl<K, V> getBaseEntry(Object key) {
+        int index = this.indexOf(key);
+        if (index == -1) {
+            return null;
+        }
+        return new BaseEntryImpl<K, V>(this, index);
+    }
+    
+    @Override
+    public V get(Object key) {
+        int index = this.indexOf(key);
+        return index == -1 ? null : this.valueAt(index);
+    }
+    
+    @Override
+    public boolean containsKey(Object k) {
+        return this.indexOf(k) != -1;
+    }
+    
+    @Override
+    protected V putWithoutTriggerFlushing(
+            K key, 
+            V value, 
+            AttachProcessor<K, V> attachProcessor) {
+        
+        History<K, V> puttingHistory = attachProcessor.getPuttingHistory();
+        boolean isKeyStrict = this.keyReplacementRule() == ReplacementRule.NEW_REFERENCE_WIN;
+        V oldV = null;
+        
+        if (attachProcessor.beginExcute()) {
+            try {
+                BaseEntryImpl<K, V> be = 
+                        puttingHistory != null ?
+                        (BaseEntryImpl<K, V>)puttingHistory.getBaseEntry(0) :
+                        this.getBaseEntry(key);
+                if (be != null) {
+                    oldV = this.changeEntry(
+                            be, 
+                            key, 
+                            value, 
+                            isKeyStrict, 
+                            this.keyComparatorOrEqualityComparator()
+                    );
+                } else {
+                    this.addEntry(this.hashOf(key), key, value);
+                }
+                attachProcessor.endExecute(null);
+            } catch (RuntimeException | Error ex) {
+                attachProcessor.endExecute(ex);
+            }
+        }
+        return oldV;
+    }
+    
+    @Override
+    protected final void putAllWithoutTriggerFlushing(
+            Map<? extends K, ? extends V> m, 
+            AttachProcessor<K, V> attachProcessor) {
+        
+        History<K, V> puttingHistory = attachProcessor.getPuttingHistory();
+        boolean isKeyStrict = this.keyReplacementRule() == ReplacementRule.NEW_REFERENCE_WIN;
+        Object keyEqualityComparator = this.keyComparatorOrEqualityComparator();
+        
+        if (puttingHistory == null) {
+            if (attachProcessor.beginExcute()) {
+                try {
+                    for (Entry<? extends K, ? extends V> e : m.entrySet()) {
+                        K key = e.getKey();
+                        BaseEntryImpl<K, V> be = this.getBaseEntry(key);
+                        if (be != null) {
+                            this.changeEntry(
+                                    be, 
+                                    key, 
+                                    e.getValue(), 
+                                    isKeyStrict, 
+                                    keyEqualityComparator
+                            );
+                        } else {
+                            this.addEntry(this.hashOf(key), key, e.getValue());
+                        }
+                    }
+                    attachProcessor.endExecute(null);
+                } catch (RuntimeException | Error ex) {
+                    attachProcessor.endExecute(ex);
+                }
+            }
+        } else {
+            if (attachProcessor.beginExcute()) {
+                try {
+                    int count = puttingHistory.getCount();
+                    for (int i = 0; i < count; i++) {
+                        BaseEntryImpl<K, V> be = (BaseEntryImpl<K, V>)puttingHistory.getBaseEntry(i);
+                        K key = puttingHistory.getNewKey(i);
+                        V value = puttingHistory.getNewValue(i);
+                        if (be != null) {
+                            this.changeEntry(
+                                    be, 
+                                    key, 
+                                    value, 
+                                    isKeyStrict, 
+                                    keyEqualityComparator
+                            );
+                        } else {
+                            this.addEntry(this.hashOf(key), key, value);
+                        }
+                    }
+                    attachProcessor.endExecute(null);
+                } catch (RuntimeException | Error ex) {
+                    attachProcessor.endExecute(ex);
+                }
+            }
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    protected final boolean addAllWithoutTriggerFlushing(
+            Collection<? extends K> c,
+            Trigger<K, V> trigger) {
+        
+        // In this method, inversedEntries always is null
+        
+        boolean isKeyStrict = this.keyReplacementRule() == ReplacementRule.NEW_REFERENCE_WIN;
+        int oldSize = this.size;
+        Object keyEqualityComparator = this.keyComparatorOrEqualityComparator();
+        
+        if (trigger == null) {
+            for (K key : c) {
+                BaseEntryImpl<K, V> be = this.getBaseEntry(key);
+                if (be != null) {
+                    this.changeEntry(
+                            be, 
+                            key, 
+                            (V)PRESENT, 
+                            isKeyStrict, 
+                            keyEqualityComparator
+                    );
+                } else {
+                    this.addEntry(this.hashOf(key), key, (V)PRESENT);
+                }
+            }
+        } else {
+            int cSize = c.size();
+            for (K key : c) {
+                BaseEntryImpl<K, V> be = this.getBaseEntry(key);
+                if (be != null) {
+                    trigger.preChange(be, isKeyStrict ? key : be.getKey(), (V)PRESENT);
+                } else {
+                    trigger.preAdd(key, (V)PRESENT);
+                }
+            }
+            if (trigger.beginExecute()) {
+                try {
+                    History<K, V> history = trigger.getHistory(0);
+                    for (int i = 0; i < cSize; i++) {
+                        K key = history.getNewKey(i);
+                        BaseEntryImpl<K, V> be = (BaseEntryImpl<K, V>)history.getBaseEntry(i);
+                        if (be != null) {
+                            this.changeEntry(
+                                    be, 
+                                    key, 
+                                    (V)PRESENT, 
+                                    isKeyStrict, 
+                                    keyEqualityComparator
+                            );
+                        } else {
+                            this.addEntry(this.hashOf(key), key, (V)PRESENT);
+                        }
+                    }
+                    trigger.endExecute(null);
+                } catch (RuntimeException | Error ex) {
+                    trigger.endExecute(ex);
+                }
+            }
+            trigger.flush();
+        }
+        return oldSize != this.size;
+    }
+    
+    @Override
+    protected void clear(Trigger<K, V> trigger) {
+        if (trigger != null) {
+            BaseEntryIterator<K, V> iterator = this.iterator();
+            while (iterator.hasNext()) {
+                trigger.preRemove(iterator.next());
+            }
+        }
+        if (trigger == null || trigger.beginExecute()) {
+            try {
+                Object[] keys = this.keys;
+                for (int i = keys.length - 1; i >= 0; i--) {
+                    Object k = keys[i];
+                    if (k != null) {
+                        this.unfreeze(k);
+                    }
+                }
+                this.allocate(this.initCapacity);
+                BaseEntries<V, K> inversedEntries = this.inversedEntries();
+                if (inversedEntries != null) {
+                    inversedEntries.clear(null);
+                }
+                this.modCount++;
+                this.size = 0;
+                if (trigger != null) {
+                    trigger.endExecute(null);
+                }
+            } catch (RuntimeException | Error ex) {
+                if (trigger == null) {
+                    throw ex;
+                }
+                trigger.endExecute(ex);
+            }
+        }
+        if (trigger != null) {
+            trigger.flush();
+        }
+    }
+    
+    @Override
+    protected BaseEntry<K, V> removeByEntry(Object o, Trigger<K, V> trigger) {
+        BaseEntry<K, V> retVal = super.removeByEntry(o, trigger);
+        this.shrink();
+        return retVal;
+    }
+
+    @Override
+    protected BaseEntry<K, V> removeByKey(Object o, Trigger<K, V> trigger) {
+        BaseEntry<K, V> retVal = super.removeByKey(o, trigger);
+        this.shrink();
+        return retVal;
+    }
+
+    @Override
+    protected BaseEntry<K, V> removeByValue(Object o, Trigger<K, V> trigger) {
+        BaseEntry<K, V> retVal = super.removeByValue(o, trigger);
+        this.shrink();
+        return retVal;
+    }
+
+    @Override
+    protected boolean removeAllByEntryCollection(Collection<?> ec, Trigger<K, V> trigger) {
+        boolean retVal = super.removeAllByEntryCollection(ec, trigger);
+        this.shrink();
+        return retVal;
+    }
+
+    @Override
+    protected boolean removeAllByKeyCollection(Collection<?> kc, Trigger<K, V> trigger) {
+        boolean retVal = super.removeAllByKeyCollection(kc, trigger);
+        this.shrink();
+        return retVal;
+    }
+
+    @Override
+    protected boolean removeAllByValueCollection(Collection<?> vc, Trigger<K, V> trigger) {
+        boolean retVal = super.removeAllByValueCollection(vc, trigger);
+        this.shrink();
+        return retVal;
+    }
+
+    @Override
+    protected boolean retainAllByEntryCollection(Collection<?> ec, Trigger<K, V> trigger) {
+        boolean retVal = super.retainAllByEntryCollection(ec, trigger);
+        this.shrink();
+        return retVal;
+    }
+
+    @Override
+    protected boolean retainAllByKeyCollection(Collection<?> kc, Trigger<K, V> trigger) {
+        boolean retVal = super.retainAllByKeyCollection(kc, trigger);
+        this.shrink();
+        return retVal;
+    }
+
+    @Override
+    protected boolean retainAllByValueCollection(Collection<?> vc, Trigger<K, V> trigger) {
+        boolean retVal = super.retainAllByValueCollection(vc, trigger);
+        this.shrink();
+        return retVal;
+    }
+
+    @Override
+    public BaseEntryIterator<K, V> iterator() {
+        return this.new EntryIterator();
+    }
+
+    @Override
+    public int modCount() {
+        return this.modCount;
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    protected final void deleteBaseEntry(BaseEntry<K, V> be) {
+        this.deleteBaseEntryImpl((BaseEntryImpl<K, V>)be, null);
+    }
+
+    private void deleteBaseEntryImpl(BaseEntryImpl<K, V> be, EntryIterator itr) {
+        int index = be.index();
+        if (index == -1) {
+            return;
+        }
+        be.detach(index);
+        Object k = this.keys[index];
+        V value = this.valueAt(index);
+        this.modCount++;
+        this.removeSlot(index, itr);
+        this.size--;
+        this.unfreeze(k);
+        BaseEntries<V, K> inversedEntries = this.inversedEntries();
+        if (inversedEntries != null) {
+            inversedEntries.removeByKey(value, null);
+        }
+    }
+    
+    /*
+     * Backward shift deletion, the following slots of the same cluster 
+     * are moved back so that no tombstone is required.
+     */
+    private void removeSlot(int index, EntryIterator itr) {
+        int[] hashes = this.hashes;
+        Object[] keys = this.keys;
+        Object[] values = this.values;
+        int mask = keys.length - 1;
+        int hole = index;
+        for (int next = (hole + 1) & mask; keys[next] != null; next = (next + 1) & mask) {
+            int home = hashes[next] & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                hashes[hole] = hashes[next];
+                keys[hole] = keys[next];
+                if (values != null) {
+                    values[hole] = values[next];
+                }
+                if (itr != null && next < hole) {
+                    itr.addWrappedEntry(new BaseEntryImpl<K, V>(this, hole));
+                }
+                hole = next;
+            }
+        }
+        hashes[hole] = 0;
+        keys[hole] = null;
+        if (values != null) {
+            values[hole] = null;
+        }
+    }
+    
+    private void addEntry(int hash, K key, V value) {
+        if (this.size >= this.threshold) {
+            this.resize(this.keys.length << 1);
+        }
+        this.freeze(key);
+        int[] hashes = this.hashes;
+        Object[] keys = this.keys;
+        int mask = keys.length - 1;
+        int index = hash & mask;
+        while (keys[index] != null) {
+            index = (index + 1) & mask;
+        }
+        hashes[index] = hash;
+        keys[index] = key == null ? NULL_KEY : key;
+        if (this.values != null) {
+            this.values[index] = value;
+        }
+        BaseEntries<V, K> inversedEntries = this.inversedEntries();
+        if (inversedEntries != null) {
+            inversedEntries.put(value, key, null);
+        }
+        this.size++;
+        this.modCount++;
+    }
+    
+    private V changeEntry(
+            BaseEntryImpl<K, V> be,
+            K newKey,
+            V newValue,
+            boolean isKeyStrict, // Unnecessary parameter for optimization
+            Object keyEqualityComparator //Unnecessary parameter for optimization
+        ) {
+        int index = be.index();
+        V oldValue = this.valueAt(index);
+        if (isKeyStrict) {
+            this.setRawKey(index, newKey, keyEqualityComparator);
+        }
+        this.setValueAt(index, newValue);
+        BaseEntries<V, K> inversedEntries = this.inversedEntries();
+        if (inversedEntries != null) {
+            inversedEntries.removeByKey(oldValue, null);
+            inversedEntries.put(newValue, this.keyAt(index), null);
+        }
+        return oldValue;
+    }
+    
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void setRawKey(int index, K key, Object equalityComparator) {
+        // See HashEntries.BaseEntryImpl.setRawKey
+        K oldKey = this.keyAt(index);
+        if (oldKey != key) {
+            Object k = key == null ? NULL_KEY : key;
+            if (equalityComparator instanceof FrozenEqualityComparator<?>) {
+                FrozenContext ctx = FrozenContext.create(this);
+                FrozenEqualityComparator<? super K> frozenEqualityComparator =
+                        (FrozenEqualityComparator<? super K>)equalityComparator;
+                if (key != null) {
+                    frozenEqualityComparator.freeze(key, ctx);
+                }
+                this.keys[index] = k;
+                if (oldKey != null) {
+                    frozenEqualityComparator.unfreeze(oldKey, ctx);
+                }
+            } else {
+                this.keys[index] = k;
+            }
+        }
+    }
+    
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void freeze(K key) {
+        if (key != null) {
+            Object keyEqualityComparator = this.keyComparatorOrEqualityComparator();
+            if (keyEqualityComparator instanceof FrozenEqualityComparator<?>) {
+                FrozenEqualityComparator<? super K> frozenEqualityComparator =
+                        (FrozenEqualityComparator<? super K>)keyEqualityComparator;
+                frozenEqualityComparator.freeze(key, (FrozenContext)FrozenContext.create(this));
+            }
+        }
+    }
+    
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void unfreeze(Object k) {
+        if (k != NULL_KEY) {
+            Object keyEqualityComparator = this.keyComparatorOrEqualityComparator();
+            if (keyEqualityComparator instanceof FrozenEqualityComparator<?>) {
+                FrozenEqualityComparator<? super K> frozenEqualityComparator =
+                        (FrozenEqualityComparator<? super K>)keyEqualityComparator;
+                frozenEqualityComparator.unfreeze((K)k, (FrozenContext)FrozenContext.create(this));
+            }
+        }
+    }
+    
+    /*
+     * Returns the slot of the key, or -1 if the key does not exist.
+     */
+    @SuppressWarnings("unchecked")
+    final int indexOf(Object key) {
+        int[] hashes = this.hashes;
+        Object[] keys = this.keys;
+        int mask = keys.length - 1;
+        if (key == null) {
+            for (int index = 0; ; index = (index + 1) & mask) {
+                Object k = keys[index];
+                if (k == null) {
+                    return -1;
+                }
+                if (k == NULL_KEY) {
+                    return index;
+                }
+            }
+        }
+        UnifiedComparator<? super K> keyUnifiedComparator = this.keyUnifiedComparator();
+        int hash = hash(keyUnifiedComparator.hashCode((K)key));
+        for (int index = hash & mask; ; index = (index + 1) & mask) {
+            Object k = keys[index];
+            if (k == null) {
+                return -1;
+            }
+            if (hashes[index] == hash && k != NULL_KEY && keyUnifiedComparator.equals((K)key, (K)k)) {
+                return index;
+            }
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    final K keyAt(int index) {
+        Object k = this.keys[index];
+        return k == NULL_KEY ? null : (K)k;
+    }
+    
+    @SuppressWarnings("unchecked")
+    final V valueAt(int index) {
+        Object[] values = this.values;
+        return values != null ? (V)values[index] : (V)PRESENT;
+    }
+    
+    final void setValueAt(int index, V value) {
+        Object[] values = this.values;
+        if (values != null) {
+            values[index] = value;
+        }
+    }
+    
+    private void shrink() {
+        int capacity = this.keys.length;
+        int twiceSize = this.size << 1;
+        if (twiceSize >= this.threshold || capacity == this.initCapacity) {
+            return;
+        }
+        do {
+            capacity >>>= 1;
+        } while (capacity * this.loadFactor > twiceSize);
+        if (capacity < this.initCapacity) {
+            capacity = this.initCapacity;
+        }
+        this.resize(capacity);
+    }
+    
+    private void resize(int capacity) {
+        if (capacity > MAX_CAPACITY) {
+            if (this.keys.length == MAX_CAPACITY) {
+                throw new IllegalStateException("The open hash table is full");
+            }
+            capacity = MAX_CAPACITY;
+        }
+        int[] oldHashes = this.hashes;
+        Object[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+        this.allocate(capacity);
+        if (CollectionInstrumentations.ENABLED) {
+            CollectionInstrumentations.resized(this, oldKeys.length, capacity);
+        }
+        int[] hashes = this.hashes;
+        Object[] keys = this.keys;
+        Object[] values = this.values;
+        int mask = capacity - 1;
+        for (int i = oldKeys.length - 1; i >= 0; i--) {
+            Object k = oldKeys[i];
+            if (k != null) {
+                int hash = oldHashes[i];
+                int index = hash & mask;
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                hashes[index] = hash;
+                keys[index] = k;
+                if (values != null) {
+                    values[index] = oldValues[i];
+                }
+            }
+        }
+    }
+    
+    private void allocate(int capacity) {
+        this.hashes = new int[capacity];
+        this.keys = new Object[capacity];
+        this.values = this instanceof TransientValueEntries ? null : new Object[capacity];
+        // At least one slot must be free to terminate the probe sequences
+        this.threshold = Math.min((int)(capacity * this.loadFactor), capacity - 1);
+    }
+    
+    private int hashOf(K key) {
+        if (key == null) {
+            return 0;
+        }
+        return hash(this.keyUnifiedComparator().hashCode(key));
+    }
+
+    private static int hash(int h) {
+        h ^= (h >>> 20) ^ (h >>> 12);
+        return h ^ (h >>> 7) ^ (h >>> 4);
+    }
+    
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(this.size);
+        Object[] keys = this.keys;
+        boolean hasValues = this.values != null;
+        for (int i = keys.length - 1; i >= 0; i--) {
+            if (keys[i] != null) {
+                out.writeObject(this.keyAt(i));
+                if (hasValues) {
+                    out.writeObject(this.values[i]);
+                }
+            }
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int size = in.readInt();
+        int capacity = this.initCapacity;
+        while (capacity * this.loadFactor < size) {
+            capacity <<= 1;
+        }
+        this.allocate(capacity);
+        if (this instanceof TransientValueEntries) {
+            for (int i = size - 1; i >= 0; i--) {
+                K key = (K)in.readObject();
+                this.put(key, (V)PRESENT, null, null);
+            }
+        } else {
+            for (int i = size - 1; i >= 0; i--) {
+                K key = (K)in.readObject();
+                V value = (V)in.readObject();
+                this.put(key, value, null, null);
+            }
+        }
+    }
+
+    /*
+     * The table is visited backward. The backward shift of remove() can move 
+     * an unvisited entry from the head of the table into the visited tail, 
+     * such entries are collected and visited after the table.
+     */
+    private class EntryIterator implements BaseEntryIterator<K, V> {
+        
+        // The slots whose index is greater than or equal to this have been visited
+        private int index;
+        
+        private BaseEntryImpl<K, V>[] wrappedEntries;
+        
+        private int wrappedCount;
+        
+        private BaseEntryImpl<K, V> current;
+        
+        private boolean isCurrentWrapped;
+        
+        private int expectedModCount;
+        
+        public EntryIterator() {
+            this.index = OpenHashEntries.this.keys.length;
+            this.expectedModCount = OpenHashEntries.this.modCount;
+        }
+        
+        protected Trigger<K, V> trigger(BaseEntriesHandler<K, V> handler) {
+            return OpenHashEntries.this.triggerOf(handler);
+        }
+    
+        @Override
+        public boolean hasNext() {
+            return this.nextSlot() != -1 || this.wrappedCount != 0;
+        }
+    
+        @Override
+        public BaseEntryImpl<K, V> next() {
+            if (this.expectedModCount != OpenHashEntries.this.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+            int slot = this.nextSlot();
+            if (slot != -1) {
+                this.index = slot;
+                this.isCurrentWrapped = false;
+                return this.current = new BaseEntryImpl<K, V>(OpenHashEntries.this, slot);
+            }
+            if (this.wrappedCount != 0) {
+                BaseEntryImpl<K, V> be = this.wrappedEntries[--this.wrappedCount];
+                this.wrappedEntries[this.wrappedCount] = null;
+                this.isCurrentWrapped = true;
+                return this.current = be;
+            }
+            throw new NoSuchElementException(IteratorMessages.noSuchElement());
+        }
+    
+        @Override
+        public void remove(BaseEntriesHandler<K, V> handler) {
+            if (this.current == null) {
+                throw new IllegalStateException(IteratorMessages.removeNoExtractedElement());
+            }
+            if (this.expectedModCount != OpenHashEntries.this.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+            Trigger<K, V> trigger = this.trigger(handler);
+            if (trigger != null) {
+                trigger.preRemove(this.current);
+            }
+            if (trigger == null || trigger.beginExecute()) {
+                try {
+                    /*
+                     * When the current entry is a wrapped one, the whole table 
+                     * has been visited so the moved entries need not be tracked.
+                     */
+                    OpenHashEntries.this.deleteBaseEntryImpl(
+                            this.current, 
+                            this.isCurrentWrapped ? null : this);
+                    this.current = null;
+                    this.expectedModCount = OpenHashEntries.this.modCount;
+                    if (trigger != null) {
+                        trigger.endExecute(null);
+                    }
+                } catch (RuntimeException | Error ex) {
+                    if (trigger == null) {
+                        throw ex;
+                    }
+                    trigger.endExecute(ex);
+                }
+            }
+            if (trigger != null) {
+                trigger.flush();
+            }
+        }
+        
+        @SuppressWarnings("unchecked")
+        void addWrappedEntry(BaseEntryImpl<K, V> be) {
+            BaseEntryImpl<K, V>[] wrappedEntries = this.wrappedEntries;
+            if (wrappedEntries == null) {
+                this.wrappedEntries = wrappedEntries = new BaseEntryImpl[MIN_CAPACITY];
+            } else if (this.wrappedCount == wrappedEntries.length) {
+                this.wrappedEntries = wrappedEntries = Arrays.copyOf(wrappedEntries, this.wrappedCount << 1);
+            }
+            wrappedEntries[this.wrappedCount++] = be;
+        }
+        
+        private int nextSlot() {
+            Object[] keys = OpenHashEntries.this.keys;
+            int index = Math.min(this.index, keys.length);
+            while (--index >= 0) {
+                if (keys[index] != null) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /*
+     * The view of a slot. It remembers the slot index and the modCount of 
+     * the owner, so it reads the arrays directly until the owner is 
+     * structurally modified, after that it finds its slot by key again.
+     */
+    static class BaseEntryImpl<K, V> extends AbstractBaseEntryImpl<K, V> {
+        
+        /**
+         * It is null after this entry has been deleted from OpenHashEntries.
+         */
+        private OpenHashEntries<K, V> owner;
+        
+        private int index;
+        
+        private int expectedModCount;
+        
+        private K key;
+        
+        private V value;
+        
+        private UnifiedComparator<? super Entry<K, V>> unifiedComparator;
+        
+        BaseEntryImpl(OpenHashEntries<K, V> owner, int index) {
+            this.owner = owner;
+            this.index = index;
+            this.expectedModCount = owner.modCount;
+            this.key = owner.keyAt(index);
+            this.value = owner.valueAt(index);
+            this.unifiedComparator = owner.entryUnifiedComparator();
+        }
+        
+        @Override
+        public boolean isNonFairLockSupported() {
+            return true;
+        }
+
+        @Override
+        public BaseEntries<K, V> getOwner() {
+            if (this.index() == -1) {
+                return null;
+            }
+            return this.owner;
+        }
+
+        @Override
+        public K getKey() {
+            int index = this.index();
+            if (index != -1) {
+                this.key = this.owner.keyAt(index);
+            }
+            return this.key;
+        }
+
+        @Override
+        public V getValue() {
+            int index = this.index();
+            if (index != -1) {
+                this.value = this.owner.valueAt(index);
+            }
+            return this.value;
+        }
+        
+        @Override
+        protected void setRawValue(V value) {
+            int index = this.index();
+            if (index != -1) {
+                this.owner.setValueAt(index, value);
+            }
+            this.value = value;
+        }
+
+        @Override
+        protected UnifiedComparator<? super Entry<K, V>> unifiedComparator() {
+            return this.unifiedComparator;
+        }
+        
+        /*
+         * Returns the current slot of this entry, or -1 if it has been deleted.
+         */
+        final int index() {
+            OpenHashEntries<K, V> owner = this.owner;
+            if (owner == null) {
+                return -1;
+            }
+            if (this.expectedModCount != owner.modCount) {
+                int index = owner.indexOf(this.key);
+                if (index == -1) {
+                    this.owner = null;
+                    return -1;
+                }
+                this.index = index;
+                this.expectedModCount = owner.modCount;
+            }
+            return this.index;
+        }
+        
+        final void detach(int index) {
+            OpenHashEntries<K, V> owner = this.owner;
+            this.key = owner.keyAt(index);
+            this.value = owner.valueAt(index);
+            this.owner = null;
+        }
+    }
+    
+    public static class TransientValue<K, V> extends OpenHashEntries<K, V> implements TransientValueEntries {
+
+        private static final long serialVersionUID = -1851542117104580093L;
+
+        public TransientValue(
+                ReplacementRule keyReplacementRule,
+                EqualityComparator<? super K> keyEqualityComparator,
+                Object valueComparatorOrEqualityComparatorOrUnifiedComparator,
+                int initCapacity, 
+                Float loadFactor) {
+            super(
+                    BidiType.NONE,
+                    keyReplacementRule, 
+                    keyEqualityComparator,
+                    valueComparatorOrEqualityComparatorOrUnifiedComparator, 
+                    initCapacity,
+                    loadFactor);
+        }
+        
+    }
+}
@@ -20,6 +20,7 @@ package org.babyfish.collection.spi.base;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.ConcurrentModificationException;
@@ -30,6 +31,8 @@ import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.SortedMap;
 import java.util.SortedSet;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 import org.babyfish.collection.BidiType;
 import org.babyfish.collection.FrozenComparator;
@@ -119,6 +122,11 @@ implements NavigableBaseEntries<K, V> {
         return this.new AscendingEntryIterator(this.first(), null);
     }
     
+    @Override
+    public Spliterator<BaseEntry<K, V>> spliterator() {
+        return this.new EntrySpliterator(this.first(), this.size(), false, this.modCount);
+    }
+    
     @SuppressWarnings("unchecked")
     public final BaseEntryImpl<K, V> getBaseEntry(Object key) {
         Comparator<? super K> comparator = this.keyUnifiedComparator().comparator();
@@ -321,13 +329,24 @@ implements NavigableBaseEntries<K, V> {
         if (puttingHistory == null) {
             if (attachProcessor.beginExcute()) {
                 try {
-                    for (Entry<? extends K, ? extends V> entry : m.entrySet()) {
-                        this.put(
-                                entry.getKey(), 
-                                entry.getValue(), 
-                                null,
-                                null
-                        );
+                    Object[] entries = m.entrySet().toArray();
+                    if (!this.putAllSorted(
+                            entries, 
+                            m instanceof SortedMap<?, ?> &&
+                            Objects.equals(
+                                    this.keyComparatorOrEqualityComparator(), 
+                                    ((SortedMap<?, ?>)m).comparator()
+                            ),
+                            null)) {
+                        for (Object o : entries) {
+                            Entry<? extends K, ? extends V> entry = (Entry<? extends K, ? extends V>)o;
+                            this.put(
+                                    entry.getKey(), 
+                                    entry.getValue(), 
+                                    null,
+                                    null
+                            );
+                        }
                     }
                     attachProcessor.endExecute(null);
                 } catch (RuntimeException | Error ex) {
@@ -436,8 +455,18 @@ implements NavigableBaseEntries<K, V> {
 
         if (trigger == null) {
             int oldSize = this.size();
-            for (K k : c) {
-                this.put(k, (V)PRESENT, (Trigger<K, V>)null, null);
+            Object[] keys = c.toArray();
+            if (!this.putAllSorted(
+                    keys, 
+                    c instanceof SortedSet<?> &&
+                    Objects.equals(
+                            this.keyComparatorOrEqualityComparator(), 
+                            ((SortedSet<?>)c).comparator()
+                    ),
+                    (V)PRESENT)) {
+                for (Object k : keys) {
+                    this.put((K)k, (V)PRESENT, (Trigger<K, V>)null, null);
+                }
             }
             return oldSize != this.size();
         }
@@ -754,6 +783,18 @@ implements NavigableBaseEntries<K, V> {
         return p;
     }
 
+    @Override
+    public final int indexOf(K key) {
+        BaseEntryImpl<K, V> be = this.getBaseEntry(key);
+        return be == null ? -1 : absIndexOf(be);
+    }
+
+    @Override
+    public final BaseEntryImpl<K, V> entryAt(int index) {
+        Arguments.indexMustBetweenValue("index", index, 0, true, this.size(), false);
+        return this.absEntryAt(index);
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public final BaseEntryImpl<K, V> floor(K key) {
@@ -889,7 +930,11 @@ implements NavigableBaseEntries<K, V> {
         return this.modCount;
     }
 
-    private void fixAfterInsertion(BaseEntryImpl<K, V> x) {
+    /*
+     * Returns true if the root has been painted red by the recoloring,
+     * that means the black height of the whole tree has been increased.
+     */
+    private boolean fixAfterInsertion(BaseEntryImpl<K, V> x) {
 
         x.red = true;
 
@@ -929,7 +974,9 @@ implements NavigableBaseEntries<K, V> {
             }
         }
 
+        boolean grown = this.root.red;
         this.root.red = false;
+        return grown;
     }
 
     private void fixAfterDeletion(BaseEntryImpl<K, V> x) {
@@ -1128,6 +1175,326 @@ implements NavigableBaseEntries<K, V> {
         return middle;
     }
 
+    /*
+     * Puts the entries(or the keys when defaultVal is not null) in O(n + m)
+     * without any rebalancing when they are strictly ascending by the key
+     * comparator: the balanced tree is built directly if this tree is empty, 
+     * otherwise the existing entries and the new entries are merged and 
+     * relinked to be a new balanced tree. The existing entries are reused
+     * so that their identities are retained.
+     * 
+     * Returns false without any change if the elements are not strictly
+     * ascending, or the merging is not cheaper than putting them one by one,
+     * or this tree has inversed entries.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean putAllSorted(Object[] elements, boolean sorted, V defaultVal) {
+        int count = elements.length;
+        BaseEntryImpl<K, V> root = this.root;
+        int oldSize = sizeOf(root);
+        if (count < 2 || this.inversedEntries() != null) {
+            return false;
+        }
+        if (root != null && 
+                (long)count * (32 - Integer.numberOfLeadingZeros(oldSize + count)) < oldSize + count) {
+            return false;
+        }
+        Comparator<? super K> comparator = this.keyUnifiedComparator().comparator();
+        if (!sorted) {
+            try {
+                K prevKey = defaultVal == null ? ((Entry<K, V>)elements[0]).getKey() : (K)elements[0];
+                for (int i = 1; i < count; i++) {
+                    K key = defaultVal == null ? ((Entry<K, V>)elements[i]).getKey() : (K)elements[i];
+                    if (compare(comparator, prevKey, key) >= 0) {
+                        return false;
+                    }
+                    prevKey = key;
+                }
+            } catch (ClassCastException | NullPointerException ex) {
+                // Let the one by one putting report the error
+                return false;
+            }
+        }
+        if (root == null) {
+            this.modCount++;
+            try {
+                this.buildFromSorted(count, Arrays.asList(elements).iterator(), null, defaultVal);
+            } catch (IOException impossible) {
+            } catch (ClassNotFoundException impossible) {
+            }
+            return true;
+        }
+        boolean isKeyStrict = this.keyReplacementRule() == ReplacementRule.NEW_REFERENCE_WIN;
+        Object keyComparator = this.keyComparatorOrEqualityComparator();
+        BaseEntryImpl<K, V>[] merged = new BaseEntryImpl[oldSize + count];
+        int mergedCount = 0;
+        int addedCount = 0;
+        BaseEntryImpl<K, V> be = this.first();
+        for (int i = 0; i < count; i++) {
+            K key;
+            V value;
+            if (defaultVal == null) {
+                Entry<K, V> entry = (Entry<K, V>)elements[i];
+                key = entry.getKey();
+                value = entry.getValue();
+            } else {
+                key = (K)elements[i];
+                value = defaultVal;
+            }
+            int cmp = -1;
+            while (be != null && (cmp = compare(comparator, be.key, key)) < 0) {
+                merged[mergedCount++] = be;
+                be = successor(be);
+            }
+            if (be != null && cmp == 0) {
+                BaseEntryImpl<K, V> next = successor(be);
+                if (isKeyStrict) {
+                    be.setRawKey(key, keyComparator);
+                }
+                be.value = value;
+                merged[mergedCount++] = be;
+                be = next;
+            } else {
+                merged[mergedCount++] = new BaseEntryImpl<K, V>(this, null, key, value);
+                addedCount++;
+            }
+        }
+        if (addedCount == 0) {
+            // Only the existing entries have been replaced, the structure is not changed
+            return true;
+        }
+        while (be != null) {
+            merged[mergedCount++] = be;
+            be = successor(be);
+        }
+        this.modCount++;
+        this.root = relinkSorted(merged, 0, 0, mergedCount - 1, computeRedLevel(mergedCount));
+        return true;
+    }
+    
+    private static <K, V> BaseEntryImpl<K, V> relinkSorted(
+            BaseEntryImpl<K, V>[] entries, int level, int lo, int hi, int redLevel) {
+        int mid = (lo + hi) >>> 1;
+        BaseEntryImpl<K, V> middle = entries[mid];
+        middle.parent = null;
+        middle.left = null;
+        middle.right = null;
+        middle.size = 1;
+        middle.red = level == redLevel;
+        if (lo < mid) {
+            BaseEntryImpl<K, V> left = relinkSorted(entries, level + 1, lo, mid - 1, redLevel);
+            middle.left = left;
+            left.parent = middle;
+            middle.size += left.size;
+        }
+        if (mid < hi) {
+            BaseEntryImpl<K, V> right = relinkSorted(entries, level + 1, mid + 1, hi, redLevel);
+            middle.right = right;
+            right.parent = middle;
+            middle.size += right.size;
+        }
+        return middle;
+    }
+    
+    /*
+     * Deletes all the entries from "low" to "high"(both inclusive) by splitting 
+     * and joining the tree in O(log n + k) rather than O(k * log n), the k is
+     * the count of deleted entries because each of them must still be
+     * marked as removed.
+     */
+    @SuppressWarnings("unchecked")
+    private void deleteRange(BaseEntryImpl<K, V> low, BaseEntryImpl<K, V> high) {
+        int lowIndex = absIndexOf(low);
+        int count = absIndexOf(high) - lowIndex + 1;
+        if (count == 1) {
+            this.deleteBaseEntry0(low);
+            return;
+        }
+        this.modCount++;
+        SplitTrees<K, V> trees = this.split(this.root, blackHeight(this.root), lowIndex);
+        BaseEntryImpl<K, V> left = trees.left;
+        int leftHeight = trees.leftHeight;
+        trees = this.split(trees.right, trees.rightHeight, count);
+        BaseEntryImpl<K, V> deleted = trees.left;
+        BaseEntryImpl<K, V> right = trees.right;
+        if (left == null) {
+            this.root = right;
+        } else if (right == null) {
+            this.root = left;
+        } else {
+            trees = this.split(right, trees.rightHeight, 1);
+            this.join(left, leftHeight, trees.left, trees.right, trees.rightHeight);
+        }
+        if (this.root != null) {
+            this.root.red = false;
+        }
+        
+        BaseEntryImpl<K, V>[] deletedEntries = new BaseEntryImpl[count];
+        int index = 0;
+        while (deleted.left != null) {
+            deleted = deleted.left;
+        }
+        for (BaseEntryImpl<K, V> be = deleted; be != null; be = successor(be)) {
+            deletedEntries[index++] = be;
+        }
+        BaseEntries<V, K> inversedEntries = this.inversedEntries();
+        for (BaseEntryImpl<K, V> be : deletedEntries) {
+            be.left = null;
+            be.right = null;
+            be.parent = null;
+            be.recordRemove();
+            if (inversedEntries != null) {
+                inversedEntries.removeByKey(be.value, null);
+            }
+        }
+    }
+    
+    /*
+     * Splits the detached tree whose black height is "height" into two 
+     * detached trees, the first one contains the first "index" entries and 
+     * the second one contains the others. Both of them are valid red-black 
+     * trees expect that their roots may be red.
+     * 
+     * The black heights are passed down and returned together with the 
+     * trees, so that no join has to measure its trees. Each level of the 
+     * recursion joins in O(difference of black heights + 1) and these 
+     * differences telescope, so the split is O(log n) rather than O(log² n).
+     */
+    private SplitTrees<K, V> split(BaseEntryImpl<K, V> tree, int height, int index) {
+        if (tree == null) {
+            return new SplitTrees<>();
+        }
+        BaseEntryImpl<K, V> left = tree.left;
+        BaseEntryImpl<K, V> right = tree.right;
+        if (left != null) {
+            left.parent = null;
+        }
+        if (right != null) {
+            right.parent = null;
+        }
+        int childHeight = tree.red ? height : height - 1;
+        int leftSize = sizeOf(left);
+        SplitTrees<K, V> trees;
+        if (index <= leftSize) {
+            trees = this.split(left, childHeight, index);
+            trees.rightHeight = this.join(trees.right, trees.rightHeight, tree, right, childHeight);
+            trees.right = this.root;
+        } else {
+            trees = this.split(right, childHeight, index - leftSize - 1);
+            trees.leftHeight = this.join(left, childHeight, tree, trees.left, trees.leftHeight);
+            trees.left = this.root;
+        }
+        return trees;
+    }
+    
+    /*
+     * Joins two detached trees and the middle entry whose key is greater 
+     * than all the keys of the left tree and less than all the keys of the
+     * right tree, in O(|leftHeight - rightHeight| + 1), the heights are 
+     * the black heights of the trees given by the caller.
+     * The root of the joined tree is stored into "this.root", 
+     * returns its black height.
+     */
+    private int join(
+            BaseEntryImpl<K, V> left, 
+            int leftHeight,
+            BaseEntryImpl<K, V> middle, 
+            BaseEntryImpl<K, V> right,
+            int rightHeight) {
+        if (left != null && left.red) {
+            left.red = false;
+            leftHeight++;
+        }
+        if (right != null && right.red) {
+            right.red = false;
+            rightHeight++;
+        }
+        middle.parent = null;
+        if (leftHeight == rightHeight) {
+            middle.left = left;
+            middle.right = right;
+            if (left != null) {
+                left.parent = middle;
+            }
+            if (right != null) {
+                right.parent = middle;
+            }
+            middle.size = 1 + sizeOf(left) + sizeOf(right);
+            middle.red = false;
+            this.root = middle;
+            return leftHeight + 1;
+        }
+        BaseEntryImpl<K, V> parent = null;
+        BaseEntryImpl<K, V> child;
+        int height;
+        if (leftHeight > rightHeight) {
+            child = left;
+            height = leftHeight;
+            int h = height;
+            while (child != null && (child.red || h != rightHeight)) {
+                if (!child.red) {
+                    h--;
+                }
+                parent = child;
+                child = child.right;
+            }
+            middle.left = child;
+            middle.right = right;
+            parent.right = middle;
+            this.root = left;
+        } else {
+            child = right;
+            height = rightHeight;
+            int h = height;
+            while (child != null && (child.red || h != leftHeight)) {
+                if (!child.red) {
+                    h--;
+                }
+                parent = child;
+                child = child.left;
+            }
+            middle.left = left;
+            middle.right = child;
+            parent.left = middle;
+            this.root = right;
+        }
+        middle.parent = parent;
+        if (middle.left != null) {
+            middle.left.parent = middle;
+        }
+        if (middle.right != null) {
+            middle.right.parent = middle;
+        }
+        middle.size = 1 + sizeOf(middle.left) + sizeOf(middle.right);
+        int addedSize = middle.size - sizeOf(child);
+        for (BaseEntryImpl<K, V> p = parent; p != null; p = p.parent) {
+            p.size += addedSize;
+        }
+        if (this.fixAfterInsertion(middle)) {
+            height++;
+        }
+        return height;
+    }
+    
+    private static <K, V> int blackHeight(BaseEntryImpl<K, V> p) {
+        int height = 0;
+        while (p != null) {
+            if (!p.red) {
+                height++;
+            }
+            p = p.left;
+        }
+        return height;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <K> int compare(Comparator<? super K> comparator, K key1, K key2) {
+        if (comparator != null) {
+            return comparator.compare(key1, key2);
+        }
+        return ((Comparable<? super K>)key1).compareTo(key2);
+    }
+
     private static int computeRedLevel(int sz) {
         int level = 0;
         for (int m = sz - 1; m >= 0; m = m / 2 - 1) {
@@ -1158,6 +1525,36 @@ implements NavigableBaseEntries<K, V> {
         return (p == null) ? null : p.right;
     }
     
+    /*
+     * The absolute index can be calculated by the size of the sub trees, O(log n)
+     */
+    private static <K, V> int absIndexOf(BaseEntryImpl<K, V> p) {
+        int index = sizeOf(p.left);
+        for (BaseEntryImpl<K, V> pp = p.parent; pp != null; pp = pp.parent) {
+            if (pp.right == p) {
+                index += sizeOf(pp.left) + 1;
+            }
+            p = pp;
+        }
+        return index;
+    }
+    
+    private BaseEntryImpl<K, V> absEntryAt(int absIndex) {
+        BaseEntryImpl<K, V> p = this.root;
+        while (p != null) {
+            int leftSize = sizeOf(p.left);
+            if (absIndex < leftSize) {
+                p = p.left;
+            } else if (absIndex > leftSize) {
+                absIndex -= leftSize + 1;
+                p = p.right;
+            } else {
+                return p;
+            }
+        }
+        throw new AssertionError();
+    }
+    
     private static <K, V> int sizeOf(BaseEntryImpl<K, V> p) {
         return (p == null) ? 0 : p.size;
     }
@@ -1261,6 +1658,7 @@ implements NavigableBaseEntries<K, V> {
         public SubTree(NavigableRange<K> range) {
             this.range = range;
             int diffModCount = RedBlackTreeEntries.this.modCount - 1;
+            this.isEmptyModCount = diffModCount;
             this.sizeModCount = diffModCount;
             this.absLowestModCount = diffModCount;
             this.absHighestModCount = diffModCount;
@@ -1409,6 +1807,28 @@ implements NavigableBaseEntries<K, V> {
             return this.absHigher(key);
         }
 
+        @Override
+        public int indexOf(K key) {
+            BaseEntry<K, V> be = this.getBaseEntry(key);
+            if (be == null) {
+                return -1;
+            }
+            int absIndex = absIndexOf((BaseEntryImpl<K, V>)be);
+            if (this.range.descending()) {
+                return absIndexOf(this.absHighest()) - absIndex;
+            }
+            return absIndex - absIndexOf(this.absLowest());
+        }
+
+        @Override
+        public BaseEntry<K, V> entryAt(int index) {
+            Arguments.indexMustBetweenValue("index", index, 0, true, this.size(), false);
+            if (this.range.descending()) {
+                return RedBlackTreeEntries.this.absEntryAt(absIndexOf(this.absHighest()) - index);
+            }
+            return RedBlackTreeEntries.this.absEntryAt(absIndexOf(this.absLowest()) + index);
+        }
+
         @SuppressWarnings("unchecked")
         @Override
         public BaseEntry<K, V> getBaseEntry(Object key) {
@@ -1461,6 +1881,15 @@ implements NavigableBaseEntries<K, V> {
                     this.absHighFence()
             );
         }
+        
+        @Override
+        public Spliterator<BaseEntry<K, V>> spliterator() {
+            RedBlackTreeEntries<K, V> owner = RedBlackTreeEntries.this;
+            if (this.range.descending()) {
+                return owner.new EntrySpliterator(this.absHighest(), this.size(), true, owner.modCount);
+            }
+            return owner.new EntrySpliterator(this.absLowest(), this.size(), false, owner.modCount);
+        }
 
         @Override
         protected AbstractBaseEntriesImpl<K, V> getParent() {
@@ -1555,19 +1984,20 @@ implements NavigableBaseEntries<K, V> {
                     trigger.preRemove(iterator.next());
                 }
             }
-        
-            BaseEntryIterator<K, V> iterator = this.iterator();
-            if (trigger == null) {
-                while (iterator.hasNext()) {
-                    iterator.next();
-                    iterator.remove(null);
+            
+            if (this.isEmpty()) {
+                if (trigger != null) {
+                    trigger.flush();
                 }
+                return;
+            }
+            BaseEntryImpl<K, V> absLowest = this.absLowest();
+            BaseEntryImpl<K, V> absHighest = this.absHighest();
+            if (trigger == null) {
+                RedBlackTreeEntries.this.deleteRange(absLowest, absHighest);
             } else if (trigger.beginExecute()) {
                 try {
-                    while (iterator.hasNext()) {
-                        iterator.next();
-                        iterator.remove(null);
-                    }
+                    RedBlackTreeEntries.this.deleteRange(absLowest, absHighest);
                     trigger.endExecute(null);
                 } catch (RuntimeException | Error ex) {
                     trigger.endExecute(ex);
@@ -1887,6 +2317,102 @@ implements NavigableBaseEntries<K, V> {
 
     }
 
+    /*
+     * Each split locates the middle entry by the sizes of the sub trees, O(log n),
+     * so all the spliterators are sized even if they are created by sub trees.
+     */
+    private class EntrySpliterator implements Spliterator<BaseEntry<K, V>> {
+        
+        private BaseEntryImpl<K, V> next;
+        
+        private int remaining;
+        
+        private boolean descending;
+        
+        private int expectedModCount;
+        
+        EntrySpliterator(
+                BaseEntryImpl<K, V> first, 
+                int size, 
+                boolean descending, 
+                int expectedModCount) {
+            this.next = first;
+            this.remaining = first == null ? 0 : size;
+            this.descending = descending;
+            this.expectedModCount = expectedModCount;
+        }
+
+        @Override
+        public Spliterator<BaseEntry<K, V>> trySplit() {
+            int half = this.remaining >>> 1;
+            if (half == 0) {
+                return null;
+            }
+            RedBlackTreeEntries<K, V> owner = RedBlackTreeEntries.this;
+            if (this.expectedModCount != owner.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+            EntrySpliterator prefix = owner.new EntrySpliterator(
+                    this.next, half, this.descending, this.expectedModCount);
+            int absIndex = absIndexOf(this.next);
+            this.next = owner.absEntryAt(this.descending ? absIndex - half : absIndex + half);
+            this.remaining -= half;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super BaseEntry<K, V>> action) {
+            Arguments.mustNotBeNull("action", action);
+            RedBlackTreeEntries<K, V> owner = RedBlackTreeEntries.this;
+            if (this.expectedModCount != owner.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+            if (this.remaining <= 0) {
+                return false;
+            }
+            BaseEntryImpl<K, V> e = this.next;
+            this.next = this.descending ? predecessor(e) : successor(e);
+            this.remaining--;
+            action.accept(e);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super BaseEntry<K, V>> action) {
+            Arguments.mustNotBeNull("action", action);
+            RedBlackTreeEntries<K, V> owner = RedBlackTreeEntries.this;
+            if (this.expectedModCount != owner.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+            BaseEntryImpl<K, V> e = this.next;
+            boolean descending = this.descending;
+            for (int i = this.remaining; i > 0; i--) {
+                BaseEntryImpl<K, V> current = e;
+                e = descending ? predecessor(e) : successor(e);
+                action.accept(current);
+            }
+            this.next = e;
+            this.remaining = 0;
+            if (this.expectedModCount != owner.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return 
+                    Spliterator.ORDERED | 
+                    Spliterator.DISTINCT | 
+                    Spliterator.SIZED | 
+                    Spliterator.SUBSIZED;
+        }
+    }
+
     static class BaseEntryImpl<K, V> extends AbstractBaseEntryImpl<K, V> {
         
         /**
@@ -2075,6 +2601,21 @@ implements NavigableBaseEntries<K, V> {
         }
     }
     
+    /*
+     * The result of split(), the two trees and their black heights.
+     * One instance is shared by all the levels of the recursion.
+     */
+    private static class SplitTrees<K, V> {
+        
+        BaseEntryImpl<K, V> left;
+        
+        int leftHeight;
+        
+        BaseEntryImpl<K, V> right;
+        
+        int rightHeight;
+    }
+    
     public static class TransientValue<K, V> extends RedBlackTreeEntries<K, V> implements TransientValueEntries {
 
         private static final long serialVersionUID = -7420559212323684655L;
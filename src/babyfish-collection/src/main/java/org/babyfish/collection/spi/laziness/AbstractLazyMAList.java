@@ -26,6 +26,7 @@ import org.babyfish.collection.XList;
 import org.babyfish.collection.event.ElementListener;
 import org.babyfish.collection.event.ListElementEvent;
 import org.babyfish.collection.event.ListElementListener;
+import org.babyfish.collection.spi.CollectionInstrumentations;
 import org.babyfish.collection.spi.wrapper.event.AbstractListElementEventDispatcher;
 import org.babyfish.collection.viewinfo.CollectionViewInfos;
 import org.babyfish.collection.viewinfo.ListViewInfos;
@@ -35,6 +36,7 @@ import org.babyfish.data.ViewInfo;
 import org.babyfish.data.event.AttributeScope;
 import org.babyfish.data.event.Cause;
 import org.babyfish.data.event.PropertyVersion;
+import org.babyfish.lang.Ref;
 
 /**
  * @author Tao Chen
@@ -111,6 +113,7 @@ public abstract class AbstractLazyMAList<E> extends AbstractLazyXList<E> impleme
     }
     
     protected void executeModifying(ListElementEvent<E> e) {
+        long start = CollectionInstrumentations.ENABLED ? System.nanoTime() : 0L;
         Throwable finalThrowable = null;
         try {
             this.onModifying(e);    
@@ -131,12 +134,16 @@ public abstract class AbstractLazyMAList<E> extends AbstractLazyXList<E> impleme
                 finalThrowable = ex;
             }
         }
+        if (CollectionInstrumentations.ENABLED) {
+            CollectionInstrumentations.eventExecuted(this, e, false, System.nanoTime() - start);
+        }
         if (finalThrowable != null) {
             throw new ModificationException(false, e, finalThrowable);
         }
     }
     
     protected void executeModified(ListElementEvent<E> e) {
+        long start = CollectionInstrumentations.ENABLED ? System.nanoTime() : 0L;
         Throwable finalThrowable = null;
         try {
             this.bubbleModified(e);     
@@ -157,6 +164,9 @@ public abstract class AbstractLazyMAList<E> extends AbstractLazyXList<E> impleme
                 finalThrowable = ex;
             }
         }
+        if (CollectionInstrumentations.ENABLED) {
+            CollectionInstrumentations.eventExecuted(this, e, true, System.nanoTime() - start);
+        }
         if (finalThrowable != null) {
             throw new ModificationException(true, e, finalThrowable);
         }
@@ -302,6 +312,9 @@ public abstract class AbstractLazyMAList<E> extends AbstractLazyXList<E> impleme
 
     @Override
     public MAListIterator<E> listIterator(int index) {
+        if (this.isVisionallyIterable(index)) {
+            return new VisionalIteratorImpl<E>(this, index);
+        }
         return new IteratorImpl<E>(this, index);
     }
     
@@ -332,12 +345,35 @@ public abstract class AbstractLazyMAList<E> extends AbstractLazyXList<E> impleme
     }
     
     protected static class SubListImpl<E> extends AbstractLazyMAList<E> implements MAListView<E> {
+        
+        private int fromIndex;
+        
+        private int toIndex;
 
         public SubListImpl(
                 AbstractLazyMAList<E> parent,
                 int fromIndex,
                 int toIndex) {
             super(parent, ListViewInfos.subList(fromIndex, toIndex));
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+        }
+        
+        @Override
+        Ref<E> visionallyGet(int index) {
+            if (index < 0 || index >= this.toIndex - this.fromIndex) {
+                return null;
+            }
+            return this.<AbstractLazyMAList<E>>getParent().visionallyGet(this.fromIndex + index);
+        }
+        
+        @Override
+        Boolean visionallyExists(int index) {
+            return AbstractLazyXList.SubListImpl.visionallyExists(
+                    this.<AbstractLazyMAList<E>>getParent(), 
+                    this.fromIndex, 
+                    this.toIndex, 
+                    index);
         }
 
         @Deprecated
@@ -615,6 +651,39 @@ public abstract class AbstractLazyMAList<E> extends AbstractLazyXList<E> impleme
         
     }
     
+    /**
+     * The listeners can only be registered to the real iterator, 
+     * so registering or unregistering a listener loads the list.
+     */
+    protected static class VisionalIteratorImpl<E> 
+    extends AbstractLazyXList.VisionalIteratorImpl<E> 
+    implements MAListIterator<E> {
+
+        protected VisionalIteratorImpl(AbstractLazyMAList<E> parent, int index) {
+            super(parent, index);
+        }
+
+        @Override
+        public void addElementListener(ElementListener<? super E> listener) {
+            this.<MAListIterator<E>>getRealIterator().addElementListener(listener);
+        }
+
+        @Override
+        public void removeElementListener(ElementListener<? super E> listener) {
+            this.<MAListIterator<E>>getRealIterator().removeElementListener(listener);
+        }
+
+        @Override
+        public void addListElementListener(ListElementListener<? super E> listener) {
+            this.<MAListIterator<E>>getRealIterator().addListElementListener(listener);
+        }
+
+        @Override
+        public void removeListElementListener(ListElementListener<? super E> listener) {
+            this.<MAListIterator<E>>getRealIterator().removeListElementListener(listener);
+        }
+    }
+    
     protected static class IteratorImpl<E> extends AbstractIteratorImpl<E> {
 
         public IteratorImpl(
@@ -40,6 +40,7 @@ import org.babyfish.collection.event.ValuesElementEvent;
 import org.babyfish.collection.event.ValuesElementListener;
 import org.babyfish.collection.event.modification.CollectionModifications;
 import org.babyfish.collection.event.modification.MapModifications;
+import org.babyfish.collection.spi.CollectionInstrumentations;
 import org.babyfish.collection.spi.base.EntryEqualityComparator;
 import org.babyfish.collection.spi.base.NoEntryException;
 import org.babyfish.collection.spi.wrapper.event.AbstractElementEventDispatcher;
@@ -159,6 +160,7 @@ public abstract class AbstractLazyMAMap<K, V> extends AbstractLazyXMap<K, V> imp
     }
 
     protected void executeModifying(MapElementEvent<K, V> e) {
+        long start = CollectionInstrumentations.ENABLED ? System.nanoTime() : 0L;
         Throwable finalThrowable = null;
         try {
             this.onModifying(e);    
@@ -179,12 +181,16 @@ public abstract class AbstractLazyMAMap<K, V> extends AbstractLazyXMap<K, V> imp
                 finalThrowable = ex;
             }
         }
+        if (CollectionInstrumentations.ENABLED) {
+            CollectionInstrumentations.eventExecuted(this, e, false, System.nanoTime() - start);
+        }
         if (finalThrowable != null) {
             throw new ModificationException(false, e, finalThrowable);
         }
     }
 
     protected void executeModified(MapElementEvent<K, V> e) {
+        long start = CollectionInstrumentations.ENABLED ? System.nanoTime() : 0L;
         Throwable finalThrowable = null;
         try {
             this.bubbleModified(e);     
@@ -205,6 +211,9 @@ public abstract class AbstractLazyMAMap<K, V> extends AbstractLazyXMap<K, V> imp
                 finalThrowable = ex;
             }
         }
+        if (CollectionInstrumentations.ENABLED) {
+            CollectionInstrumentations.eventExecuted(this, e, true, System.nanoTime() - start);
+        }
         if (finalThrowable != null) {
             throw new ModificationException(true, e, finalThrowable);
         }
@@ -407,6 +416,10 @@ public abstract class AbstractLazyMAMap<K, V> extends AbstractLazyXMap<K, V> imp
 
         @Override
         public MAEntrySetIterator<K, V> iterator() {
+            VisionalKeyRange<K, V> range = this.<AbstractLazyXMap<K, V>>getParentMap().visionalKeyRange();
+            if (range != null && range.windowSize() > 0) {
+                return new VisionalIteratorImpl<K, V>(this, range);
+            }
             return new IteratorImpl<K, V>(this);
         }
 
@@ -821,6 +834,42 @@ public abstract class AbstractLazyMAMap<K, V> extends AbstractLazyXMap<K, V> imp
             }
         }
         
+        /**
+         * The listeners can only be registered to the real iterator, 
+         * so registering or unregistering a listener loads the map.
+         */
+        protected static class VisionalIteratorImpl<K, V> 
+        extends AbstractLazyXMap.AbstractVisionalIteratorImpl<K, V, Entry<K, V>> 
+        implements MAEntrySetIterator<K, V> {
+            
+            VisionalIteratorImpl(EntrySetImpl<K, V> parent, VisionalKeyRange<K, V> range) {
+                super(parent, range);
+            }
+            
+            @Override
+            public MAEntry<K, V> next() {
+                return (MAEntry<K, V>)super.next();
+            }
+
+            @Override
+            public void addElementListener(ElementListener<? super Entry<K, V>> listener) {
+                this.<MAEntrySetIterator<K, V>>getRealIterator().addElementListener(listener);
+            }
+
+            @Override
+            public void removeElementListener(ElementListener<? super Entry<K, V>> listener) {
+                this.<MAEntrySetIterator<K, V>>getRealIterator().removeElementListener(listener);
+            }
+
+            @Override
+            protected Entry<K, V> convert(Entry<K, V> entry) {
+                return new VisionalEntryImpl<K, V>(
+                        this.<EntrySetImpl<K, V>>getParent(), 
+                        entry.getKey(), 
+                        entry.getValue());
+            }
+        }
+        
         protected static final class VisionalEntryImpl<K, V> implements MAEntry<K, V> {
             
             private K key;
@@ -946,6 +995,10 @@ public abstract class AbstractLazyMAMap<K, V> extends AbstractLazyXMap<K, V> imp
 
         @Override
         public MAKeySetIterator<K, V> iterator() {
+            VisionalKeyRange<K, V> range = this.visionalKeyRange();
+            if (range != null && range.windowSize() > 0) {
+                return new VisionalIteratorImpl<K, V>(this, range);
+            }
             return new IteratorImpl<K, V>(this);
         }
 
@@ -1558,6 +1611,44 @@ public abstract class AbstractLazyMAMap<K, V> extends AbstractLazyXMap<K, V> imp
                 throw new IllegalArgumentException(CommonMessages.illegalViewInfo());
             }
         }
+        
+        /**
+         * The listeners can only be registered to the real iterator, 
+         * so registering or unregistering a listener loads the map.
+         */
+        protected static class VisionalIteratorImpl<K, V> 
+        extends AbstractLazyXMap.AbstractVisionalIteratorImpl<K, V, K> 
+        implements MAKeySetIterator<K, V> {
+            
+            VisionalIteratorImpl(AbstractKeySetImpl<K, V> parent, VisionalKeyRange<K, V> range) {
+                super(parent, range);
+            }
+
+            @Override
+            public void addElementListener(ElementListener<? super K> listener) {
+                this.<MAKeySetIterator<K, V>>getRealIterator().addElementListener(listener);
+            }
+
+            @Override
+            public void removeElementListener(ElementListener<? super K> listener) {
+                this.<MAKeySetIterator<K, V>>getRealIterator().removeElementListener(listener);
+            }
+
+            @Override
+            public void addKeySetElementListener(KeySetElementListener<? super K, ? super V> listener) {
+                this.<MAKeySetIterator<K, V>>getRealIterator().addKeySetElementListener(listener);
+            }
+
+            @Override
+            public void removeKeySetElementListener(KeySetElementListener<? super K, ? super V> listener) {
+                this.<MAKeySetIterator<K, V>>getRealIterator().removeKeySetElementListener(listener);
+            }
+
+            @Override
+            protected K convert(Entry<K, V> entry) {
+                return entry.getKey();
+            }
+        }
     }
     
     protected static class KeySetImpl<K, V> extends AbstractKeySetImpl<K, V> {
@@ -1619,6 +1710,10 @@ public abstract class AbstractLazyMAMap<K, V> extends AbstractLazyXMap<K, V> imp
         
         @Override
         public MAValuesIterator<K, V> iterator() {
+            VisionalKeyRange<K, V> range = this.<AbstractLazyXMap<K, V>>getParentMap().visionalKeyRange();
+            if (range != null && range.windowSize() > 0) {
+                return new VisionalIteratorImpl<K, V>(this, range);
+            }
             return new IteratorImpl<K, V>(this);
         }
         
@@ -2011,6 +2106,44 @@ public abstract class AbstractLazyMAMap<K, V> extends AbstractLazyXMap<K, V> imp
                 };
             }
         }
+        
+        /**
+         * The listeners can only be registered to the real iterator, 
+         * so registering or unregistering a listener loads the map.
+         */
+        protected static class VisionalIteratorImpl<K, V> 
+        extends AbstractLazyXMap.AbstractVisionalIteratorImpl<K, V, V> 
+        implements MAValuesIterator<K, V> {
+            
+            VisionalIteratorImpl(ValuesImpl<K, V> parent, VisionalKeyRange<K, V> range) {
+                super(parent, range);
+            }
+
+            @Override
+            public void addElementListener(ElementListener<? super V> listener) {
+                this.<MAValuesIterator<K, V>>getRealIterator().addElementListener(listener);
+            }
+
+            @Override
+            public void removeElementListener(ElementListener<? super V> listener) {
+                this.<MAValuesIterator<K, V>>getRealIterator().removeElementListener(listener);
+            }
+
+            @Override
+            public void addValuesElementListener(ValuesElementListener<? super K, ? super V> listener) {
+                this.<MAValuesIterator<K, V>>getRealIterator().addValuesElementListener(listener);
+            }
+
+            @Override
+            public void removeValuesElementListener(ValuesElementListener<? super K, ? super V> listener) {
+                this.<MAValuesIterator<K, V>>getRealIterator().removeValuesElementListener(listener);
+            }
+
+            @Override
+            protected V convert(Entry<K, V> entry) {
+                return entry.getValue();
+            }
+        }
     }
     
     protected static abstract class AbstractEntryImpl<K, V> 
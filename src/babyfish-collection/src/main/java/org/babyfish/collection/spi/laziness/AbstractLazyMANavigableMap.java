@@ -110,6 +110,18 @@ public abstract class AbstractLazyMANavigableMap<K, V> extends AbstractLazyMAMap
         return this.<MANavigableMap<K, V>>getBase().higherKey(key);
     }
 
+    @Override
+    public int indexOfKey(K key) {
+        this.requiredEnabled();
+        return this.<MANavigableMap<K, V>>getBase().indexOfKey(key);
+    }
+
+    @Override
+    public K keyAt(int index) {
+        this.requiredEnabled();
+        return this.<MANavigableMap<K, V>>getBase().keyAt(index);
+    }
+
     @Override
     public MAEntry<K, V> firstEntry() {
         try {
@@ -164,6 +176,15 @@ public abstract class AbstractLazyMANavigableMap<K, V> extends AbstractLazyMAMap
         }
     }
 
+    @Override
+    public MAEntry<K, V> entryAt(int index) {
+        try {
+            return new EntryAtImpl<K, V>(this, index);
+        } catch (NoEntryException ex) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + this.size());
+        }
+    }
+
     @Override
     public MANavigableMapView<K, V> descendingMap() {
         return new DescendingMapImpl<K, V>(this);
@@ -248,14 +269,28 @@ public abstract class AbstractLazyMANavigableMap<K, V> extends AbstractLazyMAMap
         return new KeySetImpl<K, V>(this);
     }
 
+    @Override
+    VisionalKeyRange<K, V> visionalKeyRange() {
+        return new VisionalKeyRange<K, V>(this.<RootData<K, V>>getRootData());
+    }
+
     protected static abstract class AbstractSubMapImpl<K, V> 
     extends AbstractLazyMANavigableMap<K, V>
     implements MANavigableMapView<K, V> {
 
+        private VisionalKeyRange<K, V> visionalKeyRange;
+
         private AbstractSubMapImpl(
                 AbstractLazyMANavigableMap<K, V> parent,
-                ViewInfo viewInfo) {
+                ViewInfo viewInfo,
+                VisionalKeyRange<K, V> visionalKeyRange) {
             super(parent, viewInfo);
+            this.visionalKeyRange = visionalKeyRange;
+        }
+        
+        @Override
+        VisionalKeyRange<K, V> visionalKeyRange() {
+            return this.visionalKeyRange;
         }
 
         @Override
@@ -274,7 +309,7 @@ public abstract class AbstractLazyMANavigableMap<K, V> extends AbstractLazyMAMap
     protected static class DescendingMapImpl<K, V> extends AbstractSubMapImpl<K, V> {
         
         protected DescendingMapImpl(AbstractLazyMANavigableMap<K, V> parent) {
-            super(parent, NavigableMapViewInfos.descendingMap());
+            super(parent, NavigableMapViewInfos.descendingMap(), null);
         }
     
         @Override
@@ -295,7 +330,10 @@ public abstract class AbstractLazyMANavigableMap<K, V> extends AbstractLazyMAMap
                 AbstractLazyMANavigableMap<K, V> parent,
                 K toKey,
                 boolean inclusive) {
-            super(parent, NavigableMapViewInfos.headMap(toKey, inclusive));
+            super(
+                    parent, 
+                    NavigableMapViewInfos.headMap(toKey, inclusive),
+                    VisionalKeyRange.headRange(parent.visionalKeyRange(), toKey, inclusive));
         }
 
         @SuppressWarnings("unchecked")
@@ -324,7 +362,10 @@ public abstract class AbstractLazyMANavigableMap<K, V> extends AbstractLazyMAMap
                 AbstractLazyMANavigableMap<K, V> parent,
                 K fromKey,
                 boolean inclusive) {
-            super(parent, NavigableMapViewInfos.tailMap(fromKey, inclusive));
+            super(
+                    parent, 
+                    NavigableMapViewInfos.tailMap(fromKey, inclusive),
+                    VisionalKeyRange.tailRange(parent.visionalKeyRange(), fromKey, inclusive));
         }
 
         @SuppressWarnings("unchecked")
@@ -358,6 +399,12 @@ public abstract class AbstractLazyMANavigableMap<K, V> extends AbstractLazyMAMap
             super(
                     parent, 
                     NavigableMapViewInfos.subMap(
+                            fromKey, 
+                            fromInclusive, 
+                            toKey, 
+                            toInclusive),
+                    VisionalKeyRange.subRange(
+                            parent.visionalKeyRange(), 
                             fromKey, 
                             fromInclusive, 
                             toKey, 
@@ -522,6 +569,18 @@ public abstract class AbstractLazyMANavigableMap<K, V> extends AbstractLazyMAMap
             return this.<MANavigableKeySetView<K, V>>getBase().higher(e);
         }
 
+        @Override
+        public int indexOf(K e) {
+            this.requiredEnabled();
+            return this.<MANavigableKeySetView<K, V>>getBase().indexOf(e);
+        }
+
+        @Override
+        public K elementAt(int index) {
+            this.requiredEnabled();
+            return this.<MANavigableKeySetView<K, V>>getBase().elementAt(index);
+        }
+
         @Override
         public K pollFirst() {
             this.enable();
@@ -702,6 +761,11 @@ public abstract class AbstractLazyMANavigableMap<K, V> extends AbstractLazyMAMap
         protected KeySetImpl(AbstractLazyMANavigableMap<K, V> parentMap) {
             super(parentMap, NavigableMapViewInfos.navigableKeySet());
         }
+        
+        @Override
+        VisionalKeyRange<K, V> visionalKeyRange() {
+            return this.<AbstractLazyXMap<K, V>>getParentMap().visionalKeyRange();
+        }
 
         @Override
         protected MANavigableKeySetView<K, V> createBaseView(
@@ -875,6 +939,28 @@ public abstract class AbstractLazyMANavigableMap<K, V> extends AbstractLazyMAMap
         }
     }
     
+    protected static class EntryAtImpl<K, V> extends AbstractEntryImpl<K, V> {
+
+        protected EntryAtImpl(
+                AbstractLazyMANavigableMap<K, V> parentMap,
+                int index) throws NoEntryException {
+            super(parentMap, NavigableMapViewInfos.entryAt(index));
+        }
+
+        @Override
+        protected MAEntry<K, V> createBaseView(
+                MANavigableMap<K, V> baseMap, 
+                ViewInfo viewInfo) {
+            if (viewInfo instanceof NavigableMapViewInfos.EntryAt) {
+                NavigableMapViewInfos.EntryAt entryAtViewInfo =
+                        (NavigableMapViewInfos.EntryAt)viewInfo;
+                return baseMap.entryAt(entryAtViewInfo.getIndex());
+            }
+            throw new IllegalArgumentException(CommonMessages.illegalViewInfo());
+        }
+        
+    }
+    
     protected static abstract class RootData<K, V> extends AbstractLazyMAMap.RootData<K, V> {
 
         private static final long serialVersionUID = -9077203726400698449L;
@@ -41,6 +41,7 @@ import org.babyfish.collection.event.ElementListener;
 import org.babyfish.collection.event.MapElementEvent;
 import org.babyfish.collection.event.MapElementListener;
 import org.babyfish.collection.event.modification.CollectionModifications;
+import org.babyfish.collection.spi.CollectionInstrumentations;
 import org.babyfish.collection.spi.wrapper.event.AbstractElementEventDispatcher;
 import org.babyfish.collection.viewinfo.CollectionViewInfos;
 import org.babyfish.data.ModificationException;
@@ -148,6 +149,7 @@ public abstract class AbstractLazyMASet<E> extends AbstractLazyXSet<E> implement
     }
     
     protected void executeModifying(ElementEvent<E> e) {
+        long start = CollectionInstrumentations.ENABLED ? System.nanoTime() : 0L;
         Throwable finalThrowable = null;
         try {
             this.onModifying(e);    
@@ -168,12 +170,16 @@ public abstract class AbstractLazyMASet<E> extends AbstractLazyXSet<E> implement
                 finalThrowable = ex;
             }
         }
+        if (CollectionInstrumentations.ENABLED) {
+            CollectionInstrumentations.eventExecuted(this, e, false, System.nanoTime() - start);
+        }
         if (finalThrowable != null) {
             throw new ModificationException(false, e, finalThrowable);
         }
     }
 
     protected void executeModified(ElementEvent<E> e) {
+        long start = CollectionInstrumentations.ENABLED ? System.nanoTime() : 0L;
         Throwable finalThrowable = null;
         try {
             this.bubbleModified(e);     
@@ -194,6 +200,9 @@ public abstract class AbstractLazyMASet<E> extends AbstractLazyXSet<E> implement
                 finalThrowable = ex;
             }
         }
+        if (CollectionInstrumentations.ENABLED) {
+            CollectionInstrumentations.eventExecuted(this, e, true, System.nanoTime() - start);
+        }
         if (finalThrowable != null) {
             throw new ModificationException(true, e, finalThrowable);
         }
@@ -17,15 +17,24 @@
  */
 package org.babyfish.collection.spi.laziness;
 
+import java.lang.ref.SoftReference;
 import java.util.Collection;
+import java.util.List;
+import java.util.NoSuchElementException;
 
+import org.babyfish.collection.LinkedHashMap;
+import org.babyfish.collection.OrderAdjustMode;
+import org.babyfish.collection.UnifiedComparator;
 import org.babyfish.collection.XList;
+import org.babyfish.collection.XOrderedMap;
+import org.babyfish.collection.spi.CollectionInstrumentations;
 import org.babyfish.collection.spi.wrapper.AbstractWrapperXList;
 import org.babyfish.collection.viewinfo.CollectionViewInfos;
 import org.babyfish.collection.viewinfo.ListViewInfos;
 import org.babyfish.data.LazinessManageable;
 import org.babyfish.data.View;
 import org.babyfish.data.ViewInfo;
+import org.babyfish.lang.Ref;
 
 /**
  * @author Tao Chen
@@ -157,6 +166,10 @@ implements LazinessManageable {
     @Override
     public E get(int index) {
         this.requiredEnabled();
+        Ref<E> ref = this.visionallyGet(index);
+        if (ref != null) {
+            return ref.get();
+        }
         this.load();
         return this.<XList<E>>getBase().get(index);
     }
@@ -252,19 +265,75 @@ implements LazinessManageable {
 
     @Override
     public XListIterator<E> listIterator(int index) {
+        if (this.isVisionallyIterable(index)) {
+            return new VisionalIteratorImpl<E>(this, index);
+        }
         return new IteratorImpl<E>(this, index);
     }
 
     @Override
     protected abstract RootData<E> createRootData();
     
+    Ref<E> visionallyGet(int index) {
+        return this.<RootData<E>>getRootData().visionallyRead(index);
+    }
+    
+    Boolean visionallyExists(int index) {
+        return this.<RootData<E>>getRootData().visionallyExists(index);
+    }
+    
+    final boolean isVisionallyIterable(int index) {
+        this.requiredEnabled();
+        if (index == 0) {
+            return this.visionallyExists(0) != null;
+        }
+        return index > 0 && Boolean.TRUE.equals(this.visionallyExists(index - 1));
+    }
+    
     protected static class SubListImpl<E> extends AbstractLazyXList<E> implements XListView<E> {
+        
+        private int fromIndex;
+        
+        private int toIndex;
 
         protected SubListImpl(
                 AbstractLazyXList<E> parent,
                 int fromIndex,
                 int toIndex) {
             super(parent, ListViewInfos.subList(fromIndex, toIndex));
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+        }
+        
+        @Override
+        Ref<E> visionallyGet(int index) {
+            if (index < 0 || index >= this.toIndex - this.fromIndex) {
+                return null;
+            }
+            return this.<AbstractLazyXList<E>>getParent().visionallyGet(this.fromIndex + index);
+        }
+        
+        @Override
+        Boolean visionallyExists(int index) {
+            return visionallyExists(this.<AbstractLazyXList<E>>getParent(), this.fromIndex, this.toIndex, index);
+        }
+        
+        static Boolean visionallyExists(AbstractLazyXList<?> parent, int fromIndex, int toIndex, int index) {
+            if (index < 0) {
+                return null;
+            }
+            if (index < toIndex - fromIndex) {
+                return Boolean.TRUE.equals(parent.visionallyExists(fromIndex + index)) ? Boolean.TRUE : null;
+            }
+            /*
+             * The end of the sub list is trustworthy only when the parent really 
+             * has the last element of this sub list, otherwise the sub list is 
+             * invalid and the loaded data must report the error.
+             */
+            if (toIndex == 0 || Boolean.TRUE.equals(parent.visionallyExists(toIndex - 1))) {
+                return Boolean.FALSE;
+            }
+            return null;
         }
         
         @Override
@@ -328,10 +397,176 @@ implements LazinessManageable {
         }
     }
     
+    /**
+     * The read-only iterator of an unloaded list whose {@link RootData} supports 
+     * the windowed reading, it reads the elements window by window without 
+     * loading the list.
+     * 
+     * <p>
+     * Any modification, listener registration or element that can not be read 
+     * visionally loads the list and switches this iterator to the real iterator 
+     * of the loaded list at the same position, so the iteration is never 
+     * interrupted by the loading.
+     * </p>
+     */
+    protected static class VisionalIteratorImpl<E> implements XListIterator<E> {
+        
+        private AbstractLazyXList<E> parent;
+        
+        private int index;
+        
+        private int cursor;
+        
+        private int lastDirection;
+        
+        private XListIterator<E> realIterator;
+        
+        protected VisionalIteratorImpl(AbstractLazyXList<E> parent, int index) {
+            this.parent = parent;
+            this.index = index;
+            this.cursor = index;
+        }
+
+        @Override
+        public boolean isReadWriteLockSupported() {
+            return this.parent.isReadWriteLockSupported();
+        }
+
+        @Override
+        public UnifiedComparator<? super E> unifiedComparator() {
+            return this.parent.unifiedComparator();
+        }
+
+        @Override
+        public ViewInfo viewInfo() {
+            return ListViewInfos.listIterator(this.index);
+        }
+
+        @Override
+        public boolean hasNext() {
+            XListIterator<E> realIterator = this.realIterator;
+            if (realIterator == null) {
+                Boolean exists = this.parent.visionallyExists(this.cursor);
+                if (exists != null) {
+                    return exists;
+                }
+                realIterator = this.getRealIterator();
+            }
+            return realIterator.hasNext();
+        }
+
+        @Override
+        public E next() {
+            XListIterator<E> realIterator = this.realIterator;
+            if (realIterator == null) {
+                Boolean exists = this.parent.visionallyExists(this.cursor);
+                if (Boolean.FALSE.equals(exists)) {
+                    throw new NoSuchElementException();
+                }
+                Ref<E> ref = exists != null ? this.parent.visionallyGet(this.cursor) : null;
+                if (ref != null) {
+                    this.cursor++;
+                    this.lastDirection = 1;
+                    return ref.get();
+                }
+                realIterator = this.getRealIterator();
+            }
+            return realIterator.next();
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            XListIterator<E> realIterator = this.realIterator;
+            if (realIterator == null) {
+                return this.cursor > 0;
+            }
+            return realIterator.hasPrevious();
+        }
+
+        @Override
+        public E previous() {
+            XListIterator<E> realIterator = this.realIterator;
+            if (realIterator == null) {
+                if (this.cursor == 0) {
+                    throw new NoSuchElementException();
+                }
+                Ref<E> ref = this.parent.visionallyGet(this.cursor - 1);
+                if (ref != null) {
+                    this.cursor--;
+                    this.lastDirection = -1;
+                    return ref.get();
+                }
+                realIterator = this.getRealIterator();
+            }
+            return realIterator.previous();
+        }
+
+        @Override
+        public int nextIndex() {
+            XListIterator<E> realIterator = this.realIterator;
+            if (realIterator == null) {
+                return this.cursor;
+            }
+            return realIterator.nextIndex();
+        }
+
+        @Override
+        public int previousIndex() {
+            XListIterator<E> realIterator = this.realIterator;
+            if (realIterator == null) {
+                return this.cursor - 1;
+            }
+            return realIterator.previousIndex();
+        }
+
+        @Override
+        public void remove() {
+            this.getRealIterator().remove();
+        }
+
+        @Override
+        public void set(E e) {
+            this.getRealIterator().set(e);
+        }
+
+        @Override
+        public void add(E e) {
+            this.getRealIterator().add(e);
+        }
+        
+        /**
+         * Loads the list and returns the real iterator positioned like this 
+         * iterator, including the element returned by the last 
+         * {@link #next()} or {@link #previous()} so that {@link #remove()} and 
+         * {@link #set(Object)} can be applied to it.
+         */
+        @SuppressWarnings("unchecked")
+        protected final <T extends XListIterator<E>> T getRealIterator() {
+            XListIterator<E> realIterator = this.realIterator;
+            if (realIterator == null) {
+                AbstractLazyXList<E> parent = this.parent;
+                parent.load();
+                if (this.lastDirection > 0) {
+                    realIterator = parent.listIterator(this.cursor - 1);
+                    realIterator.next();
+                } else if (this.lastDirection < 0) {
+                    realIterator = parent.listIterator(this.cursor + 1);
+                    realIterator.previous();
+                } else {
+                    realIterator = parent.listIterator(this.cursor);
+                }
+                this.realIterator = realIterator;
+            }
+            return (T)realIterator;
+        }
+    }
+    
     protected static abstract class RootData<E> extends AbstractWrapperXList.RootData<E> {
         
         private static final long serialVersionUID = -7864408595209010787L;
         
+        private transient XOrderedMap<Integer, SoftReference<List<E>>> windows;
+        
         public RootData() {
             
         }
@@ -351,6 +586,7 @@ implements LazinessManageable {
                 if (this.isLoading()) {
                     throw new IllegalStateException(CommonMessages.loadingOperationWhenDataIsBeingLoaded());
                 }
+                long start = CollectionInstrumentations.ENABLED ? System.nanoTime() : 0L;
                 this.setLoading(true);
                 try {
                     this.onLoad();
@@ -358,6 +594,10 @@ implements LazinessManageable {
                     this.setLoading(false);
                 }
                 this.setLoaded(true);
+                if (CollectionInstrumentations.ENABLED) {
+                    CollectionInstrumentations.loaded(this.getRootWrapper(), System.nanoTime() - start);
+                }
+                this.windows = null;
             }
         }
         
@@ -369,6 +609,11 @@ implements LazinessManageable {
             return super.isDispatchable();
         }
         
+        @Override
+        protected boolean isBaseViewDeferrable() {
+            return !this.isLoaded();
+        }
+        
         public final boolean isReadableVision() {
             return !this.isLoaded() && this.onGetIsReadableVision();
         }
@@ -388,6 +633,105 @@ implements LazinessManageable {
             return false;
         }
         
+        /**
+         * Reads one element of the unloaded list without loading the whole list.
+         * 
+         * <p>
+         * The elements are fetched window by window by {@link #onVisionallyReadWindow(int, int)};
+         * the recently used windows are cached by soft references so that the
+         * garbage collector can evict them under memory pressure, and at most
+         * {@link #onGetMaxWindowCount()} windows are retained. All the windows are 
+         * discarded as soon as the list is loaded.
+         * </p>
+         * 
+         * @param index The index of the element
+         * @return The reference of the element, or null if the element can not be
+         * read visionally so that the list must be loaded.
+         */
+        public final Ref<E> visionallyRead(int index) {
+            int windowSize = this.visionalWindowSize(index);
+            if (windowSize <= 0) {
+                return null;
+            }
+            List<E> window = this.visionalWindow(index / windowSize, windowSize);
+            if (window == null || index % windowSize >= window.size()) {
+                return null;
+            }
+            return new Ref<E>(window.get(index % windowSize));
+        }
+        
+        /*
+         * Returns null if the element can not be read visionally, 
+         * otherwise returns whether the index is less than the size of the data.
+         */
+        final Boolean visionallyExists(int index) {
+            int windowSize = this.visionalWindowSize(index);
+            if (windowSize <= 0) {
+                return null;
+            }
+            List<E> window = this.visionalWindow(index / windowSize, windowSize);
+            if (window == null) {
+                return null;
+            }
+            return index % windowSize < window.size();
+        }
+        
+        private int visionalWindowSize(int index) {
+            if (index < 0 || this.isLoaded() || this.isLoading()) {
+                return 0;
+            }
+            return this.onGetWindowSize();
+        }
+        
+        private List<E> visionalWindow(Integer windowIndex, int windowSize) {
+            XOrderedMap<Integer, SoftReference<List<E>>> windows = this.windows;
+            if (windows == null) {
+                this.windows = windows = new LinkedHashMap<>(false, OrderAdjustMode.TAIL);
+            }
+            SoftReference<List<E>> windowRef = windows.access(windowIndex);
+            List<E> window = windowRef != null ? windowRef.get() : null;
+            if (window == null) {
+                int fromIndex = windowIndex * windowSize;
+                int toIndex = (int)Math.min((long)fromIndex + windowSize, Integer.MAX_VALUE);
+                window = this.onVisionallyReadWindow(fromIndex, toIndex);
+                if (window == null) {
+                    return null;
+                }
+                windows.put(windowIndex, new SoftReference<>(window));
+                int maxWindowCount = Math.max(1, this.onGetMaxWindowCount());
+                while (windows.size() > maxWindowCount) {
+                    windows.pollFirstEntry();
+                }
+            }
+            return window;
+        }
+        
+        /**
+         * Returns the element count of each window read by 
+         * {@link #onVisionallyReadWindow(int, int)}, zero or negative value 
+         * means the windowed reading is disabled so that any element reading
+         * loads the whole list.
+         */
+        protected int onGetWindowSize() {
+            return 0;
+        }
+        
+        protected int onGetMaxWindowCount() {
+            return 16;
+        }
+        
+        /**
+         * Reads the elements whose indexes are in [fromIndex, toIndex) from the
+         * data source. The returned list may be shorter than the requested range 
+         * when the end of the data is reached.
+         * 
+         * @return The elements of the window, or null if the data source 
+         * does not support the windowed reading.
+         */
+        protected List<E> onVisionallyReadWindow(int fromIndex, int toIndex) {
+            return null;
+        }
+        
         protected abstract void onLoad();
     }
 
@@ -18,15 +18,23 @@
 package org.babyfish.collection.spi.laziness;
 
 import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
+import org.babyfish.collection.EqualityComparator;
 import org.babyfish.collection.LinkedHashMap;
 import org.babyfish.collection.MACollections;
 import org.babyfish.collection.OrderAdjustMode;
 import org.babyfish.collection.ReplacementRule;
 import org.babyfish.collection.TreeMap;
 import org.babyfish.collection.UnifiedComparator;
+import org.babyfish.collection.XCollection;
+import org.babyfish.collection.XCollection.XIterator;
 import org.babyfish.collection.XMap;
+import org.babyfish.collection.spi.CollectionInstrumentations;
+import org.babyfish.collection.spi.base.EntryEqualityComparator;
 import org.babyfish.collection.spi.base.NoEntryException;
 import org.babyfish.collection.spi.wrapper.AbstractWrapperXMap;
 import org.babyfish.collection.viewinfo.CollectionViewInfos;
@@ -277,6 +285,10 @@ implements LazinessManageable {
     @Override
     protected abstract RootData<K, V> createRootData();
     
+    VisionalKeyRange<K, V> visionalKeyRange() {
+        return null;
+    }
+    
     protected static abstract class AbstractKeySetImpl<K, V> 
     extends AbstractWrapperXMap.AbstractKeySetImpl<K, V>
     implements LazinessManageable {
@@ -436,9 +448,17 @@ implements LazinessManageable {
         
         @Override
         public XIterator<K> iterator() {
+            VisionalKeyRange<K, V> range = this.visionalKeyRange();
+            if (range != null && range.windowSize() > 0) {
+                return new VisionalIteratorImpl<K, V>(this, range);
+            }
             return new IteratorImpl<K, V>(this);
         }
         
+        VisionalKeyRange<K, V> visionalKeyRange() {
+            return null;
+        }
+        
         protected final Boolean visionallyRemove(Object o) {
             return this.visionallyRemoveImpl(o);
         }
@@ -534,6 +554,18 @@ implements LazinessManageable {
                 throw new IllegalArgumentException(CommonMessages.illegalViewInfo());
             }
         }
+        
+        protected static class VisionalIteratorImpl<K, V> extends AbstractVisionalIteratorImpl<K, V, K> {
+            
+            VisionalIteratorImpl(AbstractKeySetImpl<K, V> parent, VisionalKeyRange<K, V> range) {
+                super(parent, range);
+            }
+
+            @Override
+            protected K convert(Entry<K, V> entry) {
+                return entry.getKey();
+            }
+        }
     }
     
     protected static class KeySetImpl<K, V> extends AbstractKeySetImpl<K, V> {
@@ -721,6 +753,10 @@ implements LazinessManageable {
 
         @Override
         public XEntrySetIterator<K, V> iterator() {
+            VisionalKeyRange<K, V> range = this.<AbstractLazyXMap<K, V>>getParentMap().visionalKeyRange();
+            if (range != null && range.windowSize() > 0) {
+                return new VisionalIteratorImpl<K, V>(this, range);
+            }
             return new IteratorImpl<K, V>(this);
         }
         
@@ -818,6 +854,25 @@ implements LazinessManageable {
                 return new EntryImpl<>(this);
             }
         }
+        
+        protected static class VisionalIteratorImpl<K, V> 
+        extends AbstractVisionalIteratorImpl<K, V, Entry<K, V>> 
+        implements XEntrySetIterator<K, V> {
+            
+            VisionalIteratorImpl(EntrySetImpl<K, V> parent, VisionalKeyRange<K, V> range) {
+                super(parent, range);
+            }
+            
+            @Override
+            public XEntry<K, V> next() {
+                return (XEntry<K, V>)super.next();
+            }
+
+            @Override
+            protected Entry<K, V> convert(Entry<K, V> entry) {
+                return new VisionalEntryImpl<K, V>(this.getRange().getRootData(), entry.getKey(), entry.getValue());
+            }
+        }
     }
 
     protected static class ValuesImpl<K, V> 
@@ -940,6 +995,10 @@ implements LazinessManageable {
 
         @Override
         public XIterator<V> iterator() {
+            VisionalKeyRange<K, V> range = this.<AbstractLazyXMap<K, V>>getParentMap().visionalKeyRange();
+            if (range != null && range.windowSize() > 0) {
+                return new VisionalIteratorImpl<K, V>(this, range);
+            }
             return new IteratorImpl<K, V>(this);
         }
         
@@ -955,6 +1014,247 @@ implements LazinessManageable {
             }
             
         }
+        
+        protected static class VisionalIteratorImpl<K, V> extends AbstractVisionalIteratorImpl<K, V, V> {
+            
+            VisionalIteratorImpl(ValuesImpl<K, V> parent, VisionalKeyRange<K, V> range) {
+                super(parent, range);
+            }
+
+            @Override
+            protected V convert(Entry<K, V> entry) {
+                return entry.getValue();
+            }
+        }
+    }
+    
+    /**
+     * The read-only iterator of an unloaded navigable map (or its ascending sub 
+     * map view) whose {@link RootData} supports the windowed reading, it reads 
+     * the entries window by window in ascending key order without loading the map.
+     * 
+     * <p>
+     * Removing an element, registering a listener or reaching an entry that can 
+     * not be read visionally loads the map and switches this iterator to the real 
+     * iterator of the loaded map at the same position, so the iteration is never 
+     * interrupted by the loading.
+     * </p>
+     */
+    protected static abstract class AbstractVisionalIteratorImpl<K, V, E> implements XIterator<E> {
+        
+        private XCollection<E> parent;
+        
+        private VisionalKeyRange<K, V> range;
+        
+        private List<Entry<K, V>> window;
+        
+        private int windowIndex;
+        
+        private boolean lastWindow;
+        
+        private int count;
+        
+        private XIterator<E> realIterator;
+        
+        AbstractVisionalIteratorImpl(XCollection<E> parent, VisionalKeyRange<K, V> range) {
+            this.parent = parent;
+            this.range = range;
+        }
+
+        @Override
+        public boolean isReadWriteLockSupported() {
+            return this.parent.isReadWriteLockSupported();
+        }
+
+        @Override
+        public UnifiedComparator<? super E> unifiedComparator() {
+            return this.parent.unifiedComparator();
+        }
+
+        @Override
+        public ViewInfo viewInfo() {
+            return CollectionViewInfos.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            XIterator<E> realIterator = this.realIterator;
+            if (realIterator == null) {
+                Boolean hasNext = this.visionallyHasNext();
+                if (hasNext != null) {
+                    return hasNext;
+                }
+                realIterator = this.getRealIterator();
+            }
+            return realIterator.hasNext();
+        }
+
+        @Override
+        public E next() {
+            XIterator<E> realIterator = this.realIterator;
+            if (realIterator == null) {
+                Boolean hasNext = this.visionallyHasNext();
+                if (Boolean.FALSE.equals(hasNext)) {
+                    throw new NoSuchElementException();
+                }
+                if (hasNext != null) {
+                    this.count++;
+                    return this.convert(this.window.get(this.windowIndex++));
+                }
+                realIterator = this.getRealIterator();
+            }
+            return realIterator.next();
+        }
+
+        @Override
+        public void remove() {
+            this.getRealIterator().remove();
+        }
+        
+        protected abstract E convert(Entry<K, V> entry);
+        
+        @SuppressWarnings("unchecked")
+        protected final <T extends XCollection<E>> T getParent() {
+            return (T)this.parent;
+        }
+        
+        final VisionalKeyRange<K, V> getRange() {
+            return this.range;
+        }
+        
+        /**
+         * Loads the map and returns the real iterator positioned like this 
+         * iterator, so that {@link #remove()} can be applied to the element 
+         * returned by the last {@link #next()}.
+         */
+        @SuppressWarnings("unchecked")
+        protected final <T extends XIterator<E>> T getRealIterator() {
+            XIterator<E> realIterator = this.realIterator;
+            if (realIterator == null) {
+                this.range.getRootData().load();
+                realIterator = this.parent.iterator();
+                for (int i = this.count; i > 0; i--) {
+                    if (!realIterator.hasNext()) {
+                        throw new ConcurrentModificationException();
+                    }
+                    realIterator.next();
+                }
+                this.realIterator = realIterator;
+            }
+            return (T)realIterator;
+        }
+        
+        /*
+         * Returns null if the next entry can not be read visionally.
+         */
+        private Boolean visionallyHasNext() {
+            VisionalKeyRange<K, V> range = this.range;
+            int windowSize = range.windowSize();
+            if (windowSize <= 0) {
+                return null;
+            }
+            while (true) {
+                List<Entry<K, V>> window = this.window;
+                Ref<K> afterKeyRef = null;
+                if (window != null) {
+                    while (this.windowIndex < window.size()) {
+                        K key = window.get(this.windowIndex).getKey();
+                        if (range.isTooHigh(key)) {
+                            return false;
+                        }
+                        if (!range.isQueuedOrphan(key)) {
+                            return true;
+                        }
+                        this.windowIndex++;
+                    }
+                    if (this.lastWindow || window.isEmpty()) {
+                        return false;
+                    }
+                    afterKeyRef = new Ref<K>(window.get(window.size() - 1).getKey());
+                }
+                window = range.readWindow(afterKeyRef, windowSize);
+                if (window == null) {
+                    return null;
+                }
+                this.window = window;
+                this.windowIndex = 0;
+                this.lastWindow = window.size() < windowSize;
+            }
+        }
+    }
+    
+    protected static class VisionalEntryImpl<K, V> implements XEntry<K, V> {
+        
+        private K key;
+        
+        private V value;
+        
+        private Object keyComparatorOrEqualityComparator;
+        
+        private Object valueComparatorOrEqualityComparator;
+        
+        protected VisionalEntryImpl(RootData<K, V> rootData, K key, V value) {
+            this.key = key;
+            this.value = value;
+            this.keyComparatorOrEqualityComparator = UnifiedComparator.unwrap(rootData.keyUnifiedComparator());
+            this.valueComparatorOrEqualityComparator = UnifiedComparator.unwrap(rootData.valueUnifiedComparator());
+        }
+        
+        @Override
+        public boolean isReadWriteLockSupported() {
+            return true;
+        }
+
+        @Override
+        public UnifiedComparator<? super K> keyUnifiedComparator() {
+            return UnifiedComparator.nullToEmpty(
+                    UnifiedComparator.of(this.keyComparatorOrEqualityComparator));
+        }
+
+        @Override
+        public UnifiedComparator<? super V> valueUnifiedComparator() {
+            return UnifiedComparator.nullToEmpty(
+                    UnifiedComparator.of(this.valueComparatorOrEqualityComparator));
+        }
+
+        @Override
+        public UnifiedComparator<? super Entry<K, V>> unifiedComparator() {
+            EqualityComparator<Entry<K, V>> equalityComparator =
+                    EntryEqualityComparator.of(
+                            this.keyComparatorOrEqualityComparator, 
+                            this.valueComparatorOrEqualityComparator);
+            return UnifiedComparator.nullToEmpty(
+                    UnifiedComparator.of(equalityComparator));
+        }
+
+        @Override
+        public boolean isAlive() {
+            return true;
+        }
+
+        @Override
+        public K getKey() {
+            return this.key;
+        }
+
+        @Override
+        public V getValue() {
+            return this.value;
+        }
+
+        @Override
+        public ViewInfo viewInfo() {
+            return MapViewInfos.entry();
+        }
+        
+        /**
+         * The visional entry is read-only, please use {@link XMap#put(Object, Object)}.
+         */
+        @Deprecated
+        @Override
+        public final V setValue(V value) {
+            throw new UnsupportedOperationException();
+        }
     }
     
     protected static abstract class AbstractEntryImpl<K, V> extends AbstractWrapperXMap.AbstractEntryImpl<K, V> {
@@ -1024,6 +1324,7 @@ implements LazinessManageable {
                 if (this.isLoading()) {
                     throw new IllegalStateException(CommonMessages.loadingOperationWhenDataIsBeingLoaded());
                 }
+                long start = CollectionInstrumentations.ENABLED ? System.nanoTime() : 0L;
                 this.setLoading(true);
                 try {
                     this.onLoad();
@@ -1035,6 +1336,9 @@ implements LazinessManageable {
                     this.setLoading(false);
                 }
                 this.setLoaded(true);
+                if (CollectionInstrumentations.ENABLED) {
+                    CollectionInstrumentations.loaded(this.getRootWrapper(), System.nanoTime() - start);
+                }
             }
         }
         
@@ -1098,6 +1402,44 @@ implements LazinessManageable {
             return this.onVisionallyRead(key, nullOrOperationType);
         }
         
+        /**
+         * Reads at most maxCount entries of the unloaded map in ascending key order 
+         * without loading the map; only the navigable maps use this method to
+         * iterate their entries window by window.
+         * 
+         * <p>
+         * The read rows are counted by the {@link LazyBehaviorProcessor} like the other 
+         * visional reads, so the map is loaded instead when its limit is exceeded.
+         * </p>
+         * 
+         * @return The entries, or null if they can not be read visionally 
+         * so that the map must be loaded.
+         */
+        public final List<Entry<K, V>> visionallyReadWindow(
+                Ref<K> nullOrFromKeyRef,
+                boolean fromInclusive,
+                Ref<K> nullOrToKeyRef,
+                boolean toInclusive,
+                int maxCount) {
+            if (maxCount <= 0 || this.visionalWindowSize() <= 0 || !this.isVisionallyReadable(null)) {
+                return null;
+            }
+            LazyBehaviorProcessor lazyBehaviorProcessor = this.getLazyBehaviorProcessor();
+            if (!lazyBehaviorProcessor.preVisionallyRead(maxCount)) {
+                return null;
+            }
+            List<Entry<K, V>> window = this.onVisionallyReadWindow(
+                    nullOrFromKeyRef, 
+                    fromInclusive, 
+                    nullOrToKeyRef, 
+                    toInclusive, 
+                    maxCount);
+            if (window != null) {
+                lazyBehaviorProcessor.visionallyRead(window.size());
+            }
+            return window;
+        }
+        
         protected abstract void onLoad();
 
         protected boolean onGetVisionallyReadable(QueuedOperationType nullOrOperationType) {
@@ -1112,10 +1454,50 @@ implements LazinessManageable {
             return null;
         }
         
+        /**
+         * Returns the entry count of each window read by 
+         * {@link #onVisionallyReadWindow(Ref, boolean, Ref, boolean, int)}, 
+         * zero or negative value means the windowed reading is disabled so that
+         * iterating the navigable map loads it.
+         */
+        protected int onGetWindowSize() {
+            return 0;
+        }
+        
+        /**
+         * Reads at most maxCount entries in ascending key order from the data source, 
+         * their keys must be in the range specified by the arguments, the null 
+         * key references mean the range is unbounded at that side. The returned 
+         * list must be shorter than maxCount only when the end of the range is reached.
+         * 
+         * @return The entries of the window, or null if the data source 
+         * does not support the windowed reading.
+         */
+        protected List<Entry<K, V>> onVisionallyReadWindow(
+                Ref<K> nullOrFromKeyRef,
+                boolean fromInclusive,
+                Ref<K> nullOrToKeyRef,
+                boolean toInclusive,
+                int maxCount) {
+            return null;
+        }
+        
         protected LazyBehaviorProcessor createLazyBehaviorProcessor() {
             return null;
         }
         
+        final int visionalWindowSize() {
+            if (this.isLoaded() || this.isLoading()) {
+                return 0;
+            }
+            return this.onGetWindowSize();
+        }
+        
+        final boolean isQueuedOrphan(K key) {
+            XMap<K, V> delayOrphanMap = this.delayOrphanMap;
+            return delayOrphanMap != null && delayOrphanMap.containsKey(key);
+        }
+        
         final void visinallyRemove(K key, V value) {
             XMap<K, V> delayOrphanMap = this.delayOrphanMap;
             if (delayOrphanMap == null) {
@@ -105,6 +105,18 @@ public abstract class AbstractLazyXNavigableMap<K, V> extends AbstractLazyXMap<K
         return this.<XNavigableMap<K, V>>getBase().higherKey(key);
     }
 
+    @Override
+    public int indexOfKey(K key) {
+        this.requiredEnabled();
+        return this.<XNavigableMap<K, V>>getBase().indexOfKey(key);
+    }
+
+    @Override
+    public K keyAt(int index) {
+        this.requiredEnabled();
+        return this.<XNavigableMap<K, V>>getBase().keyAt(index);
+    }
+
     @Override
     public XEntry<K, V> firstEntry() {
         try {
@@ -159,6 +171,15 @@ public abstract class AbstractLazyXNavigableMap<K, V> extends AbstractLazyXMap<K
         }
     }
 
+    @Override
+    public XEntry<K, V> entryAt(int index) {
+        try {
+            return new EntryAtImpl<K, V>(this, index);
+        } catch (NoEntryException ex) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + this.size());
+        }
+    }
+
     @Override
     public XNavigableMapView<K, V> descendingMap() {
         return new DescendingMapImpl<K, V>(this);
@@ -249,14 +270,28 @@ public abstract class AbstractLazyXNavigableMap<K, V> extends AbstractLazyXMap<K
         return new KeySetImpl<K, V>(this);
     }
 
+    @Override
+    VisionalKeyRange<K, V> visionalKeyRange() {
+        return new VisionalKeyRange<K, V>(this.<RootData<K, V>>getRootData());
+    }
+
     protected static abstract class AbstractSubMapImpl<K, V> 
     extends AbstractLazyXNavigableMap<K, V>
     implements XNavigableMapView<K, V> {
 
+        private VisionalKeyRange<K, V> visionalKeyRange;
+
         private AbstractSubMapImpl(
                 AbstractLazyXNavigableMap<K, V> parent,
-                ViewInfo viewInfo) {
+                ViewInfo viewInfo,
+                VisionalKeyRange<K, V> visionalKeyRange) {
             super(parent, viewInfo);
+            this.visionalKeyRange = visionalKeyRange;
+        }
+        
+        @Override
+        VisionalKeyRange<K, V> visionalKeyRange() {
+            return this.visionalKeyRange;
         }
 
         @Override
@@ -275,7 +310,7 @@ public abstract class AbstractLazyXNavigableMap<K, V> extends AbstractLazyXMap<K
     protected static class DescendingMapImpl<K, V> extends AbstractSubMapImpl<K, V> {
         
         protected DescendingMapImpl(AbstractLazyXNavigableMap<K, V> parent) {
-            super(parent, NavigableMapViewInfos.descendingMap());
+            super(parent, NavigableMapViewInfos.descendingMap(), null);
         }
     
         @Override
@@ -296,7 +331,10 @@ public abstract class AbstractLazyXNavigableMap<K, V> extends AbstractLazyXMap<K
                 AbstractLazyXNavigableMap<K, V> parent,
                 K toKey,
                 boolean inclusive) {
-            super(parent, NavigableMapViewInfos.headMap(toKey, inclusive));
+            super(
+                    parent, 
+                    NavigableMapViewInfos.headMap(toKey, inclusive),
+                    VisionalKeyRange.headRange(parent.visionalKeyRange(), toKey, inclusive));
         }
 
         @SuppressWarnings("unchecked")
@@ -325,7 +363,10 @@ public abstract class AbstractLazyXNavigableMap<K, V> extends AbstractLazyXMap<K
                 AbstractLazyXNavigableMap<K, V> parent,
                 K fromKey,
                 boolean inclusive) {
-            super(parent, NavigableMapViewInfos.tailMap(fromKey, inclusive));
+            super(
+                    parent, 
+                    NavigableMapViewInfos.tailMap(fromKey, inclusive),
+                    VisionalKeyRange.tailRange(parent.visionalKeyRange(), fromKey, inclusive));
         }
 
         @SuppressWarnings("unchecked")
@@ -359,6 +400,12 @@ public abstract class AbstractLazyXNavigableMap<K, V> extends AbstractLazyXMap<K
             super(
                     parent, 
                     NavigableMapViewInfos.subMap(
+                            fromKey, 
+                            fromInclusive, 
+                            toKey, 
+                            toInclusive),
+                    VisionalKeyRange.subRange(
+                            parent.visionalKeyRange(), 
                             fromKey, 
                             fromInclusive, 
                             toKey, 
@@ -518,6 +565,18 @@ public abstract class AbstractLazyXNavigableMap<K, V> extends AbstractLazyXMap<K
             return this.<XNavigableKeySetView<K>>getBase().higher(e);
         }
 
+        @Override
+        public int indexOf(K e) {
+            this.requiredEnabled();
+            return this.<XNavigableKeySetView<K>>getBase().indexOf(e);
+        }
+
+        @Override
+        public K elementAt(int index) {
+            this.requiredEnabled();
+            return this.<XNavigableKeySetView<K>>getBase().elementAt(index);
+        }
+
         @Override
         public K pollFirst() {
             this.enable();
@@ -703,6 +762,11 @@ public abstract class AbstractLazyXNavigableMap<K, V> extends AbstractLazyXMap<K
         protected KeySetImpl(AbstractLazyXNavigableMap<K, V> parentMap) {
             super(parentMap, NavigableMapViewInfos.navigableKeySet());
         }
+        
+        @Override
+        VisionalKeyRange<K, V> visionalKeyRange() {
+            return this.<AbstractLazyXMap<K, V>>getParentMap().visionalKeyRange();
+        }
 
         @Override
         protected XNavigableKeySetView<K> createBaseView(XNavigableMap<K, V> baseMap, ViewInfo viewInfo) {
@@ -883,6 +947,28 @@ public abstract class AbstractLazyXNavigableMap<K, V> extends AbstractLazyXMap<K
         
     }
     
+    protected static class EntryAtImpl<K, V> extends AbstractEntryImpl<K, V> {
+
+        protected EntryAtImpl(
+                AbstractLazyXNavigableMap<K, V> parentMap,
+                int index) throws NoEntryException {
+            super(parentMap, NavigableMapViewInfos.entryAt(index));
+        }
+
+        @Override
+        protected XEntry<K, V> createBaseView(
+                XNavigableMap<K, V> baseMap, 
+                ViewInfo viewInfo) {
+            if (viewInfo instanceof NavigableMapViewInfos.EntryAt) {
+                NavigableMapViewInfos.EntryAt entryAtViewInfo =
+                        (NavigableMapViewInfos.EntryAt)viewInfo;
+                return baseMap.entryAt(entryAtViewInfo.getIndex());
+            }
+            throw new IllegalArgumentException(CommonMessages.illegalViewInfo());
+        }
+        
+    }
+    
     protected static abstract class RootData<K, V> extends AbstractLazyXMap.RootData<K, V> {
         
         private static final long serialVersionUID = 7421888179784582003L;
@@ -894,7 +980,7 @@ public abstract class AbstractLazyXNavigableMap<K, V> extends AbstractLazyXMap<K
         @Deprecated
         @Override
         protected final void setBase(XMap<K, V> base) {
-            this.setBase(base);
+            this.setBase((XNavigableMap<K, V>)base);
         }
         
         protected void setBase(XNavigableMap<K, V> base) {
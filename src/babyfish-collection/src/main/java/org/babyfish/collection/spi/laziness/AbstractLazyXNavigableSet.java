@@ -113,6 +113,18 @@ public abstract class AbstractLazyXNavigableSet<E> extends AbstractLazyXSet<E> i
         return this.<XNavigableSet<E>>getBase().higher(e);
     }
 
+    @Override
+    public int indexOf(E e) {
+        this.requiredEnabled();
+        return this.<XNavigableSet<E>>getBase().indexOf(e);
+    }
+
+    @Override
+    public E elementAt(int index) {
+        this.requiredEnabled();
+        return this.<XNavigableSet<E>>getBase().elementAt(index);
+    }
+
     @Override
     public E first() {
         this.requiredEnabled();
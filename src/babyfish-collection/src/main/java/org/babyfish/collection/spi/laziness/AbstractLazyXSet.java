@@ -31,6 +31,7 @@ import org.babyfish.collection.UnifiedComparator;
 import org.babyfish.collection.XCollection;
 import org.babyfish.collection.XMap;
 import org.babyfish.collection.XSet;
+import org.babyfish.collection.spi.CollectionInstrumentations;
 import org.babyfish.collection.spi.wrapper.AbstractWrapperXSet;
 import org.babyfish.collection.viewinfo.CollectionViewInfos;
 import org.babyfish.data.LazinessManageable;
@@ -453,6 +454,7 @@ implements LazinessManageable {
                 if (this.isLoading()) {
                     throw new IllegalStateException(CommonMessages.loadingOperationWhenDataIsBeingLoaded());
                 }
+                long start = CollectionInstrumentations.ENABLED ? System.nanoTime() : 0L;
                 this.setLoading(true);
                 try {
                     this.onLoad();
@@ -464,6 +466,9 @@ implements LazinessManageable {
                     this.setLoading(false);
                 }
                 this.setLoaded(true);
+                if (CollectionInstrumentations.ENABLED) {
+                    CollectionInstrumentations.loaded(this.getRootWrapper(), System.nanoTime() - start);
+                }
             }
         }
         
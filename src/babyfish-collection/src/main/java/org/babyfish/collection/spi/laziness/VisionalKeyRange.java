@@ -0,0 +1,172 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.spi.laziness;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map.Entry;
+
+import org.babyfish.lang.Ref;
+
+/**
+ * The key range of an unloaded lazy navigable map or one of its ascending
+ * sub map views, the entries of this range can be read window by window 
+ * in ascending key order without loading the map.
+ * 
+ * @author Tao Chen
+ */
+final class VisionalKeyRange<K, V> {
+    
+    private AbstractLazyXMap.RootData<K, V> rootData;
+    
+    private Comparator<? super K> comparator;
+    
+    private Ref<K> fromKeyRef;
+    
+    private boolean fromInclusive;
+    
+    private Ref<K> toKeyRef;
+    
+    private boolean toInclusive;
+    
+    VisionalKeyRange(AbstractLazyXMap.RootData<K, V> rootData) {
+        this.rootData = rootData;
+        this.comparator = rootData.keyUnifiedComparator().comparator(true);
+    }
+    
+    private VisionalKeyRange(
+            VisionalKeyRange<K, V> range,
+            Ref<K> fromKeyRef,
+            boolean fromInclusive,
+            Ref<K> toKeyRef,
+            boolean toInclusive) {
+        this.rootData = range.rootData;
+        this.comparator = range.comparator;
+        this.fromKeyRef = fromKeyRef;
+        this.fromInclusive = fromInclusive;
+        this.toKeyRef = toKeyRef;
+        this.toInclusive = toInclusive;
+    }
+    
+    static <K, V> VisionalKeyRange<K, V> headRange(
+            VisionalKeyRange<K, V> nullOrRange, K toKey, boolean inclusive) {
+        return nullOrRange != null ? nullOrRange.headRange(toKey, inclusive) : null;
+    }
+    
+    static <K, V> VisionalKeyRange<K, V> tailRange(
+            VisionalKeyRange<K, V> nullOrRange, K fromKey, boolean inclusive) {
+        return nullOrRange != null ? nullOrRange.tailRange(fromKey, inclusive) : null;
+    }
+    
+    static <K, V> VisionalKeyRange<K, V> subRange(
+            VisionalKeyRange<K, V> nullOrRange, 
+            K fromKey, 
+            boolean fromInclusive, 
+            K toKey, 
+            boolean toInclusive) {
+        return nullOrRange != null ? 
+                nullOrRange.tailRange(fromKey, fromInclusive).headRange(toKey, toInclusive) : 
+                null;
+    }
+    
+    VisionalKeyRange<K, V> headRange(K toKey, boolean inclusive) {
+        Ref<K> toKeyRef = this.toKeyRef;
+        if (toKeyRef != null) {
+            int cmp = this.compare(toKey, toKeyRef.get());
+            if (cmp > 0 || (cmp == 0 && (inclusive || !this.toInclusive))) {
+                return this;
+            }
+        }
+        return new VisionalKeyRange<>(
+                this, 
+                this.fromKeyRef, 
+                this.fromInclusive, 
+                new Ref<K>(toKey), 
+                inclusive);
+    }
+    
+    VisionalKeyRange<K, V> tailRange(K fromKey, boolean inclusive) {
+        Ref<K> fromKeyRef = this.fromKeyRef;
+        if (fromKeyRef != null) {
+            int cmp = this.compare(fromKey, fromKeyRef.get());
+            if (cmp < 0 || (cmp == 0 && (inclusive || !this.fromInclusive))) {
+                return this;
+            }
+        }
+        return new VisionalKeyRange<>(
+                this, 
+                new Ref<K>(fromKey), 
+                inclusive, 
+                this.toKeyRef, 
+                this.toInclusive);
+    }
+    
+    AbstractLazyXMap.RootData<K, V> getRootData() {
+        return this.rootData;
+    }
+    
+    /*
+     * Returns zero when the entries can not be read visionally.
+     */
+    int windowSize() {
+        return this.rootData.visionalWindowSize();
+    }
+    
+    /*
+     * Reads the next window of this range, the entries whose keys are 
+     * greater than the key of nullOrAfterKeyRef, or the first window of 
+     * this range if nullOrAfterKeyRef is null.
+     */
+    List<Entry<K, V>> readWindow(Ref<K> nullOrAfterKeyRef, int maxCount) {
+        if (nullOrAfterKeyRef == null) {
+            return this.rootData.visionallyReadWindow(
+                    this.fromKeyRef, 
+                    this.fromInclusive, 
+                    this.toKeyRef, 
+                    this.toInclusive, 
+                    maxCount);
+        }
+        return this.rootData.visionallyReadWindow(
+                nullOrAfterKeyRef, 
+                false, 
+                this.toKeyRef, 
+                this.toInclusive, 
+                maxCount);
+    }
+    
+    boolean isTooHigh(K key) {
+        Ref<K> toKeyRef = this.toKeyRef;
+        if (toKeyRef == null) {
+            return false;
+        }
+        int cmp = this.compare(key, toKeyRef.get());
+        return cmp > 0 || (cmp == 0 && !this.toInclusive);
+    }
+    
+    boolean isQueuedOrphan(K key) {
+        return this.rootData.isQueuedOrphan(key);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private int compare(K k1, K k2) {
+        if (this.comparator == null) {
+            return ((Comparable<Object>)k1).compareTo(k2);
+        }
+        return this.comparator.compare(k1, k2);
+    }
+}
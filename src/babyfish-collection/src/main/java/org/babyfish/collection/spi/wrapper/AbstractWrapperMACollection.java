@@ -26,6 +26,7 @@ import org.babyfish.collection.UnifiedComparator;
 import org.babyfish.collection.XCollection;
 import org.babyfish.collection.event.ElementEvent;
 import org.babyfish.collection.event.ElementListener;
+import org.babyfish.collection.spi.CollectionInstrumentations;
 import org.babyfish.collection.spi.wrapper.event.AbstractElementEventDispatcher;
 import org.babyfish.collection.viewinfo.CollectionViewInfos;
 import org.babyfish.data.ModificationException;
@@ -135,6 +136,7 @@ implements MACollection<E> {
     }
     
     protected void executeModifying(ElementEvent<E> e) {
+        long start = CollectionInstrumentations.ENABLED ? System.nanoTime() : 0L;
         Throwable finalThrowable = null;
         try {
             this.onModifying(e);    
@@ -155,12 +157,16 @@ implements MACollection<E> {
                 finalThrowable = ex;
             }
         }
+        if (CollectionInstrumentations.ENABLED) {
+            CollectionInstrumentations.eventExecuted(this, e, false, System.nanoTime() - start);
+        }
         if (finalThrowable != null) {
             throw new ModificationException(false, e, finalThrowable);
         }
     }
 
     protected void executeModified(ElementEvent<E> e) {
+        long start = CollectionInstrumentations.ENABLED ? System.nanoTime() : 0L;
         Throwable finalThrowable = null;
         try {
             this.bubbleModified(e);     
@@ -181,6 +187,9 @@ implements MACollection<E> {
                 finalThrowable = ex;
             }
         }
+        if (CollectionInstrumentations.ENABLED) {
+            CollectionInstrumentations.eventExecuted(this, e, true, System.nanoTime() - start);
+        }
         if (finalThrowable != null) {
             throw new ModificationException(true, e, finalThrowable);
         }
@@ -26,6 +26,7 @@ import org.babyfish.collection.XList;
 import org.babyfish.collection.event.ElementListener;
 import org.babyfish.collection.event.ListElementEvent;
 import org.babyfish.collection.event.ListElementListener;
+import org.babyfish.collection.spi.CollectionInstrumentations;
 import org.babyfish.collection.spi.wrapper.event.AbstractListElementEventDispatcher;
 import org.babyfish.collection.viewinfo.CollectionViewInfos;
 import org.babyfish.collection.viewinfo.ListViewInfos;
@@ -135,6 +136,7 @@ public class AbstractWrapperMAList<E> extends AbstractWrapperXList<E> implements
     }
     
     protected void executeModifying(ListElementEvent<E> e) {
+        long start = CollectionInstrumentations.ENABLED ? System.nanoTime() : 0L;
         Throwable finalThrowable = null;
         try {
             this.onModifying(e);    
@@ -155,12 +157,16 @@ public class AbstractWrapperMAList<E> extends AbstractWrapperXList<E> implements
                 finalThrowable = ex;
             }
         }
+        if (CollectionInstrumentations.ENABLED) {
+            CollectionInstrumentations.eventExecuted(this, e, false, System.nanoTime() - start);
+        }
         if (finalThrowable != null) {
             throw new ModificationException(false, e, finalThrowable);
         }
     }
     
     protected void executeModified(ListElementEvent<E> e) {
+        long start = CollectionInstrumentations.ENABLED ? System.nanoTime() : 0L;
         Throwable finalThrowable = null;
         try {
             this.bubbleModified(e);     
@@ -181,6 +187,9 @@ public class AbstractWrapperMAList<E> extends AbstractWrapperXList<E> implements
                 finalThrowable = ex;
             }
         }
+        if (CollectionInstrumentations.ENABLED) {
+            CollectionInstrumentations.eventExecuted(this, e, true, System.nanoTime() - start);
+        }
         if (finalThrowable != null) {
             throw new ModificationException(true, e, finalThrowable);
         }
@@ -34,6 +34,7 @@ import org.babyfish.collection.event.MapElementEvent;
 import org.babyfish.collection.event.MapElementListener;
 import org.babyfish.collection.event.ValuesElementEvent;
 import org.babyfish.collection.event.ValuesElementListener;
+import org.babyfish.collection.spi.CollectionInstrumentations;
 import org.babyfish.collection.spi.base.NoEntryException;
 import org.babyfish.collection.spi.wrapper.event.AbstractElementEventDispatcher;
 import org.babyfish.collection.spi.wrapper.event.AbstractEntryElementEventDispatcher;
@@ -163,6 +164,7 @@ public abstract class AbstractWrapperMAMap<K, V> extends AbstractWrapperXMap<K,
     }
 
     protected void executeModifying(MapElementEvent<K, V> e) {
+        long start = CollectionInstrumentations.ENABLED ? System.nanoTime() : 0L;
         Throwable finalThrowable = null;
         try {
             this.onModifying(e);    
@@ -183,12 +185,16 @@ public abstract class AbstractWrapperMAMap<K, V> extends AbstractWrapperXMap<K,
                 finalThrowable = ex;
             }
         }
+        if (CollectionInstrumentations.ENABLED) {
+            CollectionInstrumentations.eventExecuted(this, e, false, System.nanoTime() - start);
+        }
         if (finalThrowable != null) {
             throw new ModificationException(false, e, finalThrowable);
         }
     }
 
     protected void executeModified(MapElementEvent<K, V> e) {
+        long start = CollectionInstrumentations.ENABLED ? System.nanoTime() : 0L;
         Throwable finalThrowable = null;
         try {
             this.bubbleModified(e);     
@@ -209,6 +215,9 @@ public abstract class AbstractWrapperMAMap<K, V> extends AbstractWrapperXMap<K,
                 finalThrowable = ex;
             }
         }
+        if (CollectionInstrumentations.ENABLED) {
+            CollectionInstrumentations.eventExecuted(this, e, true, System.nanoTime() - start);
+        }
         if (finalThrowable != null) {
             throw new ModificationException(true, e, finalThrowable);
         }
@@ -107,6 +107,18 @@ implements MANavigableMap<K, V> {
         return this.<MANavigableMap<K, V>>getBase().higherKey(key);
     }
 
+    @Override
+    public int indexOfKey(K key) {
+        this.requiredEnabled();
+        return this.<MANavigableMap<K, V>>getBase().indexOfKey(key);
+    }
+
+    @Override
+    public K keyAt(int index) {
+        this.requiredEnabled();
+        return this.<MANavigableMap<K, V>>getBase().keyAt(index);
+    }
+
     @Override
     public MAEntry<K, V> firstEntry() {
         try {
@@ -161,6 +173,15 @@ implements MANavigableMap<K, V> {
         }
     }
 
+    @Override
+    public MAEntry<K, V> entryAt(int index) {
+        try {
+            return new EntryAtImpl<K, V>(this, index);
+        } catch (NoEntryException ex) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + this.size());
+        }
+    }
+
     @Override
     public MANavigableMapView<K, V> descendingMap() {
         return new DescendingMapImpl<K, V>(this);
@@ -515,6 +536,18 @@ implements MANavigableMap<K, V> {
             return this.<MANavigableKeySetView<K, V>>getBase().higher(e);
         }
 
+        @Override
+        public int indexOf(K e) {
+            this.requiredEnabled();
+            return this.<MANavigableKeySetView<K, V>>getBase().indexOf(e);
+        }
+
+        @Override
+        public K elementAt(int index) {
+            this.requiredEnabled();
+            return this.<MANavigableKeySetView<K, V>>getBase().elementAt(index);
+        }
+
         @Override
         public K pollFirst() {
             this.enable();
@@ -880,6 +913,28 @@ implements MANavigableMap<K, V> {
         
     }
     
+    protected static class EntryAtImpl<K, V> extends AbstractEntryImpl<K, V> {
+
+        protected EntryAtImpl(
+                AbstractWrapperMANavigableMap<K, V> parentMap,
+                int index) throws NoEntryException {
+            super(parentMap, NavigableMapViewInfos.entryAt(index));
+        }
+
+        @Override
+        protected MAEntry<K, V> createBaseView(
+                MANavigableMap<K, V> baseMap, 
+                ViewInfo viewInfo) {
+            if (viewInfo instanceof NavigableMapViewInfos.EntryAt) {
+                NavigableMapViewInfos.EntryAt entryAtViewInfo =
+                        (NavigableMapViewInfos.EntryAt)viewInfo;
+                return baseMap.entryAt(entryAtViewInfo.getIndex());
+            }
+            throw new IllegalArgumentException(CommonMessages.illegalViewInfo());
+        }
+        
+    }
+    
     protected static class RootData<K, V> extends AbstractWrapperMAMap.RootData<K, V> {
 
         private static final long serialVersionUID = -3555431862619153930L;
@@ -106,6 +106,18 @@ public class AbstractWrapperMANavigableSet<E> extends AbstractWrapperMASet<E> im
         return this.<MANavigableSet<E>>getBase().higher(e);
     }
 
+    @Override
+    public int indexOf(E e) {
+        this.requiredEnabled();
+        return this.<MANavigableSet<E>>getBase().indexOf(e);
+    }
+
+    @Override
+    public E elementAt(int index) {
+        this.requiredEnabled();
+        return this.<MANavigableSet<E>>getBase().elementAt(index);
+    }
+
     @Override
     public E pollFirst() {
         this.enable();
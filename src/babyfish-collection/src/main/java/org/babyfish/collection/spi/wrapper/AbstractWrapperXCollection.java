@@ -129,7 +129,8 @@ public abstract class AbstractWrapperXCollection<E> extends StatefulObject imple
             if (parent == null) {
                 base = rootData.getBase(canReturnNull);
             } else {
-                base = this.createBaseView(parent.getBase(false), this.viewInfo);
+                XCollection<E> parentBase = parent.getBase(canReturnNull && rootData.isBaseViewDeferrable());
+                base = parentBase != null ? this.createBaseView(parentBase, this.viewInfo) : null;
             }
             if (base != null) {
                 this.setBase(base);
@@ -718,6 +719,16 @@ public abstract class AbstractWrapperXCollection<E> extends StatefulObject imple
         public boolean isDispatchable() {
             return true;
         }
+        
+        /**
+         * Returns whether a view of a view may leave its base uncreated while 
+         * the root base does not exist yet. By default, the default root base 
+         * is created for it; the lazy collections override this method so 
+         * that the nested views can be created before the data is loaded.
+         */
+        protected boolean isBaseViewDeferrable() {
+            return false;
+        }
 
         /**
          * Like the constructor, it is used to initialize this object.
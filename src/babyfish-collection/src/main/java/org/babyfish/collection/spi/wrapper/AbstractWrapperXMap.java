@@ -1181,7 +1181,7 @@ public abstract class AbstractWrapperXMap<K, V> extends StatefulObject implement
 
             protected final XIterator<K> getBase() {
                 XIterator<K> base = this.base;
-                int modCount = this.parent.parentMap.expectRootModCount;
+                int modCount = this.parent.parentMap.rootData.modCount;
                 if (base == null) {
                     base = this.createBaseView(
                             this.parent.getBase(), 
@@ -1607,6 +1607,7 @@ public abstract class AbstractWrapperXMap<K, V> extends StatefulObject implement
             if (base == null) {
                 throw new NoEntryException();
             }
+            this.parentMap = parentMap;
             this.base = base;
             if (base instanceof ModificationAware) {
                 MAMap.MAEntry<K, V> maBase = (MAMap.MAEntry<K, V>)base;
@@ -107,6 +107,18 @@ implements XNavigableMap<K, V> {
         return this.<XNavigableMap<K, V>>getBase().higherKey(key);
     }
 
+    @Override
+    public int indexOfKey(K key) {
+        this.requiredEnabled();
+        return this.<XNavigableMap<K, V>>getBase().indexOfKey(key);
+    }
+
+    @Override
+    public K keyAt(int index) {
+        this.requiredEnabled();
+        return this.<XNavigableMap<K, V>>getBase().keyAt(index);
+    }
+
     @Override
     public XEntry<K, V> firstEntry() {
         try {
@@ -161,6 +173,15 @@ implements XNavigableMap<K, V> {
         }
     }
 
+    @Override
+    public XEntry<K, V> entryAt(int index) {
+        try {
+            return new EntryAtImpl<K, V>(this, index);
+        } catch (NoEntryException ex) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + this.size());
+        }
+    }
+
     @Override
     public XNavigableMapView<K, V> descendingMap() {
         return new DescendingMapImpl<K, V>(this);
@@ -517,6 +538,18 @@ implements XNavigableMap<K, V> {
             return this.<XNavigableKeySetView<K>>getBase().higher(e);
         }
 
+        @Override
+        public int indexOf(K e) {
+            this.requiredEnabled();
+            return this.<XNavigableKeySetView<K>>getBase().indexOf(e);
+        }
+
+        @Override
+        public K elementAt(int index) {
+            this.requiredEnabled();
+            return this.<XNavigableKeySetView<K>>getBase().elementAt(index);
+        }
+
         @Override
         public K pollFirst() {
             this.enable();
@@ -883,6 +916,28 @@ implements XNavigableMap<K, V> {
         
     }
     
+    protected static class EntryAtImpl<K, V> extends AbstractEntryImpl<K, V> {
+
+        protected EntryAtImpl(
+                AbstractWrapperXNavigableMap<K, V> parentMap,
+                int index) throws NoEntryException {
+            super(parentMap, NavigableMapViewInfos.entryAt(index));
+        }
+
+        @Override
+        protected XEntry<K, V> createBaseView(
+                XNavigableMap<K, V> baseMap, 
+                ViewInfo viewInfo) {
+            if (viewInfo instanceof NavigableMapViewInfos.EntryAt) {
+                NavigableMapViewInfos.EntryAt entryAtViewInfo =
+                        (NavigableMapViewInfos.EntryAt)viewInfo;
+                return baseMap.entryAt(entryAtViewInfo.getIndex());
+            }
+            throw new IllegalArgumentException(CommonMessages.illegalViewInfo());
+        }
+        
+    }
+    
     protected static class RootData<K, V> extends AbstractWrapperXMap.RootData<K, V> {
 
         private static final long serialVersionUID = -2689312190744395740L;
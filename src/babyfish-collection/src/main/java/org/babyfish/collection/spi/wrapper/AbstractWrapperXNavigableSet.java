@@ -107,6 +107,18 @@ public class AbstractWrapperXNavigableSet<E> extends AbstractWrapperXSet<E> impl
         return this.<XNavigableSet<E>>getBase().higher(e);
     }
 
+    @Override
+    public int indexOf(E e) {
+        this.requiredEnabled();
+        return this.<XNavigableSet<E>>getBase().indexOf(e);
+    }
+
+    @Override
+    public E elementAt(int index) {
+        this.requiredEnabled();
+        return this.<XNavigableSet<E>>getBase().elementAt(index);
+    }
+
     @Override
     public E pollFirst() {
         this.enable();
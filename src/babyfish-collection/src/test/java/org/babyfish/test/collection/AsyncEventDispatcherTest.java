@@ -0,0 +1,149 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.babyfish.collection.MAArrayList;
+import org.babyfish.collection.MAHashMap;
+import org.babyfish.collection.event.AsyncEventDispatcher;
+import org.babyfish.collection.event.ElementEvent;
+import org.babyfish.collection.event.ElementListener;
+import org.babyfish.collection.event.MapElementEvent;
+import org.babyfish.collection.event.MapElementListener;
+import org.babyfish.data.ModificationException;
+import org.babyfish.data.event.PropertyVersion;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Tao Chen
+ */
+public class AsyncEventDispatcherTest {
+    
+    private ExecutorService executor;
+    
+    @Before
+    public void createExecutor() {
+        this.executor = Executors.newFixedThreadPool(4);
+    }
+    
+    @After
+    public void shutdownExecutor() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testOrdering() throws InterruptedException {
+        AsyncEventDispatcher dispatcher = new AsyncEventDispatcher(this.executor, 16);
+        List<String> deliveries = Collections.synchronizedList(new ArrayList<>());
+        Thread modifyingThread = Thread.currentThread();
+        AtomicBoolean sameThread = new AtomicBoolean();
+        MAArrayList<Integer> list = new MAArrayList<>();
+        MAHashMap<String, Integer> map = new MAHashMap<>();
+        list.addElementListener(dispatcher.async(new ElementListener<Integer>() {
+            @Override
+            public void modified(ElementEvent<Integer> e) throws Throwable {
+                if (Thread.currentThread() == modifyingThread) {
+                    sameThread.set(true);
+                }
+                deliveries.add("list:" + e.getElement(PropertyVersion.ATTACH));
+            }
+        }));
+        map.addMapElementListener(dispatcher.async(new MapElementListener<String, Integer>() {
+            @Override
+            public void modified(MapElementEvent<String, Integer> e) throws Throwable {
+                deliveries.add("map:" + e.getKey(PropertyVersion.ATTACH));
+            }
+        }));
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            list.add(i);
+            map.put("k" + i, i);
+            expected.add("list:" + i);
+            expected.add("map:k" + i);
+        }
+        Assert.assertTrue(dispatcher.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(expected, deliveries);
+        Assert.assertFalse(sameThread.get());
+    }
+    
+    @Test
+    public void testBackpressure() throws InterruptedException {
+        AsyncEventDispatcher dispatcher = new AsyncEventDispatcher(this.executor, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> deliveries = Collections.synchronizedList(new ArrayList<>());
+        MAArrayList<Integer> list = new MAArrayList<>();
+        list.addElementListener(dispatcher.async(new ElementListener<Integer>() {
+            @Override
+            public void modified(ElementEvent<Integer> e) throws Throwable {
+                release.await();
+                deliveries.add(e.getElement(PropertyVersion.ATTACH));
+            }
+        }));
+        CountDownLatch done = new CountDownLatch(1);
+        Thread modifyingThread = new Thread(() -> {
+            for (int i = 0; i < 10; i++) {
+                list.add(i);
+            }
+            done.countDown();
+        });
+        modifyingThread.start();
+        
+        // One is being delivered and two are buffered, the modifying thread must wait.
+        Assert.assertFalse(done.await(200, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(list.size() <= 4);
+        
+        release.countDown();
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        Assert.assertTrue(dispatcher.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(list, deliveries);
+    }
+    
+    @Test
+    public void testModifyingIsSynchronous() throws InterruptedException {
+        AsyncEventDispatcher dispatcher = new AsyncEventDispatcher(this.executor, 4);
+        MAArrayList<Integer> list = new MAArrayList<>();
+        list.addElementListener(dispatcher.async(new ElementListener<Integer>() {
+            @Override
+            public void modifying(ElementEvent<Integer> e) throws Throwable {
+                if (e.getElement(PropertyVersion.ATTACH) < 0) {
+                    throw new IllegalArgumentException();
+                }
+            }
+        }));
+        list.add(1);
+        try {
+            list.add(-1);
+            Assert.fail();
+        } catch (ModificationException ex) {
+            Assert.assertTrue(ex.getCause() instanceof IllegalArgumentException);
+        }
+        Assert.assertEquals(1, list.size());
+        Assert.assertTrue(dispatcher.await(10, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Random;
+
+import org.babyfish.collection.BidiType;
+import org.babyfish.collection.LinkedList;
+import org.babyfish.collection.ReaderOptimizationType;
+import org.babyfish.collection.XList;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Tao Chen
+ */
+public class ChunkedLinkedListTest {
+
+    @Test
+    public void testQueue() {
+        LinkedList<Integer> list = chunkedList(ReaderOptimizationType.OPTIMIZE_READING, 8);
+        int head = 0;
+        int tail = 0;
+        for (int round = 0; round < 1000; round++) {
+            for (int i = round % 13; i >= 0; i--) {
+                list.add(tail++);
+            }
+            for (int i = round % 11; i >= 0 && head < tail; i--) {
+                Assert.assertEquals(head++, list.remove(0).intValue());
+            }
+            Assert.assertEquals(tail - head, list.size());
+        }
+        for (int i = 0; i < 100; i++) {
+            list.add(0, --head);
+        }
+        for (Integer value : list) {
+            Assert.assertEquals(head++, value.intValue());
+        }
+        Assert.assertEquals(tail, head);
+    }
+    
+    @Test
+    public void testRandomOperations() {
+        for (ReaderOptimizationType readerOptimizationType : ReaderOptimizationType.values()) {
+            Random random = new Random(7);
+            XList<Integer> list = chunkedList(readerOptimizationType, 4);
+            List<Integer> expected = new ArrayList<>();
+            for (int step = 0; step < 20000; step++) {
+                int size = expected.size();
+                switch (random.nextInt(8)) {
+                case 0:
+                case 1: {
+                    int index = random.nextInt(size + 1);
+                    Integer value = random.nextInt(50);
+                    list.add(index, value);
+                    expected.add(index, value);
+                    break;
+                }
+                case 2:
+                    if (size != 0) {
+                        int index = random.nextInt(size);
+                        Assert.assertEquals(expected.remove(index), list.remove(index));
+                    }
+                    break;
+                case 3:
+                    if (size != 0) {
+                        int index = random.nextInt(size);
+                        Integer value = random.nextInt(50);
+                        Assert.assertEquals(expected.set(index, value), list.set(index, value));
+                    }
+                    break;
+                case 4: {
+                    int index = random.nextInt(size + 1);
+                    List<Integer> values = new ArrayList<>();
+                    for (int i = random.nextInt(10); i > 0; i--) {
+                        values.add(random.nextInt(50));
+                    }
+                    list.addAll(index, values);
+                    expected.addAll(index, values);
+                    break;
+                }
+                case 5: {
+                    int from = random.nextInt(size + 1);
+                    int to = from + random.nextInt(Math.min(size - from, 8) + 1);
+                    list.subList(from, to).clear();
+                    expected.subList(from, to).clear();
+                    break;
+                }
+                case 6: {
+                    int from = random.nextInt(size + 1);
+                    int to = from + random.nextInt(size - from + 1);
+                    List<Integer> removed = Arrays.asList(random.nextInt(50), random.nextInt(50));
+                    if (random.nextBoolean()) {
+                        Assert.assertEquals(
+                                expected.subList(from, to).removeAll(removed), 
+                                list.subList(from, to).removeAll(removed));
+                    } else {
+                        Assert.assertEquals(
+                                expected.subList(from, to).retainAll(removed), 
+                                list.subList(from, to).retainAll(removed));
+                    }
+                    break;
+                }
+                default: {
+                    Integer value = random.nextInt(50);
+                    Assert.assertEquals(expected.indexOf(value), list.indexOf(value));
+                    Assert.assertEquals(expected.lastIndexOf(value), list.lastIndexOf(value));
+                    break;
+                }
+                }
+                if (step % 100 == 0) {
+                    assertList(expected, list);
+                }
+            }
+            assertList(expected, list);
+        }
+    }
+    
+    @Test
+    public void testListIterator() {
+        XList<Integer> list = chunkedList(ReaderOptimizationType.OPTIMIZE_READING, 4);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            list.add(i);
+            expected.add(i);
+        }
+        ListIterator<Integer> itr = list.listIterator();
+        ListIterator<Integer> expectedItr = expected.listIterator();
+        while (expectedItr.hasNext()) {
+            int value = expectedItr.next();
+            Assert.assertEquals(value, itr.next().intValue());
+            if (value % 3 == 0) {
+                itr.remove();
+                expectedItr.remove();
+            } else if (value % 5 == 0) {
+                itr.add(-value);
+                expectedItr.add(-value);
+                Assert.assertEquals(-value, itr.previous().intValue());
+                Assert.assertEquals(-value, expectedItr.previous().intValue());
+                itr.next();
+                expectedItr.next();
+            } else if (value % 7 == 0) {
+                itr.set(value * 100);
+                expectedItr.set(value * 100);
+            }
+        }
+        while (expectedItr.hasPrevious()) {
+            Assert.assertEquals(expectedItr.previous(), itr.previous());
+        }
+        Assert.assertFalse(itr.hasPrevious());
+        assertList(expected, list);
+    }
+    
+    @Test
+    public void testBidi() {
+        XList<Integer> list = new LinkedList.Builder<Integer>()
+                .setChunked(true)
+                .setChunkCapacity(4)
+                .setBidiType(BidiType.NONNULL_VALUES)
+                .build();
+        for (int i = 0; i < 20; i++) {
+            list.add(i);
+        }
+        list.add(3);
+        Assert.assertEquals(20, list.size());
+        Assert.assertEquals(3, list.get(19).intValue());
+        list.set(0, 10);
+        Assert.assertEquals(19, list.size());
+        Assert.assertEquals(10, list.get(0).intValue());
+        Assert.assertEquals(0, list.indexOf(10));
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSerialization() throws IOException, ClassNotFoundException {
+        LinkedList<String> list = chunkedList(ReaderOptimizationType.OPTIMIZE_READ_LOCK, 5);
+        for (int i = 0; i < 23; i++) {
+            list.add("s" + i);
+        }
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bout)) {
+            out.writeObject(list);
+        }
+        LinkedList<String> deserialized;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bout.toByteArray()))) {
+            deserialized = (LinkedList<String>)in.readObject();
+        }
+        Assert.assertEquals(5, deserialized.chunkCapacity());
+        Assert.assertEquals(ReaderOptimizationType.OPTIMIZE_READ_LOCK, deserialized.readerOptimizationType());
+        Assert.assertEquals(list, deserialized);
+        deserialized.add(11, "x");
+        Assert.assertEquals("x", deserialized.get(11));
+        Assert.assertEquals(24, deserialized.size());
+    }
+    
+    private static <E> LinkedList<E> chunkedList(ReaderOptimizationType readerOptimizationType, int chunkCapacity) {
+        return new LinkedList.Builder<E>()
+                .setReaderOptimizationType(readerOptimizationType)
+                .setChunked(true)
+                .setChunkCapacity(chunkCapacity)
+                .build();
+    }
+    
+    private static void assertList(List<Integer> expected, XList<Integer> list) {
+        Assert.assertEquals(expected.size(), list.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(expected.get(i), list.get(i));
+        }
+        Assert.assertEquals(expected, new ArrayList<>(list));
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import org.babyfish.collection.EqualityComparator;
+import org.babyfish.collection.HashMap;
+import org.babyfish.collection.LinkedHashMap;
+import org.babyfish.collection.ReplacementRule;
+import org.babyfish.collection.XMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Tao Chen
+ */
+public class CollidingHashTest {
+
+    @Test
+    public void testSameHash() {
+        this.testRandomOperations(new WeakEqualityComparator(1), false);
+        this.testRandomOperations(new WeakEqualityComparator(1), true);
+    }
+    
+    @Test
+    public void testFewHashes() {
+        this.testRandomOperations(new WeakEqualityComparator(7), false);
+        this.testRandomOperations(new WeakEqualityComparator(7), true);
+    }
+    
+    @Test
+    public void testManyHashes() {
+        this.testRandomOperations(new WeakEqualityComparator(97), false);
+        this.testRandomOperations(new WeakEqualityComparator(97), true);
+    }
+    
+    @Test
+    public void testHighBitsOnly() {
+        this.testRandomOperations(new EqualityComparator<Integer>() {
+            @Override
+            public int hashCode(Integer o) {
+                return o << 24;
+            }
+            @Override
+            public boolean equals(Integer o1, Integer o2) {
+                return o1.equals(o2);
+            }
+        }, false);
+    }
+    
+    @Test
+    public void testIdenticalHashCodesOfComparableKeys() {
+        int[] comparisons = new int[1];
+        XMap<CollidingKey, Integer> map = new HashMap<>();
+        for (int i = 0; i < 4096; i++) {
+            map.put(new CollidingKey(i * 2, comparisons), i);
+        }
+        comparisons[0] = 0;
+        for (int i = 0; i < 4096; i++) {
+            Assert.assertEquals(i, map.get(new CollidingKey(i * 2, comparisons)).intValue());
+            Assert.assertNull(map.get(new CollidingKey(i * 2 + 1, comparisons)));
+        }
+        assertBoundedComparisons(comparisons[0], 4096 * 2, 4096);
+    }
+    
+    @Test
+    public void testIdenticalHashCodesOfComparingEqualityComparator() {
+        int[] comparisons = new int[1];
+        XMap<Integer, Integer> map = new HashMap<>(new ComparingEqualityComparator(comparisons));
+        for (int i = 0; i < 4096; i++) {
+            map.put(i * 2, i);
+        }
+        comparisons[0] = 0;
+        for (int i = 0; i < 4096; i++) {
+            Assert.assertEquals(i, map.get(i * 2).intValue());
+            Assert.assertNull(map.get(i * 2 + 1));
+        }
+        assertBoundedComparisons(comparisons[0], 4096 * 2, 4096);
+        for (int i = 0; i < 4096; i += 2) {
+            Assert.assertEquals(i, map.remove(i * 2).intValue());
+        }
+        for (int i = 0; i < 4096; i++) {
+            Assert.assertEquals(i % 2 == 0 ? null : i, map.get(i * 2));
+        }
+    }
+    
+    @Test
+    public void testIdenticalHashCodesOfSameKeyInstances() {
+        CollidingKey[] keys = new CollidingKey[1024];
+        int[] comparisons = new int[1];
+        /*
+         * The equality comparator can not order the keys, 
+         * so only the lookup by the same instance is fast.
+         */
+        XMap<CollidingKey, Integer> map = new HashMap<>(
+                ReplacementRule.NEW_REFERENCE_WIN,
+                new EqualityComparator<CollidingKey>() {
+                    @Override
+                    public int hashCode(CollidingKey o) {
+                        return 0;
+                    }
+                    @Override
+                    public boolean equals(CollidingKey o1, CollidingKey o2) {
+                        return o1.equals(o2);
+                    }
+                });
+        for (int i = 0; i < keys.length; i++) {
+            map.put(new CollidingKey(i, comparisons), i);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            // Replace the key by the new instance
+            keys[i] = new CollidingKey(i, comparisons);
+            map.put(keys[i], i);
+        }
+        comparisons[0] = 0;
+        for (int i = 0; i < keys.length; i++) {
+            Assert.assertEquals(i, map.get(keys[i]).intValue());
+        }
+        assertBoundedComparisons(comparisons[0], keys.length, keys.length);
+        Assert.assertEquals(7, map.get(new CollidingKey(7, comparisons)).intValue());
+        Assert.assertNull(map.get(new CollidingKey(-1, comparisons)));
+    }
+    
+    private void testRandomOperations(EqualityComparator<Integer> equalityComparator, boolean linked) {
+        Random random = new Random(7);
+        XMap<Integer, String> map = linked ? 
+                new LinkedHashMap<>(equalityComparator) : 
+                new HashMap<>(equalityComparator);
+        Map<Integer, String> expected = linked ? 
+                new java.util.LinkedHashMap<>() : 
+                new java.util.HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            Integer key = random.nextInt(20) == 0 ? null : random.nextInt(600);
+            switch (random.nextInt(5)) {
+            case 0:
+            case 1:
+                Assert.assertEquals(expected.put(key, "v" + i), map.put(key, "v" + i));
+                break;
+            case 2:
+                Assert.assertEquals(expected.remove(key), map.remove(key));
+                break;
+            case 3:
+                Assert.assertEquals(expected.containsKey(key), map.containsKey(key));
+                Assert.assertEquals(expected.get(key), map.get(key));
+                break;
+            default:
+                if (random.nextInt(500) == 0) {
+                    map.clear();
+                    expected.clear();
+                } else {
+                    Iterator<Integer> itr = map.keySet().iterator();
+                    Iterator<Integer> expectedItr = expected.keySet().iterator();
+                    if (itr.hasNext()) {
+                        Integer first = itr.next();
+                        if (linked) {
+                            Assert.assertEquals(expectedItr.next(), first);
+                            expectedItr.remove();
+                        } else {
+                            expected.remove(first);
+                        }
+                        itr.remove();
+                    }
+                }
+                break;
+            }
+            if (i % 500 == 0) {
+                Assert.assertEquals(expected, map);
+            }
+        }
+        Assert.assertEquals(expected, map);
+        for (int i = 0; i < 600; i++) {
+            Assert.assertEquals(expected.get(i), map.get(i));
+        }
+        for (Integer key : expected.keySet().toArray(new Integer[expected.size()])) {
+            Assert.assertEquals(expected.remove(key), map.remove(key));
+        }
+        Assert.assertTrue(map.isEmpty());
+    }
+    
+    private static void assertBoundedComparisons(int comparisons, int lookups, int size) {
+        int log = 32 - Integer.numberOfLeadingZeros(size);
+        Assert.assertTrue(
+                "Too many comparisons: " + comparisons, 
+                comparisons <= lookups * (3 * log + 2));
+    }
+    
+    private static class CollidingKey implements Comparable<CollidingKey> {
+        
+        private int value;
+        
+        private int[] comparisons;
+        
+        CollidingKey(int value, int[] comparisons) {
+            this.value = value;
+            this.comparisons = comparisons;
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            this.comparisons[0]++;
+            return obj instanceof CollidingKey && ((CollidingKey)obj).value == this.value;
+        }
+
+        @Override
+        public int compareTo(CollidingKey o) {
+            this.comparisons[0]++;
+            return Integer.compare(this.value, o.value);
+        }
+    }
+    
+    private static class ComparingEqualityComparator 
+    implements EqualityComparator<Integer>, Comparator<Integer> {
+        
+        private int[] comparisons;
+        
+        ComparingEqualityComparator(int[] comparisons) {
+            this.comparisons = comparisons;
+        }
+
+        @Override
+        public int hashCode(Integer o) {
+            return 0;
+        }
+
+        @Override
+        public boolean equals(Integer o1, Integer o2) {
+            this.comparisons[0]++;
+            return o1.equals(o2);
+        }
+
+        @Override
+        public int compare(Integer o1, Integer o2) {
+            this.comparisons[0]++;
+            return o1.compareTo(o2);
+        }
+    }
+    
+    private static class WeakEqualityComparator implements EqualityComparator<Integer> {
+        
+        private int hashCount;
+        
+        WeakEqualityComparator(int hashCount) {
+            this.hashCount = hashCount;
+        }
+
+        @Override
+        public int hashCode(Integer o) {
+            return o % this.hashCount;
+        }
+
+        @Override
+        public boolean equals(Integer o1, Integer o2) {
+            return o1.equals(o2);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.babyfish.collection.ConcurrentHashMap;
+import org.babyfish.collection.ConcurrentHashSet;
+import org.babyfish.collection.EqualityComparator;
+import org.babyfish.collection.HashMap;
+import org.babyfish.collection.ReplacementRule;
+import org.babyfish.collection.XMap;
+import org.babyfish.collection.XSet;
+import org.babyfish.test.collection.FrozenContextTest.Element;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Tao Chen
+ */
+public class ConcurrentHashMapTest {
+    
+    private static final EqualityComparator<String> CASE_INSENSITIVE = 
+            new EqualityComparator<String>() {
+                @Override
+                public int hashCode(String o) {
+                    return o.toLowerCase().hashCode();
+                }
+                @Override
+                public boolean equals(String o1, String o2) {
+                    return o1.equalsIgnoreCase(o2);
+                }
+            };
+    
+    @Test
+    public void testEqualityComparatorAndReplacementRule() {
+        XMap<String, Integer> map = new ConcurrentHashMap<>(ReplacementRule.OLD_REFERENCE_WIN, CASE_INSENSITIVE);
+        map.put("Alpha", 1);
+        map.put(null, 0);
+        Assert.assertEquals(1, map.put("ALPHA", 2).intValue());
+        Assert.assertEquals(2, map.size());
+        Assert.assertEquals(2, map.get("alpha").intValue());
+        Assert.assertEquals("Alpha", map.entryOfKey("aLpHa").getKey());
+        Assert.assertSame(CASE_INSENSITIVE, map.keyUnifiedComparator().equalityComparator());
+        Assert.assertTrue(map.keySet().contains("ALPHA"));
+        Assert.assertEquals(0, map.get(null).intValue());
+        
+        map = new ConcurrentHashMap<>(ReplacementRule.NEW_REFERENCE_WIN, CASE_INSENSITIVE);
+        map.put("Alpha", 1);
+        map.put("ALPHA", 2);
+        Assert.assertEquals("ALPHA", map.keySet().iterator().next());
+        
+        Map<String, Integer> expected = new HashMap<>(CASE_INSENSITIVE);
+        expected.put("alpha", 2);
+        Assert.assertEquals(expected, map);
+        Assert.assertEquals(map, expected);
+        Assert.assertEquals(expected.hashCode(), map.hashCode());
+        
+        XSet<String> set = new ConcurrentHashSet<>(ReplacementRule.OLD_REFERENCE_WIN, CASE_INSENSITIVE);
+        Assert.assertTrue(set.add("Beta"));
+        Assert.assertFalse(set.add("BETA"));
+        Assert.assertEquals("Beta", set.iterator().next());
+        Assert.assertTrue(set.remove("beta"));
+        Assert.assertTrue(set.isEmpty());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testFrozenEqualityComparatorIsRejected() {
+        new ConcurrentHashMap<Element, Object>(Element.CODE_EQUALITY_COMPARATOR);
+    }
+    
+    @Test
+    public void testWeaklyConsistentIterator() {
+        XMap<Integer, String> map = new ConcurrentHashMap<>(0, 4);
+        for (int i = 0; i < 100; i++) {
+            map.put(i, "v" + i);
+        }
+        int count = 0;
+        for (Iterator<Map.Entry<Integer, String>> itr = map.entrySet().iterator(); itr.hasNext();) {
+            Map.Entry<Integer, String> e = itr.next();
+            // Modifications during iteration never throw ConcurrentModificationException
+            map.put(1000 + e.getKey(), "x");
+            if (e.getKey() % 2 == 0) {
+                itr.remove();
+            } else {
+                e.setValue("w" + e.getKey());
+            }
+            count++;
+        }
+        Assert.assertTrue(count >= 100);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(i % 2 == 0 ? null : "w" + i, map.get(i));
+        }
+        map.keySet().removeIf(k -> k >= 1000);
+        Assert.assertEquals(50, map.size());
+        map.values().retainAll(java.util.Collections.singleton("w1"));
+        Assert.assertEquals(1, map.size());
+        Assert.assertEquals("{1=w1}", map.toString());
+    }
+    
+    @Test
+    public void testConcurrentUpdates() throws InterruptedException {
+        final ConcurrentHashMap<String, Integer> map = new ConcurrentHashMap<>(CASE_INSENSITIVE);
+        final int threadCount = 16;
+        final int keyCount = 200;
+        final int rounds = 50;
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            final boolean upper = t % 2 == 0;
+            Thread thread = new Thread(() -> {
+                try {
+                    for (int r = 0; r < rounds; r++) {
+                        for (int k = 0; k < keyCount; k++) {
+                            String key = upper ? "KEY-" + k : "key-" + k;
+                            map.merge(key, 1, Integer::sum);
+                            map.get(key);
+                        }
+                        map.size();
+                        for (Map.Entry<String, Integer> e : map.entrySet()) {
+                            e.getValue();
+                        }
+                    }
+                } catch (Throwable ex) {
+                    failure.compareAndSet(null, ex);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertNull(failure.get());
+        Assert.assertEquals(keyCount, map.size());
+        for (int k = 0; k < keyCount; k++) {
+            Assert.assertEquals(threadCount * rounds, map.get("Key-" + k).intValue());
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSerialization() throws IOException, ClassNotFoundException {
+        ConcurrentHashMap<String, Integer> map = new ConcurrentHashMap<>();
+        for (int i = 0; i < 50; i++) {
+            map.put("k" + i, i);
+        }
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (ObjectOutputStream oout = new ObjectOutputStream(bout)) {
+            oout.writeObject(map);
+        }
+        ConcurrentHashMap<String, Integer> deserialized;
+        try (ObjectInputStream oin = new ObjectInputStream(new ByteArrayInputStream(bout.toByteArray()))) {
+            deserialized = (ConcurrentHashMap<String, Integer>)oin.readObject();
+        }
+        Assert.assertEquals(map, deserialized);
+        deserialized.put("k50", 50);
+        Assert.assertEquals(51, deserialized.size());
+    }
+}
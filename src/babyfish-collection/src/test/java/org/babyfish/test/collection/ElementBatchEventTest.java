@@ -0,0 +1,222 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.babyfish.collection.MAArrayList;
+import org.babyfish.collection.MAHashMap;
+import org.babyfish.collection.MAHashSet;
+import org.babyfish.collection.MATreeMap;
+import org.babyfish.collection.event.ElementBatchEvent;
+import org.babyfish.collection.event.ElementBatchListener;
+import org.babyfish.collection.event.ElementEvent;
+import org.babyfish.collection.event.ElementListener;
+import org.babyfish.collection.event.MapElementBatchEvent;
+import org.babyfish.collection.event.MapElementBatchListener;
+import org.babyfish.data.ModificationException;
+import org.babyfish.data.event.ModificationType;
+import org.babyfish.data.event.PropertyVersion;
+import org.junit.Test;
+
+import junit.framework.Assert;
+
+/**
+ * @author Tao Chen
+ */
+public class ElementBatchEventTest {
+
+    @Test
+    public void testListBulkOperations() {
+        MAArrayList<String> list = new MAArrayList<>();
+        List<String> log = new ArrayList<>();
+        list.addElementBatchListener(new ElementBatchListener<String>() {
+            @Override
+            public void modifying(ElementBatchEvent<String> e) throws Throwable {
+                log.add("modifying:" + e.size());
+            }
+            @Override
+            public void modified(ElementBatchEvent<String> e) throws Throwable {
+                log.add("modified:" + describe(e));
+            }
+        });
+        list.addAll(Arrays.asList("A", "B", "C"));
+        list.set(1, "X");
+        list.clear();
+        Assert.assertEquals(
+                Arrays.asList(
+                        "modifying:3", 
+                        "modified:ATTACH(A@0)ATTACH(B@1)ATTACH(C@2)",
+                        "modifying:1", 
+                        "modified:REPLACE(B@1->X@1)",
+                        "modifying:3", 
+                        "modified:DETACH(A@0)DETACH(X@1)DETACH(C@2)"), 
+                log);
+    }
+    
+    @Test
+    public void testBatchWithElementListener() {
+        MAArrayList<String> list = new MAArrayList<>();
+        int[] counts = new int[2];
+        list.addElementListener(new ElementListener<String>() {
+            @Override
+            public void modified(ElementEvent<String> e) throws Throwable {
+                counts[0]++;
+            }
+        });
+        list.addElementBatchListener(new ElementBatchListener<String>() {
+            @Override
+            public void modified(ElementBatchEvent<String> e) throws Throwable {
+                counts[1]++;
+            }
+        });
+        list.addAll(Arrays.asList("A", "B", "C", "D"));
+        Assert.assertEquals(4, counts[0]);
+        Assert.assertEquals(1, counts[1]);
+    }
+    
+    @Test
+    public void testViewAndIterator() {
+        MAArrayList<String> list = new MAArrayList<>(Arrays.asList("A", "B", "C", "D"));
+        List<String> log = new ArrayList<>();
+        list.addElementBatchListener(new ElementBatchListener<String>() {
+            @Override
+            public void modified(ElementBatchEvent<String> e) throws Throwable {
+                log.add(describe(e));
+            }
+        });
+        Iterator<String> itr = list.iterator();
+        itr.next();
+        itr.remove();
+        list.subList(1, 3).clear();
+        Assert.assertEquals(Arrays.asList("DETACH(A@0)", "DETACH(C@1)", "DETACH(D@2)"), log);
+        Assert.assertEquals("[B]", list.toString());
+    }
+    
+    @Test
+    public void testCancelByModifying() {
+        MAHashSet<String> set = new MAHashSet<>(Arrays.asList("A", "B"));
+        List<String> log = new ArrayList<>();
+        set.addElementBatchListener(new ElementBatchListener<String>() {
+            @Override
+            public void modifying(ElementBatchEvent<String> e) throws Throwable {
+                throw new IllegalStateException("Cancel");
+            }
+            @Override
+            public void modified(ElementBatchEvent<String> e) throws Throwable {
+                log.add(e.getModificationType() + ":" + (e.getPreModificationThrowable() != null));
+            }
+        });
+        try {
+            set.removeAll(Arrays.asList("A", "B"));
+            Assert.fail();
+        } catch (ModificationException ex) {
+            Assert.assertFalse(ex.isModified());
+            Assert.assertEquals("Cancel", ex.getCause().getMessage());
+        }
+        Assert.assertEquals(2, set.size());
+        Assert.assertEquals(Arrays.asList("DETACH:true"), log);
+    }
+    
+    @Test
+    public void testMap() {
+        MAHashMap<String, Integer> map = new MAHashMap<>();
+        List<String> log = new ArrayList<>();
+        map.addMapElementBatchListener(new MapElementBatchListener<String, Integer>() {
+            @Override
+            public void modified(MapElementBatchEvent<String, Integer> e) throws Throwable {
+                StringBuilder builder = new StringBuilder();
+                for (int i = 0; i < e.size(); i++) {
+                    builder
+                    .append(e.getModificationType(i))
+                    .append('(')
+                    .append(e.getKey(i, PropertyVersion.DETACH))
+                    .append('=')
+                    .append(e.getValue(i, PropertyVersion.DETACH))
+                    .append("->")
+                    .append(e.getKey(i, PropertyVersion.ATTACH))
+                    .append('=')
+                    .append(e.getValue(i, PropertyVersion.ATTACH))
+                    .append(')');
+                }
+                log.add(builder.toString());
+            }
+        });
+        Map<String, Integer> m = new LinkedHashMap<>();
+        m.put("A", 1);
+        m.put("B", 2);
+        map.putAll(m);
+        map.put("A", 3);
+        map.keySet().remove("B");
+        Assert.assertEquals(
+                Arrays.asList(
+                        "ATTACH(null=null->A=1)ATTACH(null=null->B=2)",
+                        "REPLACE(A=1->A=3)",
+                        "DETACH(B=2->null=null)"), 
+                log);
+    }
+    
+    @Test
+    public void testPollOfTreeMap() {
+        MATreeMap<String, Integer> map = new MATreeMap<>();
+        map.put("A", 1);
+        map.put("B", 2);
+        int[] count = new int[1];
+        map.addMapElementBatchListener(new MapElementBatchListener<String, Integer>() {
+            @Override
+            public void modified(MapElementBatchEvent<String, Integer> e) throws Throwable {
+                Assert.assertEquals(1, e.size());
+                Assert.assertSame(ModificationType.DETACH, e.getModificationType(0));
+                Assert.assertEquals("A", e.getKey(0, PropertyVersion.DETACH));
+                count[0]++;
+            }
+        });
+        map.pollFirstEntry();
+        Assert.assertEquals(1, count[0]);
+    }
+    
+    private static String describe(ElementBatchEvent<String> e) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < e.size(); i++) {
+            ModificationType modificationType = e.getModificationType(i);
+            builder.append(modificationType).append('(');
+            if (modificationType.contains(PropertyVersion.DETACH)) {
+                builder
+                .append(e.getElement(i, PropertyVersion.DETACH))
+                .append('@')
+                .append(e.getIndex(i, PropertyVersion.DETACH));
+            }
+            if (modificationType == ModificationType.REPLACE) {
+                builder.append("->");
+            }
+            if (modificationType.contains(PropertyVersion.ATTACH)) {
+                builder
+                .append(e.getElement(i, PropertyVersion.ATTACH))
+                .append('@')
+                .append(e.getIndex(i, PropertyVersion.ATTACH));
+            }
+            builder.append(')');
+        }
+        return builder.toString();
+    }
+}
@@ -19,7 +19,9 @@ package org.babyfish.test.collection;
 
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.List;
 
+import org.babyfish.collection.ArrayList;
 import org.babyfish.collection.EqualityComparator;
 import org.babyfish.collection.FrozenComparator;
 import org.babyfish.collection.FrozenContext;
@@ -41,6 +43,7 @@ import org.babyfish.collection.XNavigableMap;
 import org.babyfish.collection.XNavigableSet;
 import org.babyfish.collection.XOrderedMap;
 import org.babyfish.collection.XOrderedSet;
+import org.babyfish.collection.event.DeferredEventDispatcher;
 import org.babyfish.collection.event.ElementEvent;
 import org.babyfish.collection.event.ElementListener;
 import org.babyfish.collection.event.MapElementEvent;
@@ -497,6 +500,180 @@ public class FrozenContextTest {
         Assert.assertEquals("-[1, One]+[I, One]-[2, Two]+[II, Two]-[3, Three]+[III, Three]-[4, Four]+[IV, Four]-[I, One]+[Unknown, One]-[II, Two]-[Unknown, One]+[Unknown, Two]-[III, Three]-[Unknown, Two]+[Unknown, Three]-[IV, Four]-[Unknown, Three]+[Unknown, Four]", builder.toString());
     }
     
+    @Test
+    public void testElementOfManySets() {
+        Element one = new Element("1", "One");
+        Element two = new Element("2", "Two");
+        List<XOrderedSet<Element>> hashSets = new ArrayList<>();
+        List<XNavigableSet<Element>> treeSets = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            XOrderedSet<Element> hashSet = new LinkedHashSet<Element>(Element.CODE_EQUALITY_COMPARATOR);
+            hashSet.add(one);
+            hashSet.add(two);
+            hashSets.add(hashSet);
+            XNavigableSet<Element> treeSet = new TreeSet<Element>(Element.CODE_COMPARATOR);
+            treeSet.add(one);
+            treeSet.add(two);
+            treeSets.add(treeSet);
+        }
+        
+        one.setCode("III");
+        for (int i = 0; i < 300; i++) {
+            assertElementCodeAndNames(hashSets.get(i), "III", "One", "2", "Two");
+            assertElementCodeAndNames(treeSets.get(i), "2", "Two", "III", "One");
+        }
+        
+        for (int i = 0; i < 300; i += 2) {
+            hashSets.get(i).remove(one);
+            treeSets.get(i).clear();
+        }
+        one.setCode("0");
+        for (int i = 0; i < 300; i++) {
+            if (i % 2 == 0) {
+                assertElementCodeAndNames(hashSets.get(i), "2", "Two");
+                assertElementCodeAndNames(treeSets.get(i));
+            } else {
+                assertElementCodeAndNames(hashSets.get(i), "0", "One", "2", "Two");
+                assertElementCodeAndNames(treeSets.get(i), "0", "One", "2", "Two");
+            }
+        }
+        
+        for (int i = 1; i < 300; i += 2) {
+            hashSets.get(i).add(new Element("Z", "Zero"));
+        }
+        one.setCode("1");
+        for (int i = 1; i < 300; i += 2) {
+            assertElementCodeAndNames(hashSets.get(i), "1", "One", "2", "Two", "Z", "Zero");
+        }
+    }
+    
+    @Test
+    public void testBatch() {
+        MANavigableSet<Element> navigableSet = new MATreeSet<Element>(Element.CODE_COMPARATOR);
+        MAOrderedSet<Element> orderedSet = new MALinkedHashSet<Element>(Element.CODE_EQUALITY_COMPARATOR);
+        Element one = new Element("1", "One");
+        Element two = new Element("2", "Two");
+        Element three = new Element("3", "Three");
+        Element four = new Element("4", "Four");
+        for (Element element : new Element[] { one, two, three, four }) {
+            navigableSet.add(element);
+            orderedSet.add(element);
+        }
+        final StringBuilder builder = new StringBuilder();
+        navigableSet.addElementListener(
+                new ElementListener<Element>() {
+                    @Override
+                    public void modified(ElementEvent<Element> e) throws Throwable {
+                        if (e.getModificationType().contains(PropertyVersion.DETACH)) {
+                            builder
+                            .append("-[")
+                            .append(e.getElement(PropertyVersion.DETACH).getCode())
+                            .append(", ")
+                            .append(e.getElement(PropertyVersion.DETACH).getName())
+                            .append(']');
+                        }
+                        if (e.getModificationType().contains(PropertyVersion.ATTACH)) {
+                            builder
+                            .append("+[")
+                            .append(e.getElement(PropertyVersion.ATTACH).getCode())
+                            .append(", ")
+                            .append(e.getElement(PropertyVersion.ATTACH).getName())
+                            .append(']');
+                        }
+                    }
+                });
+        
+        try (FrozenContext.Batch batch = FrozenContext.batch()) {
+            one.setCode("I");
+            one.setCode("IIII");
+            try (FrozenContext.Batch nestedBatch = FrozenContext.batch()) {
+                three.setCode("III");
+            }
+            assertElementCodeAndNames(navigableSet, "2", "Two", "4", "Four");
+            assertElementCodeAndNames(orderedSet, "2", "Two", "4", "Four");
+            one.setCode("V");
+            three.setCode("0");
+            Assert.assertEquals("-[1, One]-[3, Three]", builder.toString());
+        }
+        assertElementCodeAndNames(navigableSet, "0", "Three", "2", "Two", "4", "Four", "V", "One");
+        assertElementCodeAndNames(orderedSet, "V", "One", "2", "Two", "0", "Three", "4", "Four");
+        Assert.assertEquals("-[1, One]-[3, Three]+[V, One]+[0, Three]", builder.toString());
+        
+        builder.setLength(0);
+        two.setCode("II");
+        assertElementCodeAndNames(navigableSet, "0", "Three", "4", "Four", "II", "Two", "V", "One");
+        Assert.assertEquals("-[2, Two]+[II, Two]", builder.toString());
+        
+        builder.setLength(0);
+        try (FrozenContext.Batch batch = FrozenContext.batch()) {
+            two.setCode("IV");
+            four.setCode("IV");
+        }
+        assertElementCodeAndNames(navigableSet, "0", "Three", "IV", "Four", "V", "One");
+        assertElementCodeAndNames(orderedSet, "V", "One", "IV", "Four", "0", "Three");
+    }
+
+    @Test
+    public void testDeferredBatchEvents() {
+        MANavigableSet<Element> navigableSet = new MATreeSet<Element>(Element.CODE_COMPARATOR);
+        Element one = new Element("1", "One");
+        Element two = new Element("2", "Two");
+        Element three = new Element("3", "Three");
+        for (Element element : new Element[] { one, two, three }) {
+            navigableSet.add(element);
+        }
+        final StringBuilder builder = new StringBuilder();
+        navigableSet.addElementListener(
+                DeferredEventDispatcher.deferred(
+                        new ElementListener<Element>() {
+                            @Override
+                            public void modified(ElementEvent<Element> e) throws Throwable {
+                                if (e.getModificationType().contains(PropertyVersion.DETACH)) {
+                                    builder
+                                    .append("-[")
+                                    .append(e.getElement(PropertyVersion.DETACH).getName())
+                                    .append(']');
+                                }
+                                if (e.getModificationType().contains(PropertyVersion.ATTACH)) {
+                                    builder
+                                    .append("+[")
+                                    .append(e.getElement(PropertyVersion.ATTACH).getName())
+                                    .append(']');
+                                }
+                                /*
+                                 * The deferred listener always sees the resumed collection,
+                                 * the element codes have been changed when it is notified
+                                 * so that only the names are recorded.
+                                 */
+                                builder.append(navigableSet.size());
+                            }
+                        }
+                )
+        );
+
+        try (FrozenContext.Batch batch = FrozenContext.batch()) {
+            one.setCode("I");
+            try (FrozenContext.Batch nestedBatch = FrozenContext.batch()) {
+                three.setCode("III");
+            }
+            one.setCode("V");
+            Assert.assertEquals("", builder.toString());
+        }
+        assertElementCodeAndNames(navigableSet, "2", "Two", "III", "Three", "V", "One");
+        Assert.assertEquals("-[One]3-[Three]3+[One]3+[Three]3", builder.toString());
+
+        builder.setLength(0);
+        two.setCode("II");
+        Assert.assertEquals("-[Two]2+[Two]3", builder.toString());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCloseBatchTwice() {
+        FrozenContext.Batch batch = FrozenContext.batch();
+        batch.close();
+        batch.close();
+    }
+    
     private static void assertElementCodeAndNames(Collection<Element> elements, String ... elementCodeAndNames) {
         if (elementCodeAndNames.length % 2 != 0) {
             throw new IllegalArgumentException();
@@ -0,0 +1,273 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.babyfish.collection.ArrayList;
+import org.babyfish.collection.HashMap;
+import org.babyfish.collection.HashSet;
+import org.babyfish.collection.MAHashMap;
+import org.babyfish.collection.MAMap;
+import org.babyfish.collection.MATreeMap;
+import org.babyfish.collection.event.MapElementListener;
+import org.babyfish.collection.spi.CollectionInstrumentations;
+import org.babyfish.collection.spi.JmxCollectionInstrumentation;
+import org.babyfish.collection.spi.laziness.AbstractLazyMAMap;
+import org.babyfish.test.collection.bidi.Unstable;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Tao Chen
+ */
+public class JmxCollectionInstrumentationTest {
+
+    @Test
+    public void testCounters() {
+        JmxCollectionInstrumentation instrumentation = new JmxCollectionInstrumentation(false) {};
+        Object hashMap = new HashMap<Object, Object>();
+        Object list = new ArrayList<Object>();
+        instrumentation.resized(hashMap, 16, 32);
+        instrumentation.resized(hashMap, 32, 64);
+        instrumentation.resized(list, 0, 10);
+        instrumentation.eventExecuted(list, null, false, 100L);
+        instrumentation.eventExecuted(list, null, true, 200L);
+        instrumentation.loaded(list, 1000L);
+        instrumentation.freezingSuspended("a");
+        instrumentation.freezingResumed();
+        
+        Assert.assertEquals(3, instrumentation.getResizeCount());
+        Assert.assertEquals(2, instrumentation.getEventCount());
+        Assert.assertEquals(300, instrumentation.getEventNanos());
+        Assert.assertEquals(1, instrumentation.getLoadCount());
+        Assert.assertEquals(1000, instrumentation.getLoadNanos());
+        Assert.assertEquals(1, instrumentation.getFreezingSuspendCount());
+        Assert.assertEquals(1, instrumentation.getFreezingResumeCount());
+        Map<String, Long> resizeCountByType = instrumentation.getResizeCountByType();
+        Assert.assertEquals(Long.valueOf(2), resizeCountByType.get(HashMap.class.getName()));
+        Assert.assertEquals(Long.valueOf(1), resizeCountByType.get(ArrayList.class.getName()));
+        Assert.assertEquals(Long.valueOf(300), instrumentation.getEventNanosByType().get(ArrayList.class.getName()));
+        
+        instrumentation.reset();
+        Assert.assertEquals(0, instrumentation.getResizeCount());
+        Assert.assertEquals(0, instrumentation.getFreezingSuspendCount());
+    }
+    
+    @Test
+    public void testMBean() throws Exception {
+        JmxCollectionInstrumentation instrumentation = new JmxCollectionInstrumentation();
+        instrumentation.eventExecuted(new ArrayList<Object>(), null, true, 5L);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName(JmxCollectionInstrumentation.OBJECT_NAME);
+        Assert.assertEquals(1L, server.getAttribute(objectName, "EventCount"));
+        Assert.assertEquals(5L, server.getAttribute(objectName, "EventNanos"));
+        server.invoke(objectName, "reset", new Object[0], new String[0]);
+        Assert.assertEquals(0L, instrumentation.getEventCount());
+        server.unregisterMBean(objectName);
+    }
+    
+    @Test
+    public void testNamedCounters() {
+        JmxCollectionInstrumentation instrumentation = new JmxCollectionInstrumentation(false) {};
+        Object hot = new ArrayList<Object>();
+        Object equalButCold = new ArrayList<Object>();
+        instrumentation.track(hot, "hot");
+        instrumentation.eventExecuted(hot, null, false, 10L);
+        instrumentation.eventExecuted(hot, null, true, 20L);
+        instrumentation.eventExecuted(equalButCold, null, true, 30L);
+        instrumentation.loaded(hot, 100L);
+        Assert.assertEquals(Long.valueOf(2), instrumentation.getEventCountByName().get("hot"));
+        Assert.assertEquals(Long.valueOf(30), instrumentation.getEventNanosByName().get("hot"));
+        Assert.assertEquals(Long.valueOf(1), instrumentation.getLoadCountByName().get("hot"));
+        Assert.assertEquals(Long.valueOf(3), instrumentation.getEventCountByType().get(ArrayList.class.getName()));
+        
+        instrumentation.untrack(hot);
+        instrumentation.eventExecuted(hot, null, true, 40L);
+        Assert.assertEquals(Long.valueOf(2), instrumentation.getEventCountByName().get("hot"));
+        instrumentation.reset();
+        Assert.assertTrue(instrumentation.getEventCountByName().isEmpty());
+    }
+    
+    /*
+     * CollectionInstrumentations.ENABLED is initialized only once, so the real 
+     * collections are loaded again by an isolated class loader after 
+     * the system property is specified.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testEnabledByProperty() throws Exception {
+        URL[] urls = ((URLClassLoader)JmxCollectionInstrumentationTest.class.getClassLoader()).getURLs();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName(JmxCollectionInstrumentation.OBJECT_NAME);
+        try (URLClassLoader isolatedLoader = new URLClassLoader(urls, ClassLoader.getSystemClassLoader().getParent())) {
+            String oldValue = System.getProperty(CollectionInstrumentations.PROPERTY_NAME);
+            System.setProperty(CollectionInstrumentations.PROPERTY_NAME, "jmx");
+            try {
+                Class.forName(CollectionInstrumentations.class.getName(), true, isolatedLoader);
+            } finally {
+                if (oldValue != null) {
+                    System.setProperty(CollectionInstrumentations.PROPERTY_NAME, oldValue);
+                } else {
+                    System.clearProperty(CollectionInstrumentations.PROPERTY_NAME);
+                }
+            }
+            Callable<Map<String, Long>> scenario = 
+                    (Callable<Map<String, Long>>)isolatedLoader.loadClass(Scenario.class.getName()).newInstance();
+            Map<String, Long> counters = scenario.call();
+            
+            Assert.assertEquals(Long.valueOf(1), counters.get("enabled"));
+            Assert.assertTrue(counters.get("resize:org.babyfish.collection.spi.base.HashEntries") >= 3);
+            Assert.assertTrue(counters.get("resize:org.babyfish.collection.spi.base.ArrayElements") >= 3);
+            Assert.assertEquals(Long.valueOf(6), counters.get("event:" + MATreeMap.class.getName()));
+            Assert.assertEquals(Long.valueOf(8), counters.get("event:" + MAHashMap.class.getName()));
+            Assert.assertEquals(Long.valueOf(4), counters.get("eventByName:hot"));
+            Assert.assertNull(counters.get("eventByName:cold"));
+            Assert.assertEquals(Long.valueOf(1), counters.get("loadByName:lazy"));
+            Assert.assertEquals(Long.valueOf(1), counters.get("freezingSuspend"));
+            Assert.assertEquals(Long.valueOf(1), counters.get("freezingResume"));
+            
+            Assert.assertEquals(counters.get("eventCount"), server.getAttribute(objectName, "EventCount"));
+        } finally {
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        }
+        Assert.assertFalse(CollectionInstrumentations.ENABLED);
+    }
+    
+    @Test
+    public void testDisabledByDefault() {
+        if (System.getProperty(CollectionInstrumentations.PROPERTY_NAME) == null) {
+            Assert.assertFalse(CollectionInstrumentations.ENABLED);
+            Assert.assertNull(CollectionInstrumentations.get());
+        }
+    }
+    
+    /**
+     * Executed by the isolated class loader of {@link #testEnabledByProperty()}.
+     */
+    public static class Scenario implements Callable<Map<String, Long>> {
+
+        @Override
+        public Map<String, Long> call() {
+            JmxCollectionInstrumentation instrumentation = 
+                    (JmxCollectionInstrumentation)CollectionInstrumentations.get();
+            
+            HashMap<Integer, Integer> hashMap = new HashMap<>();
+            ArrayList<Integer> list = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                hashMap.put(i, i);
+                list.add(i);
+            }
+            
+            MAMap<String, String> treeMap = new MATreeMap<>();
+            MapElementListener<String, String> listener = new MapElementListener<String, String>() {};
+            treeMap.addMapElementListener(listener);
+            treeMap.put("a", "A");
+            treeMap.put("b", "B");
+            treeMap.remove("a");
+            
+            MAMap<String, String> hot = new MAHashMap<>();
+            MAMap<String, String> cold = new MAHashMap<>();
+            instrumentation.track(hot, "hot");
+            hot.addMapElementListener(listener);
+            cold.addMapElementListener(listener);
+            hot.put("a", "A");
+            hot.put("b", "B");
+            cold.put("a", "A");
+            cold.put("b", "B");
+            
+            MAMap<String, String> lazy = new LazyMap();
+            instrumentation.track(lazy, "lazy");
+            lazy.size();
+            lazy.size();
+            
+            Unstable unstable = new Unstable("a");
+            new HashSet<Unstable>(Unstable.EQUALITY_COMPARATOR).add(unstable);
+            unstable.setVal("b");
+            
+            Map<String, Long> counters = new java.util.HashMap<>();
+            counters.put("enabled", CollectionInstrumentations.ENABLED ? 1L : 0L);
+            instrumentation.getResizeCountByType().forEach((k, v) -> counters.put("resize:" + k, v));
+            instrumentation.getEventCountByType().forEach((k, v) -> counters.put("event:" + k, v));
+            instrumentation.getEventCountByName().forEach((k, v) -> counters.put("eventByName:" + k, v));
+            instrumentation.getLoadCountByName().forEach((k, v) -> counters.put("loadByName:" + k, v));
+            counters.put("eventCount", instrumentation.getEventCount());
+            counters.put("freezingSuspend", instrumentation.getFreezingSuspendCount());
+            counters.put("freezingResume", instrumentation.getFreezingResumeCount());
+            return counters;
+        }
+    }
+    
+    private static class LazyMap extends AbstractLazyMAMap<String, String> {
+        
+        LazyMap() {
+            super(null);
+        }
+
+        @Override
+        protected RootData<String, String> createRootData() {
+            return new AbstractLazyMAMap.RootData<String, String>() {
+                
+                private static final long serialVersionUID = 6024531226427446371L;
+
+                private boolean loaded;
+                
+                private boolean loading;
+
+                @Override
+                public boolean isLoaded() {
+                    return this.loaded;
+                }
+
+                @Override
+                public boolean isLoading() {
+                    return this.loading;
+                }
+
+                @Override
+                public boolean isLoadable() {
+                    return true;
+                }
+
+                @Override
+                protected void setLoaded(boolean loaded) {
+                    this.loaded = loaded;
+                }
+
+                @Override
+                protected void setLoading(boolean loading) {
+                    this.loading = loading;
+                }
+
+                @Override
+                protected void onLoad() {
+                    this.setBase(new MAHashMap<String, String>());
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.babyfish.collection.MACollections;
+import org.babyfish.collection.MALinkedHashCache;
+import org.babyfish.collection.MALinkedHashCache.EvictionPolicy;
+import org.babyfish.collection.MAOrderedMap;
+import org.babyfish.collection.event.MapElementEvent;
+import org.babyfish.collection.event.MapElementListener;
+import org.babyfish.collection.event.modification.OrderedMapModifications;
+import org.babyfish.data.event.ModificationType;
+import org.babyfish.data.event.PropertyVersion;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Tao Chen
+ */
+public class MALinkedHashCacheTest {
+    
+    @Test
+    public void testLRU() {
+        MALinkedHashCache<String, Integer> cache = new MALinkedHashCache<>(3);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+        Assert.assertEquals(1, cache.get("a").intValue());
+        cache.put("d", 4);
+        Assert.assertEquals("[c, a, d]", cache.keySet().toString());
+        Assert.assertNull(cache.get("b"));
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(1, cache.getEvictionCount());
+        
+        // computeIfAbsent is based on get() and put()
+        Assert.assertEquals(5, cache.computeIfAbsent("e", k -> 5).intValue());
+        Assert.assertEquals("[a, d, e]", cache.keySet().toString());
+        Assert.assertEquals(2, cache.getMissCount());
+        Assert.assertEquals(2, cache.getEvictionCount());
+        
+        cache.resetStatistics();
+        Assert.assertEquals(0, cache.getHitCount());
+        Assert.assertEquals(0, cache.getMissCount());
+        Assert.assertEquals(0, cache.getEvictionCount());
+    }
+    
+    @Test
+    public void testLFUAndFIFO() {
+        MALinkedHashCache<String, Integer> lfu = new MALinkedHashCache<>(EvictionPolicy.LFU, 3);
+        MALinkedHashCache<String, Integer> fifo = new MALinkedHashCache<>(EvictionPolicy.FIFO, 3);
+        for (MALinkedHashCache<String, Integer> cache : new ArrayList<>(java.util.Arrays.asList(lfu, fifo))) {
+            cache.put("a", 1);
+            cache.put("b", 2);
+            cache.put("c", 3);
+            cache.get("a");
+        }
+        Assert.assertEquals("[b, a, c]", lfu.keySet().toString());
+        Assert.assertEquals("[a, b, c]", fifo.keySet().toString());
+        lfu.put("d", 4);
+        fifo.put("d", 4);
+        Assert.assertEquals("[a, c, d]", lfu.keySet().toString());
+        Assert.assertEquals("[b, c, d]", fifo.keySet().toString());
+    }
+    
+    @Test
+    public void testWeigherAndEvictionEvent() {
+        MALinkedHashCache<String, String> cache = 
+                new MALinkedHashCache.Builder<String, String>()
+                .setWeigher((MALinkedHashCache.Weigher<String, String> & Serializable)(k, v) -> v.length(), 10)
+                .build();
+        final List<String> evicted = new ArrayList<>();
+        final List<String> removed = new ArrayList<>();
+        cache.addMapElementListener(new MapElementListener<String, String>() {
+            @Override
+            public void modified(MapElementEvent<String, String> e) throws Throwable {
+                if (e.getModificationType() == ModificationType.DETACH) {
+                    if (e.getModification() instanceof OrderedMapModifications.Evict<?, ?>) {
+                        evicted.add(e.getKey(PropertyVersion.DETACH));
+                    } else {
+                        removed.add(e.getKey(PropertyVersion.DETACH));
+                    }
+                }
+            }
+        });
+        cache.put("a", "1234");
+        cache.put("b", "1234");
+        Assert.assertEquals(8, cache.getWeight());
+        cache.put("c", "123");
+        Assert.assertEquals("[b, c]", cache.keySet().toString());
+        Assert.assertEquals(7, cache.getWeight());
+        cache.put("b", "1");
+        Assert.assertEquals(4, cache.getWeight());
+        cache.remove("c");
+        Assert.assertEquals(1, cache.getWeight());
+        cache.put("d", "123456789012");
+        Assert.assertTrue(cache.isEmpty());
+        Assert.assertEquals(0, cache.getWeight());
+        Assert.assertEquals("[a, b, d]", evicted.toString());
+        Assert.assertEquals("[c]", removed.toString());
+        Assert.assertEquals(3, cache.getEvictionCount());
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSerialization() throws IOException, ClassNotFoundException {
+        MALinkedHashCache<String, String> cache = 
+                new MALinkedHashCache<>(
+                        EvictionPolicy.LRU, 
+                        (MALinkedHashCache.Weigher<String, String> & Serializable)(k, v) -> v.length(), 
+                        10);
+        cache.put("a", "123");
+        cache.put("b", "1234");
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (ObjectOutputStream oout = new ObjectOutputStream(bout)) {
+            oout.writeObject(cache);
+        }
+        MALinkedHashCache<String, String> deserialized;
+        try (ObjectInputStream oin = new ObjectInputStream(new ByteArrayInputStream(bout.toByteArray()))) {
+            deserialized = (MALinkedHashCache<String, String>)oin.readObject();
+        }
+        Assert.assertEquals(cache, deserialized);
+        Assert.assertEquals(7, deserialized.getWeight());
+        Assert.assertEquals(10, deserialized.maxWeight());
+        deserialized.put("c", "1234");
+        Assert.assertEquals("[b, c]", deserialized.keySet().toString());
+    }
+    
+    @Test
+    public void testLocked() throws InterruptedException {
+        final MALinkedHashCache<Integer, Integer> cache = new MALinkedHashCache<>(100);
+        final MAOrderedMap<Integer, Integer> locked = MACollections.locked(cache);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            final int seed = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 5000; i++) {
+                        int key = (i * 31 + seed) % 300;
+                        if (locked.get(key) == null) {
+                            locked.put(key, key);
+                        }
+                    }
+                } catch (Throwable ex) {
+                    failure.compareAndSet(null, ex);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertNull(failure.get());
+        Assert.assertEquals(100, locked.size());
+        Assert.assertEquals(8 * 5000, cache.getHitCount() + cache.getMissCount());
+        // Two threads may miss the same key at the same time, the second put replaces the first one
+        Assert.assertTrue(cache.getEvictionCount() <= cache.getMissCount() - 100);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.util.Iterator;
+
+import org.babyfish.collection.MAArrayList;
+import org.babyfish.collection.MAList;
+import org.babyfish.collection.MANavigableMap;
+import org.babyfish.collection.MATreeMap;
+import org.babyfish.collection.event.ElementEvent;
+import org.babyfish.collection.event.ElementListener;
+import org.babyfish.collection.event.ListElementEvent;
+import org.babyfish.collection.event.MapElementEvent;
+import org.babyfish.collection.event.MapElementListener;
+import org.babyfish.data.event.PropertyVersion;
+import org.junit.Test;
+
+import junit.framework.Assert;
+
+/**
+ * The MA collections skip the creation of the handlers and events 
+ * when nothing can observe the modification, these cases make sure
+ * that the events are still raised once something observes it.
+ * 
+ * @author Tao Chen
+ */
+public class MAModificationObservedTest {
+
+    @Test
+    public void testListenerAddedLater() {
+        StringBuilder builder = new StringBuilder();
+        MAList<String> list = new MAArrayList<>();
+        list.add("A");
+        list.remove("A");
+        list.addElementListener(new ElementListener<String>() {
+            @Override
+            public void modified(ElementEvent<String> e) throws Throwable {
+                builder.append(e.getModificationType()).append(':').append(e.getElement(PropertyVersion.ATTACH));
+            }
+        });
+        list.add("B");
+        Assert.assertEquals("ATTACH:B", builder.toString());
+    }
+    
+    @Test
+    public void testOverriddenEventMethod() {
+        StringBuilder builder = new StringBuilder();
+        MAList<String> list = new MAArrayList<String>() {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected void onModified(ListElementEvent<String> e) throws Throwable {
+                builder.append(e.getModificationType()).append(':').append(e.getElement(PropertyVersion.ATTACH));
+            }
+        };
+        list.add("A");
+        list.add("B");
+        Assert.assertEquals("ATTACH:AATTACH:B", builder.toString());
+    }
+    
+    @Test
+    public void testModifyViaViewOfObservedList() {
+        StringBuilder builder = new StringBuilder();
+        MAList<String> list = new MAArrayList<>();
+        list.add("A");
+        list.add("B");
+        list.add("C");
+        list.addElementListener(new ElementListener<String>() {
+            @Override
+            public void modified(ElementEvent<String> e) throws Throwable {
+                builder.append(e.getModificationType()).append(':').append(e.getElement(PropertyVersion.DETACH));
+            }
+        });
+        list.subList(1, 3).subList(0, 1).clear();
+        Iterator<String> itr = list.iterator();
+        itr.next();
+        itr.remove();
+        Assert.assertEquals("DETACH:BDETACH:A", builder.toString());
+        Assert.assertEquals("[C]", list.toString());
+    }
+    
+    @Test
+    public void testModifyViaViewOfObservedMap() {
+        StringBuilder builder = new StringBuilder();
+        MANavigableMap<String, String> map = new MATreeMap<>();
+        map.put("A", "a");
+        map.put("B", "b");
+        map.put("C", "c");
+        map.addMapElementListener(new MapElementListener<String, String>() {
+            @Override
+            public void modified(MapElementEvent<String, String> e) throws Throwable {
+                builder.append(e.getModificationType()).append(':').append(e.getKey(PropertyVersion.DETACH));
+            }
+        });
+        map.descendingMap().headMap("B", true).pollFirstEntry();
+        map.keySet().remove("A");
+        Assert.assertEquals("DETACH:CDETACH:A", builder.toString());
+        Assert.assertEquals("{B=b}", map.toString());
+    }
+    
+    @Test
+    public void testListenerOnView() {
+        StringBuilder builder = new StringBuilder();
+        MANavigableMap<String, String> map = new MATreeMap<>();
+        MANavigableMap<String, String> headMap = map.headMap("B", true);
+        headMap.addMapElementListener(new MapElementListener<String, String>() {
+            @Override
+            public void modified(MapElementEvent<String, String> e) throws Throwable {
+                builder.append(e.getModificationType()).append(':').append(e.getKey(PropertyVersion.ATTACH));
+            }
+        });
+        headMap.put("A", "a");
+        map.put("C", "c");
+        Assert.assertEquals("ATTACH:A", builder.toString());
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import org.babyfish.collection.BidiType;
+import org.babyfish.collection.EqualityComparator;
+import org.babyfish.collection.HashMap;
+import org.babyfish.collection.HashSet;
+import org.babyfish.collection.HashTableType;
+import org.babyfish.collection.MAHashMap;
+import org.babyfish.collection.MAMap;
+import org.babyfish.collection.ReplacementRule;
+import org.babyfish.collection.XMap;
+import org.babyfish.collection.XSet;
+import org.babyfish.collection.event.MapElementEvent;
+import org.babyfish.collection.event.MapElementListener;
+import org.babyfish.data.event.ModificationType;
+import org.babyfish.data.event.PropertyVersion;
+import org.babyfish.test.collection.FrozenContextTest.Element;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * @author Tao Chen
+ */
+public class OpenHashEntriesTest {
+    
+    private static final EqualityComparator<String> CASE_INSENSITIVE = 
+            new EqualityComparator<String>() {
+                @Override
+                public int hashCode(String o) {
+                    return o.toLowerCase().hashCode();
+                }
+                @Override
+                public boolean equals(String o1, String o2) {
+                    return o1.equalsIgnoreCase(o2);
+                }
+            };
+
+    @Test
+    public void testRandomOperationsAgainstJdk() {
+        Random random = new Random(13);
+        XMap<Integer, String> map = new HashMap<>(HashTableType.OPEN_ADDRESSING);
+        Map<Integer, String> expected = new java.util.HashMap<>();
+        for (int i = 0; i < 30000; i++) {
+            Integer key = random.nextInt(20) == 0 ? null : random.nextInt(600);
+            switch (random.nextInt(4)) {
+            case 0:
+                Assert.assertEquals(expected.remove(key), map.remove(key));
+                break;
+            case 1:
+                Assert.assertEquals(expected.get(key), map.get(key));
+                Assert.assertEquals(expected.containsKey(key), map.containsKey(key));
+                break;
+            default:
+                Assert.assertEquals(expected.put(key, "V" + i), map.put(key, "V" + i));
+                break;
+            }
+            Assert.assertEquals(expected.size(), map.size());
+        }
+        Assert.assertEquals(expected, map);
+        Assert.assertEquals(expected.hashCode(), map.hashCode());
+        
+        map.keySet().retainAll(new ArrayList<>(expected.keySet()).subList(0, expected.size() / 2));
+        expected.keySet().retainAll(new ArrayList<>(expected.keySet()).subList(0, expected.size() / 2));
+        Assert.assertEquals(expected, map);
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+    }
+    
+    @Test
+    public void testLookupAllocatesNoEntry() {
+        java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean)threadMXBean;
+        Assume.assumeTrue(allocationMXBean.isThreadAllocatedMemorySupported());
+        XMap<Integer, String> map = new HashMap<>(HashTableType.OPEN_ADDRESSING);
+        Integer[] keys = new Integer[1024];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i * 7;
+            map.put(keys[i], "V" + i);
+        }
+        int found = lookup(map, keys);
+        long threadId = Thread.currentThread().getId();
+        long allocated = allocationMXBean.getThreadAllocatedBytes(threadId);
+        found += lookup(map, keys);
+        allocated = allocationMXBean.getThreadAllocatedBytes(threadId) - allocated;
+        Assert.assertEquals(4 * keys.length, found);
+        // One entry view per lookup would be at least 16 bytes * 2048 lookups
+        Assert.assertTrue("allocated " + allocated + " bytes", allocated < keys.length * 8);
+    }
+    
+    @Test
+    public void testIteratorRemoveVisitsEachEntryOnce() {
+        Random random = new Random(29);
+        for (int round = 0; round < 300; round++) {
+            XSet<Integer> set = new HashSet<>(
+                    HashTableType.OPEN_ADDRESSING, 
+                    ReplacementRule.NEW_REFERENCE_WIN, 
+                    null, 
+                    4, 
+                    .9F);
+            java.util.Set<Integer> expected = new java.util.HashSet<>();
+            int count = random.nextInt(80);
+            for (int i = 0; i < count; i++) {
+                // Multiples of 64 collide in small tables so the clusters wrap around
+                Integer e = random.nextInt(16) * 64 + random.nextInt(2);
+                set.add(e);
+                expected.add(e);
+            }
+            int size = set.size();
+            java.util.Set<Integer> visited = new java.util.HashSet<>();
+            for (Iterator<Integer> itr = set.iterator(); itr.hasNext();) {
+                Integer e = itr.next();
+                Assert.assertTrue(visited.add(e));
+                if (random.nextBoolean()) {
+                    itr.remove();
+                    expected.remove(e);
+                }
+            }
+            Assert.assertEquals(size, visited.size());
+            Assert.assertEquals(expected, set);
+        }
+    }
+    
+    @Test
+    public void testEqualityComparatorAndReplacementRule() {
+        XMap<String, Integer> map = new HashMap<>(
+                HashTableType.OPEN_ADDRESSING, 
+                BidiType.NONE,
+                ReplacementRule.OLD_REFERENCE_WIN,
+                CASE_INSENSITIVE,
+                null,
+                16,
+                .75F);
+        map.put("Key", 1);
+        map.put("KEY", 2);
+        Assert.assertEquals(1, map.size());
+        Assert.assertEquals("Key", map.keySet().iterator().next());
+        Assert.assertEquals(2, map.get("key").intValue());
+        
+        map = new HashMap<>(
+                HashTableType.OPEN_ADDRESSING, 
+                BidiType.NONE,
+                ReplacementRule.NEW_REFERENCE_WIN,
+                CASE_INSENSITIVE,
+                null,
+                16,
+                .75F);
+        map.put("Key", 1);
+        map.put("KEY", 2);
+        Assert.assertEquals("KEY", map.keySet().iterator().next());
+    }
+    
+    @Test
+    public void testFrozenContext() {
+        XSet<Element> set = new HashSet<>(
+                HashTableType.OPEN_ADDRESSING,
+                ReplacementRule.NEW_REFERENCE_WIN,
+                Element.CODE_EQUALITY_COMPARATOR,
+                16,
+                .75F);
+        List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Element element = new Element(Integer.toString(i), "Name" + i);
+            elements.add(element);
+            set.add(element);
+        }
+        for (int i = 0; i < 50; i++) {
+            elements.get(i).setCode("C" + i);
+        }
+        Assert.assertEquals(50, set.size());
+        for (int i = 0; i < 50; i++) {
+            Assert.assertTrue(set.contains(new Element("C" + i, null)));
+            Assert.assertFalse(set.contains(new Element(Integer.toString(i), null)));
+        }
+        // Conflict, the old element is removed when the other one is resumed
+        elements.get(0).setCode("C1");
+        Assert.assertEquals(49, set.size());
+        set.clear();
+        elements.get(1).setCode("Detached");
+        Assert.assertTrue(set.isEmpty());
+    }
+    
+    @Test
+    public void testMAEvents() {
+        MAMap<String, Integer> map = new MAHashMap<>(HashTableType.OPEN_ADDRESSING);
+        StringBuilder builder = new StringBuilder();
+        map.addMapElementListener(new MapElementListener<String, Integer>() {
+            @Override
+            public void modified(MapElementEvent<String, Integer> e) throws Throwable {
+                builder
+                .append(e.getModificationType() == ModificationType.DETACH ? "-" : "+")
+                .append(
+                        e.getModificationType() == ModificationType.DETACH ? 
+                                e.getKey(PropertyVersion.DETACH) : 
+                                e.getKey(PropertyVersion.ATTACH))
+                .append(';');
+            }
+        });
+        map.put("a", 1);
+        map.put("b", 2);
+        map.keySet().remove("a");
+        Assert.assertEquals("+a;+b;-a;", builder.toString());
+    }
+    
+    @Test
+    public void testEntryViews() {
+        XMap<String, Integer> map = new HashMap<>(HashTableType.OPEN_ADDRESSING);
+        for (int i = 0; i < 10; i++) {
+            map.put("K" + i, i);
+        }
+        Entry<String, Integer> entry = map.entrySet().iterator().next();
+        String key = entry.getKey();
+        map.put(key, 100);
+        Assert.assertEquals(100, entry.getValue().intValue());
+        for (int i = 10; i < 1000; i++) {
+            map.put("K" + i, i);
+        }
+        for (int i = 10; i < 990; i++) {
+            if (!key.equals("K" + i)) {
+                map.remove("K" + i);
+            }
+        }
+        map.put(key, 200);
+        Assert.assertEquals(200, entry.getValue().intValue());
+        entry.setValue(300);
+        Assert.assertEquals(300, map.get(key).intValue());
+        map.remove(key);
+        Assert.assertEquals(key, entry.getKey());
+        Assert.assertEquals(300, entry.getValue().intValue());
+        map.put(key, 400);
+        Assert.assertEquals(300, entry.getValue().intValue());
+    }
+    
+    @Test
+    public void testDetachedValueOfEvents() {
+        MAMap<String, Integer> map = new MAHashMap<>(HashTableType.OPEN_ADDRESSING);
+        StringBuilder builder = new StringBuilder();
+        map.addMapElementListener(new MapElementListener<String, Integer>() {
+            @Override
+            public void modified(MapElementEvent<String, Integer> e) throws Throwable {
+                if (e.getModificationType() == ModificationType.DETACH) {
+                    builder
+                    .append(e.getKey(PropertyVersion.DETACH))
+                    .append('=')
+                    .append(e.getValue(PropertyVersion.DETACH))
+                    .append(';');
+                }
+            }
+        });
+        for (int i = 0; i < 100; i++) {
+            map.put("K" + i, i);
+        }
+        map.keySet().retainAll(Arrays.asList("K3", "K4"));
+        Assert.assertEquals(2, map.size());
+        Assert.assertTrue(builder.toString().contains("K7=7;"));
+        builder.setLength(0);
+        map.clear();
+        Assert.assertEquals(
+                new java.util.HashSet<>(Arrays.asList("K3=3", "K4=4")), 
+                new java.util.HashSet<>(Arrays.asList(builder.toString().split(";"))));
+    }
+    
+    @Test
+    public void testSerialization() throws IOException, ClassNotFoundException {
+        XMap<String, Integer> map = new HashMap<>(HashTableType.OPEN_ADDRESSING);
+        for (int i = 0; i < 100; i++) {
+            map.put("K" + i, i);
+        }
+        map.put(null, -1);
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bout)) {
+            out.writeObject(map);
+        }
+        Object deserialized;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bout.toByteArray()))) {
+            deserialized = in.readObject();
+        }
+        Assert.assertEquals(map, deserialized);
+    }
+    
+    private static int lookup(XMap<Integer, String> map, Integer[] keys) {
+        int found = 0;
+        for (Integer key : keys) {
+            if (map.get(key) != null) {
+                found++;
+            }
+            if (map.containsKey(key)) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
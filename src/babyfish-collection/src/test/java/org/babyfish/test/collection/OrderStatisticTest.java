@@ -0,0 +1,196 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+
+import org.babyfish.collection.MACollections;
+import org.babyfish.collection.MANavigableMap;
+import org.babyfish.collection.MATreeMap;
+import org.babyfish.collection.TreeMap;
+import org.babyfish.collection.TreeSet;
+import org.babyfish.collection.XNavigableMap;
+import org.babyfish.collection.XNavigableSet;
+import org.babyfish.collection.spi.wrapper.AbstractWrapperMANavigableMap;
+import org.babyfish.collection.spi.wrapper.AbstractWrapperXNavigableMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Tao Chen
+ */
+public class OrderStatisticTest {
+    
+    @Test
+    public void testMapAndViews() {
+        Random random = new Random(7);
+        XNavigableMap<Integer, String> map = new TreeMap<>();
+        java.util.TreeMap<Integer, String> expected = new java.util.TreeMap<>();
+        for (int i = 0; i < 2000; i++) {
+            int key = random.nextInt(1000);
+            if (random.nextInt(4) == 0) {
+                map.remove(key);
+                expected.remove(key);
+            } else {
+                map.put(key, "v" + key);
+                expected.put(key, "v" + key);
+            }
+            if (i % 100 == 0) {
+                assertSame(expected, map);
+            }
+        }
+        assertSame(expected, map);
+        assertSame(expected.descendingMap(), map.descendingMap());
+        assertSame(expected.headMap(300, false), map.headMap(300, false));
+        assertSame(expected.tailMap(300, true), map.tailMap(300, true));
+        assertSame(expected.subMap(250, true, 750, false), map.subMap(250, true, 750, false));
+        assertSame(
+                expected.subMap(250, true, 750, true).descendingMap().headMap(400, true), 
+                map.subMap(250, true, 750, true).descendingMap().headMap(400, true));
+        assertSame(expected.subMap(2000, true, 3000, true), map.subMap(2000, true, 3000, true));
+    }
+    
+    @Test
+    public void testSetAndViews() {
+        XNavigableSet<String> set = new TreeSet<>();
+        for (char c = 'a'; c <= 'z'; c++) {
+            set.add(Character.toString(c));
+        }
+        Assert.assertEquals(0, set.indexOf("a"));
+        Assert.assertEquals(25, set.indexOf("z"));
+        Assert.assertEquals(-1, set.indexOf("A"));
+        Assert.assertEquals("k", set.elementAt(10));
+        Assert.assertEquals("z", set.descendingSet().elementAt(0));
+        Assert.assertEquals(2, set.descendingSet().indexOf("x"));
+        XNavigableSet<String> subSet = set.subSet("f", true, "p", false);
+        Assert.assertEquals(0, subSet.indexOf("f"));
+        Assert.assertEquals(-1, subSet.indexOf("p"));
+        Assert.assertEquals("o", subSet.elementAt(9));
+        Assert.assertEquals("o", subSet.descendingSet().elementAt(0));
+        XNavigableMap<String, Integer> map = new TreeMap<>();
+        for (String s : set) {
+            map.put(s, (int)s.charAt(0));
+        }
+        Assert.assertEquals(3, map.keySet().indexOf("d"));
+        Assert.assertEquals("w", map.descendingKeySet().elementAt(3));
+        try {
+            subSet.elementAt(10);
+            Assert.fail();
+        } catch (IndexOutOfBoundsException ex) {
+        }
+        try {
+            set.elementAt(-1);
+            Assert.fail();
+        } catch (IndexOutOfBoundsException ex) {
+        }
+    }
+    
+    @Test
+    public void testEntryAtOfMAMapAndWrappers() {
+        MANavigableMap<Integer, String> map = new MATreeMap<>();
+        for (int i = 0; i < 10; i++) {
+            map.put(i * 10, "v" + i);
+        }
+        MANavigableMap.MAEntry<Integer, String> entry = map.entryAt(3);
+        Assert.assertEquals(30, entry.getKey().intValue());
+        entry.setValue("changed");
+        Assert.assertEquals("changed", map.get(30));
+        
+        XNavigableMap<Integer, String> unmodifiable = MACollections.unmodifiable((XNavigableMap<Integer, String>)map);
+        Assert.assertEquals(7, unmodifiable.indexOfKey(70));
+        Assert.assertEquals(90, unmodifiable.descendingMap().keyAt(0).intValue());
+        Assert.assertEquals("v5", unmodifiable.entryAt(5).getValue());
+        try {
+            unmodifiable.entryAt(5).setValue("x");
+            Assert.fail();
+        } catch (UnsupportedOperationException ex) {
+        }
+        
+        XNavigableSet<Integer> locked = MACollections.locked((XNavigableSet<Integer>)map.keySet());
+        Assert.assertEquals(4, locked.indexOf(40));
+        Assert.assertEquals(80, locked.elementAt(8).intValue());
+    }
+    
+    @Test
+    public void testEntryAtOutOfRange() {
+        MANavigableMap<Integer, String> maMap = new MATreeMap<>();
+        XNavigableMap<Integer, String> xMap = new TreeMap<>();
+        for (int i = 0; i < 10; i++) {
+            maMap.put(i, "v" + i);
+            xMap.put(i, "v" + i);
+        }
+        assertEntryAtOutOfRange(maMap);
+        assertEntryAtOutOfRange(maMap.descendingMap());
+        assertEntryAtOutOfRange(maMap.subMap(2, true, 5, true));
+        assertEntryAtOutOfRange(xMap);
+        assertEntryAtOutOfRange(xMap.headMap(4, false).descendingMap());
+        assertEntryAtOutOfRange(MACollections.unmodifiable(xMap));
+        assertEntryAtOutOfRange(new AbstractWrapperMANavigableMap<Integer, String>(maMap) {});
+        assertEntryAtOutOfRange(new AbstractWrapperXNavigableMap<Integer, String>(xMap) {});
+        assertEntryAtOutOfRange(new TreeMap<Integer, String>());
+    }
+    
+    private static void assertEntryAtOutOfRange(XNavigableMap<Integer, String> map) {
+        int size = map.size();
+        if (size != 0) {
+            Assert.assertEquals(map.firstKey(), map.entryAt(0).getKey());
+            Assert.assertEquals(map.lastKey(), map.entryAt(size - 1).getKey());
+        }
+        for (int index : new int[] { -1, size, size + 1 }) {
+            try {
+                map.entryAt(index);
+                Assert.fail();
+            } catch (IndexOutOfBoundsException ex) {
+            }
+            try {
+                map.keyAt(index);
+                Assert.fail();
+            } catch (IndexOutOfBoundsException ex) {
+            }
+        }
+    }
+    
+    private static void assertSame(NavigableMap<Integer, String> expected, XNavigableMap<Integer, String> map) {
+        List<Integer> keys = new ArrayList<>(expected.keySet());
+        Assert.assertEquals(keys.size(), map.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Integer key = keys.get(i);
+            Assert.assertEquals(i, map.indexOfKey(key));
+            Assert.assertEquals(key, map.keyAt(i));
+            Map.Entry<Integer, String> entry = map.entryAt(i);
+            Assert.assertEquals(key, entry.getKey());
+            Assert.assertEquals(expected.get(key), entry.getValue());
+            Assert.assertEquals(Collections.binarySearch(keys, key, expected.comparator()), i);
+        }
+        for (int key = -1; key <= 1001; key += 7) {
+            if (!expected.containsKey(key)) {
+                Assert.assertEquals(-1, map.indexOfKey(key));
+            }
+        }
+        try {
+            map.entryAt(keys.size());
+            Assert.fail();
+        } catch (IndexOutOfBoundsException ex) {
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.lang.reflect.Field;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Random;
+
+import org.babyfish.collection.MATreeSet;
+import org.babyfish.collection.TreeMap;
+import org.babyfish.collection.XNavigableMap;
+import org.babyfish.collection.event.ElementEvent;
+import org.babyfish.collection.event.ElementListener;
+import org.babyfish.data.event.PropertyVersion;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Tao Chen
+ */
+public class RangeClearTest {
+
+    @Test
+    public void testRandomRanges() {
+        Random random = new Random(3);
+        for (int round = 0; round < 200; round++) {
+            XNavigableMap<Integer, String> map = new TreeMap<>();
+            java.util.TreeMap<Integer, String> expected = new java.util.TreeMap<>();
+            int count = random.nextInt(300);
+            for (int i = 0; i < count; i++) {
+                int key = random.nextInt(1000);
+                map.put(key, "v" + key);
+                expected.put(key, "v" + key);
+            }
+            int from = random.nextInt(1000);
+            int to = from + random.nextInt(1000 - from + 1);
+            boolean fromInclusive = random.nextBoolean();
+            boolean toInclusive = random.nextBoolean();
+            switch (random.nextInt(4)) {
+            case 0:
+                map.headMap(to, toInclusive).clear();
+                expected.headMap(to, toInclusive).clear();
+                break;
+            case 1:
+                map.tailMap(from, fromInclusive).clear();
+                expected.tailMap(from, fromInclusive).clear();
+                break;
+            case 2:
+                map.subMap(from, fromInclusive, to, toInclusive).clear();
+                expected.subMap(from, fromInclusive, to, toInclusive).clear();
+                break;
+            default:
+                map.descendingMap().subMap(to, toInclusive, from, fromInclusive).clear();
+                expected.descendingMap().subMap(to, toInclusive, from, fromInclusive).clear();
+                break;
+            }
+            assertSame(expected, map);
+            for (int i = 0; i < 100; i++) {
+                int key = random.nextInt(1000);
+                if (random.nextBoolean()) {
+                    map.remove(key);
+                    expected.remove(key);
+                } else {
+                    map.put(key, "r" + key);
+                    expected.put(key, "r" + key);
+                }
+            }
+            assertSame(expected, map);
+        }
+    }
+    
+    @Test
+    public void testRemovedEntries() {
+        XNavigableMap<Integer, String> map = new TreeMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, "v" + i);
+        }
+        NavigableMap<Integer, String> head = map.headMap(50, false);
+        Assert.assertEquals(50, head.size());
+        head.clear();
+        Assert.assertTrue(head.isEmpty());
+        Assert.assertEquals(50, map.size());
+        Assert.assertEquals(Integer.valueOf(50), map.firstKey());
+        Assert.assertNull(map.get(10));
+        map.put(10, "x");
+        Assert.assertEquals(1, head.size());
+        Assert.assertEquals(0, map.indexOfKey(10));
+    }
+    
+    @Test
+    public void testEvents() {
+        MATreeSet<Integer> set = new MATreeSet<>();
+        for (int i = 0; i < 20; i++) {
+            set.add(i);
+        }
+        StringBuilder builder = new StringBuilder();
+        set.addElementListener(new ElementListener<Integer>() {
+            @Override
+            public void modified(ElementEvent<Integer> e) throws Throwable {
+                builder.append('-').append(e.getElement(PropertyVersion.DETACH));
+            }
+        });
+        NavigableSet<Integer> subSet = set.subSet(5, true, 9, false);
+        subSet.clear();
+        Assert.assertEquals("-5-6-7-8", builder.toString());
+        Assert.assertEquals(16, set.size());
+        Assert.assertEquals(Integer.valueOf(9), set.higher(4));
+    }
+    
+    private static void assertSame(
+            java.util.TreeMap<Integer, String> expected, 
+            XNavigableMap<Integer, String> map) {
+        Assert.assertEquals(expected, map);
+        Assert.assertEquals(expected.size(), map.size());
+        int index = 0;
+        for (Integer key : expected.keySet()) {
+            Assert.assertEquals(key, map.keyAt(index));
+            Assert.assertEquals(index, map.indexOfKey(key));
+            index++;
+        }
+        Object root = getFieldValue(getFieldValue(map, "baseEntries"), "root");
+        if (root != null) {
+            Assert.assertFalse((Boolean)getFieldValue(root, "red"));
+        }
+        assertRedBlackTree(root);
+    }
+    
+    /*
+     * Split and join pass the black heights down instead of measuring
+     * them, so verify that the trees they build are still valid.
+     * Returns the black height.
+     */
+    private static int assertRedBlackTree(Object node) {
+        if (node == null) {
+            return 1;
+        }
+        Object left = getFieldValue(node, "left");
+        Object right = getFieldValue(node, "right");
+        boolean red = (Boolean)getFieldValue(node, "red");
+        if (red) {
+            Assert.assertFalse(left != null && (Boolean)getFieldValue(left, "red"));
+            Assert.assertFalse(right != null && (Boolean)getFieldValue(right, "red"));
+        }
+        for (Object child : new Object[] { left, right }) {
+            if (child != null) {
+                Assert.assertSame(node, getFieldValue(child, "parent"));
+            }
+        }
+        int leftSize = left == null ? 0 : (Integer)getFieldValue(left, "size");
+        int rightSize = right == null ? 0 : (Integer)getFieldValue(right, "size");
+        Assert.assertEquals(leftSize + rightSize + 1, getFieldValue(node, "size"));
+        int height = assertRedBlackTree(left);
+        Assert.assertEquals(height, assertRedBlackTree(right));
+        return red ? height : height + 1;
+    }
+    
+    private static Object getFieldValue(Object obj, String fieldName) {
+        for (Class<?> clazz = obj.getClass(); clazz != null; clazz = clazz.getSuperclass()) {
+            try {
+                Field field = clazz.getDeclaredField(fieldName);
+                field.setAccessible(true);
+                return field.get(obj);
+            } catch (NoSuchFieldException ex) {
+                continue;
+            } catch (IllegalAccessException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+        throw new RuntimeException("NoSuchField: " + fieldName + " of " + obj.getClass().getName());
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.util.Map;
+import java.util.Random;
+
+import org.babyfish.collection.ArrayList;
+import org.babyfish.collection.LinkedHashMap;
+import org.babyfish.collection.TreeMap;
+import org.babyfish.collection.TreeSet;
+import org.babyfish.collection.XNavigableMap;
+import org.babyfish.collection.XNavigableSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Tao Chen
+ */
+public class SortedBulkPutTest {
+
+    @Test
+    public void testBuildFromAscendingMap() {
+        Map<Integer, String> source = new LinkedHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            source.put(i * 2, "v" + i * 2);
+        }
+        XNavigableMap<Integer, String> map = new TreeMap<>(source);
+        java.util.TreeMap<Integer, String> expected = new java.util.TreeMap<>(source);
+        assertSame(expected, map);
+        modifyRandomly(expected, map);
+    }
+    
+    @Test
+    public void testMergeSortedMap() {
+        XNavigableMap<Integer, String> map = new TreeMap<>();
+        java.util.TreeMap<Integer, String> expected = new java.util.TreeMap<>();
+        for (int i = 0; i < 300; i++) {
+            map.put(i * 3, "a" + i);
+            expected.put(i * 3, "a" + i);
+        }
+        XNavigableMap<Integer, String> other = new TreeMap<>();
+        for (int i = 0; i < 500; i++) {
+            other.put(i * 2, "b" + i);
+        }
+        map.putAll(other);
+        expected.putAll(other);
+        assertSame(expected, map);
+        modifyRandomly(expected, map);
+    }
+    
+    @Test
+    public void testUnsortedSource() {
+        Map<Integer, String> source = new LinkedHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            source.put((i * 37) % 101, "v" + i);
+        }
+        XNavigableMap<Integer, String> map = new TreeMap<>();
+        map.put(5, "x");
+        map.putAll(source);
+        java.util.TreeMap<Integer, String> expected = new java.util.TreeMap<>();
+        expected.put(5, "x");
+        expected.putAll(source);
+        assertSame(expected, map);
+    }
+    
+    @Test
+    public void testMergeSortedSet() {
+        XNavigableSet<String> set = new TreeSet<>();
+        set.add("b");
+        set.add("d");
+        ArrayList<String> list = new ArrayList<>();
+        for (char c = 'a'; c <= 'z'; c++) {
+            list.add(Character.toString(c));
+        }
+        Assert.assertTrue(set.addAll(list));
+        Assert.assertEquals(26, set.size());
+        Assert.assertEquals("m", set.elementAt(12));
+        Assert.assertFalse(set.addAll(list));
+        Assert.assertEquals(26, set.size());
+        set.remove("m");
+        Assert.assertEquals("n", set.elementAt(12));
+    }
+    
+    private static void modifyRandomly(
+            java.util.TreeMap<Integer, String> expected, 
+            XNavigableMap<Integer, String> map) {
+        Random random = new Random(11);
+        for (int i = 0; i < 3000; i++) {
+            int key = random.nextInt(3000);
+            if (random.nextBoolean()) {
+                map.remove(key);
+                expected.remove(key);
+            } else {
+                map.put(key, "r" + key);
+                expected.put(key, "r" + key);
+            }
+        }
+        assertSame(expected, map);
+    }
+    
+    private static void assertSame(
+            java.util.TreeMap<Integer, String> expected, 
+            XNavigableMap<Integer, String> map) {
+        Assert.assertEquals(expected, map);
+        Assert.assertEquals(expected.size(), map.size());
+        int index = 0;
+        for (Integer key : expected.keySet()) {
+            Assert.assertEquals(key, map.keyAt(index));
+            Assert.assertEquals(index, map.indexOfKey(key));
+            index++;
+        }
+    }
+}
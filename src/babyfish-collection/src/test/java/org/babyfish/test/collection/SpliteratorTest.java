@@ -0,0 +1,168 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.babyfish.collection.ArrayList;
+import org.babyfish.collection.HashMap;
+import org.babyfish.collection.HashSet;
+import org.babyfish.collection.LinkedHashMap;
+import org.babyfish.collection.MAArrayList;
+import org.babyfish.collection.MATreeMap;
+import org.babyfish.collection.TreeMap;
+import org.babyfish.collection.XList;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Tao Chen
+ */
+public class SpliteratorTest {
+    
+    @Test
+    public void testList() {
+        XList<Integer> list = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            list.add(i);
+        }
+        Spliterator<Integer> spliterator = list.spliterator();
+        Assert.assertEquals(10000, spliterator.getExactSizeIfKnown());
+        Spliterator<Integer> prefix = spliterator.trySplit();
+        Assert.assertEquals(5000, prefix.getExactSizeIfKnown());
+        Assert.assertEquals(5000, spliterator.getExactSizeIfKnown());
+        Assert.assertEquals(sum(0, 10000), list.parallelStream().mapToLong(Integer::longValue).sum());
+        
+        List<Integer> subList = list.subList(100, 9000).subList(50, 8000);
+        Assert.assertEquals(7950, subList.spliterator().getExactSizeIfKnown());
+        Assert.assertEquals(sum(150, 8100), subList.parallelStream().mapToLong(Integer::longValue).sum());
+        Assert.assertEquals(
+                subList, 
+                subList.parallelStream().collect(Collectors.toList()));
+        
+        List<Integer> maList = new MAArrayList<>(list).subList(10, 20);
+        Assert.assertEquals(sum(10, 20), maList.parallelStream().mapToLong(Integer::longValue).sum());
+    }
+    
+    @Test
+    public void testHashMap() {
+        Map<Integer, Integer> map = new HashMap<>();
+        for (int i = 0; i < 10000; i++) {
+            map.put(i, -i);
+        }
+        Spliterator<Map.Entry<Integer, Integer>> spliterator = map.entrySet().spliterator();
+        Assert.assertEquals(10000, spliterator.getExactSizeIfKnown());
+        Assert.assertNotNull(spliterator.trySplit());
+        Assert.assertEquals(sum(0, 10000), map.keySet().parallelStream().mapToLong(Integer::longValue).sum());
+        Assert.assertEquals(-sum(0, 10000), map.values().parallelStream().mapToLong(Integer::longValue).sum());
+        Assert.assertEquals(
+                0L, 
+                map.entrySet().parallelStream().mapToLong(e -> e.getKey() + e.getValue()).sum());
+        Assert.assertEquals(
+                sum(0, 10000), 
+                new HashSet<>(map.keySet()).parallelStream().mapToLong(Integer::longValue).sum());
+    }
+    
+    @Test
+    public void testLinkedHashMap() {
+        Map<Integer, Integer> map = new LinkedHashMap<>();
+        for (int i = 10000; i > 0; i--) {
+            map.put(i, i);
+        }
+        Assert.assertEquals(
+                new java.util.ArrayList<>(map.keySet()), 
+                map.keySet().parallelStream().collect(Collectors.toList()));
+    }
+    
+    @Test
+    public void testTreeMap() {
+        NavigableMap<Integer, String> map = new TreeMap<>();
+        for (int i = 0; i < 10000; i++) {
+            map.put(i, "v" + i);
+        }
+        Spliterator<Integer> spliterator = map.keySet().spliterator();
+        Assert.assertEquals(10000, spliterator.getExactSizeIfKnown());
+        Spliterator<Integer> prefix = spliterator.trySplit();
+        Assert.assertEquals(5000, prefix.getExactSizeIfKnown());
+        Assert.assertTrue(prefix.tryAdvance(k -> Assert.assertEquals(0, k.intValue())));
+        Assert.assertTrue(spliterator.tryAdvance(k -> Assert.assertEquals(5000, k.intValue())));
+        Assert.assertEquals(
+                new java.util.ArrayList<>(map.keySet()), 
+                map.keySet().parallelStream().collect(Collectors.toList()));
+        
+        NavigableMap<Integer, String> subMap = map.subMap(1000, true, 3000, false);
+        Assert.assertEquals(2000, subMap.entrySet().spliterator().getExactSizeIfKnown());
+        Assert.assertEquals(sum(1000, 3000), subMap.keySet().parallelStream().mapToLong(Integer::longValue).sum());
+        Assert.assertEquals(
+                new java.util.ArrayList<>(subMap.descendingMap().keySet()), 
+                subMap.descendingMap().keySet().parallelStream().collect(Collectors.toList()));
+        Assert.assertEquals(
+                new java.util.ArrayList<>(subMap.descendingMap().values()), 
+                StreamSupport.stream(subMap.descendingMap().values().spliterator(), true).collect(Collectors.toList()));
+        
+        NavigableMap<Integer, String> maMap = new MATreeMap<>(map).headMap(100, false);
+        Assert.assertEquals(sum(0, 100), maMap.keySet().parallelStream().mapToLong(Integer::longValue).sum());
+        Assert.assertEquals(
+                sum(0, 100), 
+                maMap.entrySet().parallelStream().mapToLong(e -> e.getKey()).sum());
+    }
+    
+    @Test
+    public void testFailFast() {
+        XList<Integer> list = new ArrayList<>();
+        Map<Integer, Integer> hashMap = new HashMap<>();
+        NavigableMap<Integer, Integer> treeMap = new TreeMap<>();
+        for (int i = 0; i < 10; i++) {
+            list.add(i);
+            hashMap.put(i, i);
+            treeMap.put(i, i);
+        }
+        Spliterator<Integer> listSpliterator = list.spliterator();
+        Spliterator<Integer> hashSpliterator = hashMap.keySet().spliterator();
+        Spliterator<Integer> treeSpliterator = treeMap.subMap(2, true, 8, true).keySet().spliterator();
+        hashSpliterator.estimateSize();
+        list.add(10);
+        hashMap.put(10, 10);
+        treeMap.put(10, 10);
+        assertConcurrentModification(listSpliterator);
+        assertConcurrentModification(hashSpliterator);
+        assertConcurrentModification(treeSpliterator);
+    }
+    
+    private static void assertConcurrentModification(Spliterator<Integer> spliterator) {
+        try {
+            spliterator.forEachRemaining(e -> {});
+            Assert.fail();
+        } catch (ConcurrentModificationException ex) {
+        }
+    }
+    
+    private static long sum(int from, int to) {
+        long sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += i;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+
+import org.babyfish.collection.ArrayList;
+import org.babyfish.collection.HashMap;
+import org.babyfish.collection.LockMode;
+import org.babyfish.collection.MACollections;
+import org.babyfish.collection.MAHashMap;
+import org.babyfish.collection.MAMap;
+import org.babyfish.collection.TreeMap;
+import org.babyfish.collection.XList;
+import org.babyfish.collection.XMap;
+import org.babyfish.collection.XNavigableMap;
+import org.babyfish.collection.event.MapElementEvent;
+import org.babyfish.collection.event.MapElementListener;
+import org.babyfish.data.event.PropertyVersion;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Tao Chen
+ */
+public class StampedLockedTest {
+
+    @Test
+    public void testMap() {
+        XMap<String, Integer> map = MACollections.stampedLocked(new HashMap<String, Integer>());
+        map.put("a", 1);
+        map.put("b", 2);
+        Assert.assertEquals(Integer.valueOf(1), map.get("a"));
+        Assert.assertTrue(map.containsKey("b"));
+        Assert.assertFalse(map.containsKey("c"));
+        Assert.assertEquals(2, map.size());
+        Assert.assertTrue(map.keySet().contains("a"));
+        Assert.assertTrue(map.values().contains(2));
+        Function<XMap<String, Integer>, Integer> summer = m -> {
+            int total = 0;
+            for (Map.Entry<String, Integer> e : m.entrySet()) {
+                total += e.getValue();
+            }
+            return total;
+        };
+        int sum = MACollections.locking(map, LockMode.READ, summer);
+        Assert.assertEquals(3, sum);
+        map.keySet().remove("a");
+        Assert.assertNull(map.get("a"));
+        Assert.assertEquals(1, map.size());
+    }
+    
+    @Test
+    public void testSharedStampedLock() {
+        StampedLock stampedLock = new StampedLock();
+        XNavigableMap<Integer, String> map = MACollections.stampedLocked(
+                new TreeMap<Integer, String>(), stampedLock);
+        Assert.assertSame(map, MACollections.stampedLocked(map, stampedLock));
+        Assert.assertNotSame(map, MACollections.stampedLocked(map, new StampedLock()));
+        map.put(1, "1");
+        long stamp = stampedLock.tryOptimisticRead();
+        Assert.assertEquals("1", map.get(1));
+        Assert.assertTrue(stampedLock.validate(stamp));
+        map.put(2, "2");
+        Assert.assertFalse(stampedLock.validate(stamp));
+        Assert.assertEquals("2", map.headMap(3).get(2));
+    }
+    
+    @Test
+    public void testList() {
+        XList<String> list = MACollections.stampedLocked(new ArrayList<String>());
+        list.add("a");
+        list.add("b");
+        Assert.assertEquals("b", list.get(1));
+        Assert.assertTrue(list.contains("a"));
+        Assert.assertEquals("b", list.subList(1, 2).get(0));
+    }
+    
+    @Test
+    public void testConcurrentReading() throws InterruptedException {
+        XMap<Integer, Integer> map = MACollections.stampedLocked(new HashMap<Integer, Integer>());
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 20000; i++) {
+                map.put(i, i * 2);
+                if (i % 3 == 0) {
+                    map.remove(i / 2);
+                }
+            }
+        });
+        Thread reader = new Thread(() -> {
+            try {
+                for (int round = 0; round < 5; round++) {
+                    for (int i = 0; i < 20000; i++) {
+                        Integer value = map.get(i);
+                        if (value != null && value != i * 2) {
+                            throw new AssertionError("Bad value " + value + " for the key " + i);
+                        }
+                    }
+                }
+            } catch (Throwable ex) {
+                failure.set(ex);
+            }
+        });
+        writer.start();
+        reader.start();
+        writer.join();
+        reader.join();
+        Assert.assertNull(failure.get());
+        for (int i = 0; i < 20000; i++) {
+            Integer value = map.get(i);
+            Assert.assertTrue(value == null || value == i * 2);
+        }
+    }
+    
+    @Test
+    public void testListenerReadsDuringWrite() {
+        MAMap<String, Integer> map = MACollections.stampedLocked(new MAHashMap<String, Integer>());
+        StringBuilder builder = new StringBuilder();
+        map.addMapElementListener(new MapElementListener<String, Integer>() {
+            @Override
+            public void modified(MapElementEvent<String, Integer> e) throws Throwable {
+                String key = e.getKey(PropertyVersion.ATTACH);
+                builder.append(key).append('=').append(map.get(key)).append(',').append(map.size()).append(';');
+            }
+        });
+        map.put("a", 1);
+        map.put("b", 2);
+        Assert.assertEquals("a=1,1;b=2,2;", builder.toString());
+        
+        // The lock has been released completely, another thread can write
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            try {
+                map.remove("a");
+            } catch (Throwable ex) {
+                failure.set(ex);
+            }
+        });
+        thread.start();
+        try {
+            thread.join();
+        } catch (InterruptedException ex) {
+            throw new AssertionError(ex);
+        }
+        Assert.assertNull(failure.get());
+        Assert.assertEquals(1, map.size());
+    }
+    
+    @Test
+    public void testNestedReadAndUpgrade() {
+        StampedLock stampedLock = new StampedLock();
+        XMap<String, Integer> map = MACollections.stampedLocked(new HashMap<String, Integer>(), stampedLock);
+        map.put("a", 1);
+        Function<XMap<String, Integer>, Integer> nestedReader = m -> m.get("a") + map.get("a");
+        Assert.assertEquals(2, MACollections.locking(map, LockMode.READ, nestedReader).intValue());
+        Function<XMap<String, Integer>, Integer> upgradingWriter = m -> map.put("b", 2);
+        try {
+            MACollections.locking(map, LockMode.READ, upgradingWriter);
+            Assert.fail();
+        } catch (IllegalStateException ex) {
+        }
+        Assert.assertFalse(stampedLock.isReadLocked());
+        Assert.assertFalse(stampedLock.isWriteLocked());
+        Assert.assertNull(map.get("b"));
+    }
+    
+    @Test
+    public void testOptimisticPointReads() {
+        StampedLock stampedLock = new StampedLock();
+        XMap<ProbeKey, String> map = MACollections.stampedLocked(new HashMap<ProbeKey, String>(), stampedLock);
+        ProbeKey key = new ProbeKey(stampedLock);
+        map.put(key, "value");
+        
+        key.builder.setLength(0);
+        Assert.assertEquals("value", map.get(key));
+        Assert.assertTrue(map.containsKey(key));
+        Assert.assertTrue(map.keySet().contains(key));
+        // The point reads never lock the StampedLock
+        Assert.assertEquals("optimistic;optimistic;optimistic;", key.builder.toString());
+        
+        // The concurrent write invalidates the stamp, so the read is executed again by the read lock
+        key.builder.setLength(0);
+        key.action = () -> {
+            Thread writer = new Thread(() -> map.put(new ProbeKey(stampedLock), "another value"));
+            writer.start();
+            try {
+                writer.join();
+            } catch (InterruptedException ex) {
+                throw new AssertionError(ex);
+            }
+        };
+        Assert.assertEquals("value", map.get(key));
+        Assert.assertEquals("optimistic;locked;", key.builder.toString());
+        Assert.assertEquals(2, map.size());
+        Assert.assertFalse(stampedLock.isReadLocked());
+    }
+    
+    @Test
+    public void testTimedTryLockAndCondition() throws Exception {
+        XMap<String, Integer> map = MACollections.stampedLocked(new HashMap<String, Integer>());
+        ReadWriteLock readWriteLock = readWriteLock(map);
+        Lock writeLock = readWriteLock.writeLock();
+        Assert.assertTrue(writeLock.tryLock(1, TimeUnit.SECONDS));
+        try {
+            AtomicReference<Boolean> readLocked = new AtomicReference<>();
+            Thread reader = new Thread(() -> {
+                try {
+                    readLocked.set(readWriteLock.readLock().tryLock(10, TimeUnit.MILLISECONDS));
+                } catch (InterruptedException ex) {
+                    throw new AssertionError(ex);
+                }
+            });
+            reader.start();
+            reader.join();
+            Assert.assertFalse(readLocked.get());
+            
+            // The reentrant timed lock succeeds immediately
+            Assert.assertTrue(writeLock.tryLock(0, TimeUnit.MILLISECONDS));
+            writeLock.unlock();
+            
+            Condition condition = writeLock.newCondition();
+            AtomicBoolean done = new AtomicBoolean();
+            Thread writer = new Thread(() -> {
+                writeLock.lock();
+                try {
+                    map.put("a", 1);
+                    done.set(true);
+                    condition.signalAll();
+                } finally {
+                    writeLock.unlock();
+                }
+            });
+            writer.start();
+            // The awaiting releases the write lock that has been locked twice
+            writeLock.lock();
+            try {
+                while (!done.get()) {
+                    condition.await();
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            writer.join();
+            Assert.assertEquals(Integer.valueOf(1), map.get("a"));
+        } finally {
+            writeLock.unlock();
+        }
+        try {
+            readWriteLock.writeLock().newCondition().signal();
+            Assert.fail();
+        } catch (IllegalMonitorStateException ex) {
+        }
+        Assert.assertTrue(readWriteLock.readLock().tryLock(1, TimeUnit.SECONDS));
+        readWriteLock.readLock().unlock();
+    }
+    
+    private static ReadWriteLock readWriteLock(Object proxy) throws ReflectiveOperationException {
+        for (Class<?> clazz = proxy.getClass(); clazz != null; clazz = clazz.getSuperclass()) {
+            try {
+                Field field = clazz.getDeclaredField("readWriteLock");
+                field.setAccessible(true);
+                return (ReadWriteLock)field.get(proxy);
+            } catch (NoSuchFieldException ex) {
+            }
+        }
+        throw new AssertionError();
+    }
+    
+    private static class ProbeKey {
+        
+        private StampedLock stampedLock;
+        
+        StringBuilder builder = new StringBuilder();
+        
+        Runnable action;
+        
+        ProbeKey(StampedLock stampedLock) {
+            this.stampedLock = stampedLock;
+        }
+
+        @Override
+        public int hashCode() {
+            this.builder.append(this.stampedLock.isReadLocked() ? "locked;" : "optimistic;");
+            Runnable action = this.action;
+            if (action != null) {
+                this.action = null;
+                action.run();
+            }
+            return 0;
+        }
+    }
+}
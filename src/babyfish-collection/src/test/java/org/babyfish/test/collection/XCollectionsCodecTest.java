@@ -0,0 +1,215 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.util.Comparator;
+
+import org.babyfish.collection.ArrayList;
+import org.babyfish.collection.HashMap;
+import org.babyfish.collection.HashSet;
+import org.babyfish.collection.TreeMap;
+import org.babyfish.collection.XCollections;
+import org.babyfish.collection.XList;
+import org.babyfish.collection.XMap;
+import org.babyfish.collection.XNavigableMap;
+import org.babyfish.collection.XSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Tao Chen
+ */
+public class XCollectionsCodecTest {
+    
+    private static final Comparator<String> REVERSE_COMPARATOR = new ReverseComparator();
+
+    @Test
+    public void testList() throws IOException, ClassNotFoundException {
+        XList<String> list = new ArrayList<>();
+        list.add("a");
+        list.add(null);
+        list.add("中文");
+        list.add("a");
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        XCollections.write(list, new DataOutputStream(bout), XCollections.stringCodec());
+        XList<String> list2 = XCollections.read(
+                new DataInputStream(new ByteArrayInputStream(bout.toByteArray())), 
+                size -> new ArrayList<String>(), 
+                XCollections.stringCodec());
+        Assert.assertEquals(list, list2);
+    }
+    
+    @Test
+    public void testHashSetAndMap() throws IOException, ClassNotFoundException {
+        XSet<Integer> set = new HashSet<>();
+        XMap<Integer, Long> map = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            set.add(i * 7);
+            map.put(i, i * 1000000000L);
+        }
+        map.put(null, null);
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bout);
+        XCollections.write(set, out, XCollections.integerCodec());
+        XCollections.write(map, out, XCollections.integerCodec(), XCollections.longCodec());
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bout.toByteArray()));
+        XSet<Integer> set2 = XCollections.read(in, HashSet::new, XCollections.integerCodec());
+        XMap<Integer, Long> map2 = XCollections.read(
+                in, 
+                HashMap::new, 
+                XCollections.integerCodec(), 
+                XCollections.longCodec());
+        Assert.assertEquals(set, set2);
+        Assert.assertEquals(map, map2);
+        Assert.assertEquals(-1, in.read());
+    }
+    
+    @Test
+    public void testTreeMap() throws IOException, ClassNotFoundException {
+        XNavigableMap<String, Integer> map = new TreeMap<>(REVERSE_COMPARATOR);
+        for (int i = 0; i < 1000; i++) {
+            map.put("k" + i, i);
+        }
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        XCollections.write(
+                map, 
+                new DataOutputStream(bout), 
+                XCollections.stringCodec(), 
+                XCollections.integerCodec());
+        XNavigableMap<String, Integer> map2 = XCollections.read(
+                new DataInputStream(new ByteArrayInputStream(bout.toByteArray())), 
+                size -> new TreeMap<String, Integer>(REVERSE_COMPARATOR), 
+                XCollections.stringCodec(),
+                XCollections.integerCodec());
+        Assert.assertEquals(map, map2);
+        Assert.assertEquals(map.firstKey(), map2.firstKey());
+        for (int i = 0; i < map.size(); i++) {
+            Assert.assertEquals(map.keyAt(i), map2.keyAt(i));
+        }
+        map2.put("k", -1);
+        map2.remove("k500");
+        Assert.assertEquals(1000, map2.size());
+        
+        try {
+            XCollections.read(
+                    new DataInputStream(new ByteArrayInputStream(bout.toByteArray())), 
+                    size -> new TreeMap<String, Integer>(), 
+                    XCollections.stringCodec(),
+                    XCollections.integerCodec());
+            Assert.fail();
+        } catch (IllegalArgumentException ex) {
+        }
+        try {
+            XCollections.read(
+                    new DataInputStream(new ByteArrayInputStream(bout.toByteArray())), 
+                    size -> new ArrayList<String>(), 
+                    XCollections.stringCodec());
+            Assert.fail();
+        } catch (StreamCorruptedException ex) {
+        }
+    }
+    
+    @Test
+    public void testObjectCodec() throws IOException, ClassNotFoundException {
+        XList<Object> list = new ArrayList<>();
+        list.add("a");
+        list.add(3);
+        list.add(null);
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bout)) {
+            XCollections.write(list, out, XCollections.objectCodec());
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bout.toByteArray()))) {
+            XList<Object> list2 = XCollections.read(in, size -> new ArrayList<Object>(), XCollections.objectCodec());
+            Assert.assertEquals(list, list2);
+        }
+        try {
+            XCollections.write(list, new DataOutputStream(new ByteArrayOutputStream()), XCollections.objectCodec());
+            Assert.fail();
+        } catch (IllegalArgumentException ex) {
+        }
+    }
+    
+    @Test
+    public void testCorruptedSize() throws IOException, ClassNotFoundException {
+        XList<String> list = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            list.add("e" + i);
+        }
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        XCollections.write(list, new DataOutputStream(bout), XCollections.stringCodec());
+        byte[] bytes = bout.toByteArray();
+        int[] sizeHint = new int[1];
+        XList<String> list2 = XCollections.read(
+                new DataInputStream(new ByteArrayInputStream(bytes)), 
+                size -> { sizeHint[0] = size; return new ArrayList<String>(size); }, 
+                XCollections.stringCodec());
+        Assert.assertEquals(list, list2);
+        Assert.assertEquals(4096, sizeHint[0]);
+        
+        // The header claims Integer.MAX_VALUE elements but the stream is short
+        bytes[2] = 0x7F;
+        bytes[3] = bytes[4] = bytes[5] = (byte)0xFF;
+        try {
+            XCollections.read(
+                    new DataInputStream(new ByteArrayInputStream(bytes)), 
+                    size -> { sizeHint[0] = size; return new ArrayList<String>(size); }, 
+                    XCollections.stringCodec());
+            Assert.fail();
+        } catch (EOFException ex) {
+        }
+        Assert.assertEquals(4096, sizeHint[0]);
+        
+        // The length of a string is Integer.MAX_VALUE but the stream is short
+        bout = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bout);
+        XCollections.write(new ArrayList<String>(), out, XCollections.stringCodec());
+        bytes = bout.toByteArray();
+        bytes[5] = 1;
+        bout = new ByteArrayOutputStream();
+        out = new DataOutputStream(bout);
+        out.write(bytes);
+        out.writeInt(Integer.MAX_VALUE);
+        out.write(new byte[100]);
+        try {
+            XCollections.read(
+                    new DataInputStream(new ByteArrayInputStream(bout.toByteArray())), 
+                    size -> new ArrayList<String>(), 
+                    XCollections.stringCodec());
+            Assert.fail();
+        } catch (EOFException ex) {
+        }
+    }
+    
+    private static class ReverseComparator implements Comparator<String> {
+
+        @Override
+        public int compare(String o1, String o2) {
+            return o2.compareTo(o1);
+        }
+    }
+}
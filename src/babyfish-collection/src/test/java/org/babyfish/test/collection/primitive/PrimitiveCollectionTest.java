@@ -0,0 +1,210 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection.primitive;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Map;
+import java.util.Random;
+
+import org.babyfish.collection.primitive.IntArrayList;
+import org.babyfish.collection.primitive.IntHashMap;
+import org.babyfish.collection.primitive.LongArrayList;
+import org.babyfish.collection.primitive.LongHashMap;
+import org.junit.Test;
+
+import junit.framework.Assert;
+
+/**
+ * @author Tao Chen
+ */
+public class PrimitiveCollectionTest {
+
+    @Test
+    public void testIntHashMapAgainstJdk() {
+        Random random = new Random(17);
+        IntHashMap<String> map = new IntHashMap<>();
+        Map<Integer, String> expected = new java.util.HashMap<>();
+        for (int i = 0; i < 20000; i++) {
+            // A small key range causes long probe clusters and many removals
+            int key = random.nextInt(512) - 64;
+            if (random.nextInt(3) == 0) {
+                Assert.assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                String value = "V" + i;
+                Assert.assertEquals(expected.put(key, value), map.put(key, value));
+            }
+            Assert.assertEquals(expected.size(), map.size());
+        }
+        for (int key = -64; key < 448; key++) {
+            Assert.assertEquals(expected.containsKey(key), map.containsKey(key));
+            Assert.assertEquals(expected.get(key), map.get(key));
+        }
+        assertSame(expected, map);
+    }
+    
+    @Test
+    public void testIteratorRemove() {
+        Random random = new Random(31);
+        for (int round = 0; round < 200; round++) {
+            LongHashMap<Long> map = new LongHashMap<>();
+            Map<Long, Long> expected = new java.util.HashMap<>();
+            int count = random.nextInt(64);
+            for (int i = 0; i < count; i++) {
+                long key = random.nextInt(96);
+                map.put(key, key * 10);
+                expected.put(key, key * 10);
+            }
+            int size = map.size();
+            int visited = 0;
+            for (LongHashMap.EntryIterator<Long> itr = map.iterator(); itr.hasNext();) {
+                itr.next();
+                visited++;
+                Assert.assertEquals(expected.get(itr.key()), itr.value());
+                if (random.nextBoolean()) {
+                    expected.remove(itr.key());
+                    itr.remove();
+                }
+            }
+            Assert.assertEquals(size, visited);
+            Assert.assertEquals(expected.size(), map.size());
+            for (Map.Entry<Long, Long> e : expected.entrySet()) {
+                Assert.assertEquals(e.getValue(), map.get(e.getKey()));
+            }
+        }
+    }
+    
+    @Test
+    public void testIteratorVisitsEveryEntryOnceWhileRemoving() {
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            IntHashMap<Object> map = new IntHashMap<>();
+            int count = 1 + random.nextInt(40);
+            for (int i = 0; i < count; i++) {
+                map.put(random.nextInt(64), Boolean.TRUE);
+            }
+            IntHashMap<Object> visited = new IntHashMap<>();
+            int size = map.size();
+            for (IntHashMap.EntryIterator<Object> itr = map.iterator(); itr.hasNext();) {
+                itr.next();
+                Assert.assertNull(visited.put(itr.key(), Boolean.TRUE));
+                itr.remove();
+            }
+            Assert.assertEquals(size, visited.size());
+            Assert.assertTrue(map.isEmpty());
+        }
+    }
+    
+    @Test
+    public void testEqualsAndSerialization() throws IOException, ClassNotFoundException {
+        IntHashMap<String> map = new IntHashMap<>();
+        map.put(0, "zero");
+        map.put(1, "one");
+        map.put(-1, "minus one");
+        IntHashMap<String> copy = new IntHashMap<>(map);
+        Assert.assertEquals(map, copy);
+        Assert.assertEquals(map.hashCode(), copy.hashCode());
+        Assert.assertEquals(map, serializeAndDeserialize(map));
+        copy.put(0, "ZERO");
+        Assert.assertFalse(map.equals(copy));
+        
+        IntArrayList list = new IntArrayList(3, 1, 2);
+        list.add(0, 4);
+        list.addAll(5, 6);
+        Assert.assertEquals("[4, 3, 1, 2, 5, 6]", list.toString());
+        Assert.assertEquals(3, list.removeAt(1));
+        Assert.assertTrue(list.removeElement(5));
+        list.sort();
+        Assert.assertEquals("[1, 2, 4, 6]", list.toString());
+        Assert.assertEquals(list.toXList(), java.util.Arrays.asList(1, 2, 4, 6));
+        Assert.assertEquals(list, serializeAndDeserialize(list));
+    }
+    
+    @Test
+    public void testLongCollections() throws IOException, ClassNotFoundException {
+        LongHashMap<String> map = new LongHashMap<>(2);
+        map.put(0L, "zero");
+        map.put(Long.MIN_VALUE, "min");
+        map.put(1L << 40, "big");
+        for (long key = 1; key <= 100; key++) {
+            map.put(key, Long.toString(key));
+        }
+        Assert.assertEquals(103, map.size());
+        Assert.assertEquals("min", map.get(Long.MIN_VALUE));
+        Assert.assertEquals("big", map.remove(1L << 40));
+        Assert.assertFalse(map.containsKey(1L << 40));
+        Assert.assertTrue(map.containsValue("zero"));
+        Assert.assertEquals(102, map.keys().length);
+        LongHashMap<String> copy = serializeAndDeserialize(map);
+        Assert.assertEquals(map, copy);
+        Assert.assertEquals(map.hashCode(), copy.hashCode());
+
+        // The maps of different key types never equal each other
+        IntHashMap<String> intMap = new IntHashMap<>();
+        LongHashMap<String> longMap = new LongHashMap<>();
+        intMap.put(1, "one");
+        longMap.put(1L, "one");
+        Assert.assertFalse(intMap.equals(longMap));
+        Assert.assertFalse(longMap.equals(intMap));
+
+        LongArrayList list = new LongArrayList(3L, 1L << 33);
+        for (long i = 0; i < 20; i++) {
+            list.add(i);
+        }
+        list.add(1, -1L);
+        Assert.assertEquals(23, list.size());
+        Assert.assertEquals(-1L, list.get(1));
+        Assert.assertEquals(1L << 33, list.removeAt(2));
+        list.trimToSize();
+        list.sort();
+        Assert.assertEquals(-1L, list.get(0));
+        Assert.assertEquals(22, list.toArray().length);
+        Assert.assertEquals(list, serializeAndDeserialize(list));
+        Assert.assertEquals(list.hashCode(), list.toXList().hashCode());
+        Assert.assertFalse(new IntArrayList(new int[] { 1 }).equals(new LongArrayList(1L)));
+        list.clear();
+        Assert.assertTrue(list.isEmpty());
+        Assert.assertEquals("[]", list.toString());
+    }
+
+    private static void assertSame(Map<Integer, String> expected, IntHashMap<String> map) {
+        Assert.assertEquals(expected.size(), map.size());
+        int count = 0;
+        for (IntHashMap.EntryIterator<String> itr = map.iterator(); itr.hasNext();) {
+            itr.next();
+            Assert.assertEquals(expected.get(itr.key()), itr.value());
+            count++;
+        }
+        Assert.assertEquals(expected.size(), count);
+        Assert.assertEquals(expected.size(), map.keys().length);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> T serializeAndDeserialize(T o) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bout)) {
+            out.writeObject(o);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bout.toByteArray()))) {
+            return (T)in.readObject();
+        }
+    }
+}
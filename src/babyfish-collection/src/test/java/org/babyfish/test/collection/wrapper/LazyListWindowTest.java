@@ -0,0 +1,373 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection.wrapper;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+
+import org.babyfish.collection.ArrayList;
+import org.babyfish.collection.MAArrayList;
+import org.babyfish.collection.MAList.MAListIterator;
+import org.babyfish.collection.XList;
+import org.babyfish.collection.event.ListElementEvent;
+import org.babyfish.collection.event.ListElementListener;
+import org.babyfish.collection.spi.laziness.AbstractLazyMAList;
+import org.babyfish.collection.spi.laziness.AbstractLazyXList;
+import org.babyfish.data.event.PropertyVersion;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Tao Chen
+ */
+public class LazyListWindowTest {
+    
+    private static final int ROW_COUNT = 1000;
+
+    @Test
+    public void testGetWithoutLoading() {
+        WindowedList list = new WindowedList(10, 3);
+        Assert.assertEquals(Integer.valueOf(0), list.get(0));
+        Assert.assertEquals(Integer.valueOf(18), list.get(9));
+        Assert.assertEquals(1, list.windowReadCount);
+        Assert.assertEquals(Integer.valueOf(1998), list.get(999));
+        Assert.assertEquals(2, list.windowReadCount);
+        Assert.assertFalse(list.isLoaded());
+    }
+    
+    @Test
+    public void testEviction() {
+        WindowedList list = new WindowedList(10, 2);
+        list.get(0);
+        list.get(10);
+        list.get(0);
+        list.get(20);
+        Assert.assertEquals(3, list.windowReadCount);
+        list.get(0);
+        Assert.assertEquals(3, list.windowReadCount);
+        list.get(10);
+        Assert.assertEquals(4, list.windowReadCount);
+        Assert.assertFalse(list.isLoaded());
+    }
+    
+    @Test
+    public void testSubList() {
+        WindowedList list = new WindowedList(10, 3);
+        XList<Integer> subList = list.subList(100, 200).subList(5, 50);
+        Assert.assertEquals(Integer.valueOf(210), subList.get(0));
+        Assert.assertEquals(Integer.valueOf(298), subList.get(44));
+        Assert.assertFalse(list.isLoaded());
+        try {
+            subList.get(-1);
+            Assert.fail();
+        } catch (IndexOutOfBoundsException ex) {
+        }
+        Assert.assertTrue(list.isLoaded());
+    }
+    
+    @Test
+    public void testOutOfRangeLoads() {
+        WindowedList list = new WindowedList(10, 3);
+        try {
+            list.get(ROW_COUNT);
+            Assert.fail();
+        } catch (IndexOutOfBoundsException ex) {
+        }
+        Assert.assertTrue(list.isLoaded());
+    }
+    
+    @Test
+    public void testModificationLoads() {
+        WindowedList list = new WindowedList(10, 3);
+        Assert.assertEquals(Integer.valueOf(2), list.get(1));
+        list.set(1, -1);
+        Assert.assertTrue(list.isLoaded());
+        Assert.assertEquals(Integer.valueOf(-1), list.get(1));
+        Assert.assertEquals(ROW_COUNT, list.size());
+    }
+    
+    @Test
+    public void testIterationWithoutLoading() {
+        WindowedList list = new WindowedList(10, 3);
+        int count = 0;
+        for (Integer i : list) {
+            Assert.assertEquals(Integer.valueOf(count++ * 2), i);
+        }
+        Assert.assertEquals(ROW_COUNT, count);
+        Assert.assertEquals(ROW_COUNT / 10 + 1, list.windowReadCount);
+        Assert.assertFalse(list.isLoaded());
+        
+        ListIterator<Integer> itr = list.listIterator(ROW_COUNT);
+        Assert.assertFalse(itr.hasNext());
+        Assert.assertEquals(Integer.valueOf(1998), itr.previous());
+        Assert.assertEquals(Integer.valueOf(1996), itr.previous());
+        Assert.assertEquals(998, itr.nextIndex());
+        Assert.assertFalse(list.isLoaded());
+    }
+    
+    @Test
+    public void testEmptyIterationWithoutLoading() {
+        WindowedList list = new WindowedList(10, 3, 0);
+        Assert.assertFalse(list.iterator().hasNext());
+        Assert.assertFalse(list.isLoaded());
+    }
+    
+    @Test
+    public void testSubListIterationWithoutLoading() {
+        WindowedList list = new WindowedList(10, 3);
+        List<Integer> subList = list.subList(100, 200).subList(5, 50);
+        int count = 0;
+        for (Integer i : subList) {
+            Assert.assertEquals(Integer.valueOf(210 + count++ * 2), i);
+        }
+        Assert.assertEquals(45, count);
+        Assert.assertEquals(5, list.windowReadCount);
+        Assert.assertFalse(list.isLoaded());
+        
+        Iterator<Integer> itr = list.subList(990, 1000).iterator();
+        while (itr.hasNext()) {
+            itr.next();
+        }
+        Assert.assertFalse(list.isLoaded());
+    }
+    
+    @Test
+    public void testInvalidSubListIterationLoads() {
+        WindowedList list = new WindowedList(10, 3);
+        List<Integer> subList = list.subList(990, 1010);
+        try {
+            for (Iterator<Integer> itr = subList.iterator(); itr.hasNext(); ) {
+                itr.next();
+            }
+            Assert.fail();
+        } catch (IllegalArgumentException ex) {
+        }
+        Assert.assertTrue(list.isLoaded());
+    }
+    
+    @Test
+    public void testIteratorModificationLoads() {
+        WindowedList list = new WindowedList(10, 3);
+        ListIterator<Integer> itr = list.listIterator();
+        Assert.assertEquals(Integer.valueOf(0), itr.next());
+        Assert.assertEquals(Integer.valueOf(2), itr.next());
+        Assert.assertFalse(list.isLoaded());
+        itr.remove();
+        Assert.assertTrue(list.isLoaded());
+        Assert.assertEquals(Integer.valueOf(4), itr.next());
+        Assert.assertEquals(Integer.valueOf(6), itr.next());
+        Assert.assertEquals(Integer.valueOf(6), itr.previous());
+        itr.set(-6);
+        Assert.assertEquals(ROW_COUNT - 1, list.size());
+        Assert.assertEquals(Integer.valueOf(-6), list.get(2));
+    }
+    
+    @Test
+    public void testPreviousThenSetLoads() {
+        WindowedList list = new WindowedList(10, 3);
+        ListIterator<Integer> itr = list.listIterator(20);
+        Assert.assertEquals(Integer.valueOf(38), itr.previous());
+        Assert.assertFalse(list.isLoaded());
+        itr.set(-1);
+        Assert.assertTrue(list.isLoaded());
+        Assert.assertEquals(Integer.valueOf(-1), list.get(19));
+        Assert.assertEquals(19, itr.nextIndex());
+    }
+    
+    @Test
+    public void testMAIteratorListenerLoads() {
+        WindowedMAList list = new WindowedMAList(10);
+        MAListIterator<Integer> itr = list.listIterator();
+        Assert.assertEquals(Integer.valueOf(0), itr.next());
+        Assert.assertEquals(Integer.valueOf(2), itr.next());
+        Assert.assertFalse(list.isLoaded());
+        final List<Integer> removed = new ArrayList<>();
+        itr.addListElementListener(new ListElementListener<Integer>() {
+            @Override
+            public void modified(ListElementEvent<Integer> e) throws Throwable {
+                removed.add(e.getElement(PropertyVersion.DETACH));
+            }
+        });
+        Assert.assertTrue(list.isLoaded());
+        itr.remove();
+        Assert.assertEquals(Collections.singletonList(2), removed);
+        Assert.assertEquals(Integer.valueOf(4), itr.next());
+    }
+    
+    @Test
+    public void testDisabledWindow() {
+        WindowedList list = new WindowedList(0, 3);
+        Assert.assertEquals(Integer.valueOf(4), list.get(2));
+        Assert.assertEquals(0, list.windowReadCount);
+        Assert.assertTrue(list.isLoaded());
+    }
+    
+    private static class WindowedList extends AbstractLazyXList<Integer> {
+        
+        final int windowSize;
+        
+        final int maxWindowCount;
+        
+        final int rowCount;
+        
+        int windowReadCount;
+        
+        WindowedList(int windowSize, int maxWindowCount) {
+            this(windowSize, maxWindowCount, ROW_COUNT);
+        }
+        
+        WindowedList(int windowSize, int maxWindowCount, int rowCount) {
+            super(null);
+            this.windowSize = windowSize;
+            this.maxWindowCount = maxWindowCount;
+            this.rowCount = rowCount;
+        }
+
+        @Override
+        protected RootData<Integer> createRootData() {
+            return new RootData<Integer>() {
+
+                private static final long serialVersionUID = -1328706410946432185L;
+
+                private boolean loaded;
+                
+                private boolean loading;
+
+                @Override
+                public boolean isLoaded() {
+                    return this.loaded;
+                }
+
+                @Override
+                public boolean isLoading() {
+                    return this.loading;
+                }
+
+                @Override
+                public boolean isLoadable() {
+                    return true;
+                }
+
+                @Override
+                protected void setLoaded(boolean loaded) {
+                    this.loaded = loaded;
+                }
+
+                @Override
+                protected void setLoading(boolean loading) {
+                    this.loading = loading;
+                }
+                
+                @Override
+                protected int onGetWindowSize() {
+                    return WindowedList.this.windowSize;
+                }
+
+                @Override
+                protected int onGetMaxWindowCount() {
+                    return WindowedList.this.maxWindowCount;
+                }
+
+                @Override
+                protected List<Integer> onVisionallyReadWindow(int fromIndex, int toIndex) {
+                    WindowedList.this.windowReadCount++;
+                    return rows(fromIndex, Math.min(toIndex, WindowedList.this.rowCount));
+                }
+
+                @Override
+                protected void onLoad() {
+                    this.setBase(rows(0, WindowedList.this.rowCount));
+                }
+            };
+        }
+    }
+    
+    private static class WindowedMAList extends AbstractLazyMAList<Integer> {
+        
+        final int windowSize;
+        
+        WindowedMAList(int windowSize) {
+            super(null);
+            this.windowSize = windowSize;
+        }
+
+        @Override
+        protected RootData<Integer> createRootData() {
+            return new RootData<Integer>() {
+
+                private static final long serialVersionUID = 2817313567005768126L;
+
+                private boolean loaded;
+                
+                private boolean loading;
+
+                @Override
+                public boolean isLoaded() {
+                    return this.loaded;
+                }
+
+                @Override
+                public boolean isLoading() {
+                    return this.loading;
+                }
+
+                @Override
+                public boolean isLoadable() {
+                    return true;
+                }
+
+                @Override
+                protected void setLoaded(boolean loaded) {
+                    this.loaded = loaded;
+                }
+
+                @Override
+                protected void setLoading(boolean loading) {
+                    this.loading = loading;
+                }
+                
+                @Override
+                protected int onGetWindowSize() {
+                    return WindowedMAList.this.windowSize;
+                }
+
+                @Override
+                protected List<Integer> onVisionallyReadWindow(int fromIndex, int toIndex) {
+                    return rows(fromIndex, Math.min(toIndex, ROW_COUNT));
+                }
+
+                @Override
+                protected void onLoad() {
+                    MAArrayList<Integer> base = new MAArrayList<>();
+                    base.addAll(rows(0, ROW_COUNT));
+                    this.setBase(base);
+                }
+            };
+        }
+    }
+    
+    private static ArrayList<Integer> rows(int fromIndex, int toIndex) {
+        ArrayList<Integer> rows = new ArrayList<>();
+        for (int i = fromIndex; i < toIndex; i++) {
+            rows.add(i * 2);
+        }
+        return rows;
+    }
+}
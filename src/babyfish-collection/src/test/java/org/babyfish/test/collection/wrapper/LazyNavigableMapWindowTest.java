@@ -0,0 +1,359 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection.wrapper;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+
+import org.babyfish.collection.ArrayList;
+import org.babyfish.collection.MAMap.MAKeySetView.MAKeySetIterator;
+import org.babyfish.collection.MATreeMap;
+import org.babyfish.collection.TreeMap;
+import org.babyfish.collection.event.ElementEvent;
+import org.babyfish.collection.event.ElementListener;
+import org.babyfish.collection.spi.laziness.AbstractLazyMANavigableMap;
+import org.babyfish.collection.spi.laziness.AbstractLazyXNavigableMap;
+import org.babyfish.collection.spi.laziness.LazyBehaviorProcessor;
+import org.babyfish.collection.spi.laziness.QueuedOperationType;
+import org.babyfish.data.event.PropertyVersion;
+import org.babyfish.lang.Ref;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Tao Chen
+ */
+public class LazyNavigableMapWindowTest {
+    
+    private static final int ROW_COUNT = 1000;
+    
+    private static final TreeMap<Integer, String> SOURCE;
+    
+    static {
+        TreeMap<Integer, String> source = new TreeMap<>();
+        for (int i = 0; i < ROW_COUNT; i++) {
+            source.put(i * 2, "v" + i * 2);
+        }
+        SOURCE = source;
+    }
+
+    @Test
+    public void testKeySetIterationWithoutLoading() {
+        WindowedMap map = new WindowedMap(100, 0);
+        int count = 0;
+        for (Integer key : map.keySet()) {
+            Assert.assertEquals(Integer.valueOf(count++ * 2), key);
+        }
+        Assert.assertEquals(ROW_COUNT, count);
+        Assert.assertEquals(ROW_COUNT / 100 + 1, map.windowReadCount);
+        Assert.assertFalse(map.isLoaded());
+    }
+    
+    @Test
+    public void testSubMapIterationWithoutLoading() {
+        WindowedMap map = new WindowedMap(30, 0);
+        int count = 0;
+        for (Entry<Integer, String> e : map.subMap(100, true, 300, false).entrySet()) {
+            Assert.assertEquals(Integer.valueOf(100 + count * 2), e.getKey());
+            Assert.assertEquals("v" + e.getKey(), e.getValue());
+            count++;
+        }
+        Assert.assertEquals(100, count);
+        Assert.assertEquals(4, map.windowReadCount);
+        
+        StringBuilder builder = new StringBuilder();
+        for (String value : map.headMap(500).tailMap(490, false).values()) {
+            builder.append(value).append(';');
+        }
+        Assert.assertEquals("v492;v494;v496;v498;", builder.toString());
+        
+        Entry<Integer, String> e = map.tailMap(1990).entrySet().iterator().next();
+        Assert.assertEquals(Integer.valueOf(1990), e.getKey());
+        try {
+            e.setValue("x");
+            Assert.fail();
+        } catch (UnsupportedOperationException ex) {
+        }
+        Assert.assertFalse(map.isLoaded());
+    }
+    
+    @Test
+    public void testDescendingIterationLoads() {
+        WindowedMap map = new WindowedMap(30, 0);
+        Assert.assertEquals(Integer.valueOf(1998), map.descendingMap().keySet().iterator().next());
+        Assert.assertEquals(0, map.windowReadCount);
+        Assert.assertTrue(map.isLoaded());
+    }
+    
+    @Test
+    public void testIteratorRemoveLoads() {
+        WindowedMap map = new WindowedMap(30, 0);
+        Iterator<Integer> itr = map.tailMap(10).keySet().iterator();
+        Assert.assertEquals(Integer.valueOf(10), itr.next());
+        Assert.assertEquals(Integer.valueOf(12), itr.next());
+        Assert.assertFalse(map.isLoaded());
+        itr.remove();
+        Assert.assertTrue(map.isLoaded());
+        Assert.assertFalse(map.containsKey(12));
+        Assert.assertEquals(Integer.valueOf(14), itr.next());
+        Assert.assertEquals(ROW_COUNT - 1, map.size());
+    }
+    
+    @Test
+    public void testQueuedOrphansAreSkipped() {
+        WindowedMap map = new WindowedMap(30, 0);
+        Assert.assertEquals("v2", map.remove(2));
+        Assert.assertNull(map.remove(3));
+        Iterator<Integer> itr = map.keySet().iterator();
+        Assert.assertEquals(Integer.valueOf(0), itr.next());
+        Assert.assertEquals(Integer.valueOf(4), itr.next());
+        Assert.assertFalse(map.isLoaded());
+        itr.remove();
+        Assert.assertTrue(map.isLoaded());
+        Assert.assertEquals(Integer.valueOf(6), itr.next());
+        Assert.assertEquals(ROW_COUNT - 2, map.size());
+    }
+    
+    @Test
+    public void testRowLimitLoads() {
+        WindowedMap map = new WindowedMap(100, 250);
+        int count = 0;
+        for (Integer key : map.keySet()) {
+            Assert.assertEquals(Integer.valueOf(count++ * 2), key);
+        }
+        Assert.assertEquals(ROW_COUNT, count);
+        Assert.assertEquals(2, map.windowReadCount);
+        Assert.assertTrue(map.isLoaded());
+    }
+    
+    @Test
+    public void testDisabledWindow() {
+        WindowedMap map = new WindowedMap(0, 0);
+        Assert.assertEquals(Integer.valueOf(0), map.keySet().iterator().next());
+        Assert.assertEquals(0, map.windowReadCount);
+        Assert.assertTrue(map.isLoaded());
+    }
+    
+    @Test
+    public void testMAIteratorListenerLoads() {
+        WindowedMAMap map = new WindowedMAMap(30);
+        MAKeySetIterator<Integer, String> itr = map.subMap(100, 200).keySet().iterator();
+        Assert.assertEquals(Integer.valueOf(100), itr.next());
+        Assert.assertFalse(map.isLoaded());
+        final List<Integer> removed = new ArrayList<>();
+        itr.addElementListener(new ElementListener<Integer>() {
+            @Override
+            public void modified(ElementEvent<Integer> e) throws Throwable {
+                removed.add(e.getElement(PropertyVersion.DETACH));
+            }
+        });
+        Assert.assertTrue(map.isLoaded());
+        itr.remove();
+        Assert.assertEquals(1, removed.size());
+        Assert.assertEquals(Integer.valueOf(100), removed.get(0));
+        Assert.assertEquals(Integer.valueOf(102), itr.next());
+        Assert.assertNull(map.get(100));
+    }
+    
+    private static List<Entry<Integer, String>> window(
+            Ref<Integer> fromKeyRef,
+            boolean fromInclusive,
+            Ref<Integer> toKeyRef,
+            boolean toInclusive,
+            int maxCount) {
+        NavigableMap<Integer, String> range = SOURCE;
+        if (fromKeyRef != null) {
+            range = range.tailMap(fromKeyRef.get(), fromInclusive);
+        }
+        if (toKeyRef != null) {
+            range = range.headMap(toKeyRef.get(), toInclusive);
+        }
+        List<Entry<Integer, String>> window = new ArrayList<>();
+        for (Entry<Integer, String> e : range.entrySet()) {
+            if (window.size() == maxCount) {
+                break;
+            }
+            window.add(new SimpleImmutableEntry<>(e.getKey(), e.getValue()));
+        }
+        return window;
+    }
+    
+    private static class WindowedMap extends AbstractLazyXNavigableMap<Integer, String> {
+        
+        final int windowSize;
+        
+        final int rowLimit;
+        
+        int windowReadCount;
+        
+        WindowedMap(int windowSize, int rowLimit) {
+            super(null);
+            this.windowSize = windowSize;
+            this.rowLimit = rowLimit;
+        }
+
+        @Override
+        protected RootData<Integer, String> createRootData() {
+            return new RootData<Integer, String>() {
+
+                private static final long serialVersionUID = -8946183474307367117L;
+
+                private boolean loaded;
+                
+                private boolean loading;
+
+                @Override
+                public boolean isLoaded() {
+                    return this.loaded;
+                }
+
+                @Override
+                public boolean isLoading() {
+                    return this.loading;
+                }
+
+                @Override
+                public boolean isLoadable() {
+                    return true;
+                }
+
+                @Override
+                protected void setLoaded(boolean loaded) {
+                    this.loaded = loaded;
+                }
+
+                @Override
+                protected void setLoading(boolean loading) {
+                    this.loading = loading;
+                }
+                
+                @Override
+                protected Ref<String> onVisionallyRead(Integer key, QueuedOperationType nullOrOperationType) {
+                    return new Ref<>(SOURCE.get(key));
+                }
+                
+                @Override
+                protected int onGetWindowSize() {
+                    return WindowedMap.this.windowSize;
+                }
+
+                @Override
+                protected List<Entry<Integer, String>> onVisionallyReadWindow(
+                        Ref<Integer> nullOrFromKeyRef,
+                        boolean fromInclusive,
+                        Ref<Integer> nullOrToKeyRef,
+                        boolean toInclusive,
+                        int maxCount) {
+                    WindowedMap.this.windowReadCount++;
+                    return window(nullOrFromKeyRef, fromInclusive, nullOrToKeyRef, toInclusive, maxCount);
+                }
+                
+                @Override
+                protected LazyBehaviorProcessor createLazyBehaviorProcessor() {
+                    int rowLimit = WindowedMap.this.rowLimit;
+                    return rowLimit != 0 ? LazyBehaviorProcessor.of(rowLimit, 0) : null;
+                }
+
+                @Override
+                protected void onLoad() {
+                    TreeMap<Integer, String> base = new TreeMap<>();
+                    base.putAll(SOURCE);
+                    this.setBase(base);
+                    // Like the persistent collections, the data is initialized
+                    // before the queued orphans are performed.
+                    this.setLoaded(true);
+                }
+            };
+        }
+    }
+    
+    private static class WindowedMAMap extends AbstractLazyMANavigableMap<Integer, String> {
+        
+        final int windowSize;
+        
+        WindowedMAMap(int windowSize) {
+            super(null);
+            this.windowSize = windowSize;
+        }
+
+        @Override
+        protected RootData<Integer, String> createRootData() {
+            return new RootData<Integer, String>() {
+
+                private static final long serialVersionUID = 4381470622359158873L;
+
+                private boolean loaded;
+                
+                private boolean loading;
+
+                @Override
+                public boolean isLoaded() {
+                    return this.loaded;
+                }
+
+                @Override
+                public boolean isLoading() {
+                    return this.loading;
+                }
+
+                @Override
+                public boolean isLoadable() {
+                    return true;
+                }
+
+                @Override
+                protected void setLoaded(boolean loaded) {
+                    this.loaded = loaded;
+                }
+
+                @Override
+                protected void setLoading(boolean loading) {
+                    this.loading = loading;
+                }
+                
+                @Override
+                protected int onGetWindowSize() {
+                    return WindowedMAMap.this.windowSize;
+                }
+
+                @Override
+                protected List<Entry<Integer, String>> onVisionallyReadWindow(
+                        Ref<Integer> nullOrFromKeyRef,
+                        boolean fromInclusive,
+                        Ref<Integer> nullOrToKeyRef,
+                        boolean toInclusive,
+                        int maxCount) {
+                    return window(nullOrFromKeyRef, fromInclusive, nullOrToKeyRef, toInclusive, maxCount);
+                }
+
+                @Override
+                protected void onLoad() {
+                    MATreeMap<Integer, String> base = new MATreeMap<>();
+                    base.putAll(SOURCE);
+                    this.setBase(base);
+                    // Like the persistent collections, the data is initialized
+                    // before the queued orphans are performed.
+                    this.setLoaded(true);
+                }
+            };
+        }
+    }
+}
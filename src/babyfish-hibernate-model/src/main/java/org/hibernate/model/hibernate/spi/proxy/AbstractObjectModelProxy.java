@@ -99,6 +99,74 @@ public abstract class AbstractObjectModelProxy implements ObjectModel, Serializa
         }
     }
 
+    @Override
+    public int getInt(int propertyId) {
+        if (propertyId == this.modelClass.getIdProperty().getId()) {
+            return (Integer)FrozenLazyInitializer.get(this.owner).getIdentifier();
+        }
+        return this.getTargetObjectModel().getInt(propertyId);
+    }
+
+    @Override
+    public void setInt(int propertyId, int value) {
+        if (propertyId == this.modelClass.getIdProperty().getId()) {
+            FrozenLazyInitializer.get(this.owner).setIdentifier(value);
+        } else {
+            this.getTargetObjectModel().setInt(propertyId, value);
+        }
+    }
+
+    @Override
+    public long getLong(int propertyId) {
+        if (propertyId == this.modelClass.getIdProperty().getId()) {
+            return (Long)FrozenLazyInitializer.get(this.owner).getIdentifier();
+        }
+        return this.getTargetObjectModel().getLong(propertyId);
+    }
+
+    @Override
+    public void setLong(int propertyId, long value) {
+        if (propertyId == this.modelClass.getIdProperty().getId()) {
+            FrozenLazyInitializer.get(this.owner).setIdentifier(value);
+        } else {
+            this.getTargetObjectModel().setLong(propertyId, value);
+        }
+    }
+
+    @Override
+    public double getDouble(int propertyId) {
+        if (propertyId == this.modelClass.getIdProperty().getId()) {
+            return (Double)FrozenLazyInitializer.get(this.owner).getIdentifier();
+        }
+        return this.getTargetObjectModel().getDouble(propertyId);
+    }
+
+    @Override
+    public void setDouble(int propertyId, double value) {
+        if (propertyId == this.modelClass.getIdProperty().getId()) {
+            FrozenLazyInitializer.get(this.owner).setIdentifier(value);
+        } else {
+            this.getTargetObjectModel().setDouble(propertyId, value);
+        }
+    }
+
+    @Override
+    public boolean getBoolean(int propertyId) {
+        if (propertyId == this.modelClass.getIdProperty().getId()) {
+            return (Boolean)FrozenLazyInitializer.get(this.owner).getIdentifier();
+        }
+        return this.getTargetObjectModel().getBoolean(propertyId);
+    }
+
+    @Override
+    public void setBoolean(int propertyId, boolean value) {
+        if (propertyId == this.modelClass.getIdProperty().getId()) {
+            FrozenLazyInitializer.get(this.owner).setIdentifier(value);
+        } else {
+            this.getTargetObjectModel().setBoolean(propertyId, value);
+        }
+    }
+
     @Override
     public AssociatedEndpoint getAssociatedEndpoint(int propertyId) {
         return this.getTargetObjectModel().getAssociatedEndpoint(propertyId);
@@ -154,6 +222,19 @@ public abstract class AbstractObjectModelProxy implements ObjectModel, Serializa
         }
     }
 
+    @Override
+    public long getUnloadedMask(int wordIndex) {
+        long mask = this.getTargetObjectModel().getUnloadedMask(wordIndex);
+        return excludeProperty(mask, wordIndex, this.modelClass.getIdProperty());
+    }
+
+    @Override
+    public long getDisabledMask(int wordIndex) {
+        long mask = this.getTargetObjectModel().getDisabledMask(wordIndex);
+        mask = excludeProperty(mask, wordIndex, this.modelClass.getIdProperty());
+        return excludeProperty(mask, wordIndex, this.modelClass.getVersionProperty());
+    }
+
     @Override
     public void enable(int propertyId) {
         JPAModelProperty modelProperty = (JPAModelProperty)this.modelClass.getProperty(propertyId);
@@ -192,6 +273,13 @@ public abstract class AbstractObjectModelProxy implements ObjectModel, Serializa
         return ((ObjectModelProvider)FrozenLazyInitializer.get(this.owner).getImplementation()).objectModel();
     }
 
+    private static long excludeProperty(long mask, int wordIndex, JPAModelProperty modelProperty) {
+        if (modelProperty != null && modelProperty.getId() >>> 6 == wordIndex) {
+            mask &= ~(1L << (modelProperty.getId() & 63));
+        }
+        return mask;
+    }
+    
     private int[] excludeIdProperty(int[] propertyIds) {
         if (Nulls.isNullOrEmpty(propertyIds)) {
             return propertyIds;
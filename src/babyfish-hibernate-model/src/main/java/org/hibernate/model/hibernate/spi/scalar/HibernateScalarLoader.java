@@ -28,8 +28,8 @@ import org.babyfish.collection.LinkedHashMap;
 import org.babyfish.lang.Arguments;
 import org.babyfish.lang.Nulls;
 import org.babyfish.model.jpa.metadata.JPAModelClass;
+import org.babyfish.model.metadata.ModelClass;
 import org.babyfish.model.metadata.ModelProperty;
-import org.babyfish.model.metadata.PropertyType;
 import org.babyfish.model.spi.DirtinessAwareScalarLoader;
 import org.babyfish.model.spi.ObjectModel;
 import org.babyfish.model.spi.ScalarLoader;
@@ -130,17 +130,24 @@ implements
     private int getInitializationState() {
         int initializationState = 0;
         ObjectModel objectModel = this.defaultObjectModel;
-        for (ModelProperty modelProperty : this.defaultObjectModel.getModelClass().getPropertyList()) {
-            if (modelProperty.getPropertyType() == PropertyType.SCALAR && modelProperty.isDeferrable()) {
-                int propertyId = modelProperty.getId();
-                if (objectModel.isDisabled(propertyId) || objectModel.isUnloaded(propertyId)) {
-                    initializationState |= STATE_UNINITIALIZIED;
-                } else {
-                    initializationState |= STATE_INITIALIZIED;
-                }
-                if ((initializationState & (STATE_UNINITIALIZIED | STATE_INITIALIZIED)) == (STATE_UNINITIALIZIED | STATE_INITIALIZIED)) {
-                    break;
-                }
+        ModelClass modelClass = objectModel.getModelClass();
+        int wordCount = (modelClass.getPropertyList().size() + 63) >>> 6;
+        for (int wordIndex = 0; wordIndex < wordCount; wordIndex++) {
+            long deferrableMask = modelClass.getDeferrableScalarMask(wordIndex);
+            if (deferrableMask == 0L) {
+                continue;
+            }
+            long uninitializedMask = 
+                    (objectModel.getUnloadedMask(wordIndex) | objectModel.getDisabledMask(wordIndex)) & 
+                    deferrableMask;
+            if (uninitializedMask != 0L) {
+                initializationState |= STATE_UNINITIALIZIED;
+            }
+            if (uninitializedMask != deferrableMask) {
+                initializationState |= STATE_INITIALIZIED;
+            }
+            if ((initializationState & (STATE_UNINITIALIZIED | STATE_INITIALIZIED)) == (STATE_UNINITIALIZIED | STATE_INITIALIZIED)) {
+                break;
             }
         }
         return initializationState;   
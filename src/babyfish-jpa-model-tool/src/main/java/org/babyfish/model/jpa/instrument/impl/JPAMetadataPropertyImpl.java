@@ -51,6 +51,7 @@ import org.babyfish.model.instrument.metadata.MetadataProperty;
 import org.babyfish.model.instrument.metadata.spi.AbstractMetadataClass;
 import org.babyfish.model.instrument.metadata.spi.AbstractMetadataProperty;
 import org.babyfish.model.jpa.JPAModel;
+import org.babyfish.model.jpa.ReverseIndexed;
 import org.babyfish.model.jpa.instrument.metadata.JPAMetadataProperty;
 import org.babyfish.model.jpa.instrument.spi.ASMConstants;
 import org.babyfish.model.jpa.metadata.JPAScalarType;
@@ -98,6 +99,8 @@ final class JPAMetadataPropertyImpl extends AbstractMetadataProperty implements
     
     boolean inverse;
     
+    boolean reverseIndexed;
+    
     Unresolved unresolved;
 
     public JPAMetadataPropertyImpl(JPAMetadataClassImpl declaringClass, FieldNode fieldNode) {
@@ -137,6 +140,11 @@ final class JPAMetadataPropertyImpl extends AbstractMetadataProperty implements
         return this.scalarType == JPAScalarType.ID || this.scalarType == JPAScalarType.VERSION;
     }
 
+    @Override
+    public boolean isReverseIndexed() {
+        return this.reverseIndexed;
+    }
+
     @Override
     public boolean isAbsolute() {
         return this.absolute;
@@ -718,6 +726,18 @@ final class JPAMetadataPropertyImpl extends AbstractMetadataProperty implements
                             KeyOf.class
                     )
             );
+        }        
+        if (ASMTreeUtils.getAnnotationNode(this.unresolved.fieldNode, ReverseIndexed.class) != null) {
+            if (this.associationType != AssociationType.LIST || this.oppositeProperty == null) {
+                throw new IllegalClassException(
+                        reverseIndexedRequireBidirectionalList(
+                                this,
+                                ReverseIndexed.class,
+                                AssociationType.LIST
+                        )
+                );
+            }
+            this.reverseIndexed = true;
         }
     }
     
@@ -1326,4 +1346,10 @@ final class JPAMetadataPropertyImpl extends AbstractMetadataProperty implements
             JPAMetadataPropertyImpl property,
             JPAMetadataPropertyImpl referenceProperty,
             JPAMetadataPropertyImpl otherIndexOrKeyProperty);
+    
+    @I18N
+    private static native String reverseIndexedRequireBidirectionalList(
+            JPAMetadataPropertyImpl property,
+            Class<ReverseIndexed> reverseIndexedTypeConstant,
+            AssociationType listAssociationTypeConstant);
 }
@@ -0,0 +1,45 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.model.jpa;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The JPA counterpart of <code>@Association(reverseIndexed = true)</code>,
+ * the JPA model associations are declared by the annotations of JPA
+ * so that this option is specified by this annotation.
+ *
+ * <p>
+ * Only for the list field of bidirectional association, for example, 
+ * the field marked by <code>@OneToMany(mappedBy = ...)</code> and 
+ * <code>@OrderColumn</code>. It lets the list endpoint maintain a position 
+ * index of its elements so that the element can be removed without linear 
+ * scan when the opposite endpoint detaches it.
+ * </p>
+ *
+ * @author Tao Chen
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.FIELD)
+public @interface ReverseIndexed {
+}
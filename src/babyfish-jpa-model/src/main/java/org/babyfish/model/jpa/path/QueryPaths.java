@@ -32,10 +32,9 @@ import org.antlr.v4.runtime.RecognitionException;
 import org.antlr.v4.runtime.Recognizer;
 import org.antlr.v4.runtime.Token;
 import org.babyfish.collection.ArrayList;
-import org.babyfish.collection.LinkedHashMap;
 import org.babyfish.collection.MACollections;
-import org.babyfish.collection.OrderAdjustMode;
-import org.babyfish.collection.XOrderedMap;
+import org.babyfish.collection.MALinkedHashCache;
+import org.babyfish.collection.MALinkedHashCache.EvictionPolicy;
 import org.babyfish.lang.Arguments;
 import org.babyfish.lang.Nulls;
 import org.babyfish.model.jpa.path.FetchPath.Builder;
@@ -61,14 +60,8 @@ public class QueryPaths {
     
     private static final QueryPath[] EMPTY_QUERY_PATHS = new QueryPath[0];
     
-    private static final XOrderedMap<String, List<QueryPath>> LEVEL_TWO_CACHE = 
-            new LinkedHashMap<>(
-                    (LEVEL_2_CACHE_MAX_SIZE * 4 + 2) / 3, 
-                    .75F, 
-                    false, 
-                    OrderAdjustMode.NEXT, 
-                    OrderAdjustMode.NEXT
-            );
+    private static final MALinkedHashCache<String, List<QueryPath>> LEVEL_TWO_CACHE = 
+            new MALinkedHashCache<>(EvictionPolicy.LFU, LEVEL_2_CACHE_MAX_SIZE);
             
     private static final ReadWriteLock CACHE_LOCK = new ReentrantReadWriteLock();
 
@@ -187,20 +180,21 @@ public class QueryPaths {
         (lock = CACHE_LOCK.readLock()).lock(); //1st locking
         try {
             compileResult = LEVEL_ONE_CACHE.get(queryPath); //1st level-1 reading
-            if (compileResult == null) { //1st level-1 checking
-                compileResult = LEVEL_TWO_CACHE.access(queryPath); //1st level-2 reading
-            }
         } finally {
             lock.unlock();
         }
         
-        if (compileResult == null) { //1st level-2 checking
+        if (compileResult == null) { //1st level-1 checking
+            /*
+             * The level-2 cache is only read under the write lock, 
+             * its get() reorders the entries and records the hit/miss statistics.
+             */
             (lock = CACHE_LOCK.writeLock()).lock(); //2nd locking
             try {
                 compileResult = LEVEL_ONE_CACHE.get(queryPath); //2nd level-1 reading
                 if (compileResult == null) { //2nd level-1 checking
-                    compileResult = LEVEL_TWO_CACHE.access(queryPath); //2nd level-2 reading
-                    if (compileResult == null) { //2nd level-2 checking
+                    compileResult = LEVEL_TWO_CACHE.get(queryPath); //level-2 reading
+                    if (compileResult == null) { //level-2 checking
                         ANTLRInputStream input = new ANTLRInputStream(queryPath);
                         QueryPathLexer lexer = new QueryPathLexer(input);
                         CommonTokenStream tokens = new CommonTokenStream(lexer);
@@ -214,10 +208,7 @@ public class QueryPaths {
                         parser.main().accept(visitor);
                         compileResult = visitor.getQueryPaths();
                         
-                        //save to level-2 cache
-                        for (int i = LEVEL_TWO_CACHE.size() - LEVEL_2_CACHE_MAX_SIZE; i >= 0; i--) {
-                            LEVEL_TWO_CACHE.pollFirstEntry();
-                        }
+                        //save to level-2 cache, it evicts the infrequently used paths by itself
                         LEVEL_TWO_CACHE.put(queryPath, compileResult);
                     }
                     //save to level-1 cache
@@ -62,6 +62,8 @@ class MetadataPropertyImpl extends AbstractMetadataProperty {
     
     boolean absolute;
     
+    boolean reverseIndexed;
+    
     MetadataClassImpl keyClass;
     
     MetadataClassImpl targetClass;
@@ -126,6 +128,7 @@ class MetadataPropertyImpl extends AbstractMetadataProperty {
             this.propertyType = PropertyType.ASSOCIATION;
             this.deferrable = true;
             this.unresolved.opposite = ASMTreeUtils.getAnnotationValue(primaryAnnotationNode, "opposite");
+            this.reverseIndexed = ASMTreeUtils.getAnnotationValue(primaryAnnotationNode, "reverseIndexed", false);
         } else if (primaryAnnotationNode.desc.equals(Type.getDescriptor(IndexOf.class))) {
             if (!this.unresolved.fieldNode.desc.equals("I")) {
                 throw new IllegalClassException(
@@ -330,6 +333,16 @@ class MetadataPropertyImpl extends AbstractMetadataProperty {
     }
     
     public void resolveOppositeProperty() {
+        if (this.reverseIndexed && 
+                (this.associationType != AssociationType.LIST || this.unresolved.opposite == null)) {
+            throw new IllegalClassException(
+                    reverseIndexedRequireBidirectionalList(
+                            this,
+                            Association.class,
+                            AssociationType.LIST
+                    )
+            );
+        }
         if (this.oppositeProperty != null) {
             return;
         }
@@ -437,6 +450,11 @@ class MetadataPropertyImpl extends AbstractMetadataProperty {
         return this.absolute;
     }
     
+    @Override
+    public boolean isReverseIndexed() {
+        return this.reverseIndexed;
+    }
+    
     @Override
     public MetadataClass getKeyClass() {
         return this.keyClass;
@@ -627,4 +645,10 @@ class MetadataPropertyImpl extends AbstractMetadataProperty {
             MetadataPropertyImpl oppositeProperty,
             String expectedOppositeOppositeName,
             String actualOppositeOppositeName);
+    
+    @I18N
+    private static native String reverseIndexedRequireBidirectionalList(
+            MetadataPropertyImpl thisProperty,
+            Class<Association> associationTypeConstant,
+            AssociationType listAssociationTypeConstant);
 }
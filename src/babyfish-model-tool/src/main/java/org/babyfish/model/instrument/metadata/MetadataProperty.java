@@ -43,6 +43,8 @@ public interface MetadataProperty {
     
     boolean isAbsolute();
     
+    boolean isReverseIndexed();
+    
     String getSignature();
     
     String getDescriptor();
@@ -42,12 +42,12 @@ import org.babyfish.model.metadata.internal.ModelClassImpl;
 import org.babyfish.model.metadata.internal.ModelPropertyImpl;
 import org.babyfish.model.spi.AbstractObjectModelImpl;
 import org.babyfish.model.spi.DirtinessAwareScalarLoader;
+import org.babyfish.model.spi.GeneratedScalarComparator;
 import org.babyfish.model.spi.ObjectModel;
 import org.babyfish.model.spi.ObjectModelExceptions;
 import org.babyfish.model.spi.ObjectModelProvider;
 import org.babyfish.model.spi.ScalarLoader;
 import org.babyfish.model.spi.association.AssociatedEndpoint;
-import org.babyfish.org.objectweb.asm.Opcodes;
 import org.babyfish.org.objectweb.asm.Type;
 import org.babyfish.validator.Validator;
 import org.babyfish.validator.Validators;
@@ -57,12 +57,6 @@ import org.babyfish.validator.Validators;
  */
 public class ASMConstants {
 
-    public static final int LDC_CONST_CLEAR_DISABLED = ~1;
-    
-    public static final int OP_CONST_DISABLED = Opcodes.ICONST_1;
-    
-    public static final int OP_CONST_UNLOADED = Opcodes.ICONST_2;
-    
     public static final String MODEL_CLASS_IMPL_DESCRITOR = Type.getDescriptor(ModelClassImpl.class);
     
     public static final String MODEL_PROPERTY_IMPL_DESCRIPTOR = Type.getDescriptor(ModelPropertyImpl.class);
@@ -131,6 +125,12 @@ public class ASMConstants {
     
     public static final String OBJECT_MODEL_INTERNAL_NAME = descToInternalName(OBJECT_MODEL_DESCRIPTOR);    
 
+    public static final String GENERATED_SCALAR_COMPARATOR_DESCRIPTOR = 
+            Type.getDescriptor(GeneratedScalarComparator.class);
+    
+    public static final String GENERATED_SCALAR_COMPARATOR_INTERNAL_NAME = 
+            descToInternalName(GENERATED_SCALAR_COMPARATOR_DESCRIPTOR);
+
     public static final String FROZEN_CONTEXT_DESCRIPTOR = Type.getDescriptor(FrozenContext.class);
     
     public static final String FROZEN_CONTEXT_INTERNAL_NAME = descToInternalName(FROZEN_CONTEXT_DESCRIPTOR);
@@ -19,8 +19,10 @@ package org.babyfish.model.instrument.spi;
 
 import java.io.File;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 
+import org.babyfish.collection.LinkedHashMap;
 import org.babyfish.collection.LinkedHashSet;
 import org.babyfish.lang.I18N;
 import org.babyfish.lang.Nulls;
@@ -57,6 +59,9 @@ public abstract class AbstractModelReplacer extends Replacer {
     
     private boolean proxySupported;
     
+    // Key: association property name
+    private Map<String, ScalarComparatorGenerator> scalarComparatorGenerators;
+    
     protected AbstractModelReplacer(
             AbstractObjectModelInstrumenter instrumenter, 
             String className, 
@@ -100,6 +105,17 @@ public abstract class AbstractModelReplacer extends Replacer {
         } else {
             this.createObjectModelTargetGenerator();
         }
+        
+        Map<String, ScalarComparatorGenerator> scalarComparatorGenerators = new LinkedHashMap<>();
+        for (MetadataProperty metadataProperty : this.metadataClass.getDeclaredProperties().values()) {
+            if (ScalarComparatorGenerator.isSupported(this, metadataProperty)) {
+                scalarComparatorGenerators.put(
+                        metadataProperty.getName(), 
+                        new ScalarComparatorGenerator(this, metadataProperty)
+                );
+            }
+        }
+        this.scalarComparatorGenerators = scalarComparatorGenerators;
     }
     
     public final MetadataClass getMetadataClass() {
@@ -264,11 +280,36 @@ public abstract class AbstractModelReplacer extends Replacer {
                             mv.visitInsn(Opcodes.AASTORE);
                         }
                     }
+                    ScalarComparatorGenerator scalarComparatorGenerator = 
+                            this.scalarComparatorGenerators.get(metadataProperty.getName());
+                    boolean reverseIndexed = metadataProperty.isReverseIndexed();
+                    if (scalarComparatorGenerator != null) {
+                        mv.visitTypeInsn(Opcodes.NEW, scalarComparatorGenerator.getInternalName());
+                        mv.visitInsn(Opcodes.DUP);
+                        mv.visitMethodInsn(
+                                Opcodes.INVOKESPECIAL, 
+                                scalarComparatorGenerator.getInternalName(), 
+                                "<init>", 
+                                "()V", 
+                                false
+                        );
+                    } else if (reverseIndexed) {
+                        mv.visitInsn(Opcodes.ACONST_NULL);
+                    }
+                    if (reverseIndexed) {
+                        mv.visitInsn(Opcodes.ICONST_1);
+                    }
                     mv.visitMethodInsn(
                             Opcodes.INVOKESPECIAL, 
                             ASMConstants.DEPENDENCY_INTERNAL_NAME, 
                             "<init>", 
-                            "(IIIII[" + ASMConstants.COMPARATOR_PART_DESCRIPTOR + ")V", 
+                            "(IIIII[" + 
+                            ASMConstants.COMPARATOR_PART_DESCRIPTOR + 
+                            (scalarComparatorGenerator != null || reverseIndexed ? 
+                                    ASMConstants.GENERATED_SCALAR_COMPARATOR_DESCRIPTOR : 
+                                    "") +
+                            (reverseIndexed ? "Z" : "") +
+                            ")V", 
                             false
                     );
                 }
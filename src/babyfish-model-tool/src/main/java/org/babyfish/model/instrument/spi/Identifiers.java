@@ -46,7 +46,9 @@ public class Identifiers {
     
     private static final String PROPERTY_REFERENCE_POSTFIX = ":Reference}";
     
-    private static final String PROPERTY_SCALAR_STATE_POSTFIX = ":ScalarSate}";
+    private static final String UNLOADED_MASK_PREFIX = "{UnloadedMask:";
+    
+    private static final String DISABLED_MASK_PREFIX = "{DisabledMask:";
     
     private static final String PROPERTY_FROZEN_CONTEXT_POSTFIX = ":FrozenContext}";
     
@@ -65,14 +67,37 @@ public class Identifiers {
         }
     }
     
-    public static String stateFieldName(MetadataProperty metadataProperty) {
-        if (metadataProperty.getPropertyType() == PropertyType.SCALAR && (
-                metadataProperty.isDeferrable() || !metadataProperty.isMandatory())) {
-            return PREFIX + metadataProperty.getName() + PROPERTY_SCALAR_STATE_POSTFIX;
+    /*
+     * The unloaded flags of the deferrable scalar properties are packed into
+     * long fields, the property whose id is "id" uses the bit "id & 63" 
+     * of the field whose word index is "id >>> 6".
+     */
+    public static String unloadedMaskFieldName(MetadataProperty metadataProperty) {
+        if (metadataProperty.getPropertyType() == PropertyType.SCALAR && metadataProperty.isDeferrable()) {
+            return unloadedMaskFieldName(metadataProperty.getId() >>> 6);
+        }
+        return null;
+    }
+    
+    public static String unloadedMaskFieldName(int wordIndex) {
+        return UNLOADED_MASK_PREFIX + wordIndex + '}';
+    }
+    
+    /*
+     * The disabled flags of the optional scalar properties are packed 
+     * like the unloaded flags.
+     */
+    public static String disabledMaskFieldName(MetadataProperty metadataProperty) {
+        if (metadataProperty.getPropertyType() == PropertyType.SCALAR && !metadataProperty.isMandatory()) {
+            return disabledMaskFieldName(metadataProperty.getId() >>> 6);
         }
         return null;
     }
     
+    public static String disabledMaskFieldName(int wordIndex) {
+        return DISABLED_MASK_PREFIX + wordIndex + '}';
+    }
+    
     public static String frozenContextFieldName(MetadataProperty metadataProperty) {
         if (metadataProperty.getPropertyType() == PropertyType.SCALAR && 
                 metadataProperty.getDescriptor().charAt(0) != '[') {
@@ -123,5 +148,12 @@ public class Identifiers {
         return null;
     }
     
+    public static String generatedComparatorSimpleName(MetadataProperty metadataProperty) {
+        if (metadataProperty.getComparatorParts() != null) {
+            return "{GeneratedComparator_" + metadataProperty.getName() + "}";
+        }
+        return null;
+    }
+    
     private Identifiers() {}
 }
@@ -54,6 +54,8 @@ import org.babyfish.org.objectweb.asm.Type;
  */
 public class ObjectModelTargetGenerator extends AbstractObjectModelGenerator {
     
+    private static final String[] PRIMITIVE_OPERATION_DESCRIPTORS = { "I", "J", "D", "Z" };
+    
     private boolean overrideLoadScalars;
 
     private boolean overrideInitAssociations;
@@ -235,6 +237,8 @@ public class ObjectModelTargetGenerator extends AbstractObjectModelGenerator {
         for (MetadataProperty metadataProperty : this.getMetadataClass().getDeclaredProperties().values()) {
             this.generatePropertyFields(cv, metadataProperty);
         }
+        this.generateMaskFields(cv, true);
+        this.generateMaskFields(cv, false);
         
         this.generateConstructor(cv);
         if (this.overrideInitAssociations) {
@@ -248,6 +252,10 @@ public class ObjectModelTargetGenerator extends AbstractObjectModelGenerator {
         
         this.generateObjectOperationMethods(cv, true);
         this.generateObjectOperationMethods(cv, false);
+        for (String primitiveDescriptor : PRIMITIVE_OPERATION_DESCRIPTORS) {
+            this.generatePrimitiveOperationMethod(cv, primitiveDescriptor, true);
+            this.generatePrimitiveOperationMethod(cv, primitiveDescriptor, false);
+        }
         this.generateGetAssociatedEndpointMethod(cv);
         
         this.generateGetDisablityPropertyMethod(cv);
@@ -257,6 +265,8 @@ public class ObjectModelTargetGenerator extends AbstractObjectModelGenerator {
         this.generateIsLoadedMethod(cv);
         this.generateUnloadMethod(cv);
         this.generateLoadScalars(cv);
+        this.generateGetMaskMethod(cv, true);
+        this.generateGetMaskMethod(cv, false);
         
         if (!this.<AbstractModelReplacer>getParent().isProxySupported()) {
             this.generateHashCodeScalarMethod(cv, false);
@@ -292,19 +302,7 @@ public class ObjectModelTargetGenerator extends AbstractObjectModelGenerator {
                     null
             )
             .visitEnd();
-            String stateFieldName = Identifiers.stateFieldName(metadataProperty);
             String frozenContextFieldName = Identifiers.frozenContextFieldName(metadataProperty);
-            if (stateFieldName != null) {
-                cv
-                .visitField(
-                        Opcodes.ACC_PROTECTED, 
-                        stateFieldName, 
-                        "I", 
-                        null, 
-                        null
-                )
-                .visitEnd();
-            }
             if (frozenContextFieldName != null) {
                 cv
                 .visitField(
@@ -322,6 +320,22 @@ public class ObjectModelTargetGenerator extends AbstractObjectModelGenerator {
         }
     }
 
+    private void generateMaskFields(ClassVisitor cv, boolean unloaded) {
+        for (int wordIndex : ScalarMasks.declaredWordIndexes(this.getMetadataClass(), unloaded)) {
+            cv
+            .visitField(
+                    Opcodes.ACC_PROTECTED, 
+                    unloaded ?
+                            Identifiers.unloadedMaskFieldName(wordIndex) :
+                            Identifiers.disabledMaskFieldName(wordIndex), 
+                    "J", 
+                    null, 
+                    null
+            )
+            .visitEnd();
+        }
+    }
+
     private void generateConstructor(ClassVisitor cv) {
         
         MetadataClass superClass = this.getMetadataClass().getSuperClass();
@@ -579,16 +593,13 @@ public class ObjectModelTargetGenerator extends AbstractObjectModelGenerator {
         
         if (!metadataProperty.isMandatory()) {
             Label enabledLabel = new Label();
-            mv.visitVarInsn(Opcodes.ALOAD, 0);
-            mv.visitFieldInsn(
-                    Opcodes.GETFIELD, 
+            ScalarMasks.visitJumpIfClear(
+                    mv, 
                     this.getInternalName(), 
-                    Identifiers.stateFieldName(metadataProperty), 
-                    "I"
+                    Identifiers.disabledMaskFieldName(metadataProperty), 
+                    ScalarMasks.mask(metadataProperty), 
+                    enabledLabel
             );
-            mv.visitInsn(ASMConstants.OP_CONST_DISABLED);
-            mv.visitInsn(Opcodes.IAND);
-            mv.visitJumpInsn(Opcodes.IFEQ, enabledLabel);
             ASMUtils.visitClassLdc(mv, metadataProperty.getDeclaringClass().getDescriptor());
             mv.visitLdcInsn(metadataProperty.getId());
             mv.visitLdcInsn(metadataProperty.getName());
@@ -614,16 +625,13 @@ public class ObjectModelTargetGenerator extends AbstractObjectModelGenerator {
                     "Z"
             );
             mv.visitJumpInsn(Opcodes.IFNE, loadedLabel);
-            mv.visitVarInsn(Opcodes.ALOAD, 0);
-            mv.visitFieldInsn(
-                    Opcodes.GETFIELD, 
+            ScalarMasks.visitJumpIfClear(
+                    mv, 
                     this.getInternalName(), 
-                    Identifiers.stateFieldName(metadataProperty), 
-                    "I"
+                    Identifiers.unloadedMaskFieldName(metadataProperty), 
+                    ScalarMasks.mask(metadataProperty), 
+                    loadedLabel
             );
-            mv.visitInsn(ASMConstants.OP_CONST_UNLOADED);
-            mv.visitInsn(Opcodes.IAND);
-            mv.visitJumpInsn(Opcodes.IFEQ, loadedLabel);
             
             mv.visitVarInsn(Opcodes.ALOAD, 0);
             mv.visitMethodInsn(
@@ -921,6 +929,112 @@ public class ObjectModelTargetGenerator extends AbstractObjectModelGenerator {
         mv.visitEnd();
     }
     
+    /*
+     * Generates "getInt(I)I", "setInt(II)V" and so on, only for the primitive
+     * types that are used by the declared scalar properties; the inherited 
+     * or the default methods of ObjectModel are good enough for others. 
+     * 
+     * The properties of other types fall back to get(I)/set(ILjava/lang/Object;)V
+     * so that the behavior and exceptions stay same with the boxing API.
+     */
+    private void generatePrimitiveOperationMethod(ClassVisitor cv, String primitiveDescriptor, boolean getter) {
+        
+        if (!containsScalarProperty(this.getMetadataClass().getDeclaredProperties().values(), primitiveDescriptor)) {
+            return;
+        }
+        List<MetadataProperty> properties = new ArrayList<>();
+        for (MetadataProperty metadataProperty : this.getMetadataClass().getPropertyList()) {
+            if (metadataProperty.getPropertyType() == PropertyType.SCALAR && 
+                    metadataProperty.getDescriptor().equals(primitiveDescriptor)) {
+                properties.add(metadataProperty);
+            }
+        }
+        
+        String typeName = primitiveTypeName(primitiveDescriptor);
+        MethodVisitor mv = cv.visitMethod(
+                Opcodes.ACC_PUBLIC, 
+                (getter ? "get" : "set") + typeName, 
+                getter ? "(I)" + primitiveDescriptor : "(I" + primitiveDescriptor + ")V", 
+                null,
+                null
+        );
+        mv.visitCode();
+        
+        VariableScopeBuilder variableScopeBuilder = 
+                new VariableScopeBuilder()
+                .parameter("this", this.getDescriptor())
+                .parameter("propertyId", "I");
+        if (!getter) {
+            variableScopeBuilder.parameter("value", primitiveDescriptor);
+        }
+        try (VariableScope scope = variableScopeBuilder.build(mv)) {
+            Label defaultLabel = new Label();
+            int[] keys = new int[properties.size()];
+            Label[] labels = new Label[properties.size()];
+            for (int i = labels.length - 1; i >= 0; i--) {
+                keys[i] = properties.get(i).getId();
+                labels[i] = new Label();
+            }
+            
+            scope.load("propertyId");
+            mv.visitLookupSwitchInsn(defaultLabel, keys, labels);
+            
+            for (int i = 0; i < labels.length; i++) {
+                MetadataProperty metadataProperty = properties.get(i);
+                mv.visitLabel(labels[i]);
+                scope.load("this");
+                if (getter) {
+                    mv.visitMethodInsn(
+                            Opcodes.INVOKEVIRTUAL, 
+                            this.getInternalName(), 
+                            Identifiers.getterName(metadataProperty), 
+                            "()" + primitiveDescriptor,
+                            false
+                    );
+                    mv.visitInsn(ASMUtils.getReturnCode(primitiveDescriptor));
+                } else {
+                    scope.load("value");
+                    mv.visitMethodInsn(
+                            Opcodes.INVOKEVIRTUAL, 
+                            this.getInternalName(), 
+                            Identifiers.setterName(metadataProperty), 
+                            '(' + primitiveDescriptor + ")V",
+                            false
+                    );
+                    mv.visitInsn(Opcodes.RETURN);
+                }
+            }
+            
+            mv.visitLabel(defaultLabel);
+            scope.load("this");
+            scope.load("propertyId");
+            if (getter) {
+                mv.visitMethodInsn(
+                        Opcodes.INVOKEVIRTUAL, 
+                        this.getInternalName(), 
+                        "get", 
+                        "(I)Ljava/lang/Object;",
+                        false
+                );
+                ASMUtils.visitUnbox(mv, primitiveDescriptor, true);
+                mv.visitInsn(ASMUtils.getReturnCode(primitiveDescriptor));
+            } else {
+                ASMUtils.visitBox(mv, primitiveDescriptor, v -> scope.load("value"));
+                mv.visitMethodInsn(
+                        Opcodes.INVOKEVIRTUAL, 
+                        this.getInternalName(), 
+                        "set", 
+                        "(ILjava/lang/Object;)V",
+                        false
+                );
+                mv.visitInsn(Opcodes.RETURN);
+            }
+        }
+        
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+    
     private void generateGetAssociatedEndpointMethod(ClassVisitor cv) {
         
         List<MetadataProperty> propertyList = this.getMetadataClass().getPropertyList();    
@@ -1050,19 +1164,16 @@ public class ObjectModelTargetGenerator extends AbstractObjectModelGenerator {
                     metadataProperty = baseProperty(metadataProperty);
                     
                     if (metadataProperty.getPropertyType() == PropertyType.SCALAR) {
-                        String stateFieldName = Identifiers.stateFieldName(metadataProperty);
-                        if (stateFieldName != null && !metadataProperty.isMandatory()) {
+                        String disabledMaskFieldName = Identifiers.disabledMaskFieldName(metadataProperty);
+                        if (disabledMaskFieldName != null) {
                             Label falseLabel = new Label();
-                            scope.load("this");
-                            mv.visitFieldInsn(
-                                    Opcodes.GETFIELD, 
+                            ScalarMasks.visitJumpIfClear(
+                                    mv, 
                                     this.getInternalName(), 
-                                    stateFieldName, 
-                                    "I"
+                                    disabledMaskFieldName, 
+                                    ScalarMasks.mask(metadataProperty), 
+                                    falseLabel
                             );
-                            mv.visitInsn(ASMConstants.OP_CONST_DISABLED);
-                            mv.visitInsn(Opcodes.IAND);
-                            mv.visitJumpInsn(Opcodes.IFEQ, falseLabel);
                             mv.visitInsn(Opcodes.ICONST_1);
                             mv.visitInsn(Opcodes.IRETURN);
                             mv.visitLabel(falseLabel);
@@ -1148,29 +1259,23 @@ public class ObjectModelTargetGenerator extends AbstractObjectModelGenerator {
                     metadataProperty = baseProperty(metadataProperty);
                     
                     if (metadataProperty.getPropertyType() == PropertyType.SCALAR) {
-                        String stateFieldName = Identifiers.stateFieldName(metadataProperty);
-                        if (stateFieldName != null && !metadataProperty.isMandatory()) {
-                            mv.visitVarInsn(Opcodes.ALOAD, 0);
-                            mv.visitVarInsn(Opcodes.ALOAD, 0);
-                            mv.visitFieldInsn(
-                                    Opcodes.GETFIELD, 
-                                    this.getInternalName(), 
-                                    stateFieldName, 
-                                    "I"
-                            );
+                        String disabledMaskFieldName = Identifiers.disabledMaskFieldName(metadataProperty);
+                        if (disabledMaskFieldName != null) {
                             if (enable) {
-                                mv.visitLdcInsn(ASMConstants.LDC_CONST_CLEAR_DISABLED);
-                                mv.visitInsn(Opcodes.IAND);
+                                ScalarMasks.visitClear(
+                                        mv, 
+                                        this.getInternalName(), 
+                                        disabledMaskFieldName, 
+                                        ScalarMasks.mask(metadataProperty)
+                                );
                             } else {
-                                mv.visitInsn(ASMConstants.OP_CONST_DISABLED);
-                                mv.visitInsn(Opcodes.IOR);
+                                ScalarMasks.visitSet(
+                                        mv, 
+                                        this.getInternalName(), 
+                                        disabledMaskFieldName, 
+                                        ScalarMasks.mask(metadataProperty)
+                                );
                             }
-                            mv.visitFieldInsn(
-                                    Opcodes.PUTFIELD, 
-                                    this.getInternalName(), 
-                                    stateFieldName, 
-                                    "I"
-                            );
                         }
                     } else {
                         mv.visitVarInsn(Opcodes.ALOAD, 0);
@@ -1255,17 +1360,13 @@ public class ObjectModelTargetGenerator extends AbstractObjectModelGenerator {
                             mv.visitInsn(Opcodes.IRETURN);
                         } else {
                             Label unloadedLabel = new Label();
-                            String stateFieldName = Identifiers.stateFieldName(metadataProperty);
-                            scope.load("this");
-                            mv.visitFieldInsn(
-                                    Opcodes.GETFIELD, 
+                            ScalarMasks.visitJumpIfSet(
+                                    mv, 
                                     this.getInternalName(), 
-                                    stateFieldName, 
-                                    "I"
+                                    Identifiers.unloadedMaskFieldName(metadataProperty), 
+                                    ScalarMasks.mask(metadataProperty), 
+                                    unloadedLabel
                             );
-                            mv.visitInsn(ASMConstants.OP_CONST_UNLOADED);
-                            mv.visitInsn(Opcodes.IAND);
-                            mv.visitJumpInsn(Opcodes.IFNE, unloadedLabel);
                             mv.visitInsn(Opcodes.ICONST_1);
                             mv.visitInsn(Opcodes.IRETURN);
                             mv.visitLabel(unloadedLabel);
@@ -1368,22 +1469,11 @@ public class ObjectModelTargetGenerator extends AbstractObjectModelGenerator {
                             mv.visitInsn(Opcodes.ATHROW);
                             mv.visitLabel(frozenIsNullLabel);
                         }
-                        String stateFieldName = Identifiers.stateFieldName(metadataProperty);
-                        mv.load("this");
-                        mv.load("this");
-                        mv.visitFieldInsn(
-                                Opcodes.GETFIELD, 
+                        ScalarMasks.visitSet(
+                                mv, 
                                 this.getInternalName(), 
-                                stateFieldName, 
-                                "I"
-                        );
-                        mv.visitInsn(ASMConstants.OP_CONST_UNLOADED);
-                        mv.visitInsn(Opcodes.IOR);
-                        mv.visitFieldInsn(
-                                Opcodes.PUTFIELD, 
-                                this.getInternalName(), 
-                                stateFieldName, 
-                                "I"
+                                Identifiers.unloadedMaskFieldName(metadataProperty), 
+                                ScalarMasks.mask(metadataProperty)
                         );
                         mv.load("this");
                         mv.visitInsn(ASMUtils.getDefaultCode(metadataProperty.getDescriptor()));
@@ -1442,6 +1532,47 @@ public class ObjectModelTargetGenerator extends AbstractObjectModelGenerator {
         mv.visitEnd();
     }
     
+    private void generateGetMaskMethod(ClassVisitor cv, boolean unloaded) {
+        if (ScalarMasks.declaredWordIndexes(this.getMetadataClass(), unloaded).isEmpty()) {
+            return;
+        }
+        
+        try (ScopedMethodVisitor mv = 
+                new ScopedMethodVisitorBuilder(
+                        Opcodes.ACC_PUBLIC, 
+                        unloaded ? "getUnloadedMask" : "getDisabledMask")
+                .self(this.getDescriptor())
+                .parameter("wordIndex", "I")
+                .output("J")
+                .build(cv)) {
+            
+            mv.visitCode();
+            
+            for (int wordIndex : ScalarMasks.wordIndexes(this.getMetadataClass().getPropertyList(), unloaded)) {
+                Label nextLabel = new Label();
+                mv.load("wordIndex");
+                mv.visitLdcInsn(wordIndex);
+                mv.visitJumpInsn(Opcodes.IF_ICMPNE, nextLabel);
+                mv.load("this");
+                mv.visitFieldInsn(
+                        Opcodes.GETFIELD, 
+                        this.getInternalName(), 
+                        unloaded ?
+                                Identifiers.unloadedMaskFieldName(wordIndex) :
+                                Identifiers.disabledMaskFieldName(wordIndex), 
+                        "J"
+                );
+                mv.visitInsn(Opcodes.LRETURN);
+                mv.visitLabel(nextLabel);
+            }
+            mv.visitInsn(Opcodes.LCONST_0);
+            mv.visitInsn(Opcodes.LRETURN);
+            
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+    }
+    
     private void generateScalarFrozenContextOperationMethods(ClassVisitor cv, boolean freeze) {
         
         List<MetadataProperty> propertyList = this.getMetadataClass().getPropertyList();
@@ -1637,6 +1768,17 @@ public class ObjectModelTargetGenerator extends AbstractObjectModelGenerator {
         mv.visitEnd();
     }
     
+    private List<String> declaredMaskFieldNames() {
+        List<String> maskFieldNames = new ArrayList<>();
+        for (int wordIndex : ScalarMasks.declaredWordIndexes(this.getMetadataClass(), true)) {
+            maskFieldNames.add(Identifiers.unloadedMaskFieldName(wordIndex));
+        }
+        for (int wordIndex : ScalarMasks.declaredWordIndexes(this.getMetadataClass(), false)) {
+            maskFieldNames.add(Identifiers.disabledMaskFieldName(wordIndex));
+        }
+        return maskFieldNames;
+    }
+    
     private void generateWriteObject(ClassVisitor cv) {
         try (ScopedMethodVisitor mv =
                 new ScopedMethodVisitorBuilder(
@@ -1649,28 +1791,27 @@ public class ObjectModelTargetGenerator extends AbstractObjectModelGenerator {
             
             mv.visitCode();
             
+            for (String maskFieldName : this.declaredMaskFieldNames()) {
+                mv.load("out");
+                mv.load("this");
+                mv.visitFieldInsn(
+                        Opcodes.GETFIELD, 
+                        this.getInternalName(), 
+                        maskFieldName, 
+                        "J"
+                );
+                mv.visitMethodInsn(
+                        Opcodes.INVOKEVIRTUAL, 
+                        ASMConstants.OBJECT_OUTPUT_STREAM_INTERNAL_NAME, 
+                        "writeLong", 
+                        "(J)V", 
+                        false
+                );
+            }
             for (MetadataProperty metadataProperty : this.getMetadataClass().getDeclaredProperties().values()) {
                 if (metadataProperty.getPropertyType() != PropertyType.SCALAR) {
                     continue;
                 }
-                String stateFieldName = Identifiers.stateFieldName(metadataProperty);
-                if (stateFieldName != null) {
-                    mv.load("out");
-                    mv.load("this");
-                    mv.visitFieldInsn(
-                            Opcodes.GETFIELD, 
-                            this.getInternalName(), 
-                            stateFieldName, 
-                            "I"
-                    );
-                    mv.visitMethodInsn(
-                            Opcodes.INVOKEVIRTUAL, 
-                            ASMConstants.OBJECT_OUTPUT_STREAM_INTERNAL_NAME, 
-                            "writeInt", 
-                            "(I)V", 
-                            false
-                    );
-                }
                 mv.load("out");
                 mv.load("this");
                 mv.visitFieldInsn(
@@ -1748,28 +1889,27 @@ public class ObjectModelTargetGenerator extends AbstractObjectModelGenerator {
                 );
             }
             
+            for (String maskFieldName : this.declaredMaskFieldNames()) {
+                mv.load("this");
+                mv.load("in");
+                mv.visitMethodInsn(
+                        Opcodes.INVOKEVIRTUAL, 
+                        ASMConstants.OBJECT_INPUT_STREAM_INTERNAL_NAME, 
+                        "readLong", 
+                        "()J", 
+                        false
+                );
+                mv.visitFieldInsn(
+                        Opcodes.PUTFIELD, 
+                        this.getInternalName(), 
+                        maskFieldName, 
+                        "J"
+                );
+            }
             for (MetadataProperty metadataProperty : this.getMetadataClass().getDeclaredProperties().values()) {
                 if (metadataProperty.getPropertyType() != PropertyType.SCALAR) {
                     continue;
                 }
-                String stateFieldName = Identifiers.stateFieldName(metadataProperty);
-                if (stateFieldName != null) {
-                    mv.load("this");
-                    mv.load("in");
-                    mv.visitMethodInsn(
-                            Opcodes.INVOKEVIRTUAL, 
-                            ASMConstants.OBJECT_INPUT_STREAM_INTERNAL_NAME, 
-                            "readInt", 
-                            "()I", 
-                            false
-                    );
-                    mv.visitFieldInsn(
-                            Opcodes.PUTFIELD, 
-                            this.getInternalName(), 
-                            stateFieldName, 
-                            "I"
-                    );
-                }
                 String fieldName = Identifiers.fieldName(metadataProperty);
                 String fieldDescriptor = this.fieldDescriptor(metadataProperty);
                 
@@ -1944,4 +2084,29 @@ public class ObjectModelTargetGenerator extends AbstractObjectModelGenerator {
             return metadataProperty;
         }
     }
+    
+    private static boolean containsScalarProperty(Iterable<MetadataProperty> metadataProperties, String descriptor) {
+        for (MetadataProperty metadataProperty : metadataProperties) {
+            if (metadataProperty.getPropertyType() == PropertyType.SCALAR && 
+                    metadataProperty.getDescriptor().equals(descriptor)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static String primitiveTypeName(String primitiveDescriptor) {
+        switch (primitiveDescriptor.charAt(0)) {
+        case 'I':
+            return "Int";
+        case 'J':
+            return "Long";
+        case 'D':
+            return "Double";
+        case 'Z':
+            return "Boolean";
+        default:
+            throw new AssertionError("Internal bug");
+        }
+    }
 }
@@ -0,0 +1,550 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.model.instrument.spi;
+
+import java.util.List;
+import java.util.SortedSet;
+
+import org.babyfish.collection.ArrayList;
+import org.babyfish.lang.bytecode.VariableScope;
+import org.babyfish.lang.bytecode.VariableScopeBuilder;
+import org.babyfish.lang.instrument.bytecode.NestedClassGenerator;
+import org.babyfish.model.NullComparatorType;
+import org.babyfish.model.StringComparatorType;
+import org.babyfish.model.instrument.metadata.MetadataComparatorPart;
+import org.babyfish.model.instrument.metadata.MetadataProperty;
+import org.babyfish.org.objectweb.asm.ClassVisitor;
+import org.babyfish.org.objectweb.asm.Label;
+import org.babyfish.org.objectweb.asm.MethodVisitor;
+import org.babyfish.org.objectweb.asm.Opcodes;
+
+/**
+ * Generates the {@link org.babyfish.model.spi.GeneratedScalarComparator} 
+ * of an association whose comparator rule is specified. 
+ * 
+ * <p>
+ * The generated code invokes the getters of the object model of the 
+ * target class directly, and the string comparator types and null 
+ * comparator types are inlined, so it is unnecessary to dispatch
+ * each comparator part by ObjectModel.compareScalar(...) at runtime. 
+ * It must return the same results with the generic implementation of 
+ * {@link org.babyfish.model.metadata.ModelClass#getComparator(org.babyfish.model.metadata.ComparatorPart...)}, 
+ * so the instructions of every part are same with the 
+ * hashCodeScalar/equalsScalar/compareScalar generated by 
+ * {@link AbstractObjectModelGenerator}.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+class ScalarComparatorGenerator extends NestedClassGenerator {
+    
+    private List<MetadataComparatorPart> parts;
+    
+    private String contractInternalName;
+
+    ScalarComparatorGenerator(AbstractModelReplacer parent, MetadataProperty associationProperty) {
+        super(parent, Identifiers.generatedComparatorSimpleName(associationProperty));
+        List<MetadataComparatorPart> parts = new ArrayList<>(associationProperty.getComparatorParts());
+        if (!SortedSet.class.isAssignableFrom(associationProperty.getStandardCollectionType())) {
+            // The runtime equality comparator sorts the parts by property id
+            parts.sort((a, b) -> a.getProperty().getId() - b.getProperty().getId());
+        }
+        this.parts = parts;
+        this.contractInternalName = 
+                associationProperty.getTargetClass().getInternalName() +
+                '$' +
+                Identifiers.OBJECT_MODEL_CONTRACT_SIMPLE_NAME;
+    }
+    
+    /*
+     * The object model contract is not public and the hibernate proxies
+     * do not extend it, so only the non-proxy models whose association 
+     * target is in the same package are supported, others use the generic
+     * comparators.
+     */
+    static boolean isSupported(AbstractModelReplacer parent, MetadataProperty associationProperty) {
+        if (parent.isProxySupported() || associationProperty.getComparatorParts() == null) {
+            return false;
+        }
+        return packageName(parent.getInternalName()).equals(
+                packageName(associationProperty.getTargetClass().getInternalName())
+        );
+    }
+
+    @Override
+    protected void generate(ClassVisitor cv) {
+        cv.visit(
+                this.<AbstractModelReplacer>getParent().getMetadataClass().getBytecodeVersion(), 
+                this.determineAccess() | Opcodes.ACC_FINAL, 
+                this.getInternalName(), 
+                null, 
+                "java/lang/Object", 
+                new String[] { ASMConstants.GENERATED_SCALAR_COMPARATOR_INTERNAL_NAME }
+        );
+        this.generateConstructor(cv);
+        this.generateHashCodeScalars(cv);
+        this.generateEqualsScalars(cv);
+        this.generateCompareScalars(cv);
+        cv.visitEnd();
+    }
+    
+    private void generateConstructor(ClassVisitor cv) {
+        MethodVisitor mv = cv.visitMethod(0, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+    
+    private void generateHashCodeScalars(ClassVisitor cv) {
+        
+        MethodVisitor mv = cv.visitMethod(
+                Opcodes.ACC_PUBLIC, 
+                "hashCodeScalars", 
+                '(' + ASMConstants.OBJECT_MODEL_DESCRIPTOR + ")I", 
+                null, 
+                null
+        );
+        mv.visitCode();
+        
+        try (VariableScope scope =
+                new VariableScopeBuilder()
+                .parameter("this", this.getDescriptor())
+                .parameter("objectModel", ASMConstants.OBJECT_MODEL_DESCRIPTOR)
+                .build(mv)
+        ) {
+            scope.declare("om", 'L' + this.contractInternalName + ';');
+            scope.declare("hash", "I");
+            
+            scope.load("objectModel");
+            mv.visitTypeInsn(Opcodes.CHECKCAST, this.contractInternalName);
+            scope.store("om");
+            mv.visitInsn(Opcodes.ICONST_0);
+            scope.store("hash");
+            
+            for (MetadataComparatorPart part : this.parts) {
+                MetadataProperty property = part.getProperty();
+                this.visitGetter(mv, scope, "om", property);
+                switch (property.getDescriptor().charAt(0)) {
+                case 'Z':
+                    Label falseLabel = new Label();
+                    Label endLabel = new Label();
+                    mv.visitJumpInsn(Opcodes.IFEQ, falseLabel);
+                    mv.visitLdcInsn(1031);
+                    mv.visitJumpInsn(Opcodes.GOTO, endLabel);
+                    mv.visitLabel(falseLabel);
+                    mv.visitLdcInsn(1037);
+                    mv.visitLabel(endLabel);
+                    break;
+                case 'C':
+                case 'B':
+                case 'S':
+                case 'I':
+                    break;
+                case 'F':
+                    mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Float", "floatToIntBits", "(F)I", false);
+                    break;
+                case 'D':
+                    mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Double", "doubleToLongBits", "(D)J", false);
+                    // No break
+                case 'J':
+                    try (VariableScope childScope = scope.createSubScope()) {
+                        childScope.declare("bits", "J");
+                        childScope.store("bits");
+                        childScope.load("bits");
+                        mv.visitIntInsn(Opcodes.BIPUSH, 32);
+                        mv.visitInsn(Opcodes.LUSHR);
+                        childScope.load("bits");
+                        mv.visitInsn(Opcodes.LXOR);
+                        mv.visitInsn(Opcodes.L2I);
+                    }
+                    break;
+                default:
+                    try (VariableScope childScope = scope.createSubScope()) {
+                        Label notNullLabel = new Label();
+                        Label endObjectLabel = new Label();
+                        childScope.declare("value", property.getDescriptor());
+                        childScope.store("value");
+                        childScope.load("value");
+                        mv.visitJumpInsn(Opcodes.IFNONNULL, notNullLabel);
+                        mv.visitInsn(Opcodes.ICONST_0);
+                        mv.visitJumpInsn(Opcodes.GOTO, endObjectLabel);
+                        mv.visitLabel(notNullLabel);
+                        if (property.getTargetClass() != null) {
+                            mv.visitFieldInsn(
+                                    Opcodes.GETSTATIC, 
+                                    this.contractInternalName, 
+                                    Identifiers.embeddedEqualityComparatorStaticFieldName(property), 
+                                    ASMConstants.EQUALITY_COMPARATOR_DESCRIPTOR
+                            );
+                            childScope.load("value");
+                            mv.visitMethodInsn(
+                                    Opcodes.INVOKEINTERFACE, 
+                                    ASMConstants.EQUALITY_COMPARATOR_INTERNAL_NAME, 
+                                    "hashCode", 
+                                    "(Ljava/lang/Object;)I", 
+                                    true
+                            );
+                        } else {
+                            childScope.load("value");
+                            visitToUpperCaseIfNecessary(mv, part);
+                            mv.visitMethodInsn(
+                                    Opcodes.INVOKEVIRTUAL, 
+                                    "java/lang/Object", 
+                                    "hashCode", 
+                                    "()I", 
+                                    false
+                            );
+                        }
+                        mv.visitLabel(endObjectLabel);
+                    }
+                    break;
+                }
+                scope.load("hash");
+                mv.visitIntInsn(Opcodes.BIPUSH, 31);
+                mv.visitInsn(Opcodes.IMUL);
+                mv.visitInsn(Opcodes.IADD);
+                scope.store("hash");
+            }
+            
+            scope.load("hash");
+            mv.visitInsn(Opcodes.IRETURN);
+        }
+        
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+    
+    private void generateEqualsScalars(ClassVisitor cv) {
+        
+        MethodVisitor mv = cv.visitMethod(
+                Opcodes.ACC_PUBLIC, 
+                "equalsScalars", 
+                '(' + ASMConstants.OBJECT_MODEL_DESCRIPTOR + ASMConstants.OBJECT_MODEL_DESCRIPTOR + ")Z", 
+                null, 
+                null
+        );
+        mv.visitCode();
+        
+        try (VariableScope scope =
+                new VariableScopeBuilder()
+                .parameter("this", this.getDescriptor())
+                .parameter("objectModel1", ASMConstants.OBJECT_MODEL_DESCRIPTOR)
+                .parameter("objectModel2", ASMConstants.OBJECT_MODEL_DESCRIPTOR)
+                .build(mv)
+        ) {
+            Label falseLabel = new Label();
+            this.visitCastObjectModels(mv, scope);
+            
+            for (MetadataComparatorPart part : this.parts) {
+                MetadataProperty property = part.getProperty();
+                this.visitGetter(mv, scope, "om1", property);
+                this.visitGetter(mv, scope, "om2", property);
+                switch (property.getDescriptor().charAt(0)) {
+                case 'Z':
+                case 'C':
+                case 'B':
+                case 'S':
+                case 'I':
+                    mv.visitJumpInsn(Opcodes.IF_ICMPNE, falseLabel);
+                    break;
+                case 'F':
+                    mv.visitInsn(Opcodes.FCMPL);
+                    mv.visitJumpInsn(Opcodes.IFNE, falseLabel);
+                    break;
+                case 'D':
+                    mv.visitInsn(Opcodes.DCMPL);
+                    mv.visitJumpInsn(Opcodes.IFNE, falseLabel);
+                    break;
+                case 'J':
+                    mv.visitInsn(Opcodes.LCMP);
+                    mv.visitJumpInsn(Opcodes.IFNE, falseLabel);
+                    break;
+                default:
+                    try (VariableScope childScope = scope.createSubScope()) {
+                        Label leftIsNotNullLabel = new Label();
+                        Label nextLabel = new Label();
+                        childScope.declare("left", property.getDescriptor());
+                        childScope.declare("right", property.getDescriptor());
+                        childScope.store("right");
+                        childScope.store("left");
+                        
+                        childScope.load("left");
+                        mv.visitJumpInsn(Opcodes.IFNONNULL, leftIsNotNullLabel);
+                        childScope.load("right");
+                        mv.visitJumpInsn(Opcodes.IFNONNULL, falseLabel);
+                        mv.visitJumpInsn(Opcodes.GOTO, nextLabel);
+                        mv.visitLabel(leftIsNotNullLabel);
+                        childScope.load("right");
+                        mv.visitJumpInsn(Opcodes.IFNULL, falseLabel);
+                        
+                        if (property.getTargetClass() != null) {
+                            mv.visitFieldInsn(
+                                    Opcodes.GETSTATIC, 
+                                    this.contractInternalName, 
+                                    Identifiers.embeddedEqualityComparatorStaticFieldName(property), 
+                                    ASMConstants.EQUALITY_COMPARATOR_DESCRIPTOR
+                            );
+                            childScope.load("left");
+                            childScope.load("right");
+                            mv.visitMethodInsn(
+                                    Opcodes.INVOKEINTERFACE, 
+                                    ASMConstants.EQUALITY_COMPARATOR_INTERNAL_NAME, 
+                                    "equals", 
+                                    "(Ljava/lang/Object;Ljava/lang/Object;)Z", 
+                                    true
+                            );
+                        } else {
+                            childScope.load("left");
+                            visitToUpperCaseIfNecessary(mv, part);
+                            childScope.load("right");
+                            visitToUpperCaseIfNecessary(mv, part);
+                            mv.visitMethodInsn(
+                                    Opcodes.INVOKEVIRTUAL, 
+                                    "java/lang/Object", 
+                                    "equals", 
+                                    "(Ljava/lang/Object;)Z", 
+                                    false
+                            );
+                        }
+                        mv.visitJumpInsn(Opcodes.IFEQ, falseLabel);
+                        mv.visitLabel(nextLabel);
+                    }
+                    break;
+                }
+            }
+            
+            mv.visitInsn(Opcodes.ICONST_1);
+            mv.visitInsn(Opcodes.IRETURN);
+            mv.visitLabel(falseLabel);
+            mv.visitInsn(Opcodes.ICONST_0);
+            mv.visitInsn(Opcodes.IRETURN);
+        }
+        
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+    
+    private void generateCompareScalars(ClassVisitor cv) {
+        
+        MethodVisitor mv = cv.visitMethod(
+                Opcodes.ACC_PUBLIC, 
+                "compareScalars", 
+                '(' + ASMConstants.OBJECT_MODEL_DESCRIPTOR + ASMConstants.OBJECT_MODEL_DESCRIPTOR + ")I", 
+                null, 
+                null
+        );
+        mv.visitCode();
+        
+        try (VariableScope scope =
+                new VariableScopeBuilder()
+                .parameter("this", this.getDescriptor())
+                .parameter("objectModel1", ASMConstants.OBJECT_MODEL_DESCRIPTOR)
+                .parameter("objectModel2", ASMConstants.OBJECT_MODEL_DESCRIPTOR)
+                .build(mv)
+        ) {
+            Label lessLabel = new Label();
+            Label greaterLabel = new Label();
+            this.visitCastObjectModels(mv, scope);
+            
+            for (MetadataComparatorPart part : this.parts) {
+                MetadataProperty property = part.getProperty();
+                String descriptor = property.getDescriptor();
+                char descChar = descriptor.charAt(0);
+                try (VariableScope childScope = scope.createSubScope()) {
+                    Label nextLabel = new Label();
+                    childScope.declare("left", descriptor);
+                    childScope.declare("right", descriptor);
+                    this.visitGetter(mv, scope, "om1", property);
+                    childScope.store("left");
+                    this.visitGetter(mv, scope, "om2", property);
+                    childScope.store("right");
+                    
+                    switch (descChar) {
+                    case 'Z':
+                        childScope.load("left");
+                        childScope.load("right");
+                        mv.visitJumpInsn(Opcodes.IF_ICMPEQ, nextLabel);
+                        childScope.load("left");
+                        mv.visitJumpInsn(Opcodes.IFNE, greaterLabel);
+                        mv.visitJumpInsn(Opcodes.GOTO, lessLabel);
+                        break;
+                    case 'C':
+                    case 'B':
+                    case 'S':
+                    case 'I':
+                        childScope.load("left");
+                        childScope.load("right");
+                        mv.visitJumpInsn(Opcodes.IF_ICMPEQ, nextLabel);
+                        childScope.load("left");
+                        childScope.load("right");
+                        mv.visitJumpInsn(Opcodes.IF_ICMPGE, greaterLabel);
+                        mv.visitJumpInsn(Opcodes.GOTO, lessLabel);
+                        break;
+                    case 'J':
+                        childScope.load("left");
+                        childScope.load("right");
+                        mv.visitInsn(Opcodes.LCMP);
+                        mv.visitJumpInsn(Opcodes.IFEQ, nextLabel);
+                        childScope.load("left");
+                        childScope.load("right");
+                        mv.visitInsn(Opcodes.LCMP);
+                        mv.visitJumpInsn(Opcodes.IFGE, greaterLabel);
+                        mv.visitJumpInsn(Opcodes.GOTO, lessLabel);
+                        break;
+                    case 'F':
+                        childScope.load("left");
+                        childScope.load("right");
+                        mv.visitInsn(Opcodes.FCMPL);
+                        mv.visitJumpInsn(Opcodes.IFEQ, nextLabel);
+                        childScope.load("left");
+                        childScope.load("right");
+                        mv.visitInsn(Opcodes.FCMPG);
+                        mv.visitJumpInsn(Opcodes.IFGE, greaterLabel);
+                        mv.visitJumpInsn(Opcodes.GOTO, lessLabel);
+                        break;
+                    case 'D':
+                        childScope.load("left");
+                        childScope.load("right");
+                        mv.visitInsn(Opcodes.DCMPL);
+                        mv.visitJumpInsn(Opcodes.IFEQ, nextLabel);
+                        childScope.load("left");
+                        childScope.load("right");
+                        mv.visitInsn(Opcodes.DCMPG);
+                        mv.visitJumpInsn(Opcodes.IFGE, greaterLabel);
+                        mv.visitJumpInsn(Opcodes.GOTO, lessLabel);
+                        break;
+                    default:
+                        Label leftIsNotNullLabel = new Label();
+                        Label rightIsNotNullLabel = new Label();
+                        boolean nullsLast = part.getNullComparatorType() == NullComparatorType.NULLS_LAST;
+                        
+                        childScope.load("left");
+                        childScope.load("right");
+                        mv.visitJumpInsn(Opcodes.IF_ACMPEQ, nextLabel);
+                        
+                        childScope.load("left");
+                        mv.visitJumpInsn(Opcodes.IFNONNULL, leftIsNotNullLabel);
+                        mv.visitJumpInsn(Opcodes.GOTO, nullsLast ? greaterLabel : lessLabel);
+                        mv.visitLabel(leftIsNotNullLabel);
+                        childScope.load("right");
+                        mv.visitJumpInsn(Opcodes.IFNONNULL, rightIsNotNullLabel);
+                        mv.visitJumpInsn(Opcodes.GOTO, nullsLast ? lessLabel : greaterLabel);
+                        mv.visitLabel(rightIsNotNullLabel);
+                        
+                        if (property.getTargetClass() != null) {
+                            mv.visitFieldInsn(
+                                    Opcodes.GETSTATIC, 
+                                    this.contractInternalName, 
+                                    Identifiers.embeddedComparatorStaticFieldName(property), 
+                                    ASMConstants.COMPARATOR_DESCRIPTOR
+                            );
+                            childScope.load("left");
+                            childScope.load("right");
+                            mv.visitMethodInsn(
+                                    Opcodes.INVOKEINTERFACE, 
+                                    ASMConstants.COMPARATOR_INTERNAL_NAME, 
+                                    "compare", 
+                                    "(Ljava/lang/Object;Ljava/lang/Object;)I",
+                                    true
+                            );
+                        } else {
+                            childScope.load("left");
+                            visitToUpperCaseIfNecessary(mv, part);
+                            if (property.getSimpleType() == null) {
+                                mv.visitTypeInsn(Opcodes.CHECKCAST, "java/lang/Comparable");
+                            }
+                            childScope.load("right");
+                            visitToUpperCaseIfNecessary(mv, part);
+                            mv.visitMethodInsn(
+                                    Opcodes.INVOKEINTERFACE, 
+                                    "java/lang/Comparable", 
+                                    "compareTo", 
+                                    "(Ljava/lang/Object;)I", 
+                                    true
+                            );
+                        }
+                        childScope.declare("cmp", "I");
+                        childScope.store("cmp");
+                        childScope.load("cmp");
+                        mv.visitJumpInsn(Opcodes.IFEQ, nextLabel);
+                        childScope.load("cmp");
+                        mv.visitInsn(Opcodes.IRETURN);
+                        break;
+                    }
+                    mv.visitLabel(nextLabel);
+                }
+            }
+            
+            mv.visitInsn(Opcodes.ICONST_0);
+            mv.visitInsn(Opcodes.IRETURN);
+            mv.visitLabel(lessLabel);
+            mv.visitInsn(Opcodes.ICONST_M1);
+            mv.visitInsn(Opcodes.IRETURN);
+            mv.visitLabel(greaterLabel);
+            mv.visitInsn(Opcodes.ICONST_1);
+            mv.visitInsn(Opcodes.IRETURN);
+        }
+        
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+    
+    private void visitCastObjectModels(MethodVisitor mv, VariableScope scope) {
+        String contractDescriptor = 'L' + this.contractInternalName + ';';
+        scope.declare("om1", contractDescriptor);
+        scope.declare("om2", contractDescriptor);
+        scope.load("objectModel1");
+        mv.visitTypeInsn(Opcodes.CHECKCAST, this.contractInternalName);
+        scope.store("om1");
+        scope.load("objectModel2");
+        mv.visitTypeInsn(Opcodes.CHECKCAST, this.contractInternalName);
+        scope.store("om2");
+    }
+    
+    private void visitGetter(MethodVisitor mv, VariableScope scope, String objectModelName, MetadataProperty property) {
+        scope.load(objectModelName);
+        mv.visitMethodInsn(
+                Opcodes.INVOKEVIRTUAL, 
+                this.contractInternalName, 
+                Identifiers.getterName(property), 
+                "()" + property.getDescriptor(), 
+                false
+        );
+    }
+    
+    private static void visitToUpperCaseIfNecessary(MethodVisitor mv, MetadataComparatorPart part) {
+        if (part.getProperty().getSimpleType() == String.class && 
+                part.getStringComparatorType() == StringComparatorType.INSENSITIVE) {
+            mv.visitMethodInsn(
+                    Opcodes.INVOKEVIRTUAL, 
+                    "java/lang/String", 
+                    "toUpperCase", 
+                    "()Ljava/lang/String;", 
+                    false
+            );
+        }
+    }
+    
+    private static String packageName(String internalName) {
+        int lastSlashIndex = internalName.lastIndexOf('/');
+        return lastSlashIndex == -1 ? "" : internalName.substring(0, lastSlashIndex);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.model.instrument.spi;
+
+import java.util.Collection;
+import java.util.NavigableSet;
+
+import org.babyfish.collection.TreeSet;
+import org.babyfish.model.instrument.metadata.MetadataClass;
+import org.babyfish.model.instrument.metadata.MetadataProperty;
+import org.babyfish.org.objectweb.asm.Label;
+import org.babyfish.org.objectweb.asm.MethodVisitor;
+import org.babyfish.org.objectweb.asm.Opcodes;
+
+/**
+ * Generates the instructions to access the packed unloaded/disabled flags,
+ * see {@link Identifiers#unloadedMaskFieldName(MetadataProperty)} and
+ * {@link Identifiers#disabledMaskFieldName(MetadataProperty)}.
+ * 
+ * @author Tao Chen
+ */
+class ScalarMasks {
+    
+    protected ScalarMasks() throws UnsupportedOperationException {
+        throw new UnsupportedOperationException();
+    }
+    
+    public static long mask(MetadataProperty metadataProperty) {
+        return 1L << (metadataProperty.getId() & 63);
+    }
+    
+    /**
+     * Returns the word indexes of the mask fields that must be declared by the 
+     * generated class of this metadata class, the word index that has been declared
+     * by the super classes is excluded.
+     */
+    public static NavigableSet<Integer> declaredWordIndexes(MetadataClass metadataClass, boolean unloaded) {
+        NavigableSet<Integer> wordIndexes = wordIndexes(metadataClass.getDeclaredProperties().values(), unloaded);
+        for (MetadataClass superClass = metadataClass.getSuperClass(); 
+                superClass != null && !wordIndexes.isEmpty(); 
+                superClass = superClass.getSuperClass()) {
+            wordIndexes.removeAll(wordIndexes(superClass.getDeclaredProperties().values(), unloaded));
+        }
+        return wordIndexes;
+    }
+    
+    public static NavigableSet<Integer> wordIndexes(
+            Collection<MetadataProperty> metadataProperties, boolean unloaded) {
+        NavigableSet<Integer> wordIndexes = new TreeSet<>();
+        for (MetadataProperty metadataProperty : metadataProperties) {
+            String fieldName = unloaded ? 
+                    Identifiers.unloadedMaskFieldName(metadataProperty) : 
+                    Identifiers.disabledMaskFieldName(metadataProperty);
+            if (fieldName != null) {
+                wordIndexes.add(metadataProperty.getId() >>> 6);
+            }
+        }
+        return wordIndexes;
+    }
+    
+    /*
+     * if ((this.{mask} & mask) != 0) goto label;
+     */
+    public static void visitJumpIfSet(
+            MethodVisitor mv, String internalName, String maskFieldName, long mask, Label label) {
+        visitTest(mv, internalName, maskFieldName, mask);
+        mv.visitJumpInsn(Opcodes.IFNE, label);
+    }
+    
+    /*
+     * if ((this.{mask} & mask) == 0) goto label;
+     */
+    public static void visitJumpIfClear(
+            MethodVisitor mv, String internalName, String maskFieldName, long mask, Label label) {
+        visitTest(mv, internalName, maskFieldName, mask);
+        mv.visitJumpInsn(Opcodes.IFEQ, label);
+    }
+    
+    /*
+     * this.{mask} |= mask;
+     */
+    public static void visitSet(MethodVisitor mv, String internalName, String maskFieldName, long mask) {
+        visitUpdate(mv, internalName, maskFieldName, mask, Opcodes.LOR);
+    }
+    
+    /*
+     * this.{mask} &= ~mask;
+     */
+    public static void visitClear(MethodVisitor mv, String internalName, String maskFieldName, long mask) {
+        visitUpdate(mv, internalName, maskFieldName, ~mask, Opcodes.LAND);
+    }
+    
+    private static void visitTest(MethodVisitor mv, String internalName, String maskFieldName, long mask) {
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, internalName, maskFieldName, "J");
+        mv.visitLdcInsn(mask);
+        mv.visitInsn(Opcodes.LAND);
+        mv.visitInsn(Opcodes.LCONST_0);
+        mv.visitInsn(Opcodes.LCMP);
+    }
+    
+    private static void visitUpdate(
+            MethodVisitor mv, String internalName, String maskFieldName, long operand, int opcode) {
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitInsn(Opcodes.DUP);
+        mv.visitFieldInsn(Opcodes.GETFIELD, internalName, maskFieldName, "J");
+        mv.visitLdcInsn(operand);
+        mv.visitInsn(opcode);
+        mv.visitFieldInsn(Opcodes.PUTFIELD, internalName, maskFieldName, "J");
+    }
+}
@@ -41,14 +41,17 @@ class ScalarSetterGenerator {
     
     private String internalName;
     
-    private String stateFieldName;
+    private String unloadedMaskFieldName;
+    
+    private String disabledMaskFieldName;
     
     private String frozenContextFieldName;
     
     public ScalarSetterGenerator(String objectModelInternalName, MetadataProperty metadataProperty) {
         this.metadataProperty = metadataProperty;
         this.internalName = objectModelInternalName;
-        this.stateFieldName = Identifiers.stateFieldName(metadataProperty);
+        this.unloadedMaskFieldName = Identifiers.unloadedMaskFieldName(metadataProperty);
+        this.disabledMaskFieldName = Identifiers.disabledMaskFieldName(metadataProperty);
         this.frozenContextFieldName = Identifiers.frozenContextFieldName(metadataProperty);
     }
     
@@ -189,16 +192,13 @@ class ScalarSetterGenerator {
          * event is raised when assign a value to an unloaded scalar property.
          */
         Label loadedLabel = new Label();
-        mv.visitVarInsn(Opcodes.ALOAD, 0);
-        mv.visitFieldInsn(
-                Opcodes.GETFIELD, 
+        ScalarMasks.visitJumpIfClear(
+                mv, 
                 this.internalName, 
-                this.stateFieldName, 
-                "I"
+                this.unloadedMaskFieldName, 
+                ScalarMasks.mask(this.metadataProperty), 
+                loadedLabel
         );
-        mv.visitInsn(ASMConstants.OP_CONST_UNLOADED);
-        mv.visitInsn(Opcodes.IAND);
-        mv.visitJumpInsn(Opcodes.IFEQ, loadedLabel);
         this.generateScalarAssignmentInsns(mv, true);
         mv.visitInsn(Opcodes.RETURN);
         
@@ -639,21 +639,17 @@ class ScalarSetterGenerator {
     }
     
     private void generateScalarStateCleanInsns(MethodVisitor mv) {
-        if (this.stateFieldName == null) {
-            return;
-        }
-        
         /*
-         * this.?{state} = 0;
+         * this.?{UnloadedMask:?} &= ~mask;
+         * this.?{DisabledMask:?} &= ~mask;
          */
-        mv.visitVarInsn(Opcodes.ALOAD, 0);
-        mv.visitInsn(Opcodes.ICONST_0);
-        mv.visitFieldInsn(
-                Opcodes.PUTFIELD, 
-                this.internalName, 
-                this.stateFieldName, 
-                "I"
-        );
+        long mask = ScalarMasks.mask(this.metadataProperty);
+        if (this.unloadedMaskFieldName != null) {
+            ScalarMasks.visitClear(mv, this.internalName, this.unloadedMaskFieldName, mask);
+        }
+        if (this.disabledMaskFieldName != null) {
+            ScalarMasks.visitClear(mv, this.internalName, this.disabledMaskFieldName, mask);
+        }
     }
     
     private static void setFinalException(ScopedMethodVisitor mv, String exName) {
@@ -0,0 +1,142 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.model.classic.l2r;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.babyfish.model.classic.l2r.entities.Department;
+import org.babyfish.model.classic.l2r.entities.Employee;
+import org.babyfish.model.metadata.ModelClass;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ModelTest {
+    
+    @Test
+    public void testMetadata() {
+        Assert.assertTrue(
+                ModelClass.of(Department.class).getProperty("employees").isReverseIndexed()
+        );
+        Assert.assertFalse(
+                ModelClass.of(Employee.class).getProperty("department").isReverseIndexed()
+        );
+    }
+
+    @Test
+    public void testMoveEmployees() {
+        Department department1 = new Department();
+        Department department2 = new Department();
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Employee employee = new Employee();
+            employee.setDepartment(department1);
+            employees.add(employee);
+        }
+        assertEmployees(department1, employees);
+        
+        List<Employee> expected1 = new ArrayList<>(employees);
+        List<Employee> expected2 = new ArrayList<>();
+        for (int i : new int[] { 0, 9, 4, 1, 8, 5 }) {
+            Employee employee = employees.get(i);
+            employee.setDepartment(department2);
+            expected1.remove(employee);
+            expected2.add(employee);
+            assertEmployees(department1, expected1);
+            assertEmployees(department2, expected2);
+        }
+        
+        department1.getEmployees().add(1, employees.get(0));
+        expected2.remove(employees.get(0));
+        expected1.add(1, employees.get(0));
+        assertEmployees(department1, expected1);
+        assertEmployees(department2, expected2);
+        
+        for (Employee employee : new ArrayList<>(expected1)) {
+            department2.getEmployees().add(employee);
+            expected1.remove(employee);
+            expected2.add(employee);
+            assertEmployees(department1, expected1);
+            assertEmployees(department2, expected2);
+        }
+    }
+    
+    @Test
+    public void testRandomModifications() {
+        Random random = new Random(1024L);
+        Department[] departments = { new Department(), new Department(), new Department() };
+        List<List<Employee>> expectedLists = new ArrayList<>();
+        for (int i = 0; i < departments.length; i++) {
+            expectedLists.add(new ArrayList<Employee>());
+        }
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            employees.add(new Employee());
+        }
+        for (int i = 0; i < 5000; i++) {
+            Employee employee = employees.get(random.nextInt(employees.size()));
+            int departmentIndex = random.nextInt(departments.length);
+            Department department = departments[departmentIndex];
+            List<Employee> expected = expectedLists.get(departmentIndex);
+            for (List<Employee> expectedList : expectedLists) {
+                if (expectedList != expected) {
+                    expectedList.remove(employee);
+                }
+            }
+            int index;
+            switch (random.nextInt(5)) {
+            case 0:
+                employee.setDepartment(null);
+                expected.remove(employee);
+                break;
+            case 1:
+                index = random.nextInt(department.getEmployees().size() + 1);
+                if (expected.contains(employee)) {
+                    continue;
+                }
+                department.getEmployees().add(index, employee);
+                expected.add(index, employee);
+                break;
+            case 2:
+                if (!expected.isEmpty() && !expected.contains(employee)) {
+                    index = random.nextInt(expected.size());
+                    department.getEmployees().set(index, employee);
+                    expected.set(index, employee);
+                }
+                break;
+            default:
+                if (!expected.contains(employee)) {
+                    employee.setDepartment(department);
+                    expected.add(employee);
+                }
+                break;
+            }
+            for (int ii = 0; ii < departments.length; ii++) {
+                assertEmployees(departments[ii], expectedLists.get(ii));
+            }
+        }
+    }
+    
+    private static void assertEmployees(Department department, List<Employee> expected) {
+        Assert.assertEquals(expected, new ArrayList<>(department.getEmployees()));
+        for (Employee employee : expected) {
+            Assert.assertSame(department, employee.getDepartment());
+        }
+    }
+}
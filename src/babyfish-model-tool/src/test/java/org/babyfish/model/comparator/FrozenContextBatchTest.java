@@ -0,0 +1,108 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.model.comparator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.babyfish.collection.FrozenContext;
+import org.babyfish.collection.MANavigableSet;
+import org.babyfish.collection.event.ElementEvent;
+import org.babyfish.collection.event.ElementListener;
+import org.babyfish.data.event.PropertyVersion;
+import org.babyfish.model.comparator.entities.Edition;
+import org.junit.Test;
+
+import junit.framework.Assert;
+
+/**
+ * @author Tao Chen
+ */
+public class FrozenContextBatchTest {
+    
+    @Test
+    public void testWithoutBatch() {
+        Edition hub = new Edition("Hub", 0, 0, false, 0L);
+        Edition[] editions = editions(hub);
+        StringBuilder builder = listen(hub);
+        
+        editions[0].setTitle("D");
+        editions[0].setVolume(0);
+        assertTitles(hub.getSimilarEditions(), "B", "C", "D");
+        Assert.assertEquals("-A+D-D+D", builder.toString());
+    }
+
+    @Test
+    public void testBatch() {
+        Edition hub = new Edition("Hub", 0, 0, false, 0L);
+        Edition[] editions = editions(hub);
+        StringBuilder builder = listen(hub);
+        
+        try (FrozenContext.Batch batch = FrozenContext.batch()) {
+            editions[0].setTitle("D");
+            editions[0].setVolume(0);
+            editions[2].setTitle("A");
+            editions[2].setPrice(1);
+            assertTitles(hub.getSimilarEditions(), "B");
+            Assert.assertEquals("-A-C", builder.toString());
+        }
+        assertTitles(hub.getSimilarEditions(), "A", "B", "D");
+        Assert.assertEquals("-A-C+D+A", builder.toString());
+        for (Edition edition : editions) {
+            Assert.assertSame(hub, edition.getSimilarEditions().first());
+        }
+    }
+    
+    private static Edition[] editions(Edition hub) {
+        Edition[] editions = new Edition[] {
+                new Edition("A", 1, 0, false, 0L),
+                new Edition("B", 1, 0, false, 0L),
+                new Edition("C", 1, 0, false, 0L)
+        };
+        for (Edition edition : editions) {
+            hub.getSimilarEditions().add(edition);
+        }
+        return editions;
+    }
+    
+    private static StringBuilder listen(Edition edition) {
+        StringBuilder builder = new StringBuilder();
+        ((MANavigableSet<Edition>)edition.getSimilarEditions()).addElementListener(
+                new ElementListener<Edition>() {
+                    @Override
+                    public void modified(ElementEvent<Edition> e) throws Throwable {
+                        if (e.getModificationType().contains(PropertyVersion.DETACH)) {
+                            builder.append('-').append(e.getElement(PropertyVersion.DETACH).getTitle());
+                        }
+                        if (e.getModificationType().contains(PropertyVersion.ATTACH)) {
+                            builder.append('+').append(e.getElement(PropertyVersion.ATTACH).getTitle());
+                        }
+                    }
+                });
+        return builder;
+    }
+    
+    private static void assertTitles(Iterable<Edition> editions, String ... titles) {
+        List<String> list = new ArrayList<>();
+        for (Edition edition : editions) {
+            list.add(edition.getTitle());
+        }
+        Assert.assertEquals(Arrays.asList(titles), list);
+    }
+}
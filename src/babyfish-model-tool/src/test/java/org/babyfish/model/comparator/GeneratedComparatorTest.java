@@ -0,0 +1,138 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.model.comparator;
+
+import java.util.Comparator;
+import java.util.List;
+
+import org.babyfish.collection.ArrayList;
+import org.babyfish.collection.EqualityComparator;
+import org.babyfish.model.NullComparatorType;
+import org.babyfish.model.StringComparatorType;
+import org.babyfish.model.comparator.entities.Edition;
+import org.babyfish.model.metadata.ComparatorPart;
+import org.babyfish.model.metadata.ModelClass;
+import org.junit.Test;
+
+import junit.framework.Assert;
+
+/**
+ * @author Tao Chen
+ */
+public class GeneratedComparatorTest {
+    
+    private static final ModelClass MODEL_CLASS = ModelClass.of(Edition.class);
+    
+    @Test
+    public void testGeneratedClasses() throws ClassNotFoundException {
+        Class.forName(Edition.class.getName() + "${GeneratedComparator_similarEditions}");
+        Class.forName(Edition.class.getName() + "${GeneratedComparator_relatedEditions}");
+    }
+    
+    @Test
+    public void testComparator() {
+        Comparator<Edition> generated = 
+                MODEL_CLASS
+                .getProperties()
+                .get("similarEditions")
+                .<Edition>getCollectionUnifiedComparator()
+                .comparator(true);
+        Comparator<Edition> generic = MODEL_CLASS.getComparator(
+                new ComparatorPart(
+                        id("title"), 
+                        StringComparatorType.INSENSITIVE, 
+                        NullComparatorType.NULLS_LAST
+                ),
+                new ComparatorPart(id("volume")),
+                new ComparatorPart(id("price")),
+                new ComparatorPart(id("hardcover")),
+                new ComparatorPart(id("printing"))
+        );
+        Assert.assertEquals(generic, generated);
+        List<Edition> editions = editions();
+        for (Edition e1 : editions) {
+            for (Edition e2 : editions) {
+                Assert.assertEquals(
+                        Integer.signum(generic.compare(e1, e2)), 
+                        Integer.signum(generated.compare(e1, e2))
+                );
+            }
+        }
+        Assert.assertTrue(generated.compare(new Edition("a", 1, 1, false, 1L), new Edition(null, 1, 1, false, 1L)) < 0);
+        Assert.assertTrue(generated.compare(new Edition("a", 1, 1, false, 1L), new Edition("A", 1, 1, false, 1L)) == 0);
+        Assert.assertTrue(generated.compare(new Edition("a", 1, 1, false, 1L), new Edition("a", 1, 1, false, null)) > 0);
+    }
+    
+    @Test
+    public void testEqualityComparator() {
+        EqualityComparator<Edition> generated = 
+                MODEL_CLASS
+                .getProperties()
+                .get("relatedEditions")
+                .<Edition>getCollectionUnifiedComparator()
+                .equalityComparator(true);
+        EqualityComparator<Edition> generic = MODEL_CLASS.getEqualityComparator(
+                new ComparatorPart(id("title"), StringComparatorType.INSENSITIVE),
+                new ComparatorPart(id("printing")),
+                new ComparatorPart(id("hardcover"))
+        );
+        Assert.assertEquals(generic, generated);
+        List<Edition> editions = editions();
+        for (Edition e1 : editions) {
+            Assert.assertEquals(generic.hashCode(e1), generated.hashCode(e1));
+            for (Edition e2 : editions) {
+                Assert.assertEquals(generic.equals(e1, e2), generated.equals(e1, e2));
+            }
+        }
+        Assert.assertTrue(generated.equals(new Edition("a", 1, 1, false, 1L), new Edition("A", 2, 2, false, 1L)));
+        Assert.assertFalse(generated.equals(new Edition("a", 1, 1, false, 1L), new Edition(null, 1, 1, false, 1L)));
+    }
+    
+    @Test
+    public void testSortedAssociation() {
+        Edition edition = new Edition("Main", 0, 0, false, null);
+        Edition e1 = new Edition("java", 2, 30.5, true, 1L);
+        Edition e2 = new Edition("Java", 1, 30.5, true, 1L);
+        Edition e3 = new Edition(null, 1, 10, false, null);
+        edition.getSimilarEditions().add(e3);
+        edition.getSimilarEditions().add(e1);
+        edition.getSimilarEditions().add(e2);
+        edition.getSimilarEditions().add(new Edition("JAVA", 2, 30.5, true, 1L));
+        Assert.assertEquals(3, edition.getSimilarEditions().size());
+        Assert.assertSame(e2, edition.getSimilarEditions().first());
+        Assert.assertSame(e3, edition.getSimilarEditions().last());
+    }
+    
+    private static List<Edition> editions() {
+        List<Edition> editions = new ArrayList<>();
+        for (String title : new String[] { null, "abc", "ABC", "xyz" }) {
+            for (int volume = 1; volume <= 2; volume++) {
+                for (double price : new double[] { 9.5, -0.0, 0.0, Double.NaN }) {
+                    for (Long printing : new Long[] { null, 1L, 2L }) {
+                        editions.add(new Edition(title, volume, price, volume == 2, printing));
+                    }
+                }
+            }
+        }
+        return editions;
+    }
+    
+    private static int id(String propertyName) {
+        return MODEL_CLASS.getProperty(propertyName).getId();
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.model.comparator.entities;
+
+import org.babyfish.collection.XNavigableSet;
+import org.babyfish.collection.XOrderedSet;
+import org.babyfish.model.Association;
+import org.babyfish.model.ComparatorProperty;
+import org.babyfish.model.ComparatorRule;
+import org.babyfish.model.Model;
+import org.babyfish.model.NullComparatorType;
+import org.babyfish.model.Scalar;
+import org.babyfish.model.StringComparatorType;
+
+@Model
+public class Edition {
+    
+    @Scalar
+    private String title;
+    
+    @Scalar
+    private int volume;
+    
+    @Scalar
+    private double price;
+    
+    @Scalar
+    private boolean hardcover;
+    
+    @Scalar
+    private Long printing;
+    
+    @Association(opposite = "similarEditions")
+    @ComparatorRule(properties = {
+            @ComparatorProperty(
+                    name = "title", 
+                    stringComparatorType = StringComparatorType.INSENSITIVE, 
+                    nullComparatorType = NullComparatorType.NULLS_LAST
+            ),
+            @ComparatorProperty(name = "volume"),
+            @ComparatorProperty(name = "price"),
+            @ComparatorProperty(name = "hardcover"),
+            @ComparatorProperty(name = "printing")
+    })
+    private XNavigableSet<Edition> similarEditions;
+    
+    @Association(opposite = "relatedEditions")
+    @ComparatorRule(properties = {
+            @ComparatorProperty(name = "title", stringComparatorType = StringComparatorType.INSENSITIVE),
+            @ComparatorProperty(name = "printing"),
+            @ComparatorProperty(name = "hardcover")
+    })
+    private XOrderedSet<Edition> relatedEditions;
+
+    public Edition(String title, int volume, double price, boolean hardcover, Long printing) {
+        this.title = title;
+        this.volume = volume;
+        this.price = price;
+        this.hardcover = hardcover;
+        this.printing = printing;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public int getVolume() {
+        return volume;
+    }
+
+    public void setVolume(int volume) {
+        this.volume = volume;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public void setPrice(double price) {
+        this.price = price;
+    }
+
+    public boolean isHardcover() {
+        return hardcover;
+    }
+
+    public void setHardcover(boolean hardcover) {
+        this.hardcover = hardcover;
+    }
+
+    public Long getPrinting() {
+        return printing;
+    }
+
+    public void setPrinting(Long printing) {
+        this.printing = printing;
+    }
+
+    public XNavigableSet<Edition> getSimilarEditions() {
+        return similarEditions;
+    }
+
+    public XOrderedSet<Edition> getRelatedEditions() {
+        return relatedEditions;
+    }
+}
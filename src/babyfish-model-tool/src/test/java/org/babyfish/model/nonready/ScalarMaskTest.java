@@ -0,0 +1,93 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.model.nonready;
+
+import org.babyfish.model.metadata.ModelClass;
+import org.babyfish.model.nonready.entities.Person;
+import org.babyfish.model.spi.ObjectModel;
+import org.babyfish.model.spi.ObjectModelProvider;
+import org.junit.Test;
+
+import junit.framework.Assert;
+
+/**
+ * @author Tao Chen
+ */
+public class ScalarMaskTest {
+    
+    private static final int NAME_ID = ModelClass.of(Person.class).getProperties().get("name").getId();
+    
+    private static final int ADDRESS_ID = ModelClass.of(Person.class).getProperties().get("address").getId();
+    
+    private static final int IMAGE_ID = ModelClass.of(Person.class).getProperties().get("image").getId();
+    
+    @Test
+    public void testDeferrableScalarMask() {
+        ModelClass modelClass = ModelClass.of(Person.class);
+        Assert.assertEquals(bit(ADDRESS_ID) | bit(IMAGE_ID), modelClass.getDeferrableScalarMask(0));
+        Assert.assertEquals(0L, modelClass.getDeferrableScalarMask(1));
+    }
+    
+    @Test
+    public void testUnloadedMask() {
+        Person person = new Person();
+        ObjectModel om = objectModel(person);
+        Assert.assertEquals(0L, om.getUnloadedMask(0));
+        om.unload(ADDRESS_ID);
+        Assert.assertEquals(bit(ADDRESS_ID), om.getUnloadedMask(0));
+        om.unload(IMAGE_ID);
+        Assert.assertEquals(bit(ADDRESS_ID) | bit(IMAGE_ID), om.getUnloadedMask(0));
+        person.setAddress("address");
+        Assert.assertEquals(bit(IMAGE_ID), om.getUnloadedMask(0));
+        Assert.assertEquals(0L, om.getUnloadedMask(1));
+        Assert.assertEquals(om.getUnloadedMask(0), slowUnloadedMask(om));
+    }
+    
+    @Test
+    public void testDisabledMask() {
+        Person person = new Person();
+        ObjectModel om = objectModel(person);
+        Assert.assertEquals(0L, om.getDisabledMask(0));
+        om.disable(NAME_ID);
+        person.disableAddress();
+        Assert.assertEquals(bit(NAME_ID) | bit(ADDRESS_ID), om.getDisabledMask(0));
+        person.enableAddress();
+        Assert.assertEquals(bit(NAME_ID), om.getDisabledMask(0));
+        person.setName("name");
+        Assert.assertEquals(0L, om.getDisabledMask(0));
+        Assert.assertEquals(0L, om.getDisabledMask(1));
+    }
+    
+    private static long slowUnloadedMask(ObjectModel om) {
+        long mask = 0L;
+        for (int id = om.getModelClass().getPropertyList().size() - 1; id >= 0; id--) {
+            if (om.isUnloaded(id)) {
+                mask |= bit(id);
+            }
+        }
+        return mask;
+    }
+    
+    private static long bit(int propertyId) {
+        return 1L << (propertyId & 63);
+    }
+    
+    private static ObjectModel objectModel(Person person) {
+        return ((ObjectModelProvider)person).objectModel();
+    }
+}
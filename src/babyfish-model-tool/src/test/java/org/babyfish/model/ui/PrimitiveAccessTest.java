@@ -0,0 +1,71 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.model.ui;
+
+import org.babyfish.model.metadata.ModelClass;
+import org.babyfish.model.spi.ObjectModel;
+import org.babyfish.model.spi.ObjectModelProvider;
+import org.babyfish.model.ui.entities.Canvas;
+import org.junit.Test;
+
+import junit.framework.Assert;
+
+/**
+ * @author Tao Chen
+ */
+public class PrimitiveAccessTest {
+    
+    private static final int INDEX_ID = ModelClass.of(Canvas.class).getProperty("index").getId();
+    
+    private static final int DEVICE_NO_ID = ModelClass.of(Canvas.class).getProperty("deviceNo").getId();
+    
+    private static final int WIDTH_ID = ModelClass.of(Canvas.class).getProperty("width").getId();
+    
+    private static final int HEIGHT_ID = ModelClass.of(Canvas.class).getProperty("height").getId();
+
+    @Test
+    public void testGetAndSet() {
+        Canvas canvas = new Canvas();
+        ObjectModel om = ((ObjectModelProvider)canvas).objectModel();
+        
+        om.setLong(DEVICE_NO_ID, 42L);
+        om.setDouble(WIDTH_ID, 800.5);
+        om.setDouble(HEIGHT_ID, 600.25);
+        
+        Assert.assertEquals(42L, canvas.getDeviceNo());
+        Assert.assertEquals(800.5, canvas.getWidth());
+        Assert.assertEquals(600.25, canvas.getHeight());
+        Assert.assertEquals(42L, om.getLong(DEVICE_NO_ID));
+        Assert.assertEquals(800.5, om.getDouble(WIDTH_ID));
+        Assert.assertEquals(600.25, om.getDouble(HEIGHT_ID));
+        Assert.assertEquals(om.get(DEVICE_NO_ID), om.getLong(DEVICE_NO_ID));
+    }
+    
+    @Test
+    public void testFallbackToObjectOperation() {
+        Canvas canvas = new Canvas();
+        ObjectModel om = ((ObjectModelProvider)canvas).objectModel();
+        Assert.assertEquals(om.get(INDEX_ID), om.getInt(INDEX_ID));
+    }
+    
+    @Test(expected = ClassCastException.class)
+    public void testMismatchedType() {
+        Canvas canvas = new Canvas();
+        ((ObjectModelProvider)canvas).objectModel().getLong(WIDTH_ID);
+    }
+}
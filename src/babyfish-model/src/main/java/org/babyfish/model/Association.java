@@ -32,4 +32,13 @@ import java.lang.annotation.Target;
 public @interface Association {
 
     String opposite() default "";
+    
+    /**
+     * Only for bidirectional list association, let the list endpoint
+     * maintain a position index of its elements so that the element can be
+     * removed without linear scan when the opposite endpoint detaches it.
+     * The JPA models specify this option by the field annotation 
+     * <code>org.babyfish.model.jpa.ReverseIndexed</code>.
+     */
+    boolean reverseIndexed() default false;
 }
@@ -50,6 +50,25 @@ public interface ModelClass {
     
     List<ModelProperty> getPropertyList();
     
+    /**
+     * Returns the deferrable scalar properties whose ids are in
+     * [wordIndex * 64, wordIndex * 64 + 64) as a bit mask, 
+     * it can be combined with {@link org.babyfish.model.spi.ObjectModel#getUnloadedMask(int)}.
+     */
+    default long getDeferrableScalarMask(int wordIndex) {
+        List<ModelProperty> properties = this.getPropertyList();
+        int fromId = wordIndex << 6;
+        int toId = Math.min(fromId + 64, properties.size());
+        long mask = 0L;
+        for (int id = fromId; id < toId; id++) {
+            ModelProperty property = properties.get(id);
+            if (property.getPropertyType() == PropertyType.SCALAR && property.isDeferrable()) {
+                mask |= 1L << (id & 63);
+            }
+        }
+        return mask;
+    }
+    
     <T> Comparator<T> getDefaultComparator();
     
     <T> EqualityComparator<T> getDefaultEqualityComparator();
@@ -37,6 +37,8 @@ public interface ModelProperty {
     boolean isDeferrable();
 
     boolean isMandatory();
+    
+    boolean isReverseIndexed();
 
     Class<?> getType();
     
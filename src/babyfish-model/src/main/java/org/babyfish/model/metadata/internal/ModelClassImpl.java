@@ -48,6 +48,8 @@ import org.babyfish.model.StringComparatorType;
 import org.babyfish.model.metadata.ComparatorPart;
 import org.babyfish.model.metadata.ModelClass;
 import org.babyfish.model.metadata.ModelProperty;
+import org.babyfish.model.metadata.PropertyType;
+import org.babyfish.model.spi.GeneratedScalarComparator;
 import org.babyfish.model.spi.ObjectModel;
 import org.babyfish.model.spi.ObjectModelProvider;
 
@@ -80,6 +82,8 @@ public class ModelClassImpl implements ModelClass, Serializable {
     
     private EqualityComparator<?> defaultEqualityComparator;
     
+    private transient long[] deferrableScalarMasks;
+    
     public ModelClassImpl(
             ModelType type,
             Class<?> javaType, 
@@ -261,6 +265,24 @@ public class ModelClassImpl implements ModelClass, Serializable {
         return (List)MACollections.wrap(this.propertyArray);
     }
 
+    @Override
+    public long getDeferrableScalarMask(int wordIndex) {
+        long[] masks = this.deferrableScalarMasks;
+        if (masks == null) {
+            // Benign race, the result is always same
+            masks = new long[(this.propertyArray.length + 63) >>> 6];
+            for (ModelPropertyImpl property : this.propertyArray) {
+                if (property != null && 
+                        property.getPropertyType() == PropertyType.SCALAR && 
+                        property.isDeferrable()) {
+                    masks[property.getId() >>> 6] |= 1L << (property.getId() & 63);
+                }
+            }
+            this.deferrableScalarMasks = masks;
+        }
+        return wordIndex >= 0 && wordIndex < masks.length ? masks[wordIndex] : 0L;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public <T> Comparator<T> getDefaultComparator() {
@@ -276,15 +298,34 @@ public class ModelClassImpl implements ModelClass, Serializable {
     @SuppressWarnings("unchecked")
     @Override
     public <T> FrozenComparator<T> getComparator(ComparatorPart... parts) {
-        validateParts(parts);
-        return (FrozenComparator<T>)new FrozenComparatorImpl(parts);
+        return this.getComparator(parts, null);
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public <T> FrozenEqualityComparator<T> getEqualityComparator(ComparatorPart... parts) {
+        return this.getEqualityComparator(parts, null);
+    }
+    
+    /*
+     * The generatedComparator is created by the instrument tool for the 
+     * comparator rule of an association, it must be the same as the parts.
+     */
+    @SuppressWarnings("unchecked")
+    <T> FrozenComparator<T> getComparator(
+            ComparatorPart[] parts, GeneratedScalarComparator generatedComparator) {
+        validateParts(parts);
+        FrozenComparatorImpl comparator = new FrozenComparatorImpl(parts);
+        comparator.generatedComparator = generatedComparator;
+        return (FrozenComparator<T>)comparator;
+    }
+    
+    @SuppressWarnings("unchecked")
+    <T> FrozenEqualityComparator<T> getEqualityComparator(
+            ComparatorPart[] parts, GeneratedScalarComparator generatedComparator) {
         validateParts(parts);
-        return (FrozenEqualityComparator<T>)new FrozenEqualityComparatorImpl(parts);
+        FrozenEqualityComparatorImpl equalityComparator = new FrozenEqualityComparatorImpl(parts);
+        equalityComparator.generatedComparator = generatedComparator;
+        return (FrozenEqualityComparator<T>)equalityComparator;
     }
 
     @Override
@@ -346,6 +387,9 @@ public class ModelClassImpl implements ModelClass, Serializable {
         
         NullComparatorType[] nullComparatorTypes;
         
+        // Optional, the generic code is used after deserialization
+        transient GeneratedScalarComparator generatedComparator;
+        
         private transient int hash;
         
         AbstractComparator(ComparatorPart[] parts, boolean keepOrder) {
@@ -378,6 +422,10 @@ public class ModelClassImpl implements ModelClass, Serializable {
         
         public int hashCode(Object o) {
             ObjectModel om = ((ObjectModelProvider)o).objectModel();
+            GeneratedScalarComparator generatedComparator = this.generatedComparator;
+            if (generatedComparator != null) {
+                return generatedComparator.hashCodeScalars(om);
+            }
             int[] scalarPropertyIds = this.scalarPropertyIds;
             StringComparatorType[] stringComparatorTypes = this.stringComparatorTypes;
             int len = this.scalarPropertyIds.length;
@@ -456,6 +504,10 @@ public class ModelClassImpl implements ModelClass, Serializable {
             }
             ObjectModel om1 = ((ObjectModelProvider)o1).objectModel();
             ObjectModel om2 = ((ObjectModelProvider)o2).objectModel();
+            GeneratedScalarComparator generatedComparator = this.generatedComparator;
+            if (generatedComparator != null) {
+                return generatedComparator.compareScalars(om1, om2);
+            }
             int[] scalarPropertyIds = this.scalarPropertyIds;
             StringComparatorType[] stringComparatorTypes = this.stringComparatorTypes;
             NullComparatorType[] nullComparatorTypes = this.nullComparatorTypes;
@@ -489,6 +541,10 @@ public class ModelClassImpl implements ModelClass, Serializable {
         public boolean equals(Object o1, Object o2) {
             ObjectModel om1 = ((ObjectModelProvider)o1).objectModel();
             ObjectModel om2 = ((ObjectModelProvider)o2).objectModel();
+            GeneratedScalarComparator generatedComparator = this.generatedComparator;
+            if (generatedComparator != null) {
+                return generatedComparator.equalsScalars(om1, om2);
+            }
             int[] scalarPropertyIds = this.scalarPropertyIds;
             StringComparatorType[] stringComparatorTypes = this.stringComparatorTypes;
             int len = this.scalarPropertyIds.length;
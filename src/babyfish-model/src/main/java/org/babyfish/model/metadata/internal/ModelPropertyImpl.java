@@ -29,6 +29,7 @@ import org.babyfish.model.metadata.ComparatorPart;
 import org.babyfish.model.metadata.ModelClass;
 import org.babyfish.model.metadata.ModelProperty;
 import org.babyfish.model.metadata.PropertyType;
+import org.babyfish.model.spi.GeneratedScalarComparator;
 
 /**
  * @author Tao Chen
@@ -77,6 +78,8 @@ public class ModelPropertyImpl implements ModelProperty, Serializable {
     
     boolean mandatory;
     
+    private boolean reverseIndexed;
+    
     Dependency dependency;
     
     public ModelPropertyImpl(
@@ -143,6 +146,12 @@ public class ModelPropertyImpl implements ModelProperty, Serializable {
     public boolean isMandatory() {
         return this.deferrable;
     }
+    
+    @Override
+    public boolean isReverseIndexed() {
+        this.resolve();
+        return this.reverseIndexed;
+    }
 
     @Override
     public Class<?> getStandardCollectionType() {
@@ -254,17 +263,24 @@ public class ModelPropertyImpl implements ModelProperty, Serializable {
         if (dependency.oppositePropertyId != -1) {
             this.oppositeProperty = this.targetClass.getProperty(dependency.oppositePropertyId);
         }
+        this.reverseIndexed = dependency.reverseIndexed;
         if (this.targetClass != null) {
             if (dependency.comparatorParts == null) {
                 this.collectionUnifiedComparator = UnifiedComparator.of(this.targetClass.getDefaultEqualityComparator());
             } else {
                 if (SortedSet.class.isAssignableFrom(this.standardCollectionType)) {
                     this.collectionUnifiedComparator = UnifiedComparator.of(
-                            this.targetClass.getComparator(dependency.comparatorParts)
+                            this.targetClass.getComparator(
+                                    dependency.comparatorParts, 
+                                    dependency.generatedComparator
+                            )
                     );
                 } else {
                     this.collectionUnifiedComparator = UnifiedComparator.of(
-                            this.targetClass.getEqualityComparator(dependency.comparatorParts)
+                            this.targetClass.getEqualityComparator(
+                                    dependency.comparatorParts, 
+                                    dependency.generatedComparator
+                            )
                     );
                 }
             }
@@ -285,6 +301,10 @@ public class ModelPropertyImpl implements ModelProperty, Serializable {
         private int oppositePropertyId;
         
         private ComparatorPart[] comparatorParts;
+        
+        private GeneratedScalarComparator generatedComparator;
+        
+        private boolean reverseIndexed;
 
         public Dependency(
                 int indexPropertyId, 
@@ -293,6 +313,46 @@ public class ModelPropertyImpl implements ModelProperty, Serializable {
                 int convariancePropertyId,
                 int oppositePropertyId,
                 ComparatorPart[] comparatorParts) {
+            this(
+                    indexPropertyId, 
+                    keyPropertyId, 
+                    referencePropertyId, 
+                    convariancePropertyId, 
+                    oppositePropertyId, 
+                    comparatorParts, 
+                    null
+            );
+        }
+        
+        public Dependency(
+                int indexPropertyId, 
+                int keyPropertyId, 
+                int referencePropertyId, 
+                int convariancePropertyId,
+                int oppositePropertyId,
+                ComparatorPart[] comparatorParts,
+                GeneratedScalarComparator generatedComparator) {
+            this(
+                    indexPropertyId, 
+                    keyPropertyId, 
+                    referencePropertyId, 
+                    convariancePropertyId, 
+                    oppositePropertyId, 
+                    comparatorParts, 
+                    generatedComparator,
+                    false
+            );
+        }
+        
+        public Dependency(
+                int indexPropertyId, 
+                int keyPropertyId, 
+                int referencePropertyId, 
+                int convariancePropertyId,
+                int oppositePropertyId,
+                ComparatorPart[] comparatorParts,
+                GeneratedScalarComparator generatedComparator,
+                boolean reverseIndexed) {
             this.indexPropertyId = indexPropertyId;
             this.keyPropertyId = keyPropertyId;
             this.referencePropertyId = referencePropertyId;
@@ -300,7 +360,9 @@ public class ModelPropertyImpl implements ModelProperty, Serializable {
             this.oppositePropertyId = oppositePropertyId;
             if (!Nulls.isNullOrEmpty(comparatorParts)) {
                 this.comparatorParts = comparatorParts.clone();
+                this.generatedComparator = generatedComparator;
             }
+            this.reverseIndexed = reverseIndexed;
         }
     }
     
@@ -85,6 +85,24 @@ public abstract class AbstractObjectModelImpl implements ObjectModel, Serializab
         this.scalarLoader = scalarLoader;
     }
     
+    /**
+     * The instrumented subclass that declares deferrable scalar properties 
+     * overrides this method, so all the scalar properties are loaded here.
+     */
+    @Override
+    public long getUnloadedMask(int wordIndex) {
+        return 0L;
+    }
+    
+    /**
+     * The instrumented subclass that declares optional scalar properties 
+     * overrides this method, so all the scalar properties are enabled here.
+     */
+    @Override
+    public long getDisabledMask(int wordIndex) {
+        return 0L;
+    }
+    
     @Override
     public void addScalarListener(ScalarListener listener) {
         this.scalarListener = ScalarListener.combine(this.scalarListener, listener);
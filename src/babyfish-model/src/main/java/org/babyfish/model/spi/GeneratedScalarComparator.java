@@ -0,0 +1,41 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.model.spi;
+
+/**
+ * The comparison of the scalar properties specified by the 
+ * {@link org.babyfish.model.ComparatorRule} of an association,
+ * generated by the instrument tool with the string comparator types 
+ * and null comparator types of that rule inlined.
+ * 
+ * <p>
+ * It is not a comparator by itself, the comparators of 
+ * {@link org.babyfish.model.metadata.ModelClass} delegate to it so that
+ * their equality and serialization are not changed.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public interface GeneratedScalarComparator {
+
+    int hashCodeScalars(ObjectModel objectModel);
+    
+    boolean equalsScalars(ObjectModel objectModel1, ObjectModel objectModel2);
+    
+    int compareScalars(ObjectModel objectModel1, ObjectModel objectModel2);
+}
@@ -17,11 +17,15 @@
  */
 package org.babyfish.model.spi;
 
+import java.util.List;
+
 import org.babyfish.collection.FrozenContext;
 import org.babyfish.model.NullComparatorType;
 import org.babyfish.model.StringComparatorType;
 import org.babyfish.model.event.ScalarModificationAware;
 import org.babyfish.model.metadata.ModelClass;
+import org.babyfish.model.metadata.ModelProperty;
+import org.babyfish.model.metadata.PropertyType;
 import org.babyfish.model.spi.association.AssociatedEndpoint;
 
 /**
@@ -37,6 +41,52 @@ public interface ObjectModel extends ScalarModificationAware {
     
     void set(int propertyId, Object value);
     
+    /**
+     * Gets the value of an int scalar property without boxing it.
+     * 
+     * <p>
+     * The instrumented object models override this method and its 
+     * sibling methods for their primitive properties; the default 
+     * implementation falls back to {@link #get(int)}.
+     * </p>
+     */
+    default int getInt(int propertyId) {
+        return (Integer)this.get(propertyId);
+    }
+    
+    default long getLong(int propertyId) {
+        return (Long)this.get(propertyId);
+    }
+    
+    default double getDouble(int propertyId) {
+        return (Double)this.get(propertyId);
+    }
+    
+    default boolean getBoolean(int propertyId) {
+        return (Boolean)this.get(propertyId);
+    }
+    
+    /**
+     * Sets the value of an int scalar property without boxing it.
+     * 
+     * @see #getInt(int)
+     */
+    default void setInt(int propertyId, int value) {
+        this.set(propertyId, value);
+    }
+    
+    default void setLong(int propertyId, long value) {
+        this.set(propertyId, value);
+    }
+    
+    default void setDouble(int propertyId, double value) {
+        this.set(propertyId, value);
+    }
+    
+    default void setBoolean(int propertyId, boolean value) {
+        this.set(propertyId, value);
+    }
+    
     AssociatedEndpoint getAssociatedEndpoint(int propertyId);
     
     boolean isLoaded(int propertyId);
@@ -65,6 +115,50 @@ public interface ObjectModel extends ScalarModificationAware {
     
     void disable(int propertyId);
     
+    /**
+     * Returns the unloaded flags of the scalar properties whose ids are in
+     * [wordIndex * 64, wordIndex * 64 + 64) as a bit mask, the bit
+     * (propertyId &amp; 63) is set when that property is unloaded.
+     * 
+     * <p>
+     * The instrumented object models override this method to return 
+     * their packed state directly so that the caller can test many 
+     * properties with one AND operation.
+     * </p>
+     */
+    default long getUnloadedMask(int wordIndex) {
+        List<ModelProperty> properties = this.getModelClass().getPropertyList();
+        int fromId = wordIndex << 6;
+        int toId = Math.min(fromId + 64, properties.size());
+        long mask = 0L;
+        for (int id = fromId; id < toId; id++) {
+            if (properties.get(id).getPropertyType() == PropertyType.SCALAR && this.isUnloaded(id)) {
+                mask |= 1L << (id & 63);
+            }
+        }
+        return mask;
+    }
+    
+    /**
+     * Returns the disabled flags of the scalar properties whose ids are in
+     * [wordIndex * 64, wordIndex * 64 + 64) as a bit mask, the bit
+     * (propertyId &amp; 63) is set when that property is disabled.
+     * 
+     * @see #getUnloadedMask(int)
+     */
+    default long getDisabledMask(int wordIndex) {
+        List<ModelProperty> properties = this.getModelClass().getPropertyList();
+        int fromId = wordIndex << 6;
+        int toId = Math.min(fromId + 64, properties.size());
+        long mask = 0L;
+        for (int id = fromId; id < toId; id++) {
+            if (properties.get(id).getPropertyType() == PropertyType.SCALAR && this.isDisabled(id)) {
+                mask |= 1L << (id & 63);
+            }
+        }
+        return mask;
+    }
+    
     ScalarLoader getScalarLoader();
     
     void setScalarLoader(ScalarLoader scalarLoader);
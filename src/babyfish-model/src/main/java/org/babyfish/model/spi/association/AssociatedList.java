@@ -23,6 +23,7 @@ import java.io.ObjectOutputStream;
 import java.io.ObjectStreamException;
 import java.io.Serializable;
 import java.util.List;
+import java.util.RandomAccess;
 
 import org.babyfish.collection.BidiType;
 import org.babyfish.collection.MAArrayList;
@@ -32,6 +33,7 @@ import org.babyfish.collection.XList;
 import org.babyfish.collection.event.ListElementEvent;
 import org.babyfish.collection.spi.wrapper.AbstractWrapperMAList;
 import org.babyfish.data.LazinessManageable;
+import org.babyfish.data.event.PropertyVersion;
 import org.babyfish.lang.Arguments;
 import org.babyfish.model.metadata.AssociationType;
 import org.babyfish.model.metadata.ModelProperty;
@@ -56,6 +58,8 @@ implements AssociatedEndpoint, Serializable {
     
     private transient boolean suspended;
     
+    private transient ReverseIndex reverseIndex;
+    
     public AssociatedList(ObjectModel objectModel, int propertyId) {
         super(null);
         Arguments.mustNotBeNull("objectModel", objectModel);
@@ -77,6 +81,9 @@ implements AssociatedEndpoint, Serializable {
         } else {
             this.oppositePropertyId = -1;
         }
+        if (property.isReverseIndexed()) {
+            this.reverseIndex = new ReverseIndex();
+        }
     }
     
     @Override
@@ -128,6 +135,26 @@ implements AssociatedEndpoint, Serializable {
         }
     }
 
+    /*
+     * The opposite endpoint detaches the owner by this method, 
+     * use the reverse index to avoid the linear scan if it's enabled.
+     */
+    @Override
+    public boolean remove(Object o) {
+        ReverseIndex reverseIndex = this.reverseIndex;
+        if (reverseIndex != null && o != null && this.isLoaded()) {
+            MAList<E> base = this.getBase();
+            if (base instanceof RandomAccess) {
+                int index = reverseIndex.indexOf(base, o);
+                if (index != -1) {
+                    this.remove(index);
+                    return true;
+                }
+            }
+        }
+        return super.remove(o);
+    }
+
     @Override
     protected void onModifying(ListElementEvent<E> e) {
         if (this.oppositePropertyId != -1) {
@@ -137,6 +164,18 @@ implements AssociatedEndpoint, Serializable {
 
     @Override
     protected void onModified(ListElementEvent<E> e) {
+        ReverseIndex reverseIndex = this.reverseIndex;
+        if (reverseIndex != null && e.isModificationSuccessed()) {
+            if (e.getModificationType().contains(PropertyVersion.DETACH)) {
+                reverseIndex.detached(e.getElement(PropertyVersion.DETACH));
+            }
+            if (e.getModificationType().contains(PropertyVersion.ATTACH)) {
+                reverseIndex.attached(
+                        e.getElement(PropertyVersion.ATTACH), 
+                        e.getIndex(PropertyVersion.ATTACH)
+                );
+            }
+        }
         if (this.oppositePropertyId !=- 1) {
             this.handler().postHandle(e);
         }
@@ -0,0 +1,134 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.model.spi.association;
+
+import java.util.List;
+import java.util.Map;
+
+import org.babyfish.collection.HashMap;
+import org.babyfish.collection.ReferenceEqualityComparator;
+
+/*
+ * Maps the elements of a list endpoint to their positions so that the
+ * opposite endpoint can remove the owner without linear scan.
+ * 
+ * Each element owns a slot, appended elements take new slots and the 
+ * detached elements only mark their slots as removed in a Fenwick tree, 
+ * so the position of an element is its slot minus the count of removed 
+ * slots before it. Other modifications (insert into the middle, replace, 
+ * sort, replace base...) only mark the index dirty, it will be rebuilt 
+ * on the next lookup.
+ * 
+ * The index is only a hint, each lookup verifies the element at the 
+ * calculated position so that the unexpected modifications never make 
+ * the result wrong.
+ * 
+ * @author Tao Chen
+ */
+final class ReverseIndex {
+    
+    private static final int MIN_CAPACITY = 16;
+    
+    private List<?> list;
+    
+    private Map<Object, Integer> slots;
+    
+    private int[] removedTree;
+    
+    private int slotCount;
+    
+    private int removedCount;
+    
+    private boolean dirty = true;
+    
+    public int indexOf(List<?> list, Object o) {
+        if (this.dirty || this.list != list || this.slotCount - this.removedCount != list.size()) {
+            this.rebuild(list);
+        }
+        int index = this.position(o);
+        if (index != -1 && list.get(index) != o) {
+            this.rebuild(list);
+            index = this.position(o);
+        }
+        return index;
+    }
+    
+    public void attached(Object element, int index) {
+        if (this.dirty) {
+            return;
+        }
+        int slot = this.slotCount;
+        if (index != slot - this.removedCount || 
+                slot == this.removedTree.length - 1 ||
+                this.slots.containsKey(element)) {
+            this.dirty = true;
+            return;
+        }
+        this.slots.put(element, slot);
+        this.slotCount++;
+    }
+    
+    public void detached(Object element) {
+        if (this.dirty) {
+            return;
+        }
+        Integer slot = this.slots.remove(element);
+        if (slot == null) {
+            this.dirty = true;
+            return;
+        }
+        int[] removedTree = this.removedTree;
+        for (int i = slot + 1; i < removedTree.length; i += i & -i) {
+            removedTree[i]++;
+        }
+        if (++this.removedCount > this.slotCount >> 1) {
+            this.dirty = true;
+        }
+    }
+    
+    private int position(Object o) {
+        Integer slot = this.slots.get(o);
+        if (slot == null) {
+            return -1;
+        }
+        int removedBefore = 0;
+        int[] removedTree = this.removedTree;
+        for (int i = slot; i > 0; i -= i & -i) {
+            removedBefore += removedTree[i];
+        }
+        return slot - removedBefore;
+    }
+    
+    private void rebuild(List<?> list) {
+        int size = list.size();
+        Map<Object, Integer> slots = new HashMap<>(
+                ReferenceEqualityComparator.getInstance(), 
+                size
+        );
+        int slot = 0;
+        for (Object element : list) {
+            slots.put(element, slot++);
+        }
+        this.list = list;
+        this.slots = slots;
+        this.removedTree = new int[Math.max(MIN_CAPACITY, size << 1) + 1];
+        this.slotCount = size;
+        this.removedCount = 0;
+        this.dirty = false;
+    }
+}